@@ -0,0 +1,27 @@
+package edu.cornell.gdiac;
+
+import java.util.Arrays;
+
+/**
+ * Runs the JMH benchmarks and writes the results as JSON.
+ * <p>
+ * Arguments are passed on to JMH (e.g. a benchmark name pattern, or -f 1).
+ * Unless they choose a result format themselves, the results are written as JSON
+ * to the file named by the jmh.results system property (jmh-results.json by
+ * default), so runs from different commits can be compared. Run it from the
+ * assets directory (./gradlew benchmarks:jmh does this).
+ */
+public class BenchmarkLauncher {
+	public static void main (String[] arg) throws Exception {
+		String[] args = arg;
+		if (!Arrays.asList(arg).contains("-rf") && !Arrays.asList(arg).contains("-rff")) {
+			args = new String[arg.length + 4];
+			args[0] = "-rf";
+			args[1] = "json";
+			args[2] = "-rff";
+			args[3] = System.getProperty("jmh.results", "jmh-results.json");
+			System.arraycopy(arg, 0, args, 4, arg.length);
+		}
+		org.openjdk.jmh.Main.main(args);
+	}
+}
@@ -0,0 +1,80 @@
+package edu.cornell.gdiac.benchmarks;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.game.CollisionController;
+import edu.cornell.gdiac.game.LevelScreen;
+import edu.cornell.gdiac.game.models.Action;
+import edu.cornell.gdiac.game.models.Level;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contact dispatch in the CollisionController, on the contacts of a real level.
+ * <p>
+ * The level is loaded and left to settle for a second, so the player and enemies
+ * rest on the ground. The dispatch benchmark then replays begin, preSolve and end
+ * callbacks for every contact in the world without stepping it; the step
+ * benchmark shows what the same contacts cost inside a full world step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    /** The number of ticks the level runs before it is measured */
+    private static final int SETTLE_TICKS = 60;
+
+    @Param({"level0", "level3", "level7"})
+    public String level;
+
+    private GameFixture game;
+    private LevelScreen screen;
+    private World world;
+    private CollisionController collisions;
+    private Array<Contact> contacts;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setup() {
+        game = new GameFixture();
+        screen = game.openLevel(level);
+        EnumSet<Action> idle = EnumSet.noneOf(Action.class);
+        for (int i = 0; i < SETTLE_TICKS; i++) {
+            screen.simulateTick(idle);
+        }
+
+        Level current = game.getState().getCurrentLevel();
+        world = current.getWorld();
+        collisions = new CollisionController(current, screen.getAudio());
+        contacts = world.getContactList();
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() {
+        collisions.dispose();
+        screen.dispose();
+        game.dispose();
+    }
+
+    /** Begin, preSolve and end callbacks for every contact in the world */
+    @Benchmark
+    public void dispatch() {
+        for (int i = 0; i < contacts.size; i++) {
+            Contact contact = contacts.get(i);
+            collisions.beginContact(contact);
+            collisions.preSolve(contact, null);
+            collisions.endContact(contact);
+        }
+    }
+
+    /** One world step, with the screen's CollisionController as contact listener */
+    @Benchmark
+    public void worldStep() {
+        world.step(LevelScreen.TIME_STEP, 6, 2);
+    }
+}
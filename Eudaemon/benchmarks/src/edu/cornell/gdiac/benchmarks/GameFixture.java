@@ -0,0 +1,92 @@
+package edu.cornell.gdiac.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.JsonValue;
+import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.game.FontTextureLoader;
+import edu.cornell.gdiac.game.LevelScreen;
+import edu.cornell.gdiac.game.models.GameState;
+import edu.cornell.gdiac.headless.StubGL20;
+import edu.cornell.gdiac.util.RandomController;
+
+/**
+ * The loaded game, for benchmarks that need real levels with bodies and assets.
+ * <p>
+ * This starts a headless application and loads the gameplay assets the same way
+ * the headless simulation runner does. The bundle of a level is held from when
+ * the level is first used until the fixture is disposed. Loading takes a few
+ * seconds, so create the fixture once per trial.
+ */
+final class GameFixture {
+    private final HeadlessApplication app;
+    private final AssetDirectory assets;
+    private final FontTextureLoader fontTextureLoader;
+    private final GameState state;
+
+    GameFixture() {
+        app = new HeadlessApplication(new ApplicationAdapter() {}, new HeadlessApplicationConfiguration());
+        GL20 gl = StubGL20.create();
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+        RandomController.setSeed(0);
+
+        assets = new AssetDirectory("assets.json");
+        // Only the gameplay bundle; the menus are never shown
+        assets.loadAssets("gameplay-core");
+        assets.finishLoading();
+        fontTextureLoader = new FontTextureLoader();
+        state = new GameState(assets, fontTextureLoader);
+    }
+
+    /**
+     * @return the game state, holding every level
+     */
+    GameState getState() {
+        return state;
+    }
+
+    /**
+     * Rebuilds a level from its file and opens a screen for it.
+     * <p>
+     * The screen has its AI, action and collision controllers attached, as in the
+     * game, but is never drawn.
+     *
+     * @param level the level name (e.g. "level3")
+     * @return the screen playing that level
+     */
+    LevelScreen openLevel(String level) {
+        setLevel(level);
+        state.resetCurrentLevel();
+        return new LevelScreen(state.getCurrentLevel(), state.getActionBindings(), assets, state.getSettings());
+    }
+
+    /**
+     * Makes a level the current one, loading its bundle if it is not held yet.
+     * <p>
+     * GameState only looks up the Tiled file of a level that is not compiled.
+     * Holding the bundle means that lookup never loads the file again, so a
+     * rebuild measures the same work every time.
+     *
+     * @param level the level name (e.g. "level3")
+     */
+    void setLevel(String level) {
+        String bundle = assets.getBundle(level, JsonValue.class);
+        if (bundle != null && assets.getBundleReferences(bundle) == 0) {
+            assets.loadBundle(bundle);
+            assets.finishLoadingBundle(bundle);
+        }
+        state.setCurrentLevel(level);
+    }
+
+    void dispose() {
+        state.dispose();
+        fontTextureLoader.dispose();
+        assets.unloadAssets();
+        assets.dispose();
+        app.exit();
+    }
+}
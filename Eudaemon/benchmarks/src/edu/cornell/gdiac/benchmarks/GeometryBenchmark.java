@@ -0,0 +1,90 @@
+package edu.cornell.gdiac.benchmarks;
+
+import edu.cornell.gdiac.math.PathExtruder;
+import edu.cornell.gdiac.math.Poly2;
+import edu.cornell.gdiac.math.PolyFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Triangulation in PolyFactory, boundary extraction in Poly2 and extrusion in
+ * PathExtruder.
+ * <p>
+ * The shapes are about the size of the ones the game draws (a few world units).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmark {
+    /** The number of points in the extruded path */
+    private static final int PATH_POINTS = 64;
+
+    private PolyFactory factory;
+    private Poly2 buffer;
+    private Poly2 circle;
+
+    /** A path extruder with the joint style under test */
+    @State(Scope.Thread)
+    public static class Extrusion {
+        @Param({"SQUARE", "MITRE", "ROUND"})
+        public Poly2.Joint joint;
+
+        private float[] zigzag;
+        private PathExtruder extruder;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            // An open path that turns left and right, so every joint is exercised
+            zigzag = new float[2 * PATH_POINTS];
+            for (int i = 0; i < PATH_POINTS; i++) {
+                zigzag[2 * i] = i * 0.5f;
+                zigzag[2 * i + 1] = (i % 2 == 0) ? 0 : 0.5f + (i % 3) * 0.25f;
+            }
+            extruder = new PathExtruder();
+            extruder.setJoint(joint);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        factory = new PolyFactory();
+        buffer = new Poly2(new float[0]);
+        circle = factory.makeCircle(0, 0, 2);
+    }
+
+    @Benchmark
+    public Poly2 roundedRect() {
+        buffer.clear();
+        return factory.makeRoundedRect(buffer, 0, 0, 4, 2, 0.5f);
+    }
+
+    @Benchmark
+    public Poly2 capsule() {
+        buffer.clear();
+        return factory.makeCapsule(buffer, 0, 0, 4, 2);
+    }
+
+    @Benchmark
+    public Poly2 circle() {
+        buffer.clear();
+        return factory.makeCircle(buffer, 0, 0, 2);
+    }
+
+    @Benchmark
+    public void boundaries(Blackhole bh) {
+        bh.consume(circle.exterior());
+        bh.consume(circle.boundaries());
+    }
+
+    @Benchmark
+    public Poly2 extrude(Extrusion state) {
+        state.extruder.set(state.zigzag, false);
+        state.extruder.calculate(0.2f);
+        return state.extruder.getPolygon();
+    }
+}
@@ -0,0 +1,57 @@
+package edu.cornell.gdiac.benchmarks;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import edu.cornell.gdiac.game.models.Level;
+
+import java.io.File;
+
+/**
+ * Reads the shipped level files directly, without an AssetDirectory.
+ * <p>
+ * The paths are relative to the assets directory, which the benchmarks run from.
+ */
+final class LevelFiles {
+    /** The directory holding the Tiled level files (as in assets.json) */
+    private static final String LEVEL_DIRECTORY = "levels";
+
+    private LevelFiles() {}
+
+    /**
+     * @param level the level name (e.g. "level3")
+     * @return the contents of the level file
+     */
+    static String readText(String level) {
+        return new FileHandle(new File(LEVEL_DIRECTORY, level + ".json")).readString();
+    }
+
+    /**
+     * @param level the level name (e.g. "level3")
+     * @return the parsed level file
+     */
+    static JsonValue read(String level) {
+        return new JsonReader().parse(readText(level));
+    }
+
+    /**
+     * @param levelJson a parsed level file
+     * @param name      the name of the layer (e.g. "TileLayerFG")
+     * @return the layer with that name
+     */
+    static JsonValue layer(JsonValue levelJson, String name) {
+        for (JsonValue layer : levelJson.get("layers")) {
+            if (layer.getString("name").equals(name)) return layer;
+        }
+        throw new GdxRuntimeException("Level has no layer named " + name);
+    }
+
+    /**
+     * @param level the level name (e.g. "level3")
+     * @return the foreground tile ids of that level, indexed [y][x]
+     */
+    static int[][] readTilemap(String level) {
+        return Level.readTilemap(layer(read(level), "TileLayerFG"));
+    }
+}
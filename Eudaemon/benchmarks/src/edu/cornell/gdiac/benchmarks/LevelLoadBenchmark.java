@@ -0,0 +1,45 @@
+package edu.cornell.gdiac.benchmarks;
+
+import edu.cornell.gdiac.game.models.GameState;
+import edu.cornell.gdiac.game.models.Level;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a whole Level from its (already loaded) JSON and assets, as
+ * GameState does when a level is entered or restarted.
+ * <p>
+ * Each invocation disposes the previous copy of the level, so the score includes
+ * tearing down its world.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 50)
+@Fork(1)
+public class LevelLoadBenchmark {
+    @Param({"level0", "level3", "level7", "level10"})
+    public String level;
+
+    private GameFixture game;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setup() {
+        game = new GameFixture();
+        game.setLevel(level);
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() {
+        game.dispose();
+    }
+
+    @Benchmark
+    public Level construct() {
+        GameState state = game.getState();
+        state.resetCurrentLevel();
+        return state.getCurrentLevel();
+    }
+}
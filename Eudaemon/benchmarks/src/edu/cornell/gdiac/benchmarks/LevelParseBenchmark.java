@@ -0,0 +1,79 @@
+package edu.cornell.gdiac.benchmarks;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import edu.cornell.gdiac.assets.LevelCompiler;
+import edu.cornell.gdiac.assets.LevelReader;
+import edu.cornell.gdiac.game.models.Level;
+import edu.cornell.gdiac.game.models.LevelData;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the Tiled level files.
+ * <p>
+ * The file contents are read once, so the scores do not include disk access
+ * (except for compiled, which reads a file the OS has cached).
+ * See LevelLoadBenchmark for building a whole Level (bodies, textures and all).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelParseBenchmark {
+    @Param({"level0", "level1", "level2", "level3", "level4", "level5",
+            "level6", "level7", "level8", "level9", "level10"})
+    public String level;
+
+    private String text;
+    private JsonReader reader;
+    private JsonValue parsed;
+    private FileHandle compiled;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setup() throws IOException {
+        text = LevelFiles.readText(level);
+        reader = new JsonReader();
+        parsed = reader.parse(text);
+        compiled = FileHandle.tempFile(level);
+        LevelCompiler.write(new LevelData(level, parsed), compiled);
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() {
+        compiled.delete();
+    }
+
+    /** Parsing the JSON text into a JsonValue tree */
+    @Benchmark
+    public JsonValue parse() {
+        return reader.parse(text);
+    }
+
+    /** Reading the three tile layers out of an already parsed file */
+    @Benchmark
+    public int[][][] tileLayers() {
+        return new int[][][] {
+                Level.readTilemap(LevelFiles.layer(parsed, "TileLayerFG")),
+                Level.readTilemap(LevelFiles.layer(parsed, "TileLayerBG")),
+                Level.readTilemap(LevelFiles.layer(parsed, "TileLayerBG2"))
+        };
+    }
+
+    /** The off-thread stage of building a Level, from an already parsed file */
+    @Benchmark
+    public LevelData levelData() {
+        return new LevelData(level, parsed);
+    }
+
+    /** Reading a compiled level file, which replaces parse followed by levelData */
+    @Benchmark
+    public LevelData compiled() {
+        return LevelReader.read(level, compiled);
+    }
+}
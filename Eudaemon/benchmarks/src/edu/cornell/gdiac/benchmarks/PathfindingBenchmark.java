@@ -0,0 +1,121 @@
+package edu.cornell.gdiac.benchmarks;
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.game.models.HierarchicalPathFinder;
+import edu.cornell.gdiac.game.models.Level;
+import edu.cornell.gdiac.game.models.PathService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Path queries on the navigation graph of each shipped level.
+ * <p>
+ * Every invocation runs the same fixed set of queries between random passable
+ * tiles, so the scores are the mean cost of one query. The queries are spread
+ * over the whole level, which is the worst case for plain A*.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathfindingBenchmark {
+    /** The number of queries per invocation */
+    private static final int QUERIES = 64;
+    /** The seed used to pick the query endpoints */
+    private static final long SEED = 3152;
+
+    /** Straight-line distance in tiles, as used by the flying enemies */
+    private static final Heuristic<Level.MyNode> DISTANCE =
+            (node, end) -> Vector2.dst(node.getX(), node.getY(), end.getX(), end.getY());
+
+    @Param({"level0", "level1", "level2", "level3", "level4", "level5",
+            "level6", "level7", "level8", "level9", "level10"})
+    public String level;
+
+    private int[][] tilemap;
+    private Level.MyGridGraph graph;
+    private Level.MyNode[] starts;
+    private Level.MyNode[] goals;
+
+    private IndexedAStarPathFinder<Level.MyNode> aStar;
+    private HierarchicalPathFinder hierarchy;
+    private PathService pathService;
+    private DefaultGraphPath<Level.MyNode> path;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setup() {
+        tilemap = LevelFiles.readTilemap(level);
+        graph = new Level.MyGridGraph(tilemap[0].length, tilemap.length, tilemap);
+
+        Array<Level.MyNode> open = new Array<>();
+        for (int i = 0; i < graph.getNodeCount(); i++) {
+            if (graph.getNode(i).isPassable()) open.add(graph.getNode(i));
+        }
+        Random random = new Random(SEED);
+        starts = new Level.MyNode[QUERIES];
+        goals = new Level.MyNode[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            starts[i] = open.get(random.nextInt(open.size));
+            goals[i] = open.get(random.nextInt(open.size));
+        }
+
+        aStar = new IndexedAStarPathFinder<>(graph);
+        hierarchy = new HierarchicalPathFinder(graph);
+        pathService = new PathService(graph);
+        path = new DefaultGraphPath<>();
+    }
+
+    /** A* over the full tile graph */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void aStar(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            path.clear();
+            bh.consume(aStar.searchNodePath(starts[i], goals[i], DISTANCE, path));
+        }
+    }
+
+    /** Hierarchical search over the cluster entrances, refining the first leg */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void hierarchical(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            path.clear();
+            bh.consume(hierarchy.findPath(starts[i], goals[i], path));
+        }
+    }
+
+    /** One step along a flow field, rebuilt for every query as the target changes */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void flowField(Blackhole bh) {
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(pathService.nextStepToward(starts[i], goals[i].getX(), goals[i].getY()));
+        }
+    }
+
+    /** One step along a flow field toward a target that does not move */
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public void flowFieldCached(Blackhole bh) {
+        Level.MyNode goal = goals[0];
+        for (int i = 0; i < QUERIES; i++) {
+            bh.consume(pathService.nextStepToward(starts[i], goal.getX(), goal.getY()));
+        }
+    }
+
+    /** Building the graph and its connections from the tilemap */
+    @Benchmark
+    public Level.MyGridGraph buildGraph() {
+        return new Level.MyGridGraph(tilemap[0].length, tilemap.length, tilemap);
+    }
+}
@@ -0,0 +1,64 @@
+package edu.cornell.gdiac.benchmarks;
+
+import edu.cornell.gdiac.util.PooledList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iteration and removal in PooledList, the list a Level keeps its obstacles in.
+ * <p>
+ * The removal benchmark follows Level.postUpdate: it walks the entries, removes
+ * every fourth one, and adds the removed values back at the end, so the list
+ * keeps its size from one invocation to the next.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PooledListBenchmark {
+    @Param({"16", "256", "4096"})
+    public int size;
+
+    private PooledList<Integer> list;
+    private Integer[] removed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        list = new PooledList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        removed = new Integer[size];
+    }
+
+    @Benchmark
+    public int iterate() {
+        int sum = 0;
+        for (Integer value : list) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int removeAndRefill() {
+        int count = 0;
+        int index = 0;
+        Iterator<PooledList<Integer>.Entry> iterator = list.entryIterator();
+        while (iterator.hasNext()) {
+            PooledList<Integer>.Entry entry = iterator.next();
+            if (index++ % 4 == 0) {
+                removed[count++] = entry.getValue();
+                entry.remove();
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            list.add(removed[i]);
+        }
+        return count;
+    }
+}
@@ -16,19 +16,28 @@
  */
 package edu.cornell.gdiac.assets;
 
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.*;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
 import com.badlogic.gdx.graphics.g2d.*;
 import com.badlogic.gdx.graphics.g2d.freetype.*;
+import com.badlogic.gdx.graphics.glutils.KTXTextureData;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.OrderedMap;
 import edu.cornell.gdiac.audio.*;
 import edu.cornell.gdiac.util.*;
 
@@ -51,6 +60,17 @@ import edu.cornell.gdiac.util.*;
  * and a custom {@link AssetParser} to this manager.  While a type can only have one
  * loader per file suffix, there is no limit on the number of asset parsers per type.
  * Use the method {@link #addParser} to add additional asset parsers.
+ *
+ * The directory may also group its assets into bundles, in a "bundles" entry that
+ * maps each bundle name to a list of keys (a key ending in "*" stands for every key
+ * with that prefix). Bundled assets are not loaded with the directory. Instead they
+ * are loaded by {@link #loadBundle} and unloaded by {@link #unloadBundle}, which are
+ * reference counted, so that only the bundles in use stay in memory. Assets in no
+ * bundle are loaded with the directory and stay until {@link #unloadAssets}.
+ *
+ * Some images have smaller or compressed variants, made at build time. Files are
+ * resolved through a {@link VariantResolver}, which picks the variant for the size
+ * given to {@link #setDisplaySize}.
  * 
  * Right now, this class supports built-in reading for Textures (and Texture regions),
  * audio assets, fonts, and other JSON files.  To add more assets, you will need to
@@ -63,12 +83,22 @@ import edu.cornell.gdiac.util.*;
 public class AssetDirectory extends AssetManager {
     /** The resolver (converting strings to file handles) */
     protected FileHandleResolver resolver;
+    /** The resolver choosing between the variants of images (the same as resolver) */
+    protected VariantResolver variants;
     /** The asset directory of this asset manager */
     protected String filename;
     /** The directory contents (including the map from JSON keys to file names) */
     protected Index contents;
     /** The dedicated loader for the {@link Index} class */
     protected DirectoryLoader topLoader;
+    /** Decodes images and sounds on worker threads as soon as they are queued */
+    protected DecodePool decoder;
+    /** The number of holders of each loaded bundle */
+    protected ObjectIntMap<String> bundleRefs;
+    /** The bundles to load as soon as the directory is read */
+    protected Array<String> initialBundles;
+    /** The assets queued while the directory is read (null the rest of the time) */
+    private Array<AssetDescriptor<?>> captured;
 
     /**
      * This class represents the top level index of an asset directory.
@@ -82,12 +112,18 @@ public class AssetDirectory extends AssetManager {
         ObjectMap<Class<?>, ObjectMap<String, String>> keymap;
         /** The contents of the JSON file */
         JsonValue directory;
+        /** The assets of each bundle, in the order of the JSON file */
+        OrderedMap<String, Array<AssetDescriptor<?>>> bundles;
+        /** The assets in no bundle, which are loaded with the directory */
+        Array<AssetDescriptor<?>> resident;
         
         /**
          * Creates a new, empty directory index
          */
         public Index() {
             keymap = new ObjectMap<Class<?>, ObjectMap<String, String>>();
+            bundles = new OrderedMap<String, Array<AssetDescriptor<?>>>();
+            resident = new Array<AssetDescriptor<?>>();
         }
     }
 
@@ -107,6 +143,10 @@ public class AssetDirectory extends AssetManager {
         @Override
         public void finishedLoading(AssetManager manager, String fileName, Class type) {
             contents = manager.get( fileName, Index.class );
+            for (String bundle : initialBundles) {
+                loadBundle( bundle );
+            }
+            initialBundles.clear();
         }
     };
 
@@ -126,17 +166,23 @@ public class AssetDirectory extends AssetManager {
      * Creates a new AssetDirectory from the given directory.
      *
      * This class uses the given {@link FileHandleResolver} to convert asset file
-     * names into assets.
+     * names into assets, by way of a {@link VariantResolver}.
      *
      * @param directory    The asset directory file name
      * @param resolver    The file handle resolver
      */
     public AssetDirectory(String directory, FileHandleResolver resolver) {
-        super( resolver, false );
+        super( new VariantResolver( resolver ), false );
+        // The loaders below must resolve through the variants too
+        resolver = getFileHandleResolver();
         filename = directory;
         this.resolver = resolver;
+        variants = (VariantResolver)resolver;
+        bundleRefs = new ObjectIntMap<String>();
+        initialBundles = new Array<String>();
 
         // Add the default loaders
+        decoder = new DecodePool();
         topLoader = new DirectoryLoader( resolver );
         setLoader( Index.class, topLoader );
         setLoader( FreeTypeFontGenerator.class, new FreeTypeFontGeneratorLoader( resolver ) );
@@ -144,13 +190,13 @@ public class AssetDirectory extends AssetManager {
         //setLoader( BitmapFont.class, new BitmapFontLoader( resolver ) ); // fallback
 
         setLoader( AudioSource.class, new AudioSourceLoader( resolver ) );
-        setLoader( Sound.class, new SoundLoader( resolver ) );
+        setLoader( Sound.class, new SoundLoader( resolver, decoder ) );
         setLoader( Music.class, new MusicLoader( resolver ) );
         setLoader( SoundEffect.class, new SoundEffectLoader( resolver ) );
         setLoader( MusicQueue.class, new MusicQueueLoader( resolver ) );
 
         setLoader( Pixmap.class, new PixmapLoader( resolver ) );
-        setLoader( Texture.class, new TextureLoader( resolver ) );
+        setLoader( Texture.class, new DecodedTextureLoader( resolver, decoder ) );
         setLoader( TextureAtlas.class, new TextureAtlasLoader( resolver ) );
         setLoader( TextureRegion.class, new TextureRegionLoader( resolver ) );
         setLoader( FilmStrip.class, new FilmStripLoader( resolver ) );
@@ -165,7 +211,9 @@ public class AssetDirectory extends AssetManager {
         // And now the default parsers
         topLoader.addParser( new JsonValueParser() );
         topLoader.addParser( new TextureParser() );
+        topLoader.addParser( new TextureAtlasParser() );
         topLoader.addParser( new TextureRegionParser() );
+        topLoader.addParser( new AtlasRegionParser() );
         topLoader.addParser( new FilmStripParser() );
         topLoader.addParser( new FreetypeFontParser() );
         topLoader.addParser( new SoundParser() );
@@ -185,6 +233,164 @@ public class AssetDirectory extends AssetManager {
         return (float)getLoadedAssets()/(getLoadedAssets()+getQueuedAssets());
     }
     
+    /**
+     * Returns the progress of one kind of loading work.
+     *
+     * Decoding starts as soon as an asset is queued, so the decode categories run
+     * ahead of {@link #getProgress()}.
+     *
+     * @param category  the kind of loading work
+     *
+     * @return the fraction of that work that is done (1 if there is none)
+     */
+    public float getProgress(DecodePool.Category category) {
+        return decoder.getProgress( category );
+    }
+
+    /**
+     * Returns the time spent so far on one kind of loading work.
+     *
+     * Decode times are summed over the worker threads (see {@link DecodePool}).
+     *
+     * @param category  the kind of loading work
+     *
+     * @return the time spent on that work, in nanoseconds
+     */
+    public long getLoadTime(DecodePool.Category category) {
+        return decoder.getTime( category );
+    }
+
+    /**
+     * Returns the number of items of one kind of loading work that are done.
+     *
+     * @param category  the kind of loading work
+     *
+     * @return the number of items done
+     */
+    public int getLoadCount(DecodePool.Category category) {
+        return decoder.getCount( category );
+    }
+
+    /**
+     * Adds the given asset to the loading queue of the AssetManager.
+     *
+     * Images (including the pages of texture atlases) and sounds also start
+     * decoding on the worker threads of the {@link DecodePool} right away, rather
+     * than when the AssetManager reaches them.
+     *
+     * @param fileName  the file name (interpretation depends on {@link AssetLoader})
+     * @param type      the type of the asset
+     * @param parameter parameters for the AssetLoader
+     */
+    @Override
+    public synchronized <T> void load(String fileName, Class<T> type, AssetLoaderParameters<T> parameter) {
+        if (captured != null) {
+            // Reading the directory; the directory loader decides what loads now
+            captured.add( new AssetDescriptor<T>( fileName, type, parameter ) );
+            return;
+        }
+        if (!contains( fileName, type )) {
+            prefetch( fileName, type, parameter );
+        }
+        super.load( fileName, type, parameter );
+    }
+
+    /**
+     * Starts decoding an asset that is about to be queued, if it is decoded by the pool.
+     */
+    private void prefetch(String fileName, Class<?> type, AssetLoaderParameters<?> parameter) {
+        if (type == Texture.class) {
+            TextureLoader.TextureParameter params = (TextureLoader.TextureParameter)parameter;
+            if (params != null && params.textureData != null) {
+                return;
+            }
+            // Compressed variants are not images, but they are uploaded all the same
+            decoder.expect( DecodePool.Category.TEXTURE_UPLOAD );
+            FileHandle file = resolver.resolve( fileName );
+            if (isDecodable( file )) {
+                decoder.decodePixmap( file, params == null ? null : params.format );
+            }
+        } else if (type == TextureAtlas.class) {
+            FileHandle file = resolver.resolve( fileName );
+            if (!file.exists()) {
+                return;
+            }
+            // TextureAtlasLoader loads the pages as dependencies, which bypass load()
+            TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData( file, file.parent(), false );
+            for (TextureAtlas.TextureAtlasData.Page page : data.getPages()) {
+                if (isDecodable( page.textureFile ) && !contains( page.textureFile.path(), Texture.class )) {
+                    decoder.decodePixmap( page.textureFile, page.format );
+                    decoder.expect( DecodePool.Category.TEXTURE_UPLOAD );
+                }
+            }
+        } else if (type == Sound.class) {
+            decoder.decodeSound( resolver.resolve( fileName ) );
+        }
+    }
+
+    /**
+     * Sets the size the images are drawn at, in pixels.
+     *
+     * Images with variants (see {@link VariantResolver}) load the smallest variant at
+     * least this size. This must be called on the GL thread. It does not change the
+     * assets that are already loaded, only those loaded afterwards (such as a bundle
+     * loaded again after it was unloaded).
+     *
+     * @param width     The display width
+     * @param height    The display height
+     */
+    public void setDisplaySize(int width, int height) {
+        variants.setDisplaySize( width, height );
+    }
+
+    /**
+     * Reads the image variants of the given asset directory.
+     *
+     * @param directory The JSON representation of the asset directory
+     */
+    void readVariants(JsonValue directory) {
+        variants.readManifest( directory );
+    }
+
+    /**
+     * Starts holding back the assets queued by the directory parsers.
+     *
+     * Until {@link #endCapture} is called, {@link #load} records each asset instead
+     * of queueing it. This lets the {@link DirectoryLoader} sort the assets of the
+     * directory into bundles before anything is loaded.
+     */
+    synchronized void beginCapture() {
+        captured = new Array<AssetDescriptor<?>>();
+    }
+
+    /**
+     * Stops holding back queued assets, and returns the assets held back.
+     *
+     * @return the assets queued since {@link #beginCapture}, in order
+     */
+    synchronized Array<AssetDescriptor<?>> endCapture() {
+        Array<AssetDescriptor<?>> result = captured;
+        captured = null;
+        return result;
+    }
+
+    /**
+     * Returns true if the file is an image format that Pixmap can decode
+     */
+    private static boolean isDecodable(FileHandle file) {
+        String extension = file.extension().toLowerCase();
+        return extension.equals( "png" ) || extension.equals( "jpg" ) || extension.equals( "jpeg" ) || extension.equals( "bmp" );
+    }
+
+    /**
+     * Disposes all assets in the manager and stops all asynchronous loading.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        decoder.dispose();
+    }
+
     /**
      * Returns the file name for the asset directory.
      *
@@ -202,8 +408,15 @@ public class AssetDirectory extends AssetManager {
      * {@link BitmapFont}, {@link SoundEffect}, {@link MusicQueue}, {@link JsonValue}.
      *
      * Any additional asset parsers should be added with the {@link #addParser} method. 
+     *
+     * Bundled assets are not loaded, except for the given bundles. These are loaded
+     * (as by {@link #loadBundle}) as soon as the directory is read, so that they are
+     * part of the same load.
+     *
+     * @param bundles   The bundles to load with the directory
      */
-    public void loadAssets() {
+    public void loadAssets(String... bundles) {
+        initialBundles.addAll( bundles );
         DirectoryLoader.DirectoryLoaderParameters params = new DirectoryLoader.DirectoryLoaderParameters();
         params.loadedCallback = callback;
         load( filename, Index.class, params );
@@ -219,13 +432,315 @@ public class AssetDirectory extends AssetManager {
         if (contents == null) {
             return;
         }
-        for (ObjectMap<String, String> category : contents.keymap.values()) {
-            for (String filename : category.values()) {
-                unload( filename );
+        for (ObjectIntMap.Entry<String> entry : bundleRefs) {
+            for (AssetDescriptor<?> asset : contents.bundles.get( entry.key )) {
+                unload( asset.fileName );
             }
         }
+        bundleRefs.clear();
+        for (AssetDescriptor<?> asset : contents.resident) {
+            unload( asset.fileName );
+        }
         contents = null;
     }
+
+    /**
+     * Returns the names of the bundles in the asset directory
+     *
+     * The method {@link #loadAssets} must have finished for this method to return
+     * anything.
+     *
+     * @return the names of the bundles in the asset directory
+     */
+    public Array<String> getBundles() {
+        return contents == null ? new Array<String>() : contents.bundles.orderedKeys();
+    }
+
+    /**
+     * Returns true if the asset directory has a bundle of the given name
+     *
+     * @param name  the bundle name
+     *
+     * @return true if the asset directory has a bundle of the given name
+     */
+    public boolean hasBundle(String name) {
+        return contents != null && contents.bundles.containsKey( name );
+    }
+
+    /**
+     * Returns the bundle holding the asset with the given directory key
+     *
+     * @param key  the asset directory key
+     * @param type the asset type
+     *
+     * @return the bundle holding the asset, or null if it is in no bundle
+     */
+    public String getBundle(String key, Class<?> type) {
+        ObjectMap<String, String> keys = contents.keymap.get( type, null );
+        String filename = keys == null ? null : keys.get( key, null );
+        if (filename == null) {
+            return null;
+        }
+        for (ObjectMap.Entry<String, Array<AssetDescriptor<?>>> bundle : contents.bundles) {
+            for (AssetDescriptor<?> asset : bundle.value) {
+                if (asset.type == type && asset.fileName.equals( filename )) {
+                    return bundle.key;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a holder to a bundle, queueing its assets if it was not loaded.
+     *
+     * Like {@link AssetManager#load}, this only queues the assets. They are loaded by
+     * {@link #update} or {@link #finishLoading} (or {@link #finishLoadingBundle}).
+     * Every call must be matched by a call to {@link #unloadBundle}.
+     *
+     * Bundles may share assets, as the asset manager counts the references to each
+     * file. A shared asset stays loaded while any bundle holding it is loaded.
+     *
+     * @param name  the bundle name
+     */
+    public synchronized void loadBundle(String name) {
+        Array<AssetDescriptor<?>> assets = getBundleAssets( name );
+        if (bundleRefs.getAndIncrement( name, 0, 1 ) == 0) {
+            for (AssetDescriptor<?> asset : assets) {
+                load( asset );
+            }
+        }
+    }
+
+    /**
+     * Removes a holder from a bundle, unloading its assets if it has no holders left.
+     *
+     * @param name  the bundle name
+     */
+    public synchronized void unloadBundle(String name) {
+        Array<AssetDescriptor<?>> assets = getBundleAssets( name );
+        int refs = bundleRefs.get( name, 0 );
+        if (refs == 0) {
+            throw new GdxRuntimeException( "Bundle not loaded: " + name );
+        } else if (refs > 1) {
+            bundleRefs.put( name, refs - 1 );
+            return;
+        }
+        bundleRefs.remove( name, 0 );
+        for (AssetDescriptor<?> asset : assets) {
+            unload( asset.fileName );
+        }
+    }
+
+    /**
+     * Blocks until all the assets of a bundle are loaded.
+     *
+     * Other queued assets may be loaded as well, but this does not wait for them.
+     *
+     * @param name  the bundle name
+     */
+    public void finishLoadingBundle(String name) {
+        for (AssetDescriptor<?> asset : getBundleAssets( name )) {
+            finishLoadingAsset( asset );
+        }
+    }
+
+    /**
+     * Returns true if a bundle has holders and all of its assets are loaded
+     *
+     * @param name  the bundle name
+     *
+     * @return true if a bundle has holders and all of its assets are loaded
+     */
+    public synchronized boolean isBundleLoaded(String name) {
+        if (bundleRefs.get( name, 0 ) == 0) {
+            return false;
+        }
+        for (AssetDescriptor<?> asset : getBundleAssets( name )) {
+            if (!isLoaded( asset.fileName, asset.type )) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of holders of a bundle
+     *
+     * @param name  the bundle name
+     *
+     * @return the number of holders of a bundle
+     */
+    public synchronized int getBundleReferences(String name) {
+        return bundleRefs.get( name, 0 );
+    }
+
+    /**
+     * Returns the texture memory of the loaded assets of a bundle, in bytes.
+     *
+     * This counts the textures of the assets and of their dependencies (such as the
+     * pages of a texture atlas), from their size and pixel format. It is an estimate
+     * of the video memory, as drivers may pad or convert textures. A texture shared
+     * with other bundles is counted in each of them.
+     *
+     * @param name  the bundle name
+     *
+     * @return the texture memory of the loaded assets of a bundle, in bytes
+     */
+    public synchronized long getBundleTextureMemory(String name) {
+        return getTextureMemory( getBundleAssets( name ) );
+    }
+
+    /**
+     * Returns the texture memory of the loaded assets in no bundle, in bytes.
+     *
+     * See {@link #getBundleTextureMemory} for how textures are counted.
+     *
+     * @return the texture memory of the loaded assets in no bundle, in bytes
+     */
+    public synchronized long getResidentTextureMemory() {
+        return contents == null ? 0 : getTextureMemory( contents.resident );
+    }
+
+    /**
+     * Returns a report of the texture memory held by each bundle.
+     *
+     * There is a line for each loaded bundle (with its number of holders), one for
+     * the assets in no bundle, and a total. Textures shared between bundles are only
+     * counted once in the total.
+     *
+     * @return a report of the texture memory held by each bundle
+     */
+    public synchronized String getBundleReport() {
+        StringBuilder report = new StringBuilder();
+        ObjectSet<Texture> all = new ObjectSet<Texture>();
+        if (contents != null) {
+            for (ObjectMap.Entry<String, Array<AssetDescriptor<?>>> bundle : contents.bundles) {
+                int refs = bundleRefs.get( bundle.key, 0 );
+                if (refs > 0) {
+                    ObjectSet<Texture> textures = new ObjectSet<Texture>();
+                    collectTextures( bundle.value, textures );
+                    appendLine( report, bundle.key + " (" + refs + ")", textures );
+                    all.addAll( textures );
+                }
+            }
+            ObjectSet<Texture> textures = new ObjectSet<Texture>();
+            collectTextures( contents.resident, textures );
+            appendLine( report, "(no bundle)", textures );
+            all.addAll( textures );
+        }
+        appendLine( report, "total", all );
+        return report.toString();
+    }
+
+    /**
+     * Returns the assets of a bundle, failing if there is no such bundle.
+     */
+    private Array<AssetDescriptor<?>> getBundleAssets(String name) {
+        Array<AssetDescriptor<?>> assets = contents == null ? null : contents.bundles.get( name );
+        if (assets == null) {
+            throw new GdxRuntimeException( "Unknown bundle: " + name );
+        }
+        return assets;
+    }
+
+    /**
+     * Returns the texture memory of the given assets (see {@link #getBundleTextureMemory})
+     */
+    private long getTextureMemory(Array<AssetDescriptor<?>> assets) {
+        ObjectSet<Texture> textures = new ObjectSet<Texture>();
+        collectTextures( assets, textures );
+        long bytes = 0;
+        for (Texture texture : textures) {
+            bytes += getTextureMemory( texture );
+        }
+        return bytes;
+    }
+
+    /**
+     * Adds the textures of the loaded assets (and their dependencies) to the set.
+     */
+    private void collectTextures(Array<AssetDescriptor<?>> assets, ObjectSet<Texture> textures) {
+        for (AssetDescriptor<?> asset : assets) {
+            if (isLoaded( asset.fileName, asset.type )) {
+                collectTextures( asset.fileName, textures );
+            }
+        }
+    }
+
+    /**
+     * Adds the textures of a loaded file (and its dependencies) to the set.
+     */
+    private void collectTextures(String fileName, ObjectSet<Texture> textures) {
+        Object asset = get( fileName );
+        if (asset instanceof Texture) {
+            textures.add( (Texture)asset );
+        } else if (asset instanceof TextureAtlas) {
+            textures.addAll( ((TextureAtlas)asset).getTextures() );
+        } else if (asset instanceof BitmapFont) {
+            for (TextureRegion region : ((BitmapFont)asset).getRegions()) {
+                textures.add( region.getTexture() );
+            }
+        }
+        Array<String> dependencies = getDependencies( fileName );
+        if (dependencies != null) {
+            for (String dependency : dependencies) {
+                collectTextures( dependency, textures );
+            }
+        }
+    }
+
+    /**
+     * Returns the estimated memory of a texture, in bytes.
+     */
+    private static long getTextureMemory(Texture texture) {
+        TextureData data = texture.getTextureData();
+        long bytes;
+        if (data instanceof KTXTextureData && VariantResolver.supportsCompression()) {
+            // The compressed variants are ETC2, at 8 bytes for each block of 4x4 pixels
+            bytes = (long)((texture.getWidth()+3)/4)*((texture.getHeight()+3)/4)*8;
+        } else if (data instanceof KTXTextureData) {
+            // Anywhere else the driver decompresses them to RGBA on upload
+            bytes = (long)texture.getWidth()*texture.getHeight()*4;
+        } else {
+            bytes = (long)texture.getWidth()*texture.getHeight()*getBytesPerPixel( data.getFormat() );
+        }
+        // A full mipmap chain adds a third
+        return data.useMipMaps() ? bytes*4/3 : bytes;
+    }
+
+    /**
+     * Returns the size of a pixel of the given format, in bytes.
+     */
+    private static int getBytesPerPixel(Pixmap.Format format) {
+        if (format == null) {
+            return 4;
+        }
+        switch (format) {
+            case Alpha:
+            case Intensity:
+                return 1;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+            case RGB888:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    /**
+     * Appends a line of the bundle report.
+     */
+    private static void appendLine(StringBuilder report, String name, ObjectSet<Texture> textures) {
+        long bytes = 0;
+        for (Texture texture : textures) {
+            bytes += getTextureMemory( texture );
+        }
+        report.append( String.format( "%-16s %4d textures %8.1f MB%n", name, textures.size, bytes/(1024.0f*1024.0f) ) );
+    }
     
     /**
      * Returns the {@link AssetParser} objects associated with this directory loader
@@ -273,7 +788,7 @@ public class AssetDirectory extends AssetManager {
      * Returns the asset associated with the given directory key
      * 
      * The method {@link #loadAssets} must have been called for this method to
-     * return a value.
+     * return a value. If the asset is in a bundle, that bundle must be loaded.
      *
      * @param key  the asset directory key
      * @param type the asset type
@@ -292,6 +807,29 @@ public class AssetDirectory extends AssetManager {
         return get( filename, type );
     }
 
+    /**
+     * Returns a texture region for the texture with the given directory key
+     *
+     * If the texture is packed into a texture atlas, this is a copy of its region in
+     * the atlas. Otherwise it is a region covering the whole texture. Either way the
+     * region belongs to the caller, who may change it freely.
+     *
+     * The method {@link #loadAssets} must have been called for this method to
+     * return a value.
+     *
+     * @param key  the asset directory key of the texture
+     *
+     * @return a texture region for the texture with the given directory key
+     */
+    public TextureRegion getRegion(String key) {
+        TextureRegion region = getEntry( key, TextureRegion.class );
+        if (region != null) {
+            return new TextureRegion( region );
+        }
+        Texture texture = getEntry( key, Texture.class );
+        return texture == null ? null : new TextureRegion( texture );
+    }
+
     /**
      * Returns true if there is an asset associated with the given directory key
      * 
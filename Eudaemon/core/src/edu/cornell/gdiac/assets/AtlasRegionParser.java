@@ -0,0 +1,94 @@
+/*
+ * AtlasRegionParser.java
+ *
+ * This is an interface for parsing the textures packed into a texture atlas into
+ * TextureRegion assets. A packed texture is not loaded on its own; its key names
+ * its region in the atlas instead.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * This class parses the packed entries of the "textures" directory into
+ * {@link TextureRegion} assets.
+ *
+ * A texture is packed if an atlas lists its image (see {@link ParserUtils#findAtlas}).
+ * Its region is then available under the same key as the texture would have had,
+ * but as a {@link TextureRegion}, and {@link TextureParser} does not load it. Use
+ * {@link AssetDirectory#getRegion} to get a texture region whether or not it was
+ * packed.
+ */
+public class AtlasRegionParser implements AssetParser<TextureRegion> {
+    /** The JSON representation of the asset directory */
+    private JsonValue directory;
+    /** The current texture entry in the JSON directory */
+    private JsonValue root;
+
+    /**
+     * Returns the asset type generated by this parser
+     *
+     * @return the asset type generated by this parser
+     */
+    public Class<TextureRegion> getType() {
+        return TextureRegion.class;
+    }
+
+    /**
+     * Resets the parser iterator for the given directory.
+     *
+     * The value directory is assumed to be the root of a larger JSON structure.
+     * The individual assets are defined by subtrees in this structure.
+     *
+     * @param directory    The JSON representation of the asset directory
+     */
+    public void reset(JsonValue directory) {
+        this.directory = directory;
+        root = directory.getChild( "textures" );
+    }
+
+    /**
+     * Returns true if there are still assets left to generate
+     *
+     * @return true if there are still assets left to generate
+     */
+    public boolean hasNext() {
+        return root != null;
+    }
+
+    /**
+     * Processes the next available texture, loading its atlas region if it is packed
+     *
+     * The key will be the name of the texture entry. Textures that are not packed
+     * are skipped.
+     *
+     * This method fails silently if there are no available assets to process.
+     *
+     * @param manager	The asset manager to load an asset
+     * @param keymap    The mapping of JSON keys to asset file names
+     */
+    public void processNext(AssetManager manager, ObjectMap<String,String> keymap) {
+        String file = root.isString() ? root.asString() : root.getString( "file", null );
+        JsonValue atlas = file == null ? null : ParserUtils.findAtlas( directory, file, manager.getFileHandleResolver() );
+        if (atlas != null) {
+            TextureRegionLoader.TextureRegionParameters params = new TextureRegionLoader.TextureRegionParameters( atlas.getString( "file" ) );
+            params.region = ParserUtils.atlasRegionName( file );
+            String region = params.source+":"+params.region;
+            keymap.put(root.name(),region);
+            manager.load( region,TextureRegion.class, params );
+        }
+        root = root.next();
+    }
+
+    /**
+     * Returns true if o is another AtlasRegionParser
+     *
+     * @return true if o is another AtlasRegionParser
+     */
+    public boolean equals(Object o) {
+        return o instanceof AtlasRegionParser;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * DecodePool.java
+ *
+ * The AssetManager loads one asset at a time, so decoding images and sounds was
+ * serial even though none of it needs the GL thread. This pool starts decoding
+ * each image and sound as soon as it is queued, on worker threads, and the loaders
+ * then pick up the result. Only the texture upload is left to the GL thread.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class decodes image and sound files ahead of their loaders.
+ * <p>
+ * A decode is started with {@link #decodePixmap} or {@link #decodeSound}, and its
+ * result is collected (waiting if necessary) by the loader with {@link #takePixmap}
+ * or {@link #takeSound}. A loader finding nothing to take decodes the file itself,
+ * so the pool never changes what is loaded, only when.
+ * <p>
+ * The pool also keeps the time spent in each {@link Category}. Decode times are
+ * summed over the workers, so with several workers they can exceed the wall-clock
+ * time of the load.
+ */
+public class DecodePool implements Disposable {
+    /** The kinds of loading work that are timed */
+    public enum Category {
+        /** Decoding images into pixmaps (worker threads) */
+        IMAGE_DECODE,
+        /** Uploading pixmaps to textures (GL thread) */
+        TEXTURE_UPLOAD,
+        /** Decoding sound files (worker threads) */
+        AUDIO_DECODE
+    }
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final AsyncExecutor executor;
+    private final int threads;
+    /** The decodes not yet taken, by file path */
+    private final ObjectMap<String, AsyncResult<Pixmap>> pixmaps = new ObjectMap<>();
+    private final ObjectMap<String, AsyncResult<Sound>> sounds = new ObjectMap<>();
+
+    private final AtomicLong[] times = new AtomicLong[CATEGORIES.length];
+    private final AtomicInteger[] started = new AtomicInteger[CATEGORIES.length];
+    private final AtomicInteger[] finished = new AtomicInteger[CATEGORIES.length];
+
+    /**
+     * Creates a pool with one worker per core, less one for the GL thread.
+     */
+    public DecodePool() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Creates a pool with the given number of workers.
+     *
+     * @param threads the number of worker threads
+     */
+    public DecodePool(int threads) {
+        this.threads = threads;
+        executor = new AsyncExecutor(threads, "AssetDecode");
+        for (int ii = 0; ii < CATEGORIES.length; ii++) {
+            times[ii] = new AtomicLong();
+            started[ii] = new AtomicInteger();
+            finished[ii] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * @return the number of worker threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Starts decoding an image, unless it is already being decoded.
+     *
+     * @param file   the image file
+     * @param format the format the texture wants (null to keep the file's format)
+     */
+    public synchronized void decodePixmap(final FileHandle file, final Pixmap.Format format) {
+        String key = key(file);
+        if (pixmaps.containsKey(key)) {
+            return;
+        }
+        started[Category.IMAGE_DECODE.ordinal()].incrementAndGet();
+        pixmaps.put(key, executor.submit(new AsyncTask<Pixmap>() {
+            @Override
+            public Pixmap call() {
+                long start = TimeUtils.nanoTime();
+                Pixmap pixmap = new Pixmap(file);
+                if (format != null && pixmap.getFormat() != format) {
+                    // Converted here rather than during the upload on the GL thread
+                    Pixmap converted = new Pixmap(pixmap.getWidth(), pixmap.getHeight(), format);
+                    converted.setBlending(Pixmap.Blending.None);
+                    converted.drawPixmap(pixmap, 0, 0);
+                    pixmap.dispose();
+                    pixmap = converted;
+                }
+                record(Category.IMAGE_DECODE, start);
+                return pixmap;
+            }
+        }));
+    }
+
+    /**
+     * Starts decoding a sound, unless it is already being decoded.
+     *
+     * @param file the sound file
+     */
+    public synchronized void decodeSound(final FileHandle file) {
+        String key = key(file);
+        if (sounds.containsKey(key)) {
+            return;
+        }
+        started[Category.AUDIO_DECODE.ordinal()].incrementAndGet();
+        sounds.put(key, executor.submit(new AsyncTask<Sound>() {
+            @Override
+            public Sound call() {
+                long start = TimeUtils.nanoTime();
+                Sound sound = Gdx.audio.newSound(file);
+                record(Category.AUDIO_DECODE, start);
+                return sound;
+            }
+        }));
+    }
+
+    /**
+     * Returns the decoded image, waiting for it if necessary.
+     * <p>
+     * The caller owns the pixmap. Each decode can only be taken once.
+     *
+     * @param file the image file
+     * @return the decoded image, or null if it was not being decoded
+     */
+    public Pixmap takePixmap(FileHandle file) {
+        AsyncResult<Pixmap> result;
+        synchronized (this) {
+            result = pixmaps.remove(key(file));
+        }
+        return result == null ? null : get(result, file);
+    }
+
+    /**
+     * Returns the decoded sound, waiting for it if necessary.
+     * <p>
+     * The caller owns the sound. Each decode can only be taken once.
+     *
+     * @param file the sound file
+     * @return the decoded sound, or null if it was not being decoded
+     */
+    public Sound takeSound(FileHandle file) {
+        AsyncResult<Sound> result;
+        synchronized (this) {
+            result = sounds.remove(key(file));
+        }
+        return result == null ? null : get(result, file);
+    }
+
+    /**
+     * Adds the time since start to a category, as one finished item.
+     *
+     * @param category the kind of work
+     * @param start    when the work started (from TimeUtils.nanoTime())
+     */
+    public void record(Category category, long start) {
+        times[category.ordinal()].addAndGet(TimeUtils.timeSinceNanos(start));
+        finished[category.ordinal()].incrementAndGet();
+    }
+
+    /**
+     * Counts an item of work that is timed by {@link #record} when it is done.
+     *
+     * @param category the kind of work
+     */
+    public void expect(Category category) {
+        started[category.ordinal()].incrementAndGet();
+    }
+
+    /**
+     * @param category the kind of work
+     * @return the time spent on this kind of work so far, in nanoseconds
+     */
+    public long getTime(Category category) {
+        return times[category.ordinal()].get();
+    }
+
+    /**
+     * @param category the kind of work
+     * @return the fraction of the items of this kind that are done (1 if there are none)
+     */
+    public float getProgress(Category category) {
+        int total = started[category.ordinal()].get();
+        return total == 0 ? 1.0f : (float) finished[category.ordinal()].get() / total;
+    }
+
+    /**
+     * @param category the kind of work
+     * @return the number of items of this kind that are done
+     */
+    public int getCount(Category category) {
+        return finished[category.ordinal()].get();
+    }
+
+    /**
+     * Stops the workers and releases any decode that was never taken.
+     */
+    @Override
+    public synchronized void dispose() {
+        executor.dispose();
+        for (AsyncResult<Pixmap> result : pixmaps.values()) {
+            try {
+                result.get().dispose();
+            } catch (GdxRuntimeException e) {
+                // Failed to decode, so there is nothing to release
+            }
+        }
+        for (AsyncResult<Sound> result : sounds.values()) {
+            try {
+                result.get().dispose();
+            } catch (GdxRuntimeException e) {
+                // Failed to decode, so there is nothing to release
+            }
+        }
+        pixmaps.clear();
+        sounds.clear();
+    }
+
+    private static <T> T get(AsyncResult<T> result, FileHandle file) {
+        try {
+            return result.get();
+        } catch (GdxRuntimeException e) {
+            throw new GdxRuntimeException("Could not decode " + file.path(), e);
+        }
+    }
+
+    private static String key(FileHandle file) {
+        return file.path().replace('\\', '/');
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * DecodedTextureLoader.java
+ *
+ * This replaces the LibGDX TextureLoader so that textures are made from images
+ * decoded ahead of time by a DecodePool. It takes the same parameters, so the
+ * texture parsers (and TextureAtlasLoader, for atlas pages) are unchanged.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * This class is an {@link com.badlogic.gdx.assets.loaders.AssetLoader} to load
+ * {@link Texture} assets from images decoded by a {@link DecodePool}.
+ * <p>
+ * The asynchronous part collects the decoded image (or decodes it, if the pool was
+ * not asked to), so only the upload happens on the GL thread.
+ */
+public class DecodedTextureLoader extends AsynchronousAssetLoader<Texture, TextureLoader.TextureParameter> {
+    /** The pool decoding the images */
+    private final DecodePool pool;
+    /** The asynchronously prepared texture data */
+    private TextureData cachedData;
+
+    /**
+     * Creates a new loader with the given file resolver and decode pool
+     *
+     * @param resolver  The file resolver
+     * @param pool      The pool decoding the images
+     */
+    public DecodedTextureLoader(FileHandleResolver resolver, DecodePool pool) {
+        super(resolver);
+        this.pool = pool;
+    }
+
+    /**
+     * Loads thread-safe part of the asset and injects any dependencies into the AssetManager.
+     *
+     * This waits for the decoded image, so it must not be called on the GL thread.
+     *
+     * @param manager   The asset manager
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params    The parameters to use for loading the asset
+     */
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, TextureLoader.TextureParameter params) {
+        Pixmap.Format format = params == null ? null : params.format;
+        boolean mipmaps = params != null && params.genMipMaps;
+        if (params != null && params.textureData != null) {
+            cachedData = params.textureData;
+        } else {
+            Pixmap pixmap = pool.takePixmap(file);
+            if (pixmap != null) {
+                cachedData = new PixmapTextureData(pixmap, format, mipmaps, true);
+            } else {
+                cachedData = TextureData.Factory.loadFromFile(file, format, mipmaps);
+            }
+        }
+        if (!cachedData.isPrepared()) {
+            cachedData.prepare();
+        }
+    }
+
+    /**
+     * Loads the main thread part of the asset.
+     *
+     * This uploads the image to the graphics card.
+     *
+     * @param manager   The asset manager
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params    The parameters to use for loading the asset
+     */
+    @Override
+    public Texture loadSync(AssetManager manager, String fileName, FileHandle file, TextureLoader.TextureParameter params) {
+        long start = TimeUtils.nanoTime();
+        TextureData data = cachedData;
+        cachedData = null;
+
+        Texture texture;
+        if (params != null && params.texture != null) {
+            texture = params.texture;
+            texture.load(data);
+        } else {
+            texture = new Texture(data);
+        }
+        if (params != null) {
+            texture.setFilter(params.minFilter, params.magFilter);
+            texture.setWrap(params.wrapU, params.wrapV);
+        }
+        pool.record(DecodePool.Category.TEXTURE_UPLOAD, start);
+        return texture;
+    }
+
+    /**
+     * Returns the other assets this asset requires to be loaded first.
+     *
+     * Textures have no dependencies.
+     *
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params    The parameters for loading the asset
+     *
+     * @return null, as textures have no dependencies
+     */
+    @Override
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, TextureLoader.TextureParameter params) {
+        return null;
+    }
+}
@@ -19,9 +19,11 @@ import com.badlogic.gdx.assets.loaders.FileHandleResolver;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
 import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
 
 /**
  * This class is an {@link AssetLoader} to load {@link AssetDirectory.Index} assets.
@@ -29,6 +31,10 @@ import com.badlogic.gdx.utils.ObjectMap;
  * This is the "top-level" loader for {@link AssetDirectory}. It is necessary to load
  * the initial directory JSON.  But it also has integrated {@link AssetParser} objects
  * to turn to contents of that JSON into more assets.
+ *
+ * When loading into an {@link AssetDirectory}, the assets queued by the parsers are
+ * sorted into the bundles of the directory (its "bundles" entry) first. Only the
+ * assets in no bundle are loaded with the directory.
  */
 public class DirectoryLoader extends AsynchronousAssetLoader<AssetDirectory.Index, DirectoryLoader.DirectoryLoaderParameters> {
     /** The asynchronously read AssetDirectory.Index */
@@ -130,6 +136,11 @@ public class DirectoryLoader extends AsynchronousAssetLoader<AssetDirectory.Inde
         cachedData = new AssetDirectory.Index();
         cachedData.directory = reader.parse(file);
         System.out.flush();
+        AssetDirectory directory = manager instanceof AssetDirectory ? (AssetDirectory)manager : null;
+        if (directory != null) {
+            directory.readVariants( cachedData.directory );
+            directory.beginCapture();
+        }
         for(AssetParser<?> parser : parsers) {
             ObjectMap<String,String> keys = cachedData.keymap.get( parser.getType(), null );
             if (keys == null) {
@@ -141,6 +152,92 @@ public class DirectoryLoader extends AsynchronousAssetLoader<AssetDirectory.Inde
                 parser.processNext( manager, keys );
             }
         }
+        if (directory != null) {
+            sortBundles( cachedData, directory.endCapture() );
+            for (AssetDescriptor<?> asset : cachedData.resident) {
+                manager.load( asset );
+            }
+        }
+    }
+
+    /**
+     * Sorts the assets queued by the parsers into the bundles of the directory.
+     *
+     * Each bundle lists keys, where a key ending in "*" stands for every key with that
+     * prefix. An asset file belongs to a bundle if any of its keys does, and may be in
+     * several bundles. The assets in no bundle are the resident assets.
+     *
+     * @param index     The directory index, with its keymap filled in
+     * @param queued    The assets queued by the parsers, in order
+     */
+    protected void sortBundles(AssetDirectory.Index index, Array<AssetDescriptor<?>> queued) {
+        ObjectMap<String,Array<AssetDescriptor<?>>> files = new ObjectMap<String,Array<AssetDescriptor<?>>>();
+        for (AssetDescriptor<?> asset : queued) {
+            Array<AssetDescriptor<?>> loads = files.get( asset.fileName );
+            if (loads == null) {
+                loads = new Array<AssetDescriptor<?>>( 1 );
+                files.put( asset.fileName, loads );
+            }
+            loads.add( asset );
+        }
+
+        ObjectSet<AssetDescriptor<?>> bundled = new ObjectSet<AssetDescriptor<?>>();
+        JsonValue bundles = index.directory.get( "bundles" );
+        for (JsonValue bundle = bundles == null ? null : bundles.child; bundle != null; bundle = bundle.next) {
+            Array<AssetDescriptor<?>> assets = new Array<AssetDescriptor<?>>();
+            for (JsonValue pattern = bundle.child; pattern != null; pattern = pattern.next) {
+                String key = pattern.asString();
+                boolean prefix = key.endsWith( "*" );
+                if (prefix) {
+                    key = key.substring( 0, key.length()-1 );
+                }
+                boolean found = false;
+                for (ObjectMap.Entry<Class<?>,ObjectMap<String,String>> category : index.keymap) {
+                    for (ObjectMap.Entry<String,String> entry : category.value) {
+                        if (prefix ? entry.key.startsWith( key ) : entry.key.equals( key )) {
+                            found = true;
+                            AssetDescriptor<?> asset = findLoad( files, entry.value, category.key );
+                            if (asset != null && !assets.contains( asset, true )) {
+                                assets.add( asset );
+                            }
+                        }
+                    }
+                }
+                if (!found && !isListed( index.directory, key, prefix )) {
+                    throw new GdxRuntimeException( "Bundle "+bundle.name+" has no asset "+pattern.asString() );
+                }
+            }
+            for (AssetDescriptor<?> asset : assets) {
+                // The same file may be queued more than once; it is bundled all the same
+                for (AssetDescriptor<?> load : files.get( asset.fileName )) {
+                    if (load.type == asset.type) {
+                        bundled.add( load );
+                    }
+                }
+            }
+            index.bundles.put( bundle.name, assets );
+        }
+
+        for (AssetDescriptor<?> asset : queued) {
+            if (!bundled.contains( asset )) {
+                index.resident.add( asset );
+            }
+        }
+    }
+
+    /**
+     * Returns the first queued asset for the given file and type, or null if none
+     */
+    private static AssetDescriptor<?> findLoad(ObjectMap<String,Array<AssetDescriptor<?>>> files, String fileName, Class<?> type) {
+        Array<AssetDescriptor<?>> loads = files.get( fileName );
+        if (loads != null) {
+            for (AssetDescriptor<?> asset : loads) {
+                if (asset.type == type) {
+                    return asset;
+                }
+            }
+        }
+        return null;
     }
 
     /**
@@ -178,6 +275,26 @@ public class DirectoryLoader extends AsynchronousAssetLoader<AssetDirectory.Inde
         return null;
     }
 
-
-
+    /**
+     * Returns true if the directory has an entry for the given key.
+     *
+     * A parser may skip an entry (such as a texture atlas that has not been packed),
+     * so a bundle key is only an error if no section of the directory has it.
+     *
+     * @param directory The JSON representation of the asset directory
+     * @param key       The key (or key prefix) of a bundle
+     * @param prefix    Whether the key is a prefix
+     *
+     * @return true if the directory has an entry for the given key
+     */
+    private static boolean isListed(JsonValue directory, String key, boolean prefix) {
+        for (JsonValue section = directory.child; section != null; section = section.next) {
+            for (JsonValue entry = section.child; entry != null; entry = entry.next) {
+                if (entry.name != null && (prefix ? entry.name.startsWith( key ) : entry.name.equals( key ))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
@@ -31,8 +31,13 @@ import edu.cornell.gdiac.util.*;
  *
  * The region has the same format as {@link TextureRegionParser}. The values size
  * and region are optional.
+ *
+ * No film strips are made for a texture packed into a texture atlas, as the texture
+ * itself is not loaded. Split its region (see {@link AtlasRegionParser}) instead.
  */
 public class FilmStripParser implements AssetParser<FilmStrip> {
+	/** The JSON representation of the asset directory */
+	private JsonValue directory;
 	/** The parent texture of the current film strip */
  	private JsonValue root;
 	/** The current film strip entry in the JSON directory */
@@ -61,6 +66,7 @@ public class FilmStripParser implements AssetParser<FilmStrip> {
      * @param directory    The JSON representation of the asset directory
      */
     public void reset(JsonValue directory) {
+        this.directory = directory;
         root = directory;
         root = root.getChild( "textures" );
         sprite = null;
@@ -89,7 +95,7 @@ public class FilmStripParser implements AssetParser<FilmStrip> {
      */
     public void processNext(AssetManager manager, ObjectMap<String,String> keymap) {
         String file = root.getString( "file", null );
-        if (file == null) {
+        if (file == null || ParserUtils.findAtlas( directory, file, manager.getFileHandleResolver() ) != null) {
             advance();
             return;
         }
@@ -0,0 +1,149 @@
+/*
+ * LevelCompiler.java
+ *
+ * This converts the Tiled exports in assets/levels into compiled levels, read at
+ * runtime by LevelReader. It runs at build time (./gradlew core:compileLevels) and
+ * needs no application or GL context.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import edu.cornell.gdiac.game.models.LevelData;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class writes {@link LevelData} in the format read by {@link LevelReader}.
+ * <p>
+ * The level is read with the same code the game uses for Tiled files, so a
+ * compiled level holds exactly what the game would have read from the export.
+ */
+public class LevelCompiler {
+    /**
+     * Compiles every level in a directory.
+     * <p>
+     * Arguments: the directory of Tiled exports, and optionally the directory to
+     * write the compiled levels to (the same directory by default). Each
+     * levelN.json becomes levelN.lvl.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: LevelCompiler <level directory> [output directory]");
+            System.exit(1);
+        }
+        FileHandle source = new FileHandle(new File(args[0]));
+        FileHandle target = args.length > 1 ? new FileHandle(new File(args[1])) : source;
+
+        JsonReader reader = new JsonReader();
+        for (FileHandle file : source.list(".json")) {
+            LevelData level = new LevelData(file.nameWithoutExtension(), reader.parse(file));
+            FileHandle output = target.child(file.nameWithoutExtension() + "." + LevelReader.EXTENSION);
+            write(level, output);
+            System.out.println(file.name() + " -> " + output.name() + " (" + output.length() + " bytes)");
+        }
+    }
+
+    /**
+     * Writes a level as a compiled level file.
+     *
+     * @param level the level to write
+     * @param file  the file to write to (replaced if it exists)
+     */
+    public static void write(LevelData level, FileHandle file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file.write(false)))) {
+            out.writeInt(LevelReader.MAGIC);
+            out.writeShort(LevelReader.VERSION);
+
+            ObjectFloatMap<String> properties = level.getProperties();
+            writeCount(out, properties.size);
+            for (ObjectFloatMap.Entry<String> property : properties) {
+                writeString(out, property.key);
+                out.writeFloat(property.value);
+            }
+
+            writeCount(out, level.getWidthInTiles());
+            writeCount(out, level.getHeightInTiles());
+            writeLayer(out, level.getTilemapFG());
+            writeLayer(out, level.getTilemapBG1());
+            writeLayer(out, level.getTilemapBG2());
+
+            Array<LevelData.ObjectRecord> objects = level.getObjects();
+            writeCount(out, objects.size);
+            for (LevelData.ObjectRecord object : objects) {
+                out.writeByte(object.type.ordinal());
+                out.writeFloat(object.x);
+                out.writeFloat(object.y);
+                writeValue(out, object.json);
+            }
+        }
+    }
+
+    private static void writeLayer(DataOutputStream out, int[][] layer) throws IOException {
+        for (int[] row : layer) {
+            for (int tile : row) {
+                if (tile < Short.MIN_VALUE || tile > Short.MAX_VALUE) {
+                    throw new GdxRuntimeException("Tile id does not fit in a compiled level: " + tile);
+                }
+                out.writeShort(tile);
+            }
+        }
+    }
+
+    private static void writeValue(DataOutputStream out, JsonValue value) throws IOException {
+        out.writeByte(value.type().ordinal());
+        switch (value.type()) {
+            case object:
+                writeCount(out, value.size);
+                for (JsonValue child = value.child; child != null; child = child.next) {
+                    writeString(out, child.name);
+                    writeValue(out, child);
+                }
+                break;
+            case array:
+                writeCount(out, value.size);
+                for (JsonValue child = value.child; child != null; child = child.next) {
+                    writeValue(out, child);
+                }
+                break;
+            case stringValue:
+                writeString(out, value.asString());
+                break;
+            case doubleValue:
+                out.writeDouble(value.asDouble());
+                break;
+            case longValue:
+                out.writeLong(value.asLong());
+                break;
+            case booleanValue:
+                out.writeBoolean(value.asBoolean());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void writeCount(DataOutputStream out, int count) throws IOException {
+        if (count > Short.MAX_VALUE) {
+            throw new GdxRuntimeException("Too many entries for a compiled level: " + count);
+        }
+        out.writeShort(count);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new GdxRuntimeException("String too long for a compiled level");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
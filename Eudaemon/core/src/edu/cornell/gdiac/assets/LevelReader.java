@@ -0,0 +1,161 @@
+/*
+ * LevelReader.java
+ *
+ * This reads the compiled levels made by LevelCompiler. A compiled level holds the
+ * same information as the Tiled export it came from, but its tile layers are
+ * packed arrays and its objects are already resolved, so it can be read in a
+ * single pass without building a JsonValue tree for the whole file.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+import edu.cornell.gdiac.game.models.LevelData;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class reads {@link LevelData} from a compiled level file.
+ * <p>
+ * The file is big-endian and laid out as follows:
+ * <pre>
+ *     int     MAGIC
+ *     short   VERSION
+ *     short   property count, then per property: string name, float value
+ *     short   width, short height (in tiles)
+ *     short[] foreground, background 1 and background 2 tile ids, row by row,
+ *             top row first (width * height each, -1 if empty)
+ *     short   object count, then per object:
+ *             byte type (LevelData.ObjectType ordinal), float x, float y, value json
+ * </pre>
+ * A value is a byte holding the JsonValue.ValueType ordinal, followed by its
+ * contents: a short child count and the children (each preceded by its name, for
+ * objects), a string, a double, a long or a boolean. A string is a short byte
+ * count followed by its UTF-8 bytes.
+ */
+public class LevelReader {
+    /** The first four bytes of a compiled level ("EUDL") */
+    public static final int MAGIC = 0x4555444C;
+    /** The version of the format; files of any other version are rejected */
+    public static final short VERSION = 1;
+    /** The extension of compiled level files */
+    public static final String EXTENSION = "lvl";
+
+    private static final JsonValue.ValueType[] VALUE_TYPES = JsonValue.ValueType.values();
+    private static final LevelData.ObjectType[] OBJECT_TYPES = LevelData.ObjectType.values();
+
+    private final ByteBuffer buffer;
+
+    private LevelReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Reads a compiled level.
+     * <p>
+     * The whole file is read with one call, and then decoded from memory.
+     *
+     * @param name  the name of the level (e.g. "level3")
+     * @param file  the compiled level file
+     *
+     * @return the level data
+     * @throws GdxRuntimeException if the file is not a compiled level of this version
+     */
+    public static LevelData read(String name, FileHandle file) {
+        LevelReader reader = new LevelReader(ByteBuffer.wrap(file.readBytes()));
+        try {
+            return reader.readLevel(name);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new GdxRuntimeException("Corrupt compiled level: " + file.path(), e);
+        }
+    }
+
+    private LevelData readLevel(String name) {
+        if (buffer.getInt() != MAGIC) {
+            throw new IllegalArgumentException("not a compiled level");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("version " + version + ", expected " + VERSION);
+        }
+
+        int propertyCount = buffer.getShort();
+        ObjectFloatMap<String> properties = new ObjectFloatMap<>(propertyCount);
+        for (int i = 0; i < propertyCount; i++) {
+            String key = readString();
+            properties.put(key, buffer.getFloat());
+        }
+
+        int width = buffer.getShort();
+        int height = buffer.getShort();
+        int[][] tilemapFG = readLayer(width, height);
+        int[][] tilemapBG1 = readLayer(width, height);
+        int[][] tilemapBG2 = readLayer(width, height);
+
+        int objectCount = buffer.getShort();
+        Array<LevelData.ObjectRecord> objects = new Array<>(objectCount);
+        for (int i = 0; i < objectCount; i++) {
+            LevelData.ObjectType type = OBJECT_TYPES[buffer.get()];
+            float x = buffer.getFloat();
+            float y = buffer.getFloat();
+            objects.add(new LevelData.ObjectRecord(type, x, y, readValue()));
+        }
+
+        return new LevelData(name, properties, tilemapFG, tilemapBG1, tilemapBG2, objects);
+    }
+
+    private int[][] readLayer(int width, int height) {
+        int[][] layer = new int[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                layer[y][x] = buffer.getShort();
+            }
+        }
+        return layer;
+    }
+
+    private JsonValue readValue() {
+        JsonValue.ValueType type = VALUE_TYPES[buffer.get()];
+        switch (type) {
+            case object: {
+                JsonValue value = new JsonValue(type);
+                int count = buffer.getShort();
+                for (int i = 0; i < count; i++) {
+                    String key = readString();
+                    value.addChild(key, readValue());
+                }
+                return value;
+            }
+            case array: {
+                JsonValue value = new JsonValue(type);
+                int count = buffer.getShort();
+                for (int i = 0; i < count; i++) {
+                    value.addChild(readValue());
+                }
+                return value;
+            }
+            case stringValue:
+                return new JsonValue(readString());
+            case doubleValue:
+                return new JsonValue(buffer.getDouble());
+            case longValue:
+                return new JsonValue(buffer.getLong());
+            case booleanValue:
+                return new JsonValue(buffer.get() != 0);
+            default:
+                return new JsonValue(JsonValue.ValueType.nullValue);
+        }
+    }
+
+    private String readString() {
+        int length = buffer.getShort() & 0xFFFF;
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -8,6 +8,7 @@
  */
 package edu.cornell.gdiac.assets;
 
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
@@ -165,4 +166,48 @@ public class ParserUtils {
         }
         return defaultWrap;
     }
+
+    /**
+     * Returns the texture atlas entry that packs the given image
+     *
+     * The atlases are listed in the "atlases" entry of the asset directory. Each one
+     * has a file and a list of images, given as prefixes of the image paths (so
+     * "tiles/" is every image in that folder). The atlas files are made by a build
+     * step (./gradlew core:packAtlases), so an atlas only counts if its file exists.
+     * Otherwise its images are loaded as separate textures.
+     *
+     * @param directory The JSON representation of the asset directory
+     * @param image     The image file of a texture
+     * @param resolver  The resolver for the asset files
+     *
+     * @return the texture atlas entry that packs the given image (or null if none does)
+     */
+    public static JsonValue findAtlas(JsonValue directory, String image, FileHandleResolver resolver) {
+        JsonValue atlases = directory.get( "atlases" );
+        if (atlases == null) {
+            return null;
+        }
+        for (JsonValue atlas = atlases.child; atlas != null; atlas = atlas.next) {
+            for (JsonValue prefix = atlas.get( "images" ).child; prefix != null; prefix = prefix.next) {
+                if (image.startsWith( prefix.asString() )) {
+                    return resolver.resolve( atlas.getString( "file" ) ).exists() ? atlas : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the name of the region for the given image in its texture atlas
+     *
+     * This is the path of the image without its extension (e.g. "character/momoRun").
+     *
+     * @param image     The image file of a texture
+     *
+     * @return the name of the region for the given image in its texture atlas
+     */
+    public static String atlasRegionName(String image) {
+        int suffix = image.lastIndexOf( '.' );
+        return suffix == -1 ? image : image.substring( 0,suffix );
+    }
 }
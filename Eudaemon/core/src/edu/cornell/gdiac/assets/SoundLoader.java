@@ -28,6 +28,8 @@ import com.badlogic.gdx.audio.*;
 public class SoundLoader extends AsynchronousAssetLoader<Sound, SoundLoader.SoundParameters> {
     /** A reference to the file handle resolver (inaccessible in parent class) */
     protected FileHandleResolver resolver;
+    /** The pool decoding the sounds ahead of time (may be null) */
+    private final DecodePool pool;
     /** The asynchronously read Sound */
     private Sound cachedSound;
 
@@ -51,8 +53,21 @@ public class SoundLoader extends AsynchronousAssetLoader<Sound, SoundLoader.Soun
      * @param resolver    The file resolver
      */
     public SoundLoader(FileHandleResolver resolver) {
+        this(resolver, null);
+    }
+
+    /**
+     * Creates a new SoundBufferLoader with the given file resolver and decode pool
+     *
+     * Sounds decoded by the pool are taken from it rather than decoded again.
+     *
+     * @param resolver    The file resolver
+     * @param pool        The pool decoding the sounds (or null to decode here)
+     */
+    public SoundLoader(FileHandleResolver resolver, DecodePool pool) {
         super(resolver);
         this.resolver = resolver;
+        this.pool = pool;
     }
 
     /** 
@@ -79,7 +94,10 @@ public class SoundLoader extends AsynchronousAssetLoader<Sound, SoundLoader.Soun
      */
     @Override
     public void loadAsync (AssetManager manager, String fileName, FileHandle file, SoundParameters params) {
-        cachedSound = Gdx.audio.newSound(file);
+        cachedSound = pool == null ? null : pool.takeSound(file);
+        if (cachedSound == null) {
+            cachedSound = Gdx.audio.newSound(file);
+        }
     }
 
     /** 
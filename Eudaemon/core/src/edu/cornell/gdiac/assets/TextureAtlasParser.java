@@ -0,0 +1,85 @@
+/*
+ * TextureAtlasParser.java
+ *
+ * This is an interface for parsing a JSON entry into a TextureAtlas asset. The atlases
+ * are made at build time by packing many of the texture images into a few pages, so
+ * that sprites drawn together share a texture.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * This class parses a JSON entry into a {@link TextureAtlas}.
+ *
+ * An atlas entry has a file (the .atlas file) and a list of the images it packs
+ * (see {@link ParserUtils#findAtlas}). It may also have a "minFilter" and a
+ * "magFilter", but these are used by the packer and stored in the atlas file. An
+ * atlas whose file does not exist is skipped, and its images are loaded as textures.
+ */
+public class TextureAtlasParser implements AssetParser<TextureAtlas> {
+    /** The current atlas entry in the JSON directory */
+    private JsonValue root;
+
+    /**
+     * Returns the asset type generated by this parser
+     *
+     * @return the asset type generated by this parser
+     */
+    public Class<TextureAtlas> getType() {
+        return TextureAtlas.class;
+    }
+
+    /**
+     * Resets the parser iterator for the given directory.
+     *
+     * The value directory is assumed to be the root of a larger JSON structure.
+     * The individual assets are defined by subtrees in this structure.
+     *
+     * @param directory    The JSON representation of the asset directory
+     */
+    public void reset(JsonValue directory) {
+        root = directory;
+        root = root.getChild( "atlases" );
+    }
+
+    /**
+     * Returns true if there are still assets left to generate
+     *
+     * @return true if there are still assets left to generate
+     */
+    public boolean hasNext() {
+        return root != null;
+    }
+
+    /**
+     * Processes the next available atlas, loading it into the asset manager
+     *
+     * The key will be the name of the atlas entry.
+     *
+     * This method fails silently if there are no available assets to process.
+     *
+     * @param manager	The asset manager to load an asset
+     * @param keymap    The mapping of JSON keys to asset file names
+     */
+    public void processNext(AssetManager manager, ObjectMap<String,String> keymap) {
+        String file = root.getString( "file", null );
+        if (file != null && manager.getFileHandleResolver().resolve( file ).exists()) {
+            keymap.put(root.name(),file);
+            manager.load( file,TextureAtlas.class );
+        }
+        root = root.next();
+    }
+
+    /**
+     * Returns true if o is another TextureAtlasParser
+     *
+     * @return true if o is another TextureAtlasParser
+     */
+    public boolean equals(Object o) {
+        return o instanceof TextureAtlasParser;
+    }
+}
@@ -27,8 +27,13 @@ import com.badlogic.gdx.utils.ObjectMap;
  * used on loading.
  * 
  * all properties) are stored in the file.
+ *
+ * Textures whose image is packed into a texture atlas are not loaded, as their
+ * region is loaded from the atlas instead (see {@link AtlasRegionParser}).
  */
 public class TextureParser implements AssetParser<Texture> {
+    /** The JSON representation of the asset directory */
+    private JsonValue directory;
     /** The current font entry in the JSON directory */
     private JsonValue root;
 
@@ -50,6 +55,7 @@ public class TextureParser implements AssetParser<Texture> {
      * @param directory    The JSON representation of the asset directory
      */
     public void reset(JsonValue directory) {
+        this.directory = directory;
         root = directory;
         root = root.getChild( "textures" );
     }
@@ -88,8 +94,10 @@ public class TextureParser implements AssetParser<Texture> {
             params.wrapV = Texture.TextureWrap.ClampToEdge;
             params.format = Pixmap.Format.RGBA8888;
             String file = root.asString();
-            keymap.put(root.name(),file);
-            manager.load( file,Texture.class, params );
+            if (!isPacked(manager, file)) {
+                keymap.put(root.name(),file);
+                manager.load( file,Texture.class, params );
+            }
 		} else {
             params.genMipMaps = root.getBoolean( "mipmaps",false );
             params.minFilter = ParserUtils.parseFilter(root.get("minFilter"), Texture.TextureFilter.Linear);
@@ -98,7 +106,7 @@ public class TextureParser implements AssetParser<Texture> {
             params.wrapV = ParserUtils.parseWrap(root.get("wrapV"), Texture.TextureWrap.ClampToEdge);
             params.format = root.getBoolean( "alpha",true ) ? Pixmap.Format.RGBA8888 : Pixmap.Format.RGB888;
             String file = root.getString( "file", null );
-            if (file != null) {
+            if (file != null && !isPacked(manager, file)) {
                 keymap.put(root.name(),file);
                 manager.load( file,Texture.class, params );
             }
@@ -106,6 +114,18 @@ public class TextureParser implements AssetParser<Texture> {
         root = root.next();
     }
 
+    /**
+     * Returns true if the given image is packed into a texture atlas
+     *
+     * @param manager	The asset manager to load an asset
+     * @param file      The image file of a texture
+     *
+     * @return true if the given image is packed into a texture atlas
+     */
+    private boolean isPacked(AssetManager manager, String file) {
+        return ParserUtils.findAtlas( directory, file, manager.getFileHandleResolver() ) != null;
+    }
+
     /**
      * Returns true if o is another TextureParser
      *
@@ -16,6 +16,7 @@ import com.badlogic.gdx.assets.loaders.*;
 import com.badlogic.gdx.assets.loaders.resolvers.*;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.GdxRuntimeException;
@@ -25,6 +26,9 @@ import com.badlogic.gdx.utils.GdxRuntimeException;
  *
  * A texture region asset should be specified by filename:name where name is a unique
  * name for the region.
+ *
+ * The file may also be a texture atlas (a file ending in .atlas), in which case the
+ * region is the atlas region with that name.
  */
 public class TextureRegionLoader extends AsynchronousAssetLoader<TextureRegion, TextureRegionLoader.TextureRegionParameters> {
     /** A reference to the file handle resolver (inaccessible in parent class) */
@@ -50,6 +54,8 @@ public class TextureRegionLoader extends AsynchronousAssetLoader<TextureRegion,
         public int width  = -1;
         /** The pixel height of the texture region; use -1 for "remaining" height */
         public int height = -1;
+        /** The name of the region in the atlas, if the source is a texture atlas */
+        public String region;
 
         /**
          * Creates texture region parameters for the give texture.
@@ -131,8 +137,14 @@ public class TextureRegionLoader extends AsynchronousAssetLoader<TextureRegion,
      */
     @Override
     public void loadAsync(AssetManager manager, String fileName, FileHandle file, TextureRegionParameters params) {
-        Texture texture = manager.get(manager.getDependencies(fileName).first());
-        cachedRegion = load(texture, params);
+        String source = manager.getDependencies(fileName).first();
+        if (isAtlas(source)) {
+            String region = params != null ? params.region : fileName.substring(fileName.lastIndexOf(':')+1);
+            cachedRegion = load(manager.get(source, TextureAtlas.class), region);
+        } else {
+            Texture texture = manager.get(source);
+            cachedRegion = load(texture, params);
+        }
     }
 
    /** 
@@ -193,7 +205,11 @@ public class TextureRegionLoader extends AsynchronousAssetLoader<TextureRegion,
             params = new TextureRegionParameters( prefix );
         }
         Array<AssetDescriptor> deps = new Array<AssetDescriptor>(1);
-        deps.add(new AssetDescriptor<Texture>( params.source, Texture.class));
+        if (isAtlas(params.source)) {
+            deps.add(new AssetDescriptor<TextureAtlas>( params.source, TextureAtlas.class));
+        } else {
+            deps.add(new AssetDescriptor<Texture>( params.source, Texture.class));
+        }
         return deps;
     }
 
@@ -215,4 +231,31 @@ public class TextureRegionLoader extends AsynchronousAssetLoader<TextureRegion,
         int height = params.height < 0 ? texture.getHeight()-params.y : params.height;
         return new TextureRegion(texture,params.x,params.y,width,height);
     }
+
+    /**
+     * Loads a texture region from the given texture atlas.
+     *
+     * @param atlas     The parent texture atlas
+     * @param region    The name of the region in the atlas
+     *
+     * @return the atlas region with the given name.
+     */
+    public TextureRegion load (TextureAtlas atlas, String region) {
+        TextureRegion result = atlas.findRegion(region);
+        if (result == null) {
+            throw new GdxRuntimeException( "Texture atlas has no region named '"+region+"'." );
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if the given source file is a texture atlas
+     *
+     * @param source    The source file of a texture region
+     *
+     * @return true if the given source file is a texture atlas
+     */
+    private static boolean isAtlas(String source) {
+        return source.endsWith( ".atlas" );
+    }
 }
@@ -0,0 +1,221 @@
+/*
+ * VariantBuilder.java
+ *
+ * This makes the smaller and compressed copies of the images listed under "variants"
+ * in assets.json, chosen at runtime by VariantResolver. It runs at build time
+ * (./gradlew core:buildVariants) and needs the libGDX natives, for the ETC encoder,
+ * but no application or GL context.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.ETC1;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * This class writes the variants of images, and the manifest read by {@link VariantResolver}.
+ * <p>
+ * The "variants" entry of the asset directory has the manifest file, the directory to
+ * write the variants to, the heights of the variants, and the images. Each image gets
+ * a variant for each height below its own, named by that height (so a variant of
+ * backgrounds/a.png is in variants/720/backgrounds/a.png).
+ * <p>
+ * An image with no transparent pixels also gets a compressed variant at each height,
+ * including its own, in a KTX file. The encoder is the ETC1 encoder of libGDX, whose
+ * output is also valid ETC2, and there is no encoder for the desktop (DXT) formats.
+ */
+public class VariantBuilder {
+    /** The KTX file identifier */
+    private static final byte[] KTX_IDENTIFIER = {
+        (byte)0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte)0xBB, '\r', '\n', 0x1A, '\n'
+    };
+    /** GL_RGB, the base format of the compressed variants */
+    private static final int GL_RGB = 0x1907;
+
+    /**
+     * Writes the variants of the images in an asset directory.
+     * <p>
+     * Arguments: the assets directory (containing assets.json).
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: VariantBuilder <assets directory>");
+            System.exit(1);
+        }
+        FileHandle assets = new FileHandle(new File(args[0]));
+        JsonValue variants = new JsonReader().parse(assets.child("assets.json")).get("variants");
+        if (variants == null) {
+            System.out.println("No variants in assets.json");
+            return;
+        }
+        GdxNativesLoader.load();
+
+        FileHandle output = assets.child(variants.getString("directory"));
+        int[] heights = variants.get("heights").asIntArray();
+        JsonValue manifest = new JsonValue(JsonValue.ValueType.object);
+        for (JsonValue image = variants.get("images").child; image != null; image = image.next) {
+            manifest.addChild(image.asString(), build(assets, image.asString(), output, heights));
+        }
+
+        FileHandle file = assets.child(variants.getString("manifest"));
+        file.writeString(manifest.prettyPrint(JsonWriter.OutputType.json, 0), false);
+        System.out.println("Wrote " + file.path());
+    }
+
+    /**
+     * Writes the variants of an image, and returns their manifest entries.
+     *
+     * @param assets  the assets directory
+     * @param image   the image file, relative to the assets directory
+     * @param output  the directory to write the variants to
+     * @param heights the heights of the variants, in increasing order
+     *
+     * @return the manifest entries of the variants, smallest first
+     */
+    public static JsonValue build(FileHandle assets, String image, FileHandle output, int[] heights) throws IOException {
+        BufferedImage source = ImageIO.read(assets.child(image).file());
+        boolean opaque = isOpaque(source);
+        String root = output.path().substring(assets.path().length() + 1);
+        String compressed = ParserUtils.atlasRegionName(image) + ".ktx";
+
+        JsonValue result = new JsonValue(JsonValue.ValueType.array);
+        for (int height : heights) {
+            if (height >= source.getHeight()) {
+                break;
+            }
+            int width = Math.round((float)source.getWidth() * height / source.getHeight());
+            BufferedImage scaled = scale(source, width, height, opaque);
+            String file = root + "/" + height + "/" + image;
+            FileHandle target = assets.child(file);
+            target.parent().mkdirs();
+            ImageIO.write(scaled, "png", target.file());
+            result.addChild(entry(assets, scaled, file, opaque ? root + "/" + height + "/" + compressed : null));
+        }
+        String file = opaque ? root + "/" + source.getHeight() + "/" + compressed : null;
+        result.addChild(entry(assets, source, image, file));
+        return result;
+    }
+
+    /**
+     * Returns the manifest entry of a variant, writing its compressed file if it has one.
+     */
+    private static JsonValue entry(FileHandle assets, BufferedImage image, String file, String compressed) throws IOException {
+        JsonValue entry = new JsonValue(JsonValue.ValueType.object);
+        entry.addChild("width", new JsonValue(image.getWidth()));
+        entry.addChild("height", new JsonValue(image.getHeight()));
+        entry.addChild("file", new JsonValue(file));
+        if (compressed != null) {
+            FileHandle target = assets.child(compressed);
+            target.parent().mkdirs();
+            writeCompressed(image, target);
+            entry.addChild("compressed", new JsonValue(compressed));
+        }
+        System.out.println(file + " " + image.getWidth() + "x" + image.getHeight() +
+                           (compressed == null ? "" : " (+ " + compressed + ")"));
+        return entry;
+    }
+
+    /**
+     * Returns true if the image has no transparent pixels.
+     */
+    private static boolean isOpaque(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return true;
+        }
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if ((image.getRGB(x, y) >>> 24) != 0xFF) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the image scaled down to the given size.
+     * <p>
+     * The image is halved (bilinearly) until it is less than twice the size, so every
+     * source pixel counts towards the result.
+     */
+    private static BufferedImage scale(BufferedImage image, int width, int height, boolean opaque) {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage result = image;
+        int w = image.getWidth();
+        int h = image.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(result, 0, 0, w, h, null);
+            graphics.dispose();
+            result = next;
+        } while (w != width || h != height);
+        return result;
+    }
+
+    /**
+     * Writes an opaque image as a KTX file in ETC2 format.
+     */
+    private static void writeCompressed(BufferedImage image, FileHandle file) throws IOException {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGB888);
+        ByteBuffer pixels = pixmap.getPixels();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int rgb = image.getRGB(x, y);
+                pixels.put((byte)(rgb >> 16));
+                pixels.put((byte)(rgb >> 8));
+                pixels.put((byte)rgb);
+            }
+        }
+        pixels.rewind();
+        ETC1.ETC1Data data = ETC1.encodeImage(pixmap);
+        pixmap.dispose();
+
+        ByteBuffer compressed = data.compressedData;
+        compressed.position(data.dataOffset);
+        byte[] blocks = new byte[compressed.remaining()];
+        compressed.get(blocks);
+        data.dispose();
+
+        ByteBuffer header = ByteBuffer.allocate(KTX_IDENTIFIER.length + 14 * 4).order(ByteOrder.LITTLE_ENDIAN);
+        header.put(KTX_IDENTIFIER);
+        header.putInt(0x04030201);      // endianness
+        header.putInt(0);               // glType (compressed)
+        header.putInt(1);               // glTypeSize
+        header.putInt(0);               // glFormat (compressed)
+        header.putInt(VariantResolver.COMPRESSED_FORMAT);
+        header.putInt(GL_RGB);
+        header.putInt(width);
+        header.putInt(height);
+        header.putInt(0);               // depth
+        header.putInt(0);               // array elements
+        header.putInt(1);               // faces
+        header.putInt(1);               // mipmap levels
+        header.putInt(0);               // key/value data
+        header.putInt(blocks.length);   // image size
+        try (OutputStream out = new BufferedOutputStream(file.write(false))) {
+            out.write(header.array());
+            out.write(blocks);
+        }
+    }
+}
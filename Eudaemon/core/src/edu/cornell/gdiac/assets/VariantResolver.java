@@ -0,0 +1,153 @@
+/*
+ * VariantResolver.java
+ *
+ * The screen backgrounds are drawn stretched over the window, but their images are
+ * made for the largest window (or larger). A build step (./gradlew core:buildVariants)
+ * makes smaller copies of them, and GPU-compressed copies where the image is opaque.
+ * This resolver swaps in the copy that best fits the window, so the assets and the
+ * code asking for them do not change.
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.glutils.GLVersion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * This class is a {@link FileHandleResolver} that chooses between variants of an image.
+ * <p>
+ * The variants of each image are listed in a manifest, named by the "variants" entry
+ * of the asset directory and written by {@link VariantBuilder}. A variant may also
+ * have a compressed file (a KTX file in ETC2 format), used on OpenGL ES 3.0, where
+ * ETC2 is uploaded as it is. Desktop drivers that accept ETC2 mostly decompress it to
+ * RGBA when it is uploaded, which saves no memory, so desktop GL uses the image file.
+ * <p>
+ * The variant is the smallest one covering the display size (see {@link #setDisplaySize}),
+ * give or take a few percent, or the largest if none does. Until a display size is
+ * set, every file resolves to itself. The choice is made when an asset is loaded, so
+ * an asset that is already loaded keeps its variant until it is unloaded.
+ */
+public class VariantResolver implements FileHandleResolver {
+    /** The GL format of the compressed variants (GL_COMPRESSED_RGB8_ETC2) */
+    public static final int COMPRESSED_FORMAT = 0x9274;
+    /** How far a variant may be stretched to cover the display (the backgrounds are not quite 16:9) */
+    private static final float STRETCH = 1.05f;
+
+    /** A variant of an image */
+    private static class Variant {
+        int width;
+        int height;
+        /** The image file of this variant */
+        String file;
+        /** The compressed file of this variant (null if there is none) */
+        String compressed;
+    }
+
+    /** The resolver for the files themselves */
+    private final FileHandleResolver base;
+    /** The variants of each image, smallest first (replaced, never changed, when read) */
+    private volatile ObjectMap<String, Array<Variant>> variants = new ObjectMap<String, Array<Variant>>();
+    /** The size the images are drawn at (0 if not known) */
+    private volatile int width;
+    private volatile int height;
+    /** Whether the graphics card keeps the compressed variants compressed */
+    private volatile boolean compressed;
+
+    /**
+     * Creates a new resolver for the variants of the files of the given resolver
+     *
+     * @param base  The resolver for the files themselves
+     */
+    public VariantResolver(FileHandleResolver base) {
+        this.base = base;
+    }
+
+    /**
+     * Returns the file handle for the given file name, or for its best variant
+     *
+     * @param fileName  The file name
+     *
+     * @return the file handle for the given file name, or for its best variant
+     */
+    @Override
+    public FileHandle resolve(String fileName) {
+        Array<Variant> choices = variants.get( fileName );
+        if (choices == null || width == 0 || height == 0) {
+            return base.resolve( fileName );
+        }
+
+        Variant variant = choices.peek();
+        for (Variant choice : choices) {
+            if (choice.width*STRETCH >= width && choice.height*STRETCH >= height) {
+                variant = choice;
+                break;
+            }
+        }
+        return base.resolve( compressed && variant.compressed != null ? variant.compressed : variant.file );
+    }
+
+    /**
+     * Sets the size the images are drawn at, in pixels
+     *
+     * This also checks whether the compressed variants are used, so it must be
+     * called on the GL thread.
+     *
+     * @param width     The display width
+     * @param height    The display height
+     */
+    public void setDisplaySize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        compressed = supportsCompression();
+    }
+
+    /**
+     * Reads the variant manifest named by the given asset directory
+     *
+     * If the directory has no "variants" entry, or the manifest does not exist (it is
+     * made at build time), no file has variants.
+     *
+     * @param directory The JSON representation of the asset directory
+     */
+    public void readManifest(JsonValue directory) {
+        ObjectMap<String, Array<Variant>> result = new ObjectMap<String, Array<Variant>>();
+        JsonValue entry = directory.get( "variants" );
+        FileHandle file = entry == null ? null : base.resolve( entry.getString( "manifest" ) );
+        if (file != null && file.exists()) {
+            for (JsonValue image = new JsonReader().parse( file ).child; image != null; image = image.next) {
+                Array<Variant> choices = new Array<Variant>();
+                for (JsonValue json = image.child; json != null; json = json.next) {
+                    Variant variant = new Variant();
+                    variant.width = json.getInt( "width" );
+                    variant.height = json.getInt( "height" );
+                    variant.file = json.getString( "file" );
+                    variant.compressed = json.getString( "compressed", null );
+                    choices.add( variant );
+                }
+                result.put( image.name(), choices );
+            }
+        }
+        variants = result;
+    }
+
+    /**
+     * Returns true if the graphics card keeps ETC2 textures compressed
+     *
+     * ETC2 is part of OpenGL ES 3.0, whose GPUs decode it natively. OpenGL 4.3 (and
+     * the ES 3.0 compatibility extension) accepts it too, but desktop GPUs mostly do
+     * not decode it, and the driver decompresses it on upload. So it is only used on
+     * OpenGL ES.
+     *
+     * @return true if the graphics card keeps ETC2 textures compressed
+     */
+    public static boolean supportsCompression() {
+        GLVersion version = Gdx.graphics == null ? null : Gdx.graphics.getGLVersion();
+        return version != null && version.getType() == GLVersion.Type.GLES &&
+               version.isVersionEqualToOrHigher( 3,0 );
+    }
+}
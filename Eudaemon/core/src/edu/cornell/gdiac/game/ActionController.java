@@ -14,8 +14,6 @@ import edu.cornell.gdiac.game.obstacle.WheelObstacle;
 
 import java.util.ArrayList;
 import java.util.EnumSet;
-import java.util.Timer;
-import java.util.TimerTask;
 
 public class ActionController {
 
@@ -76,6 +74,9 @@ public class ActionController {
 
     private EffectObstacle spiritDrainEffect;
 
+    /** The ticks left before the player's gravity comes back after a dash */
+    private int dashGravityTicksRemaining;
+
     private AudioController audio;
 
     public ActionController(Level level,Array<AIController> aiControllers, AudioController audio) {
@@ -179,6 +180,13 @@ public class ActionController {
             player.setDashCooldownRemaining(dashCooldownRemaining - 1);
         }
 
+        if (dashGravityTicksRemaining > 0) {
+            dashGravityTicksRemaining--;
+            if (dashGravityTicksRemaining == 0 && !player.isRemoved()) {
+                player.setPlayerGravity(player.getPlayerGravity());
+            }
+        }
+
         if (player.getiFramesRemaining() > 0) {
             player.setiFramesRemaining(player.getiFramesRemaining() - 1);
             if (player.getiFramesRemaining() <= 0) {
@@ -385,16 +393,9 @@ public class ActionController {
 //            dashSoundId = playSound(dashSound, dashSoundId, 0.05F);
             audio.playEffect("dash", 0.05f);
 
-            //Setting Gravity to 0 and scheduling to set it back
+            //Setting Gravity to 0 and counting down the ticks to set it back (dash time is in ms)
             player.setPlayerGravity(0.0f);
-            Timer timer = new Timer();
-            timer.schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    if(player.isRemoved()) return;
-                    player.setPlayerGravity(player.getPlayerGravity());
-                }
-            }, player.getDashTime());
+            dashGravityTicksRemaining = (int) Math.ceil(player.getDashTime() / (1000 * LevelScreen.TIME_STEP));
         }
 
         if (player.getDashLifespanRemaining() > 0) {
@@ -904,11 +905,11 @@ public class ActionController {
                     if (action == EnemyAction.ATTACK) {
                         createBullet(aiControllers.get(i).getVelocity(),enemy);
                         enemy.computedirection(aiControllers.get(i).getVelocity());
-                        enemy.startToMove("move",60);
+                        enemy.startToMove(Enemy.MOVE,60);
                     } else if(action==EnemyAction.FLY){
                         enemy.setVelocity(aiControllers.get(i).getVelocity());
                         enemy.applyVelocity();
-                        enemy.setCurrentAnimation("move");
+                        enemy.setCurrentAnimation(Enemy.MOVE);
                     }else{
                         enemy.setMovement(action);
                         enemy.applyVelocity();
@@ -917,16 +918,16 @@ public class ActionController {
                             case "FlyGuardian":
                                 //Green Mosquito
                             case "Fly":
-                                enemy.setCurrentAnimation("move");
+                                enemy.setCurrentAnimation(Enemy.MOVE);
                                 break;
                             //Green Beetle
                             case "Goomba":
                             case "GoombaGuardian":
                             case "Fast":
                                 if (action == EnemyAction.STAY) {
-                                    enemy.setCurrentAnimation("idle");
+                                    enemy.setCurrentAnimation(Enemy.IDLE);
                                 } else {
-                                    enemy.setCurrentAnimation("move");
+                                    enemy.setCurrentAnimation(Enemy.MOVE);
                                 }
                                 break;
                             case "Projectile":
@@ -946,15 +947,6 @@ public class ActionController {
                     enemy.setFacingRight(false);
                 }
 
-                //#region Enemy Animation
-                if (ticks % enemy.getTickFrameSwitch() == 0) {
-                    enemy.setCurrentFrame(enemy.getCurrentFrame() + 1);
-                    if (enemy.getCurrentFrame() >= enemy.getMaxFrame()) {
-                        enemy.setCurrentFrame(0);
-                    }
-                }
-
-                //#endregion
                 enemyAction.clear();
             }
         }
@@ -974,6 +966,7 @@ public class ActionController {
         WheelObstacle bullet = new WheelObstacle(enemy.getX()+offset.x, enemy.getY()+offset.y, 0.5f * radius);
 
         bullet.setName("bullet");
+        bullet.setContactCategory(ContactCategory.BULLET);
         bullet.setDensity(bulletjv.getFloat("density", 0));
         bullet.setTexture(bulletTexture);
         bullet.setBullet(true);
@@ -1044,6 +1037,7 @@ public class ActionController {
 
         Vector2 scale = new Vector2(64.0f, 64.0f);
         SwordWheelObstacle sword = new SwordWheelObstacle(x, y, player.getSwordRadius(), angleFacing, player, player.getAttackLifespan(), 10.0f, scale, player.getSwordEffectSpriteSheet(angleFacing));
+        sword.setContactCategory(ContactCategory.SWORD);
         level.addQueuedObject(sword);
         level.shakeControllerSmall();
     }
@@ -1,25 +1,36 @@
 package edu.cornell.gdiac.game;
 
+import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.math.MathUtils;
 import edu.cornell.gdiac.assets.AssetDirectory;
 import edu.cornell.gdiac.game.models.Settings;
 
 public class AudioController implements SettingsObserver {
-
-
-    private Sound chiyoSound;
-    private Sound momoSound;
+    /** The time (in seconds) to crossfade between the Momo and Chiyo themes */
+    private static final float CROSSFADE_TIME = 0.25f;
+
+    /**
+     * The two form themes. They are streamed rather than decoded into memory, and
+     * always started, paused and stopped together. As they have the same length,
+     * they loop at the same sample and stay in step, so a form swap only needs to
+     * crossfade between them.
+     */
+    private Music chiyoMusic;
+    private Music momoMusic;
     private boolean isMomo;
-    private long chiyoSoundId;
-    private long momoSoundId;
+    /** The current mix between the themes (0 is only Momo, 1 is only Chiyo) */
+    private float mix;
+    /** The mix the crossfade is moving towards */
+    private float mixTarget;
+    /** Whether the theme volumes must be recomputed (e.g. the settings changed) */
+    private boolean volumeDirty;
     private static float masterMultipler;
     private static float sfxMultiplier;
     private static float bgmMultiplier;
 
-    private ObjectMap<String, Sound> effects;
-    private ObjectMap<Sound, Long> effectIds;
-    private ObjectMap<Sound, Long> loopEffectIds;
+    /** Decides which effects get a voice (see EffectMixer) */
+    private EffectMixer effects;
     /** The jump sound.  We only want to play once. */
     private Sound jumpSound;
 
@@ -59,8 +70,10 @@ public class AudioController implements SettingsObserver {
         this.settings = settings;
         settings.addObserver(this);
 
-        chiyoSound = assets.getEntry("music:chiyo", Sound.class);
-        momoSound = assets.getEntry("music:momo", Sound.class);
+        chiyoMusic = assets.getEntry("music:chiyo", Music.class);
+        momoMusic = assets.getEntry("music:momo", Music.class);
+        chiyoMusic.setLooping(true);
+        momoMusic.setLooping(true);
 
         jumpSound = assets.getEntry("effect:temp-jump", Sound.class);
         impactSound = assets.getEntry("effect:temp-impact", Sound.class);
@@ -76,32 +89,53 @@ public class AudioController implements SettingsObserver {
         wallSlideSound = assets.getEntry("effect:temp-wall-slide", Sound.class);
         playerDamageSound = assets.getEntry("effect:temp-player-damage", Sound.class);
 
-        effectIds = new ObjectMap<>();
-        loopEffectIds = new ObjectMap<>();
-        effects = new ObjectMap<>();
-        effects.put("jump", jumpSound);
-        effects.put("impact", impactSound);
-        effects.put("sword-swipe", swordSwipeSound);
-        effects.put("dash", dashSound);
-        effects.put("chiyo-transform", playerChiyoTransformSound);
-        effects.put("momo-transform", playerMomoTransformSound);
-        effects.put("chiyo-run", chiyoRunSound);
-        effects.put("momo-run", momoRunSound);
-        effects.put("small-impact", smallImpactSound);
-        effects.put("sword-kill", swordKillingSound);
-        effects.put("sword-hit", swordHittingSound);
-        effects.put("wall-slide", wallSlideSound);
-        effects.put("player-damage", playerDamageSound);
+        // name, sound, priority, most voices at once, length in seconds
+        effects = new EffectMixer();
+        effects.add("player-damage", playerDamageSound, 4, 1, 1.54f);
+        effects.add("chiyo-transform", playerChiyoTransformSound, 3, 1, 2.09f);
+        effects.add("momo-transform", playerMomoTransformSound, 3, 1, 1.54f);
+        effects.add("sword-kill", swordKillingSound, 3, 2, 2.06f);
+        effects.add("sword-hit", swordHittingSound, 2, 3, 1.52f);
+        effects.add("sword-swipe", swordSwipeSound, 2, 2, 0.55f);
+        effects.add("jump", jumpSound, 2, 1, 0.37f);
+        effects.add("dash", dashSound, 2, 1, 1.54f);
+        effects.add("impact", impactSound, 1, 2, 0.86f);
+        effects.add("small-impact", smallImpactSound, 1, 2, 0.29f);
+        effects.add("chiyo-run", chiyoRunSound, 0, 1, 0.67f);
+        effects.add("momo-run", momoRunSound, 0, 1, 0.55f);
+        effects.add("wall-slide", wallSlideSound, 0, 1, 1.37f);
 
         isMomo = true;
     }
 
-    public void playAllSound(){
-        chiyoSoundId=chiyoSound.loop(1 * masterMultipler* bgmMultiplier );
-        momoSoundId=momoSound.loop(1 * masterMultipler* bgmMultiplier );
+    /**
+     * Starts the form themes, or resumes them where they were paused.
+     * <p>
+     * The theme of the current form is heard at once, without a crossfade.
+     */
+    public void playMusic(){
+        mix = mixTarget;
+        applyMusicVolume();
+        // Started in the same call so that the streams stay in step
+        momoMusic.play();
+        chiyoMusic.play();
+    }
+
+    /**
+     * Pauses the form themes, so that playMusic() resumes them in step.
+     */
+    public void pauseMusic(){
+        momoMusic.pause();
+        chiyoMusic.pause();
     }
 
-    public void updateAudio(float form){
+    /**
+     * Follows the form of the player, crossfading the themes when it changes.
+     *
+     * @param form  the form of the player (0: momo, 1: chiyo)
+     * @param delta the time since the last update, in seconds
+     */
+    public void updateAudio(float form, float delta){
 
         //0: momo, 1: chiyo
         if(form==1 && isMomo){
@@ -111,112 +145,94 @@ public class AudioController implements SettingsObserver {
             isMomo=true;
             chiyoToMomo();
         }
-    }
-
-    public void muteChiyo(){
-        chiyoSound.setVolume(chiyoSoundId,0);
-    }
 
-    public void muteMomo(){
-        momoSound.setVolume(momoSoundId,0);
+        if (mix != mixTarget) {
+            float step = delta / CROSSFADE_TIME;
+            mix = mix < mixTarget ? Math.min(mix + step, mixTarget) : Math.max(mix - step, mixTarget);
+            volumeDirty = true;
+        }
+        if (volumeDirty) {
+            applyMusicVolume();
+        }
     }
 
     public void momoToChiyo(){
-        muteMomo();
-        chiyoSound.setVolume(chiyoSoundId,1 * masterMultipler* bgmMultiplier );
+        mixTarget = 1;
     }
 
     public void chiyoToMomo(){
-        muteChiyo();
-        momoSound.setVolume(momoSoundId,1 * masterMultipler * bgmMultiplier);
+        mixTarget = 0;
+    }
+
+    /**
+     * Sets the theme volumes from the mix. This is an equal-power crossfade, so the
+     * music does not dip halfway through.
+     */
+    private void applyMusicVolume() {
+        float volume = masterMultipler * bgmMultiplier;
+        float angle = mix * MathUtils.HALF_PI;
+        momoMusic.setVolume(volume * MathUtils.cos(angle));
+        chiyoMusic.setVolume(volume * MathUtils.sin(angle));
+        volumeDirty = false;
     }
 
     public void dispose(){
         isMomo=true;
-        //TODO: STOP ALL EFFECTs to prevent continuous playing after death
-        for (Sound effect:effects.values()) {
-            effect.stop();
-        }
-        effects.clear();
-        effectIds.clear();
-        momoSound.stop();
-        chiyoSound.stop();
+        effects.stopAll();
+        momoMusic.stop();
+        chiyoMusic.stop();
         settings.removeObserver(this);
     }
 
     public void stopAllEffects(){
-        for(Sound effect: effects.values()){
-            effect.stop();
-        }
+        effects.stopAll();
     }
 
-
-    private void playEffect(Sound effect, float volume) {
-        if (effectIds.containsKey(effect)) {
-            effect.stop(effectIds.get(effect));
-            effectIds.remove(effect);
-        }
-        if (loopEffectIds.containsKey(effect)) {
-            effect.stop(loopEffectIds.get(effect));
-            loopEffectIds.remove(effect);
-        }
-        volume *= masterMultipler * sfxMultiplier;
-        long id = effect.play(volume);
-        effectIds.put(effect, id);
+    /**
+     * Marks the start of a simulation tick, so that an effect triggered several
+     * times in one tick (e.g. many sword hits) plays only once.
+     */
+    public void nextTick(){
+        effects.nextTick();
     }
 
     public void playEffect(String effectName, float volume) {
-        if (!effects.containsKey(effectName)) {
+        if (!effects.contains(effectName)) {
             System.out.println("WARNING: sound name " + effectName + " does not exist in AudioController.");
             return;
         }
 
-
-        playEffect(effects.get(effectName), volume);
-    }
-
-    public void loopEffect(Sound effect, float volume) {
-        if (effectIds.containsKey(effect)) {
-            effect.stop(effectIds.get(effect));
-        }
-        if (loopEffectIds.containsKey(effect)) {
-            return; // already looping no need to do anything
-        }
-        volume *= masterMultipler * sfxMultiplier;
-        long id = effect.loop(volume);
-        loopEffectIds.put(effect, id);
+        effects.play(effectName, volume * masterMultipler * sfxMultiplier);
     }
 
     public void loopEffect(String effectName, float volume) {
-        if (!effects.containsKey(effectName)) {
+        if (!effects.contains(effectName)) {
             System.out.println("WARNING: sound name " + effectName + " does not exist in AudioController.");
             return;
         }
 
-        loopEffect(effects.get(effectName), volume);
+        effects.loop(effectName, volume * masterMultipler * sfxMultiplier);
     }
 
     public void stopEffect(String effectName) {
-        if (!effects.containsKey(effectName)) {
+        if (!effects.contains(effectName)) {
             System.out.println("WARNING: sound name " + effectName + " does not exist in AudioController.");
             return;
         }
 
-        effects.get(effectName).stop();
-        effectIds.remove(effects.get(effectName));
-        loopEffectIds.remove(effects.get(effectName));
+        effects.stop(effectName);
     }
 
     @Override
     public void onMasterVolumeChange(float newVolume) {
         this.masterMultipler = newVolume;
-        //TODO
+        volumeDirty = true;
     }
 
     @Override
     public void onMusicVolumeChange(float newVolume) {
         this.bgmMultiplier = newVolume;
-        //TODO
+        volumeDirty = true;
     }
 
     @Override
@@ -45,27 +45,27 @@ public class CameraController {
         float camZone_x = level.getCamZoneX();
         float camZone_y = level.getCamZoneY();
 
-        if (Math.abs(camera.position.x - level.getPlayer().getX()) > camZone_x) {
-            if (camera.position.x > level.getPlayer().getX()) {
-                setGameplayCamera(canvas, level.getPlayer().getX()+camZone_x, camera.position.y, level.getCameraWidth(), level.getCameraHeight());
+        if (Math.abs(camera.position.x - level.getPlayer().getDrawX()) > camZone_x) {
+            if (camera.position.x > level.getPlayer().getDrawX()) {
+                setGameplayCamera(canvas, level.getPlayer().getDrawX()+camZone_x, camera.position.y, level.getCameraWidth(), level.getCameraHeight());
                 backgroundCoordinates = camera.position.cpy();
             }
 
             else {
-                setGameplayCamera(canvas, level.getPlayer().getX()-camZone_x, camera.position.y, level.getCameraWidth(), level.getCameraHeight());
+                setGameplayCamera(canvas, level.getPlayer().getDrawX()-camZone_x, camera.position.y, level.getCameraWidth(), level.getCameraHeight());
                 backgroundCoordinates = camera.position.cpy();
             }
         }
 
-        if (Math.abs(camera.position.y - level.getPlayer().getY()) > camZone_y) {
-            if (camera.position.y > level.getPlayer().getY()) {
-                setGameplayCamera(canvas, camera.position.x, level.getPlayer().getY()+camZone_y, level.getCameraWidth(), level.getCameraHeight());
+        if (Math.abs(camera.position.y - level.getPlayer().getDrawY()) > camZone_y) {
+            if (camera.position.y > level.getPlayer().getDrawY()) {
+                setGameplayCamera(canvas, camera.position.x, level.getPlayer().getDrawY()+camZone_y, level.getCameraWidth(), level.getCameraHeight());
                 backgroundCoordinates = camera.position.cpy();
             }
 
 
             else {
-                setGameplayCamera(canvas, camera.position.x, level.getPlayer().getY()-camZone_y, level.getCameraWidth(), level.getCameraHeight());
+                setGameplayCamera(canvas, camera.position.x, level.getPlayer().getDrawY()-camZone_y, level.getCameraWidth(), level.getCameraHeight());
                 backgroundCoordinates = camera.position.cpy();
             }
         }
@@ -88,12 +88,8 @@ public class CameraController {
      * @param height the height in level coordinates that the window should display vertically
      */
     public void setGameplayCamera(GameCanvas canvas, float x, float y, float width, float height) {
-        getCamera().setToOrtho(false, width, height);
-        getCamera().position.set(x, y, 0); // set to some other position to follow player;
-        getCamera().update();
-
-        canvas.getSpriteBatch().setProjectionMatrix(getCamera().combined);
-
+        // The canvas owns the projection, and tracks which camera is in effect
+        canvas.setGameplayCamera(x, y, width, height);
     }
 
 
@@ -101,10 +97,7 @@ public class CameraController {
      * Sets the projection matrix to draw overlay and menu elements
      */
     public void setOverlayCamera(GameCanvas canvas) {
-        //getCamera().position.set(getWidth() / 2, getHeight() / 2, 0); // set to some other position to follow player;
-        getCamera().setToOrtho(false, canvas.getWidth(), canvas.getHeight());
-        getCamera().update();
-        canvas.getSpriteBatch().setProjectionMatrix(getCamera().combined);
+        canvas.setOverlayCamera();
     }
 
 
@@ -4,11 +4,32 @@ import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.utils.Array;
 import edu.cornell.gdiac.game.models.*;
 import edu.cornell.gdiac.game.obstacle.EffectObstacle;
+import edu.cornell.gdiac.game.obstacle.Obstacle;
 import edu.cornell.gdiac.game.obstacle.SwordWheelObstacle;
 import edu.cornell.gdiac.game.obstacle.WheelObstacle;
 
+/**
+ * Routes Box2D contacts to the game logic.
+ * <p>
+ * Every body is tagged with a ContactCategory when it is created. Each callback
+ * looks up the categories of its two bodies in a table and runs the single
+ * handler registered for that pair (if any). The handlers are built once, so
+ * nothing is allocated inside the callbacks.
+ */
 public class CollisionController implements ContactListener {
 
+    /**
+     * The response to a contact between two categories of bodies.
+     */
+    private interface ContactHandler {
+        /**
+         * @param contact   the contact being reported
+         * @param a         the fixture of the first category the handler was registered with
+         * @param b         the fixture of the second category the handler was registered with
+         */
+        void handle(Contact contact, Fixture a, Fixture b);
+    }
+
     private AudioController audio;
 
     private Level level;
@@ -27,12 +48,59 @@ public class CollisionController implements ContactListener {
 
     private EffectObstacle bulletDestroyEffect;
 
+    /** The beginContact handler of each pair of categories (null if none) */
+    private final ContactHandler[][] beginHandlers;
+    /** The endContact handler of each pair of categories (null if none) */
+    private final ContactHandler[][] endHandlers;
+    /** The preSolve handler of each pair of categories (null if none) */
+    private final ContactHandler[][] preSolveHandlers;
+
     public CollisionController(Level level, AudioController audio) {
         this.level = level;
         this.audio = audio;
         groundSensorFixtures = new Array<Fixture>();
         rightWallSensorFixtures = new Array<Fixture>();
         leftWallSensorFixtures = new Array<Fixture>();
+
+        beginHandlers = new ContactHandler[ContactCategory.COUNT][ContactCategory.COUNT];
+        endHandlers = new ContactHandler[ContactCategory.COUNT][ContactCategory.COUNT];
+        preSolveHandlers = new ContactHandler[ContactCategory.COUNT][ContactCategory.COUNT];
+
+        //#region beginContact
+        register(beginHandlers, ContactCategory.PLAYER, ContactCategory.TILE, this::beginPlayerTile);
+        // bullets break on anything solid that is not an enemy
+        for (int category = 0; category < ContactCategory.COUNT; category++) {
+            if (category != ContactCategory.ENEMY && category != ContactCategory.SWORD) {
+                register(beginHandlers, ContactCategory.BULLET, category, this::beginBullet);
+            }
+        }
+        register(beginHandlers, ContactCategory.SWORD, ContactCategory.BULLET, this::beginSwordBullet);
+        register(beginHandlers, ContactCategory.SWORD, ContactCategory.ENEMY, this::beginSwordEnemy);
+        register(beginHandlers, ContactCategory.SWORD, ContactCategory.TILE, this::beginSwordTile);
+        register(beginHandlers, ContactCategory.PLAYER, ContactCategory.ENEMY, this::beginPlayerEnemy);
+        register(beginHandlers, ContactCategory.PLAYER, ContactCategory.EXIT, this::beginPlayerExit);
+        register(beginHandlers, ContactCategory.PLAYER, ContactCategory.BILLBOARD, this::beginPlayerBillboard);
+        register(beginHandlers, ContactCategory.PLAYER, ContactCategory.TUTORIAL, this::beginPlayerTutorial);
+        register(beginHandlers, ContactCategory.ENEMY, ContactCategory.SPIKE, this::beginEnemySpike);
+        //#endregion
+
+        //#region endContact
+        register(endHandlers, ContactCategory.PLAYER, ContactCategory.TILE, this::endPlayerTile);
+        register(endHandlers, ContactCategory.PLAYER, ContactCategory.ENEMY, this::endPlayerEnemy);
+        register(endHandlers, ContactCategory.PLAYER, ContactCategory.BILLBOARD, this::endPlayerBillboard);
+        register(endHandlers, ContactCategory.PLAYER, ContactCategory.TUTORIAL, this::endPlayerTutorial);
+        //#endregion
+
+        //#region preSolve
+        register(preSolveHandlers, ContactCategory.PLAYER, ContactCategory.SPIKE, this::preSolvePlayerSpike);
+        register(preSolveHandlers, ContactCategory.PLAYER, ContactCategory.ENEMY, this::preSolvePlayerEnemy);
+        register(preSolveHandlers, ContactCategory.ENEMY, ContactCategory.ENEMY, this::disableContact);
+        register(preSolveHandlers, ContactCategory.ENEMY, ContactCategory.SWORD, this::disableContact);
+        for (int category = 0; category < ContactCategory.COUNT; category++) {
+            register(preSolveHandlers, ContactCategory.BILLBOARD, category, this::disableContact);
+            register(preSolveHandlers, ContactCategory.TUTORIAL, category, this::disableContact);
+        }
+        //#endregion
     }
 
     public void dispose() {
@@ -42,406 +110,320 @@ public class CollisionController implements ContactListener {
         this.leftWallSensorFixtures.clear();
     }
 
-    @Override
-    public void beginContact(Contact contact) {
+    /**
+     * Registers the handler for a pair of categories, in both orders.
+     * <p>
+     * The handler always receives the fixture of category a first.
+     */
+    private static void register(ContactHandler[][] table, int a, int b, ContactHandler handler) {
+        table[a][b] = handler;
+        if (a != b) {
+            table[b][a] = (contact, fixB, fixA) -> handler.handle(contact, fixA, fixB);
+        }
+    }
+
+    /**
+     * Runs the handler for the categories of the bodies in a contact, if any.
+     */
+    private void dispatch(ContactHandler[][] table, Contact contact) {
         Fixture fix1 = contact.getFixtureA();
         Fixture fix2 = contact.getFixtureB();
+        ContactHandler handler = table[categoryOf(fix1.getBody())][categoryOf(fix2.getBody())];
+        if (handler != null) {
+            handler.handle(contact, fix1, fix2);
+        }
+    }
 
-        Object fd1 = fix1.getUserData();
-        Object fd2 = fix2.getUserData();
+    /**
+     * @return the contact category of a body
+     */
+    private static int categoryOf(Body body) {
+        Object data = body.getUserData();
+        if (data instanceof Obstacle) {
+            return ((Obstacle) data).getContactCategory();
+        }
+        return data instanceof TileCollider ? ContactCategory.TILE : ContactCategory.NONE;
+    }
 
-        Body body1 = fix1.getBody();
-        Body body2 = fix2.getBody();
+    @Override
+    public void beginContact(Contact contact) {
+        dispatch(beginHandlers, contact);
+    }
 
-        Object bd1 = body1.getUserData();
-        Object bd2 = body2.getUserData();
+    @Override
+    public void endContact(Contact contact) {
+        dispatch(endHandlers, contact);
+    }
 
-        // Sees if the player is grounded
-        try {
-            if ((bd1.toString().contains("Tile") && fix2.getUserData().equals(
-                    level.getPlayer().getGroundSensorName())) ||
-                    (bd2.toString().contains("Tile") && fix1.getUserData().equals(
-                            level.getPlayer().getGroundSensorName()))) {
-                level.getPlayer().setGrounded(true);
-                groundSensorFixtures.add(level.getPlayer() == bd1 ? fix2 : fix1);
-            }
-        } catch (Exception e) { }
+    @Override
+    public void preSolve(Contact contact, Manifold oldManifold) {
+        dispatch(preSolveHandlers, contact);
+    }
 
-        // See if the player's right side is touching the wall
-        try {
-            if ((bd1.toString().contains("Tile") && fix2.getUserData().equals(
-                    level.getPlayer().getWallSensorNameRight())) ||
-                    (bd2.toString().contains("Tile") && fix1.getUserData().equals(
-                            level.getPlayer().getWallSensorNameRight()))) {
-                level.getPlayer().setTouchingWallRight(true);
-                rightWallSensorFixtures.add(level.getPlayer() == bd1 ? fix2 : fix1);
-            }
-        } catch (Exception e) { }
+    @Override
+    public void postSolve(Contact contact, ContactImpulse impulse) {
+
+    }
+
+    //#region beginContact handlers
 
+    /** Tracks which of the player's sensors are touching tiles */
+    private void beginPlayerTile(Contact contact, Fixture playerFix, Fixture tileFix) {
+        Player player = level.getPlayer();
+        Object sensor = playerFix.getUserData();
+
+        // Sees if the player is grounded
+        if (player.getGroundSensorName().equals(sensor)) {
+            player.setGrounded(true);
+            groundSensorFixtures.add(tileFix);
+        }
+        // See if the player's right side is touching the wall
+        else if (player.getWallSensorNameRight().equals(sensor)) {
+            player.setTouchingWallRight(true);
+            rightWallSensorFixtures.add(tileFix);
+        }
         // See if the player's left side is touching the wall
-        try {
-            if ((bd1.toString().contains("Tile") && fix2.getUserData().equals(
-                    level.getPlayer().getWallSensorNameLeft())) ||
-                    (bd2.toString().contains("Tile") && fix1.getUserData().equals(
-                            level.getPlayer().getWallSensorNameLeft()))) {
-                level.getPlayer().setTouchingWallLeft(true);
-                leftWallSensorFixtures.add(level.getPlayer() == bd1 ? fix2 : fix1);
-            }
-        } catch (Exception e) { }
-
-
-        //here is the code for bullet
-        //bullet is wheel obstacle but is not sword wheel obstacle
-        if (bd1 instanceof WheelObstacle && !(bd1 instanceof SwordWheelObstacle) && !(bd2 instanceof Enemy) && !fix2.isSensor()){
-            ((WheelObstacle) bd1).markRemoved(true);
-            if(bd2 instanceof Player){
-                Player player=level.getPlayer();
-                if (!player.isHit() & !player.isDashing()) {
-                    player.setHit(true);
-                    hitPlayer(2, bd1);
-                    level.shakeControllerMedium();
-                    if (!level.getPlayer().isRemoved()) level.setShouldShakeCamera(true,1);
-                }
-            }
-        }else if (bd2 instanceof WheelObstacle && !(bd2 instanceof SwordWheelObstacle)&& !(bd1 instanceof Enemy) && !fix1.isSensor() ){
-            ((WheelObstacle) bd2).markRemoved(true);
-            if(bd1 instanceof Player ) {
-                Player player = level.getPlayer();
-                if (!player.isHit() & !player.isDashing()) {
-                    player.setHit(true);
-                    hitPlayer(2, bd2);
-                    level.shakeControllerHeavy();
-                    if (!level.getPlayer().isRemoved()) level.setShouldShakeCamera(true,1);
-                }
-            }
+        else if (player.getWallSensorNameLeft().equals(sensor)) {
+            player.setTouchingWallLeft(true);
+            leftWallSensorFixtures.add(tileFix);
         }
-        if (bd1 instanceof SwordWheelObstacle && bd2 instanceof Enemy || bd2 instanceof SwordWheelObstacle && bd1 instanceof Enemy) {
-            Enemy enemy = (Enemy) (bd1 instanceof SwordWheelObstacle ? bd2 : bd1);
-            SwordWheelObstacle sword = (SwordWheelObstacle) (bd1 instanceof SwordWheelObstacle ? bd1 : bd2);
-
-            if (!sword.hasHitEnemy(enemy)) {
-                Player player = level.getPlayer();
-
-                //down
-                if (player.getAngleFacing() == 270) {
-                    player.setVelocity(player.getBodyVelocityX(), player.getDownwardAttackPropelY());
-                }
-
-                //down left
-                else if (player.getAngleFacing() == 225) {
-                    player.setVelocity(player.getDownwardAttackPropelX(), player.getDownwardAttackPropelY());
-                }
-
-                //down right
-                else if (player.getAngleFacing() == 315) {
-                    player.setVelocity(-player.getDownwardAttackPropelX(), player.getDownwardAttackPropelY());
-                }
-
-                enemy.hitBySword(level.getPlayer(), level);
-                if(enemy.getHearts() == 0){
-                    audio.playEffect("sword-kill", 0.5f);
-                    if (!level.getPlayer().isRemoved()) level.setShouldShakeCamera(true,1);
-                }
-                else{
-                    audio.playEffect("sword-hit", 0.3f);
-                }
-                sword.addHitEnemy(enemy);
-                level.shakeControllerHeavy();
+    }
 
-                if(enemy.getHearts() > 0){
-                    //create hit by sword effect
-                    float effectAngle = (float) Math.toRadians(level.getPlayer().getAngleFacing());
-                    float pOffsetX = 0.0f;
-                    float pOffsetY = 0.0f;
-                    float sx = 0.02f;
-                    EffectObstacle bloodEffect = level.getEffectPool().obtainEffect(enemy.getX(), enemy.getY(), enemy.getBloodEffect().getRegionWidth(),
-                            enemy.getBloodEffect().getRegionHeight(), sx, 0.02f, effectAngle,
-                            pOffsetX, pOffsetY,true,
-                            "bloodEffect", enemy, 0.35f,
-                            1, 1, enemy.getBloodEffectAnimation(),3, 0, false);
-
-                    level.addQueuedObject(bloodEffect);
-                }
-                else{
-                    float effectAngle = (float) Math.toRadians(level.getPlayer().getAngleFacing());
-                    float pOffsetX = 0.0f;
-                    float pOffsetY = 0.0f;
-                    float sx = 0.02f;
-                    EffectObstacle killedBloodEffect = level.getEffectPool().obtainEffect(enemy.getX(), enemy.getY(), enemy.getKilledBloodEffect().getRegionWidth(),
-                            enemy.getKilledBloodEffect().getRegionHeight(), sx, 0.02f, effectAngle,
-                            pOffsetX, pOffsetY,true,
-                            "killedBloodEffect", enemy, 0.35f,
-                            1, 1, enemy.getKilledBloodEffectAnimation(),3, 0, false);
-                    level.addQueuedObject(killedBloodEffect);
-                }
-            }
+    /** A bullet is destroyed by anything solid, and damages the player */
+    private void beginBullet(Contact contact, Fixture bulletFix, Fixture otherFix) {
+        if (otherFix.isSensor()) return;
+        ((WheelObstacle) bulletFix.getBody().getUserData()).markRemoved(true);
 
+        if (otherFix.getBody().getUserData() instanceof Player) {
+            Player player = level.getPlayer();
+            if (!player.isHit() & !player.isDashing()) {
+                player.setHit(true);
+                hitPlayer(2, bulletFix.getBody().getUserData());
+                level.shakeControllerHeavy();
+                if (!level.getPlayer().isRemoved()) level.setShouldShakeCamera(true,1);
+            }
         }
+    }
 
-        if ((bd1 instanceof SwordWheelObstacle && bd2.toString().contains("Tile")) || (bd2 instanceof SwordWheelObstacle && bd1.toString().contains("Tile"))) {
-            SwordWheelObstacle sword = (SwordWheelObstacle) (bd1 instanceof SwordWheelObstacle ? bd1 : bd2);
-
-            if (!sword.hasHitWall()) {
-                Player player = level.getPlayer();
-                float x = player.getX();
-                float y = player.getY();
-                //down
-                if (player.getAngleFacing() == 270) {
+    /** Player attack destroys projectile */
+    private void beginSwordBullet(Contact contact, Fixture swordFix, Fixture bulletFix) {
+        WheelObstacle bullet = (WheelObstacle) bulletFix.getBody().getUserData();
+        bulletDestroyEffect = level.getEffectPool().obtainEffect(bullet.getX(), bullet.getY(),
+                level.getPlayer().getBulletDestroySpriteSheet().getRegionWidth(), level.getPlayer().getBulletDestroySpriteSheet().getRegionHeight(),
+                0.01f, 0.01f, 0, 0, 0, true, "bulletDestroy", level.getPlayer(), 1f,
+                1, 1, level.getPlayer().getBulletDestroyAnimation(), 5, 0, false);
+        level.addQueuedObject(bulletDestroyEffect);
+        bullet.markRemoved(true);
+    }
 
-                }
+    private void beginSwordEnemy(Contact contact, Fixture swordFix, Fixture enemyFix) {
+        SwordWheelObstacle sword = (SwordWheelObstacle) swordFix.getBody().getUserData();
+        Enemy enemy = (Enemy) enemyFix.getBody().getUserData();
 
-                //down left
-                else if (player.getAngleFacing() == 225) {
+        if (!sword.hasHitEnemy(enemy)) {
+            Player player = level.getPlayer();
 
-                }
+            //down
+            if (player.getAngleFacing() == 270) {
+                player.setVelocity(player.getBodyVelocityX(), player.getDownwardAttackPropelY());
+            }
 
-                //down right
-                else if (player.getAngleFacing() == 315) {
+            //down left
+            else if (player.getAngleFacing() == 225) {
+                player.setVelocity(player.getDownwardAttackPropelX(), player.getDownwardAttackPropelY());
+            }
 
-                }
+            //down right
+            else if (player.getAngleFacing() == 315) {
+                player.setVelocity(-player.getDownwardAttackPropelX(), player.getDownwardAttackPropelY());
+            }
 
-                sword.setHasHitWall(true);
-                level.shakeControllerMedium();
+            enemy.hitBySword(level.getPlayer(), level);
+            if(enemy.getHearts() == 0){
+                audio.playEffect("sword-kill", 0.5f);
+                if (!level.getPlayer().isRemoved()) level.setShouldShakeCamera(true,1);
+            }
+            else{
+                audio.playEffect("sword-hit", 0.3f);
+            }
+            sword.addHitEnemy(enemy);
+            level.shakeControllerHeavy();
 
-                //create hit by hit wall effect
+            if(enemy.getHearts() > 0){
+                //create hit by sword effect
+                float effectAngle = (float) Math.toRadians(level.getPlayer().getAngleFacing());
                 float pOffsetX = 0.0f;
                 float pOffsetY = 0.0f;
-                float sx = 1.0f;
-                float sy = 1.0f;
-                EffectObstacle hitWallEffect = level.getEffectPool().obtainEffect(x, y, player.getHitWallEffect().getKeyFrame(0).getRegionWidth(),
-                        player.getHitWallEffect().getKeyFrame(0).getRegionHeight(), sx, sy, 0,
-                        pOffsetX, pOffsetY,false,
-                        "hitEffect", player, 0.35f,
-                        1, 1, player.getHitWallEffect(),3, 0, false);
-
-                level.addQueuedObject(hitWallEffect);
+                float sx = 0.02f;
+                EffectObstacle bloodEffect = level.getEffectPool().obtainEffect(enemy.getX(), enemy.getY(), enemy.getBloodEffect().getRegionWidth(),
+                        enemy.getBloodEffect().getRegionHeight(), sx, 0.02f, effectAngle,
+                        pOffsetX, pOffsetY,true,
+                        "bloodEffect", enemy, 0.35f,
+                        1, 1, enemy.getBloodEffectAnimation(),3, 0, false);
+
+                level.addQueuedObject(bloodEffect);
+            }
+            else{
+                float effectAngle = (float) Math.toRadians(level.getPlayer().getAngleFacing());
+                float pOffsetX = 0.0f;
+                float pOffsetY = 0.0f;
+                float sx = 0.02f;
+                EffectObstacle killedBloodEffect = level.getEffectPool().obtainEffect(enemy.getX(), enemy.getY(), enemy.getKilledBloodEffect().getRegionWidth(),
+                        enemy.getKilledBloodEffect().getRegionHeight(), sx, 0.02f, effectAngle,
+                        pOffsetX, pOffsetY,true,
+                        "killedBloodEffect", enemy, 0.35f,
+                        1, 1, enemy.getKilledBloodEffectAnimation(),3, 0, false);
+                level.addQueuedObject(killedBloodEffect);
             }
-
-        }
-            //I move them to presolve()
-//        if (bd1 instanceof Player && !fix1.isSensor() && bd2 instanceof Enemy ||
-//                bd2 instanceof Player && !fix2.isSensor() && bd1 instanceof Enemy) {
-//            Enemy enemy = (Enemy) (bd1 instanceof Player ? bd2 : bd1);
-//            Player player = (Player) (bd1 instanceof Player ? bd1 : bd2);
-//
-//            if (!player.isHit() & !player.isDashing()) {
-//                player.setHit(true);
-//                hitPlayer(0, bd1 instanceof Player? bd2:bd1);
-//            }
-//        }
-
-        if (level.getPlayer().getSpiritSensorName().equals(fd1) && bd2 instanceof Enemy || level.getPlayer().getSpiritSensorName().equals(fd2) && bd1 instanceof Enemy) {
-            Enemy enemy = (Enemy) (bd1 instanceof Enemy ? bd1 : bd2);
-            if (enemy.getSpiritRemain()>0){
-             level.getPlayer().getEnemiesInSpiritRange().add(enemy);}
-        }
-
-        if (bd1 instanceof Player && !fix1.isSensor() && bd2 instanceof Exit ||
-                bd2 instanceof Player && !fix2.isSensor() && bd1 instanceof Exit) {
-            Exit exit = (Exit) (bd1 instanceof Player ? bd2 : bd1);
-
-            exit.setReached(true);
-            level.setCompleted(true);
-        }
-
-        if ((bd1 instanceof Player && bd2 instanceof Billboard || bd2 instanceof Player && bd1 instanceof Billboard)
-                && (!level.getPlayer().getSpiritSensorName().equals(fd1) && !level.getPlayer().getSpiritSensorName().equals(fd2))) {
-            Billboard billboard = (Billboard) (bd1 instanceof Billboard? bd1 : bd2);
-            billboard.setDisplay(true);
         }
+    }
 
-        if ((bd1 instanceof Player && bd2 instanceof TutorialArea || bd2 instanceof Player && bd1 instanceof TutorialArea)
-                && (!level.getPlayer().getSpiritSensorName().equals(fd1) && !level.getPlayer().getSpiritSensorName().equals(fd2))) {
-            TutorialArea tutorialArea = (TutorialArea) (bd1 instanceof TutorialArea? bd1 : bd2);
-            tutorialArea.setDisplay(true);
+    private void beginSwordTile(Contact contact, Fixture swordFix, Fixture tileFix) {
+        SwordWheelObstacle sword = (SwordWheelObstacle) swordFix.getBody().getUserData();
+
+        if (!sword.hasHitWall()) {
+            Player player = level.getPlayer();
+            float x = player.getX();
+            float y = player.getY();
+
+            sword.setHasHitWall(true);
+            level.shakeControllerMedium();
+
+            //create hit by hit wall effect
+            float pOffsetX = 0.0f;
+            float pOffsetY = 0.0f;
+            float sx = 1.0f;
+            float sy = 1.0f;
+            EffectObstacle hitWallEffect = level.getEffectPool().obtainEffect(x, y, player.getHitWallEffect().getKeyFrame(0).getRegionWidth(),
+                    player.getHitWallEffect().getKeyFrame(0).getRegionHeight(), sx, sy, 0,
+                    pOffsetX, pOffsetY,false,
+                    "hitEffect", player, 0.35f,
+                    1, 1, player.getHitWallEffect(),3, 0, false);
+
+            level.addQueuedObject(hitWallEffect);
         }
-        //#endregion
-
+    }
 
-        //#region Cancel ALL collision between spike and enemy
-        if((bd1 instanceof Enemy && bd2 instanceof Spike) || (bd2 instanceof Enemy && bd1 instanceof Spike)){
-            Fixture fixture1 = fix1;
-            Fixture fixture2 = fix2;
-            Filter filter1 = fixture1.getFilterData();
-            Filter filter2 = fixture2.getFilterData();
-            filter1.groupIndex = -1;
-            filter2.groupIndex = -1;
-            fixture1.setFilterData(filter1);
-            fixture2.setFilterData(filter2);
+    /** Enemies entering the spirit sensor can be drained */
+    private void beginPlayerEnemy(Contact contact, Fixture playerFix, Fixture enemyFix) {
+        if (level.getPlayer().getSpiritSensorName().equals(playerFix.getUserData())) {
+            Enemy enemy = (Enemy) enemyFix.getBody().getUserData();
+            if (enemy.getSpiritRemain()>0){
+                level.getPlayer().getEnemiesInSpiritRange().add(enemy);
+            }
         }
-        //#endregion
+    }
 
-        //#region Player attack destroys projectile
-        if (bd1 instanceof SwordWheelObstacle && bd2 instanceof WheelObstacle ||
-                bd2 instanceof SwordWheelObstacle && bd1 instanceof WheelObstacle) {
-            WheelObstacle bullet = (WheelObstacle) (((WheelObstacle) bd1).getName().equals("bullet") ? bd1 : bd2);
-            bulletDestroyEffect = level.getEffectPool().obtainEffect(bullet.getX(), bullet.getY(),
-                    level.getPlayer().getBulletDestroySpriteSheet().getRegionWidth(), level.getPlayer().getBulletDestroySpriteSheet().getRegionHeight(),
-                    0.01f, 0.01f, 0, 0, 0, true, "bulletDestroy", level.getPlayer(), 1f,
-                    1, 1, level.getPlayer().getBulletDestroyAnimation(), 5, 0, false);
-            level.addQueuedObject(bulletDestroyEffect);
-            bullet.markRemoved(true);
-        }
-        //#endregion
+    private void beginPlayerExit(Contact contact, Fixture playerFix, Fixture exitFix) {
+        if (playerFix.isSensor()) return;
+        Exit exit = (Exit) exitFix.getBody().getUserData();
 
+        exit.setReached(true);
+        level.setCompleted(true);
+    }
 
+    private void beginPlayerBillboard(Contact contact, Fixture playerFix, Fixture billboardFix) {
+        if (level.getPlayer().getSpiritSensorName().equals(playerFix.getUserData())) return;
+        ((Billboard) billboardFix.getBody().getUserData()).setDisplay(true);
     }
 
-    @Override
-    public void endContact(Contact contact) {
-        Fixture fix1 = contact.getFixtureA();
-        Fixture fix2 = contact.getFixtureB();
+    private void beginPlayerTutorial(Contact contact, Fixture playerFix, Fixture tutorialFix) {
+        if (level.getPlayer().getSpiritSensorName().equals(playerFix.getUserData())) return;
+        ((TutorialArea) tutorialFix.getBody().getUserData()).setDisplay(true);
+    }
 
-        Object fd1 = fix1.getUserData();
-        Object fd2 = fix2.getUserData();
+    /** Cancel ALL collision between spike and enemy */
+    private void beginEnemySpike(Contact contact, Fixture enemyFix, Fixture spikeFix) {
+        Filter filter1 = enemyFix.getFilterData();
+        Filter filter2 = spikeFix.getFilterData();
+        filter1.groupIndex = -1;
+        filter2.groupIndex = -1;
+        enemyFix.setFilterData(filter1);
+        spikeFix.setFilterData(filter2);
+    }
 
-        Body body1 = fix1.getBody();
-        Body body2 = fix2.getBody();
+    //#endregion
 
-        Object bd1 = body1.getUserData();
-        Object bd2 = body2.getUserData();
+    //#region endContact handlers
 
-        // Sees if the player's ground sensor is no longer in contact with any tiles
-        try {
-            if ((bd1.toString().contains("Tile") && fix2.getUserData().equals(
-                    level.getPlayer().getGroundSensorName())) ||
-                    (bd2.toString().contains("Tile") && fix1.getUserData().equals(
-                            level.getPlayer().getGroundSensorName()))) {
+    /** Sees if the player's sensors are no longer in contact with any tiles */
+    private void endPlayerTile(Contact contact, Fixture playerFix, Fixture tileFix) {
+        Player player = level.getPlayer();
+        Object sensor = playerFix.getUserData();
 
-                groundSensorFixtures.removeValue(level.getPlayer() == bd1 ? fix2 : fix1, true);
-                if (groundSensorFixtures.size == 0) {
-                    level.getPlayer().setGrounded(false);
-                }
+        if (player.getGroundSensorName().equals(sensor)) {
+            groundSensorFixtures.removeValue(tileFix, true);
+            if (groundSensorFixtures.size == 0) {
+                player.setGrounded(false);
             }
-        } catch (Exception e) {}
-
-        // Sees if the player's right wall sensor is no longer in contact with any tiles
-        try {
-            if ((bd1.toString().contains("Tile") && fix2.getUserData().equals(
-                    level.getPlayer().getWallSensorNameRight())) ||
-                    (bd2.toString().contains("Tile") && fix1.getUserData().equals(
-                            level.getPlayer().getWallSensorNameRight()))) {
-
-                rightWallSensorFixtures.removeValue(level.getPlayer() == bd1 ? fix2 : fix1, true);
-                if (rightWallSensorFixtures.size == 0) {
-                    level.getPlayer().setTouchingWallRight(false);
-                }
+        } else if (player.getWallSensorNameRight().equals(sensor)) {
+            rightWallSensorFixtures.removeValue(tileFix, true);
+            if (rightWallSensorFixtures.size == 0) {
+                player.setTouchingWallRight(false);
             }
-        } catch (Exception e) {}
-
-        // Sees if the player's left wall sensor is no longer in contact with any tiles
-        try {
-            if ((bd1.toString().contains("Tile") && fix2.getUserData().equals(
-                    level.getPlayer().getWallSensorNameLeft())) ||
-                    (bd2.toString().contains("Tile") && fix1.getUserData().equals(
-                            level.getPlayer().getWallSensorNameLeft()))) {
-
-                leftWallSensorFixtures.removeValue(level.getPlayer() == bd1 ? fix2 : fix1, true);
-                if (leftWallSensorFixtures.size == 0) {
-                    level.getPlayer().setTouchingWallLeft(false);
-                }
+        } else if (player.getWallSensorNameLeft().equals(sensor)) {
+            leftWallSensorFixtures.removeValue(tileFix, true);
+            if (leftWallSensorFixtures.size == 0) {
+                player.setTouchingWallLeft(false);
             }
-        } catch (Exception e) {}
-
-
-        if (level.getPlayer().getSpiritSensorName().equals(fd1) && bd2 instanceof Enemy ||
-                level.getPlayer().getSpiritSensorName().equals(fd2) && bd1 instanceof Enemy) {
-            Enemy enemy = (Enemy) (bd1 instanceof Enemy ? bd1 : bd2);
-
-            level.getPlayer().getEnemiesInSpiritRange().removeValue(enemy, true);
-        }
-
-        if (bd1 instanceof Player && bd2 instanceof Billboard
-                || bd2 instanceof Player && bd1 instanceof Billboard
-                && (!level.getPlayer().getSpiritSensorName().equals(fd1) && !level.getPlayer().getSpiritSensorName().equals(fd2))) {
-            Billboard billboard = (Billboard) (bd1 instanceof Billboard? bd1 : bd2);
-            billboard.setDisplay(false);
         }
+    }
 
-        if ((bd1 instanceof Player && bd2 instanceof TutorialArea
-                || bd2 instanceof Player && bd1 instanceof TutorialArea)
-                && (!level.getPlayer().getSpiritSensorName().equals(fd1) && !level.getPlayer().getSpiritSensorName().equals(fd2))) {
-            TutorialArea tutorialArea = (TutorialArea) (bd1 instanceof TutorialArea? bd1 : bd2);
-            tutorialArea.setDisplay(false);
+    private void endPlayerEnemy(Contact contact, Fixture playerFix, Fixture enemyFix) {
+        if (level.getPlayer().getSpiritSensorName().equals(playerFix.getUserData())) {
+            level.getPlayer().getEnemiesInSpiritRange().removeValue((Enemy) enemyFix.getBody().getUserData(), true);
         }
+    }
 
-
+    private void endPlayerBillboard(Contact contact, Fixture playerFix, Fixture billboardFix) {
+        if (level.getPlayer().getSpiritSensorName().equals(playerFix.getUserData())) return;
+        ((Billboard) billboardFix.getBody().getUserData()).setDisplay(false);
     }
 
-    @Override
-    public void preSolve(Contact contact, Manifold oldManifold) {
-        Fixture fix1 = contact.getFixtureA();
-        Fixture fix2 = contact.getFixtureB();
+    private void endPlayerTutorial(Contact contact, Fixture playerFix, Fixture tutorialFix) {
+        if (level.getPlayer().getSpiritSensorName().equals(playerFix.getUserData())) return;
+        ((TutorialArea) tutorialFix.getBody().getUserData()).setDisplay(false);
+    }
 
-        Body body1 = fix1.getBody();
-        Body body2 = fix2.getBody();
+    //#endregion
 
-        Object bd1 = body1.getUserData();
-        Object bd2 = body2.getUserData();
+    //#region preSolve handlers
 
-        //spike
-        if ((bd1.toString().contains("Spike") && bd2 instanceof Player && !fix2.isSensor() ||
-                    bd2.toString().contains("Spike") && bd1 instanceof Player && !fix1.isSensor())) {
-            Player player = (Player) (bd1 instanceof Player ? bd1 : bd2);
-            if (!player.isHit()){
+    private void preSolvePlayerSpike(Contact contact, Fixture playerFix, Fixture spikeFix) {
+        if (playerFix.isSensor()) return;
+        Player player = (Player) playerFix.getBody().getUserData();
+        if (!player.isHit()){
             player.setHit(true);
             player.setDashing(false);
             player.setTicksFalling(0);//Ticks in air should also be reset by hitting spikes
-            hitPlayer(1, bd2 instanceof Player? bd1: bd2);
+            hitPlayer(1, spikeFix.getBody().getUserData());
             level.shakeControllerHeavy();
             if (!level.getPlayer().isRemoved())
                 level.setShouldShakeCamera(true,1);
             //Resets dash when damaged by spike
             player.setDashedInAir(false);
-            }
         }
+    }
 
-        //enemy
-        if (bd1 instanceof Player && !fix1.isSensor() && bd2 instanceof Enemy ||
-                bd2 instanceof Player && !fix2.isSensor() && bd1 instanceof Enemy) {
-            Player player = (Player) (bd1 instanceof Player ? bd1 : bd2);
+    private void preSolvePlayerEnemy(Contact contact, Fixture playerFix, Fixture enemyFix) {
+        if (playerFix.isSensor()) return;
+        Player player = (Player) playerFix.getBody().getUserData();
 
-            if (!player.isHit() && !player.isDashing() && player.getiFramesRemaining() <= 0) {
-                player.setHit(true);
-                hitPlayer(0, bd1 instanceof Player? bd2:bd1);
-                level.shakeControllerHeavy();
-                if (!level.getPlayer().isRemoved()) level.setShouldShakeCamera(true,1);
-            }
+        if (!player.isHit() && !player.isDashing() && player.getiFramesRemaining() <= 0) {
+            player.setHit(true);
+            hitPlayer(0, enemyFix.getBody().getUserData());
+            level.shakeControllerHeavy();
+            if (!level.getPlayer().isRemoved()) level.setShouldShakeCamera(true,1);
         }
         //cancel collision
-        if (bd1 instanceof Player && !fix1.isSensor() && bd2 instanceof Enemy ||
-                bd2 instanceof Player && !fix2.isSensor() && bd1 instanceof Enemy) {
-            contact.setEnabled(false);
-        }
-
-        if (bd1 instanceof Enemy && bd2 instanceof Enemy) {
-            contact.setEnabled(false);
-        }
-
-        if (bd1 instanceof Enemy && bd2 instanceof WheelObstacle ||
-                bd2 instanceof Enemy && bd1 instanceof WheelObstacle) {
-            WheelObstacle wheel = (WheelObstacle) (bd1 instanceof WheelObstacle ? bd1 : bd2);
-            if (!wheel.getName().equals("bullet"))
-                contact.setEnabled(false);
-        }
-
-        if (bd1 instanceof Billboard || bd2 instanceof Billboard) {
-            contact.setEnabled(false);
-        }
-
-        if (bd1 instanceof TutorialArea || bd2 instanceof TutorialArea) {
-            contact.setEnabled(false);
-        }
-
-
-
+        contact.setEnabled(false);
     }
 
-    @Override
-    public void postSolve(Contact contact, ContactImpulse impulse) {
-
+    private void disableContact(Contact contact, Fixture a, Fixture b) {
+        contact.setEnabled(false);
     }
 
+    //#endregion
 
     private void hitPlayer(int whichObstable, Object hitter) {
         if (level.getPlayer().hitByEnemy(whichObstable, hitter)) {
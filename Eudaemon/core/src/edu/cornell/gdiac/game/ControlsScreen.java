@@ -116,9 +116,9 @@ public class ControlsScreen implements Screen, InputProcessor, ControllerListene
         menuFont = assets.getEntry("font:menu", BitmapFont.class);
         this.fontTextureLoader = fontTextureLoader;
 
-        wasdButton = new MenuButton(new TextureRegion(fontTextureLoader.createFontTexture(menuFont, "WASD")));
-        arrowsButton = new MenuButton(new TextureRegion(fontTextureLoader.createFontTexture(menuFont, "ARROW KEYS")));
-        defaultButton = new MenuButton(new TextureRegion(fontTextureLoader.createFontTexture(menuFont, "DEFAULT")));
+        wasdButton = new MenuButton(fontTextureLoader.createFontRegion(menuFont, "WASD"));
+        arrowsButton = new MenuButton(fontTextureLoader.createFontRegion(menuFont, "ARROW KEYS"));
+        defaultButton = new MenuButton(fontTextureLoader.createFontRegion(menuFont, "DEFAULT"));
 
         buttons = new Array<>();
         buttons.add(backButton);
@@ -128,15 +128,15 @@ public class ControlsScreen implements Screen, InputProcessor, ControllerListene
 
         hoveredButton = wasdButton;
 
-        directionalLabel = new MenuLabel(new TextureRegion(fontTextureLoader.createFontTexture(menuFont, "DIRECTIONAL CONTROLS")));
-        jumpLabel = new MenuLabel(new TextureRegion(fontTextureLoader.createFontTexture(menuFont, "JUMP")));
-        dashLabel = new MenuLabel(new TextureRegion(fontTextureLoader.createFontTexture(menuFont, "DASH")));
-        attackLabel = new MenuLabel(new TextureRegion(fontTextureLoader.createFontTexture(menuFont, "ATTACK")));
-        transformLabel = new MenuLabel(new TextureRegion(fontTextureLoader.createFontTexture(menuFont, "TRANSFORM")));
-        resetLabel = new MenuLabel(new TextureRegion(fontTextureLoader.createFontTexture(menuFont, "RESET")));
-        titleLabel = new MenuLabel(new TextureRegion(fontTextureLoader.createFontTexture(menuFont, "KEYBOARD CONTROLS")));
+        directionalLabel = new MenuLabel(fontTextureLoader.createFontRegion(menuFont, "DIRECTIONAL CONTROLS"));
+        jumpLabel = new MenuLabel(fontTextureLoader.createFontRegion(menuFont, "JUMP"));
+        dashLabel = new MenuLabel(fontTextureLoader.createFontRegion(menuFont, "DASH"));
+        attackLabel = new MenuLabel(fontTextureLoader.createFontRegion(menuFont, "ATTACK"));
+        transformLabel = new MenuLabel(fontTextureLoader.createFontRegion(menuFont, "TRANSFORM"));
+        resetLabel = new MenuLabel(fontTextureLoader.createFontRegion(menuFont, "RESET"));
+        titleLabel = new MenuLabel(fontTextureLoader.createFontRegion(menuFont, "KEYBOARD CONTROLS"));
         titleLabel.tint = Color.YELLOW;
-        instructionsLabel = new MenuLabel(new TextureRegion(fontTextureLoader.createFontTexture(menuFont, "CLICK TO REBIND")));
+        instructionsLabel = new MenuLabel(fontTextureLoader.createFontRegion(menuFont, "CLICK TO REBIND"));
 
 
         labels = new Array<>();
@@ -209,6 +209,15 @@ public class ControlsScreen implements Screen, InputProcessor, ControllerListene
      * Called when this screen should release all resources.
      */
     public void dispose() {
+        fontTextureLoader.releaseFontRegion(wasdButton.texture);
+        fontTextureLoader.releaseFontRegion(arrowsButton.texture);
+        fontTextureLoader.releaseFontRegion(defaultButton.texture);
+        for (MenuLabel label : labels) {
+            fontTextureLoader.releaseFontRegion(label.texture);
+        }
+        for (MappingButton button : mappingButtons) {
+            button.dispose(fontTextureLoader);
+        }
         canvas = null;
         listener = null;
     }
@@ -0,0 +1,304 @@
+package edu.cornell.gdiac.game;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Decides which sound effects get a voice (a playing instance).
+ * <p>
+ * The audio backend only has a small pool of sources, shared with the music. The
+ * mixer keeps the effects within a global voice budget and a per-effect limit, and
+ * when a new effect does not fit it stops the least important, oldest voice (or
+ * drops the new effect if everything playing matters more). An effect triggered
+ * again in the same tick is merged with the voice already started.
+ * <p>
+ * Sound cannot tell whether an instance is still playing, so a voice is counted
+ * until its effect would have finished (its length is given when it is added).
+ * Voice records are pooled, so playing an effect does not allocate.
+ */
+public class EffectMixer {
+    /**
+     * The default number of effect voices. The desktop backend has 16 sources, and
+     * this leaves room for the two theme streams and some headroom.
+     */
+    public static final int DEFAULT_BUDGET = 12;
+
+    /** A registered effect */
+    private static class Effect {
+        Sound sound;
+        int priority;
+        int maxVoices;
+        long lengthNanos;
+        /** The number of voices of this effect */
+        int voices;
+        /** The tick this effect was last started in, for coalescing */
+        long lastTick = -1;
+        /** The voice started in lastTick */
+        Voice lastVoice;
+    }
+
+    /** A playing instance of an effect */
+    private static class Voice implements Pool.Poolable {
+        Effect effect;
+        long id;
+        float volume;
+        boolean looping;
+        /** When a one-shot voice will have finished */
+        long endTime;
+
+        @Override
+        public void reset() {
+            effect = null;
+        }
+    }
+
+    private final ObjectMap<String, Effect> effects = new ObjectMap<>();
+    /** The active voices, oldest first */
+    private final Array<Voice> voices = new Array<>(true, DEFAULT_BUDGET);
+    private final Pool<Voice> voicePool = new Pool<Voice>() {
+        @Override
+        protected Voice newObject() {
+            return new Voice();
+        }
+    };
+    private final int budget;
+    private long tick;
+
+    /**
+     * Creates a mixer with the default voice budget.
+     */
+    public EffectMixer() {
+        this(DEFAULT_BUDGET);
+    }
+
+    /**
+     * Creates a mixer with the given voice budget.
+     *
+     * @param budget the most effect voices that may play at once
+     */
+    public EffectMixer(int budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Registers an effect.
+     *
+     * @param name      the name used to play the effect
+     * @param sound     the sound of the effect
+     * @param priority  the importance of the effect (higher steals from lower)
+     * @param maxVoices the most instances of this effect that may play at once
+     * @param seconds   the length of the sound, in seconds
+     */
+    public void add(String name, Sound sound, int priority, int maxVoices, float seconds) {
+        Effect effect = new Effect();
+        effect.sound = sound;
+        effect.priority = priority;
+        effect.maxVoices = maxVoices;
+        effect.lengthNanos = (long) (seconds * 1000000000L);
+        effects.put(name, effect);
+    }
+
+    /**
+     * @param name the name of an effect
+     * @return true if an effect of this name was registered
+     */
+    public boolean contains(String name) {
+        return effects.containsKey(name);
+    }
+
+    /**
+     * Marks the start of a simulation tick. Effects triggered more than once
+     * between two calls are merged into one voice.
+     */
+    public void nextTick() {
+        tick++;
+    }
+
+    /**
+     * Plays an effect once.
+     * <p>
+     * This stops the effect if it is looping. If the effect was already started in
+     * this tick, the voice is reused at the louder of the two volumes.
+     *
+     * @param name   the name of the effect
+     * @param volume the volume to play at
+     *
+     * @return true if the effect is playing, false if it did not get a voice
+     */
+    public boolean play(String name, float volume) {
+        Effect effect = effects.get(name);
+        long now = TimeUtils.nanoTime();
+        reap(now);
+
+        if (effect.lastTick == tick && effect.lastVoice != null) {
+            Voice voice = effect.lastVoice;
+            if (volume > voice.volume) {
+                voice.volume = volume;
+                effect.sound.setVolume(voice.id, volume);
+            }
+            return true;
+        }
+        for (int ii = voices.size - 1; ii >= 0; ii--) {
+            Voice voice = voices.get(ii);
+            if (voice.effect == effect && voice.looping) {
+                release(ii);
+            }
+        }
+        return start(effect, volume, false, now);
+    }
+
+    /**
+     * Loops an effect until it is stopped.
+     * <p>
+     * Nothing happens if the effect is already looping. A loop counts against the
+     * budget like any other voice, and may be stolen by a more important effect; a
+     * later call then starts it again.
+     *
+     * @param name   the name of the effect
+     * @param volume the volume to play at
+     *
+     * @return true if the effect is looping, false if it did not get a voice
+     */
+    public boolean loop(String name, float volume) {
+        Effect effect = effects.get(name);
+        long now = TimeUtils.nanoTime();
+        reap(now);
+
+        for (int ii = 0; ii < voices.size; ii++) {
+            Voice voice = voices.get(ii);
+            if (voice.effect == effect && voice.looping) {
+                return true;
+            }
+        }
+        return start(effect, volume, true, now);
+    }
+
+    /**
+     * Stops every instance of an effect.
+     *
+     * @param name the name of the effect
+     */
+    public void stop(String name) {
+        Effect effect = effects.get(name);
+        effect.sound.stop();
+        for (int ii = voices.size - 1; ii >= 0; ii--) {
+            if (voices.get(ii).effect == effect) {
+                free(ii);
+            }
+        }
+    }
+
+    /**
+     * Stops every effect.
+     */
+    public void stopAll() {
+        for (Effect effect : effects.values()) {
+            effect.sound.stop();
+        }
+        for (int ii = voices.size - 1; ii >= 0; ii--) {
+            free(ii);
+        }
+    }
+
+    /**
+     * @return the number of effect voices playing (or not yet known to have finished)
+     */
+    public int getActiveVoices() {
+        reap(TimeUtils.nanoTime());
+        return voices.size;
+    }
+
+    /**
+     * Starts a voice for an effect, stealing one if a limit is reached.
+     */
+    private boolean start(Effect effect, float volume, boolean looping, long now) {
+        if (effect.voices >= effect.maxVoices) {
+            release(oldest(effect));
+        } else if (voices.size >= budget) {
+            int victim = victim();
+            if (voices.get(victim).effect.priority > effect.priority) {
+                return false;
+            }
+            release(victim);
+        }
+
+        long id = looping ? effect.sound.loop(volume) : effect.sound.play(volume);
+        if (id == -1) {
+            // The backend ran out of sources anyway (e.g. taken by other sounds)
+            return false;
+        }
+        Voice voice = voicePool.obtain();
+        voice.effect = effect;
+        voice.id = id;
+        voice.volume = volume;
+        voice.looping = looping;
+        voice.endTime = now + effect.lengthNanos;
+        voices.add(voice);
+        effect.voices++;
+        effect.lastTick = tick;
+        effect.lastVoice = voice;
+        return true;
+    }
+
+    /**
+     * @return the index of the oldest voice of the effect
+     */
+    private int oldest(Effect effect) {
+        for (int ii = 0; ii < voices.size; ii++) {
+            if (voices.get(ii).effect == effect) {
+                return ii;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the voice to steal: the oldest of the least important
+     */
+    private int victim() {
+        int victim = 0;
+        for (int ii = 1; ii < voices.size; ii++) {
+            if (voices.get(ii).effect.priority < voices.get(victim).effect.priority) {
+                victim = ii;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Frees the one-shot voices that have finished.
+     */
+    private void reap(long now) {
+        for (int ii = voices.size - 1; ii >= 0; ii--) {
+            Voice voice = voices.get(ii);
+            if (!voice.looping && voice.endTime - now <= 0) {
+                free(ii);
+            }
+        }
+    }
+
+    /**
+     * Stops the voice at the given index and frees it.
+     */
+    private void release(int index) {
+        Voice voice = voices.get(index);
+        voice.effect.sound.stop(voice.id);
+        free(index);
+    }
+
+    /**
+     * Frees the voice at the given index, keeping the others in order.
+     */
+    private void free(int index) {
+        Voice voice = voices.removeIndex(index);
+        Effect effect = voice.effect;
+        effect.voices--;
+        if (effect.lastVoice == voice) {
+            effect.lastVoice = null;
+        }
+        voicePool.free(voice);
+    }
+}
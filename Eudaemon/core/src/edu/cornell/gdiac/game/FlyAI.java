@@ -2,15 +2,14 @@ package edu.cornell.gdiac.game;
 
 import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
 import com.badlogic.gdx.ai.pfa.GraphPath;
-import com.badlogic.gdx.ai.pfa.Heuristic;
-import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
 import com.badlogic.gdx.math.Vector2;
 import edu.cornell.gdiac.game.models.Enemy;
 import edu.cornell.gdiac.game.models.EnemyAction;
 import edu.cornell.gdiac.game.models.Level;
+import edu.cornell.gdiac.game.models.PathService;
+import edu.cornell.gdiac.util.RandomController;
 
 import java.util.EnumSet;
-import java.util.Random;
 
 public class FlyAI extends AIController{
     private static final int maxWait = 10;
@@ -21,7 +20,8 @@ public class FlyAI extends AIController{
     private int anchorX;
     private int anchorY;
     private int ticks=0;
-    private Vector2 v;
+    /** The desired velocity, reused every tick */
+    private final Vector2 v = new Vector2();
     private FSMState state;
     private EnemyAction move;
     private int WanderWait=0;
@@ -31,9 +31,10 @@ public class FlyAI extends AIController{
     private final float[] goal;
     /** do we need to go to the next step in chasing?*/
     private boolean needNewPath = true;
-    private final Heuristic<Level.MyNode> heuristic;
     private final Level.MyGridGraph graph;
     private final GraphPath<Level.MyNode> path;
+    /** The level's shared path queries */
+    private final PathService pathService;
     private int indexAlongPath=0;
     private Level.MyNode goalnode;
 
@@ -57,9 +58,9 @@ public class FlyAI extends AIController{
         this.level=super.level;
         this.enemy=super.enemy;
         this.tileSize=this.level.gettileSize();
-        this.heuristic= new EuclideanDistance();
         this.graph= level.getGridGraph();
         this.path = new DefaultGraphPath<>();
+        this.pathService = level.getPathService();
         float ey=enemy.getY();
         float ex=enemy.getX();
         this.anchorX = level.levelToTileCoordinatesX(ex);
@@ -166,7 +167,6 @@ public class FlyAI extends AIController{
         float ey=enemy.getY();
 //       System.out.println("position is "+ex+":"+ey);
 
-        Random random = new Random();
         int x=3;
         switch (state) {
             case SPAWN:
@@ -178,14 +178,14 @@ public class FlyAI extends AIController{
                 int ny=anchorY;
                 if (ticks%300==1) {
                     needNewPath=true;
-                    int randomIntX = random.nextInt(2 * x + 1) - x;
+                    int randomIntX = RandomController.rollInt(-x, x);
                     nx=nx+randomIntX;
                     if(nx<0){
                         nx=0;
                     }else if (nx>=graph.getWidth()){
                         nx=graph.getWidth()-1;
                     }
-                    int randomIntY = random.nextInt(2 * x + 1) - x;
+                    int randomIntY = RandomController.rollInt(-x, x);
                     ny=ny+randomIntY;
                     if(ny<0){
                         ny=0;
@@ -202,9 +202,6 @@ public class FlyAI extends AIController{
                 // only need to fly to the same tile
                 int a=level.levelToTileCoordinatesX(level.getPlayer().getX());
                 int b=level.levelToTileCoordinatesY(level.getPlayer().getY());
-                if (a!=level.levelToTileCoordinatesX(goal[0])||b!=level.levelToTileCoordinatesY(goal[1])){
-                    needNewPath =true; //player is moving, need to re-compute the goal
-                }
                 goal[0]=level.tileToLevelCoordinatesX(a);
                 goal[1]=level.tileToLevelCoordinatesY(b);
                 break;
@@ -228,18 +225,15 @@ public class FlyAI extends AIController{
                 float dx=goal[0]-ex;
                 float dy=goal[1]-ey;
                 this.move=EnemyAction.FLY;
-                this.v=new Vector2(dx,dy);
+                this.v.set(dx,dy);
                 break;
             case WANDER:
-            case CHASE:
-                IndexedAStarPathFinder<Level.MyNode> pathFinder = new IndexedAStarPathFinder<>(graph);
                 if (needNewPath){
                     Level.MyNode startNode = graph.getNode(level.levelToTileCoordinatesX(ex), level.levelToTileCoordinatesY(ey));
                     Level.MyNode endNode = graph.getNode(level.levelToTileCoordinatesX(goal[0]), level.levelToTileCoordinatesY(goal[1]));
-                    path.clear();
                     indexAlongPath=0;
 //                    System.out.println("recalculate the path to: "+endNode.getX()+": "+endNode.getY());
-                    boolean foundPath = pathFinder.searchNodePath(startNode, endNode, heuristic, path);
+                    boolean foundPath = pathService.findPath(startNode, endNode, path);
                     if(!foundPath){//did not find the path
 //                        System.out.println("Did not find path, so stay");
                         this.move=EnemyAction.STAY;
@@ -258,28 +252,43 @@ public class FlyAI extends AIController{
                     this.goalnode=goalnode;
                     float gx= level.tileToLevelCoordinatesX(goalnode.getX())+this.tileSize/2;
                     float gy= level.tileToLevelCoordinatesY(goalnode.getY())+this.tileSize/2;
-                    this.v=new Vector2(gx-ex,gy-ey);
+                    this.v.set(gx-ex,gy-ey);
                     if ((Math.abs(gx-ex)<0.2) &&(Math.abs(gy-ey)<0.2)){
                         //reach this goal, move to the next goal
 //                        System.out.println("moving to next index");
                         indexAlongPath=indexAlongPath+1;
-                        if (indexAlongPath>=path.getCount() && this.state.equals(FSMState.CHASE)){
-                            needNewPath=true;
+                        if (indexAlongPath>=path.getCount() && !goalnode.equals(graph.getNode(
+                                level.levelToTileCoordinatesX(goal[0]), level.levelToTileCoordinatesY(goal[1])))){
+                            needNewPath=true; //long paths are found one cluster at a time
                         }
                     }
                 }else{
                     this.move=EnemyAction.STAY;
                 }
                 break;
-        }
-    }
-
-    private class EuclideanDistance implements Heuristic<Level.MyNode> {
-        @Override
-        public float estimate(Level.MyNode node, Level.MyNode endNode) {
-            float dx = Math.abs(node.getX() - endNode.getX());
-            float dy = Math.abs(node.getY() - endNode.getY());
-            return (float) Math.sqrt(dx * dx + dy * dy);
+            case CHASE:
+                // the shared flow field leads to the player's tile, one tile at a time
+                if (needNewPath || goalnode==null){
+                    goalnode = graph.getNode(level.levelToTileCoordinatesX(ex), level.levelToTileCoordinatesY(ey));
+                    needNewPath = false;
+                }
+                float gx= level.tileToLevelCoordinatesX(goalnode.getX())+this.tileSize/2;
+                float gy= level.tileToLevelCoordinatesY(goalnode.getY())+this.tileSize/2;
+                if ((Math.abs(gx-ex)<0.2) &&(Math.abs(gy-ey)<0.2)){
+                    //reach this goal, move to the next goal
+                    Level.MyNode next = pathService.nextStepToward(goalnode,
+                            level.levelToTileCoordinatesX(goal[0]), level.levelToTileCoordinatesY(goal[1]));
+                    if (next == null){//at the player's tile or cannot reach it
+                        this.move=EnemyAction.STAY;
+                        break;
+                    }
+                    goalnode = next;
+                    gx= level.tileToLevelCoordinatesX(goalnode.getX())+this.tileSize/2;
+                    gy= level.tileToLevelCoordinatesY(goalnode.getY())+this.tileSize/2;
+                }
+                this.move=EnemyAction.FLY;
+                this.v.set(gx-ex,gy-ey);
+                break;
         }
     }
 }
\ No newline at end of file
@@ -2,12 +2,11 @@ package edu.cornell.gdiac.game;
 
 import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
 import com.badlogic.gdx.ai.pfa.GraphPath;
-import com.badlogic.gdx.ai.pfa.Heuristic;
-import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
 import com.badlogic.gdx.math.Vector2;
 import edu.cornell.gdiac.game.models.Enemy;
 import edu.cornell.gdiac.game.models.EnemyAction;
 import edu.cornell.gdiac.game.models.Level;
+import edu.cornell.gdiac.game.models.PathService;
 
 import java.util.ArrayList;
 import java.util.EnumSet;
@@ -20,7 +19,8 @@ public class FlyGuardianAI extends AIController{
     private final Level level;
     private int indexAlongList;
     private int ticks=0;
-    private Vector2 v;
+    /** The desired velocity, reused every tick */
+    private final Vector2 v = new Vector2();
     private FSMState state;
     private EnemyAction move;
     private int WanderWait=0;
@@ -32,9 +32,12 @@ public class FlyGuardianAI extends AIController{
     private boolean needNewPath = true;
     /** do we need to go to the next step in guarding?*/
     private boolean needNewGuardPath =true;
-    private final Heuristic<Level.MyNode> heuristic;
     private final Level.MyGridGraph graph;
     private final GraphPath<Level.MyNode> path;
+    /** The level's shared path queries */
+    private final PathService pathService;
+    /** The tile the enemy is flying to while chasing */
+    private Level.MyNode stepNode;
     private int indexAlongPath=0;
     private final int guardianTime;
     private final ArrayList<Integer> guardianList;
@@ -61,9 +64,9 @@ public class FlyGuardianAI extends AIController{
         this.level=super.level;
         this.enemy=super.enemy;
         this.tileSize=this.level.gettileSize();
-        this.heuristic= new EuclideanDistance();
         this.graph= level.getGridGraph();
         this.path = new DefaultGraphPath<>();
+        this.pathService = level.getPathService();
         ArrayList<Integer> relative = enemy.getGuardianList();
         this.guardianList=new ArrayList<>(relative.size());
         float ex=enemy.getX();
@@ -206,9 +209,6 @@ public class FlyGuardianAI extends AIController{
                 // only need to fly to the same tile
                 int a=level.levelToTileCoordinatesX(level.getPlayer().getX());
                 int b=level.levelToTileCoordinatesY(level.getPlayer().getY());
-                if (a!=level.levelToTileCoordinatesX(goal[0])||b!=level.levelToTileCoordinatesY(goal[1])){
-                    needNewPath =true; //player is moving, need to re-compute the goal
-                }
                 goal[0]=level.tileToLevelCoordinatesX(a);
                 goal[1]=level.tileToLevelCoordinatesY(b);
                 break;
@@ -230,15 +230,13 @@ public class FlyGuardianAI extends AIController{
                 this.move=EnemyAction.STAY;
                 break;
             case GUARD:
-                IndexedAStarPathFinder<Level.MyNode> pathFinder = new IndexedAStarPathFinder<>(graph);
                 if (needNewGuardPath){
                     Level.MyNode startNode = graph.getNode(level.levelToTileCoordinatesX(ex), level.levelToTileCoordinatesY(ey));
                     Level.MyNode endNode = graph.getNode(level.levelToTileCoordinatesX(goal[0]), level.levelToTileCoordinatesY(goal[1]));
 
-                    path.clear();
                     indexAlongPath=0;
 //                    System.out.println("recalculate the path to: "+endNode.getX()+": "+endNode.getY());
-                    boolean foundPath = pathFinder.searchNodePath(startNode, endNode, heuristic, path);
+                    boolean foundPath = pathService.findPath(startNode, endNode, path);
                     if(!foundPath){//did not find the path
 //                        System.out.println("Did not find path, so stay");
                         this.move=EnemyAction.STAY;
@@ -252,7 +250,7 @@ public class FlyGuardianAI extends AIController{
                     Level.MyNode goalnode=path.get(indexAlongPath);
                     float gx= level.tileToLevelCoordinatesX(goalnode.getX())+this.tileSize/2;
                     float gy= level.tileToLevelCoordinatesY(goalnode.getY())+this.tileSize/2;
-                    this.v=new Vector2(gx-ex,gy-ey);
+                    this.v.set(gx-ex,gy-ey);
 //                    System.out.println("the current goal is: "+gx+": "+gy );
 //                    System.out.println("I am here "+ex+":"+ey);
                     if ((Math.abs(gx-ex)<0.2) &&(Math.abs(gy-ey)<0.2)){
@@ -269,54 +267,31 @@ public class FlyGuardianAI extends AIController{
                 float dx=goal[0]-ex;
                 float dy=goal[1]-ey;
                 this.move=EnemyAction.FLY;
-                this.v=new Vector2(dx,dy);
+                this.v.set(dx,dy);
                 break;
             case CHASE:
-                pathFinder = new IndexedAStarPathFinder<>(graph);
-                if (needNewPath){
-                    Level.MyNode startNode = graph.getNode(level.levelToTileCoordinatesX(ex), level.levelToTileCoordinatesY(ey));
-                    Level.MyNode endNode = graph.getNode(level.levelToTileCoordinatesX(goal[0]), level.levelToTileCoordinatesY(goal[1]));
-                    path.clear();
-                    indexAlongPath=0;
-//                    System.out.println("recalculate the path to: "+endNode.getX()+": "+endNode.getY());
-                    boolean foundPath = pathFinder.searchNodePath(startNode, endNode, heuristic, path);
-                    if(!foundPath){//did not find the path
-//                        System.out.println("Did not find path, so stay");
-                        this.move=EnemyAction.STAY;
-                    }else{
-                        needNewPath =false;}
+                // the shared flow field leads to the player's tile, one tile at a time
+                if (needNewPath || stepNode==null){
+                    stepNode = graph.getNode(level.levelToTileCoordinatesX(ex), level.levelToTileCoordinatesY(ey));
+                    needNewPath = false;
                 }
-
-                if (path.getCount()>indexAlongPath) {
-                    this.move=EnemyAction.FLY;
-//                    System.out.println("moving along path, index is "+this.indexAlongPath);
-                    Level.MyNode goalnode=path.get(indexAlongPath);
-                    float gx= level.tileToLevelCoordinatesX(goalnode.getX())+this.tileSize/2;
-                    float gy= level.tileToLevelCoordinatesY(goalnode.getY())+this.tileSize/2;
-                    this.v=new Vector2(gx-ex,gy-ey);
-//                    System.out.println("the current goal is: "+gx+": "+gy );
-//                    System.out.println("I am here "+ex+":"+ey);
-                    if ((Math.abs(gx-ex)<0.2) &&(Math.abs(gy-ey)<0.2)){
-                        //reach this goal, move to the next goal
-//                        System.out.println("moving to next index");
-                        indexAlongPath=indexAlongPath+1;
-                        if (indexAlongPath>=path.getCount()){
-                            needNewPath=true;
-                        }
+                float gx= level.tileToLevelCoordinatesX(stepNode.getX())+this.tileSize/2;
+                float gy= level.tileToLevelCoordinatesY(stepNode.getY())+this.tileSize/2;
+                if ((Math.abs(gx-ex)<0.2) &&(Math.abs(gy-ey)<0.2)){
+                    //reach this goal, move to the next goal
+                    Level.MyNode next = pathService.nextStepToward(stepNode,
+                            level.levelToTileCoordinatesX(goal[0]), level.levelToTileCoordinatesY(goal[1]));
+                    if (next == null){//at the player's tile or cannot reach it
+                        this.move=EnemyAction.STAY;
+                        break;
                     }
-                }else{
-                    this.move=EnemyAction.STAY;
+                    stepNode = next;
+                    gx= level.tileToLevelCoordinatesX(stepNode.getX())+this.tileSize/2;
+                    gy= level.tileToLevelCoordinatesY(stepNode.getY())+this.tileSize/2;
                 }
+                this.move=EnemyAction.FLY;
+                this.v.set(gx-ex,gy-ey);
                 break;
         }
     }
-
-    private class EuclideanDistance implements Heuristic<Level.MyNode> {
-        @Override
-        public float estimate(Level.MyNode node, Level.MyNode endNode) {
-            float dx = Math.abs(node.getX() - endNode.getX());
-            float dy = Math.abs(node.getY() - endNode.getY());
-            return (float) Math.sqrt(dx * dx + dy * dy);
-        }
-    }
 }
\ No newline at end of file
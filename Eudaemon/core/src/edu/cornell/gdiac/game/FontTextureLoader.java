@@ -5,26 +5,195 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.*;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import com.badlogic.gdx.utils.Array;
-import edu.cornell.gdiac.assets.AssetDirectory;
+import com.badlogic.gdx.utils.ObjectMap;
 
 import java.util.function.Consumer;
 
 
-/** FontTextureLoader is a class that provides static methods to generated textures from text */
+/**
+ * FontTextureLoader is a class that renders text (and other images) into textures.
+ * <p>
+ * Text labels are rendered into regions of a few shared atlas pages, one frame buffer
+ * each. A label is cached by its font, font scale, color and text, so asking for the
+ * same label twice (say, when a menu screen is made again) returns the same region.
+ * Labels are reference counted: a released label stays in its page, in case it is
+ * asked for again, until the space is needed for another label.
+ * <p>
+ * Images drawn by a render pass (createTexture) still get a frame buffer of their own,
+ * as they may be redrawn with updateTexture.
+ */
 public class FontTextureLoader {
+    /** The size of an atlas page (a label wider than this gets a page as wide as it) */
+    private static final int PAGE_WIDTH = 1024;
+    private static final int PAGE_HEIGHT = 256;
+    /** The empty pixels between labels, so that they do not bleed into each other */
+    private static final int GUTTER = 1;
+
+    /** The key of a label in the cache */
+    private static final class LabelKey {
+        final BitmapFont font;
+        final float scale;
+        final float color;
+        final String text;
+
+        LabelKey(BitmapFont font, String text) {
+            this.font = font;
+            this.scale = font.getData().scaleY;
+            this.color = font.getColor().toFloatBits();
+            this.text = text;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof LabelKey)) return false;
+            LabelKey other = (LabelKey) o;
+            return font == other.font && scale == other.scale && color == other.color && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(font);
+            result = 31 * result + Float.floatToIntBits(scale);
+            result = 31 * result + Float.floatToIntBits(color);
+            return 31 * result + text.hashCode();
+        }
+    }
+
+    /** A rectangle of an atlas page, holding a label or free for one */
+    private static final class Slot {
+        int x, y, width, height;
+
+        Slot(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    /** A label in an atlas page */
+    private static final class Label {
+        LabelKey key;
+        Page page;
+        Slot slot;
+        TextureRegion region;
+        /** The holders of this label (0 if it may be evicted) */
+        int references;
+        /** When this label was last asked for, to evict the oldest first */
+        long lastUsed;
+    }
+
+    /**
+     * An atlas page, filled with rows of labels.
+     * <p>
+     * Each row is as tall as the first label put in it. The space of an evicted label
+     * is joined to the free space beside it in its row, and reused for a label that
+     * fits in it, which works well as the labels of a font are all the same height.
+     * A page with no labels left starts over.
+     */
+    private static final class Page {
+        final FrameBuffer buffer;
+        /** The top of the current row, and its height */
+        int rowY, rowHeight;
+        /** The end of the current row */
+        int rowX;
+        final Array<Slot> free = new Array<>();
+        /** The labels in this page */
+        int labels;
+
+        Page(int width, int height) {
+            buffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+            buffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        }
+
+        /**
+         * @return a free slot for a label of this size (null if there is no room)
+         */
+        Slot allocate(int width, int height) {
+            // The smallest freed slot that fits
+            Slot best = null;
+            for (Slot slot : free) {
+                if (slot.width >= width && slot.height >= height
+                        && (best == null || slot.width * slot.height < best.width * best.height)) {
+                    best = slot;
+                }
+            }
+            if (best != null) {
+                free.removeValue(best, true);
+                return best;
+            }
+
+            int w = width + GUTTER;
+            int h = height + GUTTER;
+            if (w > buffer.getWidth() || h > buffer.getHeight()) {
+                return null;
+            }
+            if (rowX + w > buffer.getWidth() || h > rowHeight) {
+                if (rowX == 0 && rowY + h <= buffer.getHeight()) {
+                    // Nothing in this row yet, so it may be as tall as needed
+                    rowHeight = h;
+                } else if (rowY + rowHeight + h <= buffer.getHeight()) {
+                    rowY += rowHeight;
+                    rowX = 0;
+                    rowHeight = h;
+                } else {
+                    return null;
+                }
+            }
+            Slot slot = new Slot(rowX, rowY, w, h);
+            rowX += w;
+            return slot;
+        }
+
+        /**
+         * Returns the slot of an evicted label to the free space of this page.
+         */
+        void release(Slot slot) {
+            if (--labels == 0) {
+                free.clear();
+                rowX = rowY = rowHeight = 0;
+                return;
+            }
+            for (int ii = free.size - 1; ii >= 0; ii--) {
+                Slot other = free.get(ii);
+                if (other.y == slot.y && other.height == slot.height
+                        && (other.x + other.width == slot.x || slot.x + slot.width == other.x)) {
+                    slot.x = Math.min(slot.x, other.x);
+                    slot.width += other.width;
+                    free.removeIndex(ii);
+                }
+            }
+            free.add(slot);
+        }
+    }
 
     private Array<FrameBuffer> frameBuffers;
+    /** The frame buffer of each texture made by createTexture */
+    private ObjectMap<Texture, FrameBuffer> textureBuffers;
     private SpriteBatch spriteBatch;
     private OrthographicCamera camera;
 
+    //#region Label atlas
+    private final Array<Page> pages;
+    private final ObjectMap<LabelKey, Label> labels;
+    /** The label of each region handed out */
+    private final ObjectMap<TextureRegion, Label> regions;
+    /** Counts the requests for labels, to order them by age */
+    private long requests;
+    //#endregion
+
     public FontTextureLoader() {
         this.frameBuffers = new Array<>();
+        this.textureBuffers = new ObjectMap<>();
         this.camera = new OrthographicCamera();
         this.spriteBatch = new SpriteBatch();
+        this.pages = new Array<>();
+        this.labels = new ObjectMap<>();
+        this.regions = new ObjectMap<>();
     }
 
     public void dispose() {
@@ -32,6 +201,110 @@ public class FontTextureLoader {
             frameBuffer.dispose();
         }
         frameBuffers.clear();
+        textureBuffers.clear();
+        for (Page page : pages) {
+            page.buffer.dispose();
+        }
+        pages.clear();
+        labels.clear();
+        regions.clear();
+        spriteBatch.dispose();
+    }
+
+    /**
+     * Returns a region holding the given text, drawn in the given font.
+     * <p>
+     * The region is shared with every other holder of the same label, so it must not
+     * be changed. Call releaseFontRegion when it is no longer needed.
+     *
+     * @param font  the font to draw with (at its current scale and color)
+     * @param text  the text to draw
+     *
+     * @return a region holding the given text
+     */
+    public TextureRegion createFontRegion(BitmapFont font, String text) {
+        LabelKey key = new LabelKey(font, text);
+        Label label = labels.get(key);
+        if (label == null) {
+            GlyphLayout layout = new GlyphLayout(font,text);
+            int width = Math.max(1, (int) layout.width);
+            int height = Math.max(1, (int) layout.height);
+
+            label = new Label();
+            label.key = key;
+            place(label, width, height);
+            label.region = new TextureRegion(label.page.buffer.getColorBufferTexture(),
+                    label.slot.x, label.slot.y, width, height);
+            labels.put(key, label);
+            regions.put(label.region, label);
+
+            // The same drawing as a texture of its own, but in the rectangle of the label
+            draw(label.page.buffer, label.slot.x, label.slot.y, width, height, batch -> font.draw(batch, layout, 0, height - 5));
+        }
+        label.references++;
+        label.lastUsed = ++requests;
+        return label.region;
+    }
+
+    /**
+     * Releases a region returned by createFontRegion.
+     * <p>
+     * The label stays in its atlas page until the space is needed, so asking for it
+     * again is free until then.
+     *
+     * @param region the region to release
+     */
+    public void releaseFontRegion(TextureRegion region) {
+        Label label = regions.get(region);
+        if (label != null && label.references > 0) {
+            label.references--;
+        }
+    }
+
+    /**
+     * Finds room for a label in the atlas, evicting released labels or adding a page if
+     * there is none.
+     */
+    private void place(Label label, int width, int height) {
+        do {
+            for (Page page : pages) {
+                Slot slot = page.allocate(width, height);
+                if (slot != null) {
+                    page.labels++;
+                    label.page = page;
+                    label.slot = slot;
+                    return;
+                }
+            }
+        } while (evictOldest());
+
+        Page page = new Page(Math.max(PAGE_WIDTH, width + GUTTER), Math.max(PAGE_HEIGHT, height + GUTTER));
+        pages.add(page);
+        Gdx.app.log("Text", "Added atlas page " + pages.size + ", " + getReport());
+        page.labels++;
+        label.page = page;
+        label.slot = page.allocate(width, height);
+    }
+
+    /**
+     * Evicts the released label that was asked for longest ago.
+     *
+     * @return false if every label is held
+     */
+    private boolean evictOldest() {
+        Label oldest = null;
+        for (Label label : labels.values()) {
+            if (label.references == 0 && (oldest == null || label.lastUsed < oldest.lastUsed)) {
+                oldest = label;
+            }
+        }
+        if (oldest == null) {
+            return false;
+        }
+        labels.remove(oldest.key);
+        regions.remove(oldest.region);
+        oldest.page.release(oldest.slot);
+        return true;
     }
 
     /** create and return a texture from a string */
@@ -41,47 +314,29 @@ public class FontTextureLoader {
         int width = (int) layout.width;
         int height = (int) layout.height;
 
-        FrameBuffer frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
-        camera.setToOrtho(true, width, height);
-        spriteBatch.getProjectionMatrix().set(camera.combined);
-
-        frameBuffer.begin();
-        spriteBatch.begin();
-        font.draw(spriteBatch, layout, 0, height - 5);
-        spriteBatch.end();
-        frameBuffer.end();
-
-        frameBuffers.add(frameBuffer);
-
-        frameBuffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
-
-        return frameBuffer.getColorBufferTexture();
+        return createTexture(batch -> font.draw(batch, layout, 0, height - 5), width, height);
     }
 
+    /**
+     * Disposes a texture made by createFontTexture or createTexture.
+     *
+     * @param texture the texture to dispose
+     */
     public void disposeTexture(Texture texture) {
-        Array.ArrayIterator<FrameBuffer> iter = frameBuffers.iterator();
-        while (iter.hasNext()) {
-            if (iter.next().getColorBufferTexture() == texture) {
-                iter.remove();
-            }
+        FrameBuffer buffer = textureBuffers.remove(texture);
+        if (buffer != null) {
+            frameBuffers.removeValue(buffer, true);
+            buffer.dispose();
         }
     }
 
     public Texture createTexture(Consumer<SpriteBatch> renderPass, float width, float height) {
 
         FrameBuffer frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, (int) width, (int) height, false);
-        camera.setToOrtho(true, width, height);
-        spriteBatch.getProjectionMatrix().set(camera.combined);
-
-        frameBuffer.begin();
-        spriteBatch.begin();
-
-        renderPass.accept(spriteBatch);
-
-        spriteBatch.end();
-        frameBuffer.end();
+        draw(frameBuffer, 0, 0, (int) width, (int) height, renderPass);
 
         frameBuffers.add(frameBuffer);
+        textureBuffers.put(frameBuffer.getColorBufferTexture(), frameBuffer);
 
         frameBuffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
 
@@ -89,24 +344,66 @@ public class FontTextureLoader {
     }
 
     public void updateTexture(Texture texture, Consumer<SpriteBatch> renderPass) {
-        FrameBuffer buffer = null;
-        for (FrameBuffer fb : frameBuffers) {
-            if (fb.getColorBufferTexture() == texture) {
-                buffer = fb;
-                break;
-            }
-        }
+        FrameBuffer buffer = textureBuffers.get(texture);
         if (buffer == null) return;
 
-        camera.setToOrtho(true, buffer.getWidth(), buffer.getHeight());
+        draw(buffer, 0, 0, buffer.getWidth(), buffer.getHeight(), renderPass);
+    }
+
+    /**
+     * Draws a render pass into a rectangle of a frame buffer, replacing what was there.
+     * <p>
+     * The render pass draws as if the rectangle were the whole buffer.
+     */
+    private void draw(FrameBuffer buffer, int x, int y, int width, int height, Consumer<SpriteBatch> renderPass) {
+        camera.setToOrtho(true, width, height);
         spriteBatch.getProjectionMatrix().set(camera.combined);
 
         buffer.begin();
+        Gdx.gl.glViewport(x, y, width, height);
+        Gdx.gl.glEnable(GL20.GL_SCISSOR_TEST);
+        Gdx.gl.glScissor(x, y, width, height);
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        Gdx.gl.glDisable(GL20.GL_SCISSOR_TEST);
         spriteBatch.begin();
         renderPass.accept(spriteBatch);
         spriteBatch.end();
         buffer.end();
+    }
+
+    //#region Statistics
+    /**
+     * @return the frame buffers (atlas pages and textures of their own) alive now
+     */
+    public int getFrameBufferCount() {
+        return pages.size + frameBuffers.size;
+    }
 
-        buffer.getColorBufferTexture().setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+    /**
+     * @return the bytes of video memory held by the frame buffers
+     */
+    public long getTextureMemory() {
+        long bytes = 0;
+        for (Page page : pages) {
+            bytes += 4L * page.buffer.getWidth() * page.buffer.getHeight();
+        }
+        for (FrameBuffer buffer : frameBuffers) {
+            bytes += 4L * buffer.getWidth() * buffer.getHeight();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return a line with the frame buffers, labels and memory of this loader
+     */
+    public String getReport() {
+        int held = 0;
+        for (Label label : labels.values()) {
+            if (label.references > 0) held++;
+        }
+        return String.format("%d frame buffers (%d atlas pages), %d labels (%d held), %.1f MB",
+                getFrameBufferCount(), pages.size, labels.size, held, getTextureMemory() / 1048576.0);
     }
+    //#endregion
 }
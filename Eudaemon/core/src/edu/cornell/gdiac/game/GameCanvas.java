@@ -23,6 +23,7 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.*;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Affine2;
 import com.badlogic.gdx.math.Matrix4;
@@ -51,7 +52,11 @@ public class GameCanvas implements SettingsObserver {
 		/** We are drawing sprites */
 		STANDARD,
 		/** We are drawing outlines */
-		DEBUG
+		DEBUG,
+		/** We are drawing pre-baked sprite caches */
+		CACHE,
+		/** We are drawing meshes with a custom shader */
+		SHADER
 	}
 	
 	/**
@@ -87,6 +92,17 @@ public class GameCanvas implements SettingsObserver {
 	
 	/** Camera for the underlying SpriteBatch */
 	private final CameraController cameraController;
+	/** Whether the camera is set up for overlay elements (for the pass statistics) */
+	private boolean overlayCamera;
+
+	/** Counts what each frame costs to draw */
+	private final RenderStats stats;
+	/** Font for the statistics overlay (created when first shown) */
+	private BitmapFont statsFont;
+	/** Text of the statistics overlay, reused every frame */
+	private final StringBuilder statsText = new StringBuilder();
+	/** Projection for the statistics overlay, so it does not touch the camera */
+	private final Matrix4 statsProjection = new Matrix4();
 	//private final OrthographicCamera camera;
 
 	private final Viewport viewport;
@@ -127,6 +143,7 @@ public class GameCanvas implements SettingsObserver {
 		active = DrawPass.INACTIVE;
 		spriteBatch = new PolygonSpriteBatch();
 		debugRender = new ShapeRenderer();
+		stats = new RenderStats(spriteBatch);
 
 		
 		// Set the projection matrix (for proper scaling)
@@ -166,6 +183,11 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot dispose while drawing active", new IllegalStateException());
 			return;
 		}
+		stats.setEnabled(false);
+		if (statsFont != null) {
+			statsFont.dispose();
+			statsFont = null;
+		}
 		spriteBatch.dispose();
     	spriteBatch = null;
     	local  = null;
@@ -359,6 +381,7 @@ public class GameCanvas implements SettingsObserver {
 			break;
 		}
 		blend = state;
+		stats.countBlendSwitch();
 	}
 	
 	/**
@@ -383,6 +406,7 @@ public class GameCanvas implements SettingsObserver {
 		spriteBatch.setProjectionMatrix(global);
 		
 		setBlendState(BlendState.NO_PREMULT);
+		stats.beginPass();
 		spriteBatch.begin();
     	active = DrawPass.STANDARD;
     }
@@ -401,6 +425,7 @@ public class GameCanvas implements SettingsObserver {
     	global.mulLeft(cameraController.getCamera().combined);
 		spriteBatch.setProjectionMatrix(global);
 		
+		stats.beginPass();
     	spriteBatch.begin();
     	active = DrawPass.STANDARD;
     }
@@ -413,6 +438,7 @@ public class GameCanvas implements SettingsObserver {
     public void begin() {
 	    cameraController.getCamera().update();
 	    spriteBatch.setProjectionMatrix(cameraController.getCamera().combined);
+	    stats.beginPass();
 	    spriteBatch.begin();
 	    active = DrawPass.STANDARD;
     }
@@ -430,6 +456,7 @@ public class GameCanvas implements SettingsObserver {
 		cameraController.getCamera().position.set(x, y, 0); // set to some other position to follow player;
 		cameraController.getCamera().update();
 		spriteBatch.setProjectionMatrix(cameraController.getCamera().combined);
+		overlayCamera = false;
 	}
 
 
@@ -441,6 +468,7 @@ public class GameCanvas implements SettingsObserver {
 		cameraController.getCamera().setToOrtho(false, getWidth(), getHeight());
 		cameraController.getCamera().update();
 		spriteBatch.setProjectionMatrix(cameraController.getCamera().combined);
+		overlayCamera = true;
 	}
 
 
@@ -450,8 +478,113 @@ public class GameCanvas implements SettingsObserver {
     public void end() {
     	spriteBatch.end();
     	active = DrawPass.INACTIVE;
+    	// Classified at the end, as the camera may be set up during the pass
+    	stats.endPass(overlayCamera ? RenderStats.Pass.OVERLAY : RenderStats.Pass.GAMEPLAY);
     }
 
+	/**
+	 * Start a sprite cache drawing sequence.
+	 * <p>
+	 * Sprite caches hold geometry that was baked ahead of time (such as the static
+	 * tile layers of a level). They cannot be drawn inside a standard begin/end pair,
+	 * so this pass replaces it. The cache uses the current camera and the same blend
+	 * function as the standard pass.
+	 *
+	 * @param cache the sprite cache to draw from
+	 */
+	public void beginCache(SpriteCache cache) {
+		if (active != DrawPass.INACTIVE) {
+			Gdx.app.error("GameCanvas", "Cannot begin a cache pass while drawing active", new IllegalStateException());
+			return;
+		}
+		cameraController.getCamera().update();
+		cache.setProjectionMatrix(cameraController.getCamera().combined);
+
+		// Unlike SpriteBatch, SpriteCache does not manage blending for us
+		stats.beginPass();
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		stats.countBlendSwitch();
+		cache.begin();
+		active = DrawPass.CACHE;
+	}
+
+	/**
+	 * Draws a single baked cache entry.
+	 *
+	 * @param cache the sprite cache passed to beginCache()
+	 * @param cacheId the id returned when the entry was baked
+	 */
+	public void drawCache(SpriteCache cache, int cacheId) {
+		if (active != DrawPass.CACHE) {
+			Gdx.app.error("GameCanvas", "Cannot draw without active beginCache()", new IllegalStateException());
+			return;
+		}
+		cache.draw(cacheId);
+	}
+
+	/**
+	 * Draws part of a single baked cache entry.
+	 * <p>
+	 * This draws the sprites of the entry from offset to offset+length, in the order
+	 * they were baked, so a cache can hold (say) every heart of a HUD and only draw
+	 * as many as the player has.
+	 *
+	 * @param cache the sprite cache passed to beginCache()
+	 * @param cacheId the id returned when the entry was baked
+	 * @param offset the first sprite of the entry to draw
+	 * @param length the number of sprites to draw
+	 */
+	public void drawCache(SpriteCache cache, int cacheId, int offset, int length) {
+		if (active != DrawPass.CACHE) {
+			Gdx.app.error("GameCanvas", "Cannot draw without active beginCache()", new IllegalStateException());
+			return;
+		}
+		cache.draw(cacheId, offset, length);
+	}
+
+	/**
+	 * Ends a sprite cache drawing sequence.
+	 *
+	 * @param cache the sprite cache passed to beginCache()
+	 */
+	public void endCache(SpriteCache cache) {
+		cache.end();
+		active = DrawPass.INACTIVE;
+		stats.endPass(overlayCamera ? RenderStats.Pass.OVERLAY : RenderStats.Pass.GAMEPLAY);
+	}
+
+	/**
+	 * Start a custom shader drawing sequence.
+	 * <p>
+	 * This binds the shader, for a renderer that sets its own uniforms and textures
+	 * and draws its own meshes (such as the parallax background). Like a cache pass,
+	 * it cannot be inside a standard begin/end pair. The shader is expected to output
+	 * premultiplied colors.
+	 *
+	 * @param shader the shader to draw with
+	 */
+	public void beginShader(ShaderProgram shader) {
+		if (active != DrawPass.INACTIVE) {
+			Gdx.app.error("GameCanvas", "Cannot begin a shader pass while drawing active", new IllegalStateException());
+			return;
+		}
+		stats.beginPass();
+		Gdx.gl.glEnable(GL20.GL_BLEND);
+		Gdx.gl.glBlendFunc(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		stats.countBlendSwitch();
+		shader.bind();
+		active = DrawPass.SHADER;
+	}
+
+	/**
+	 * Ends a custom shader drawing sequence.
+	 */
+	public void endShader() {
+		active = DrawPass.INACTIVE;
+		stats.endPass(overlayCamera ? RenderStats.Pass.OVERLAY : RenderStats.Pass.GAMEPLAY);
+	}
+
 	/**
 	 * Draws the tinted texture at the given position.
 	 * <p>
@@ -471,6 +604,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(colorWithBrightness(Color.WHITE));
@@ -499,6 +633,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(colorWithBrightness(tint));
@@ -529,6 +664,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		// Call the master drawing method (more efficient that base method)
 		holder.setRegion(image);
@@ -565,6 +701,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		// Call the master drawing method (more efficient that base method)
 		holder.setRegion(image);
@@ -595,6 +732,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		// Call the master drawing method (we have to for transforms)
 		holder.setRegion(image);
@@ -623,6 +761,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(colorWithBrightness(Color.WHITE));
@@ -651,6 +790,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(colorWithBrightness(tint));
@@ -681,6 +821,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(colorWithBrightness(tint));
@@ -719,6 +860,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 
 		// BUG: The draw command for texture regions does not work properly.
 		// There is a workaround, but it will break if the bug is fixed.
@@ -729,6 +871,45 @@ public class GameCanvas implements SettingsObserver {
 		spriteBatch.draw(region, region.getRegionWidth(), region.getRegionHeight(), local);
 	}
 
+	/**
+	 * Draws a frame of an animation table with the given transformations
+	 * <p>
+	 * The frame is given by its texture and its texture coordinates, read from a table
+	 * of coordinates (u, v, u2, v2) at the given offset. It is otherwise drawn like
+	 * a texture region, and frames sharing a texture are batched together.
+	 * <p>
+	 * Unlike the other draw methods, this does not set the texture filter, as the
+	 * animation table sets it once when the frame is added.
+	 *
+	 * @param texture The texture of the frame
+	 * @param uvs 	The table of texture coordinates
+	 * @param offset The offset of the frame coordinates in the table
+	 * @param width The width of the frame (in pixels)
+	 * @param height The height of the frame (in pixels)
+	 * @param tint  The color tint
+	 * @param ox 	The x-coordinate of texture origin (in pixels)
+	 * @param oy 	The y-coordinate of texture origin (in pixels)
+	 * @param x 	The x-coordinate of the texture origin (on screen)
+	 * @param y 	The y-coordinate of the texture origin (on screen)
+	 * @param angle The rotation angle (in degrees) about the origin.
+	 * @param sx 	The x-axis scaling factor
+	 * @param sy 	The y-axis scaling factor
+	 */
+	public void draw(Texture texture, float[] uvs, int offset, int width, int height, Color tint,
+					 float ox, float oy, float x, float y, float angle, float sx, float sy) {
+		if (active != DrawPass.STANDARD) {
+			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
+			return;
+		}
+		stats.countSprite();
+
+		computeTransform(ox,oy,x,y,angle,sx,sy);
+		holder.setTexture(texture);
+		holder.setRegion(uvs[offset], uvs[offset+1], uvs[offset+2], uvs[offset+3]);
+		spriteBatch.setColor(colorWithBrightness(tint));
+		spriteBatch.draw(holder, width, height, local);
+	}
+
 	/**
 	 * Draws the tinted texture with the given transformations
 	 * <p>
@@ -753,6 +934,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 
 		local.set(affine);
 		local.translate(-ox,-oy);				
@@ -785,6 +967,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(colorWithBrightness(Color.WHITE));
@@ -819,6 +1002,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(colorWithBrightness(tint));
@@ -855,6 +1039,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		// Unlike Lab 1, we can shortcut without a master drawing method
     	spriteBatch.setColor(colorWithBrightness(tint));
@@ -893,6 +1078,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		TextureRegion bounds = region.getRegion();
 		spriteBatch.setColor(colorWithBrightness(tint));
@@ -928,6 +1114,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 
 		local.set(affine);
 		local.translate(-ox,-oy);
@@ -966,10 +1153,30 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		GlyphLayout layout = new GlyphLayout(font,text);
 		font.draw(spriteBatch, layout, x, y);
     }
 
+    /**
+     * Draws part of text that is already laid out.
+     * <p>
+     * Unlike the other text methods, this lays out nothing, so it is the one to use
+     * for text that is drawn every frame. The glyphs are drawn where the cache put them.
+     *
+     * @param text The laid out text
+     * @param start The first glyph to draw
+     * @param end The glyph after the last one to draw
+     */
+    public void drawText(BitmapFontCache text, int start, int end) {
+		if (active != DrawPass.STANDARD) {
+			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
+			return;
+		}
+		stats.countSprite();
+		text.draw(spriteBatch, start, end);
+    }
+
     /**
      * Draws text centered on the screen.
      *
@@ -982,6 +1189,7 @@ public class GameCanvas implements SettingsObserver {
 			Gdx.app.error("GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
 			return;
 		}
+		stats.countSprite();
 		
 		GlyphLayout layout = new GlyphLayout(font,text);
 		float x = (getWidth()  - layout.width) / 2.0f;
@@ -1001,6 +1209,7 @@ public class GameCanvas implements SettingsObserver {
     	global.mulLeft(cameraController.getCamera().combined);
     	debugRender.setProjectionMatrix(global);
 		
+		stats.beginPass();
     	debugRender.begin(ShapeRenderer.ShapeType.Line);
     	active = DrawPass.DEBUG;
     }
@@ -1019,6 +1228,7 @@ public class GameCanvas implements SettingsObserver {
     	global.mulLeft(cameraController.getCamera().combined);
     	debugRender.setProjectionMatrix(global);
 		
+		stats.beginPass();
     	debugRender.begin(ShapeRenderer.ShapeType.Line);
     	active = DrawPass.DEBUG;
     }
@@ -1029,6 +1239,7 @@ public class GameCanvas implements SettingsObserver {
 	 * Nothing is flushed to the graphics card until the method end() is called.
 	 */
     public void beginDebug() {
+    	stats.beginPass();
     	debugRender.setProjectionMatrix(cameraController.getCamera().combined);
     	debugRender.begin(ShapeRenderer.ShapeType.Filled);
     	debugRender.setColor(colorWithBrightness(Color.RED));
@@ -1045,6 +1256,7 @@ public class GameCanvas implements SettingsObserver {
     public void endDebug() {
     	debugRender.end();
     	active = DrawPass.INACTIVE;
+    	stats.endPass(RenderStats.Pass.DEBUG);
     }
     
     /**
@@ -1212,6 +1424,7 @@ public class GameCanvas implements SettingsObserver {
 		ShapeRenderer.ShapeType type = filled
 				? ShapeRenderer.ShapeType.Filled
 				: ShapeRenderer.ShapeType.Line;
+		stats.beginPass();
 		debugRender.begin(type);
 		active = DrawPass.DEBUG;
 	}
@@ -1219,6 +1432,7 @@ public class GameCanvas implements SettingsObserver {
 	public void endShapes() {
 		debugRender.end();
 		active = DrawPass.INACTIVE;
+		stats.endPass(RenderStats.Pass.DEBUG);
 	}
 
 	public void drawRectangle(Rectangle rect, Color color, float lineWidth) {
@@ -1265,6 +1479,71 @@ public class GameCanvas implements SettingsObserver {
 
 	public PolygonSpriteBatch getSpriteBatch() { return spriteBatch; }
 
+	/**
+	 * Returns the render statistics of this canvas.
+	 *
+	 * @return the render statistics of this canvas
+	 */
+	public RenderStats getStats() { return stats; }
+
+	/**
+	 * Draws the render statistics of the last frame in the top left corner.
+	 * <p>
+	 * This uses its own projection and restores the camera projection afterwards,
+	 * so it may be called after the frame without disturbing the next one. Call it
+	 * after RenderStats.endFrame() so that the overlay does not count itself.
+	 */
+	public void drawStats() {
+		if (active != DrawPass.INACTIVE) {
+			Gdx.app.error("GameCanvas", "Cannot draw statistics while drawing active", new IllegalStateException());
+			return;
+		}
+		if (statsFont == null) {
+			statsFont = new BitmapFont();
+		}
+		statsText.setLength(0);
+		statsText.append("draw calls ").append(stats.getDrawCalls())
+				.append("   texture binds ").append(stats.getTextureBindings())
+				.append("   flushes ").append(stats.getFlushes())
+				.append('\n').append("sprites ").append(stats.getSprites())
+				.append("   blend switches ").append(stats.getBlendSwitches());
+		if (stats.getAllocatedBytes() >= 0) {
+			statsText.append('\n').append("allocated ").append(stats.getAllocatedBytes()).append(" bytes");
+		}
+		if (stats.getGpuTime() >= 0) {
+			long tenths = stats.getGpuTime() / 100000;
+			statsText.append('\n').append("GPU ").append(tenths / 10).append('.').append(tenths % 10).append(" ms");
+		}
+		for (RenderStats.Pass pass : RenderStats.Pass.values()) {
+			// Tenths of a millisecond, without formatting garbage
+			long tenths = stats.getPassTime(pass) / 100000;
+			statsText.append('\n').append(pass.name()).append(' ')
+					.append(tenths / 10).append('.').append(tenths % 10).append(" ms (")
+					.append(stats.getPassCount(pass)).append(" passes)");
+		}
+
+		statsProjection.setToOrtho2D(0, 0, getWidth(), getHeight());
+		spriteBatch.setProjectionMatrix(statsProjection);
+		setBlendState(BlendState.NO_PREMULT);
+		spriteBatch.begin();
+		statsFont.setColor(Color.WHITE);
+		statsFont.draw(spriteBatch, statsText, 8, getHeight() - 8);
+		spriteBatch.end();
+		spriteBatch.setProjectionMatrix(cameraController.getCamera().combined);
+	}
+
+
+	/**
+	 * Returns the grayscale multiplier currently applied to every tint.
+	 * <p>
+	 * Baked geometry (e.g. sprite caches) stores its colors up front, so it uses this
+	 * to detect when it needs to be rebuilt.
+	 *
+	 * @return the current brightness multiplier
+	 */
+	public float getBrightness() {
+		return brightness;
+	}
 
 	public Color colorWithBrightness(Color color) {
 		tempColor.r = color.r * brightness;
@@ -1,13 +1,30 @@
 package edu.cornell.gdiac.game;
 
+import com.badlogic.gdx.Application;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.utils.Array;
 import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.assets.DecodePool;
 import edu.cornell.gdiac.game.models.GameState;
 import edu.cornell.gdiac.util.ScreenListener;
 
 public class GameRoot extends Game implements ScreenListener {
+	/** The key that shows and hides the render statistics (see RenderStats) */
+	private static final int STATS_KEY = Input.Keys.F3;
+
+	// The asset bundles of the screens (see assets.json)
+	private static final String MENUS = "menus";
+	private static final String PAUSE = "pause";
+	private static final String SETTINGS = "settings";
+	private static final String CONTROLS = "controls";
+	private static final String GAMEPLAY = "gameplay-core";
+	/** The bundles of the menus outside a level */
+	private static final String[] MENU_BUNDLES = {MENUS};
+	/** The bundles of a level, including its pause and death menus */
+	private static final String[] LEVEL_BUNDLES = {GAMEPLAY, PAUSE};
 
 	private GameState state;
 	private LevelScreen levelScreen;
@@ -23,23 +40,69 @@ public class GameRoot extends Game implements ScreenListener {
 	private FontTextureLoader fontTextureLoader;
 	private WinningScreen winningScreen;
 
+	/** The bundles held for the current screen */
+	private final Array<String> bundles = new Array<>();
+	/** The bundles of where the player returns to from the settings (the menus or a level) */
+	private String[] context = MENU_BUNDLES;
+	/** The screens whose assets were unloaded, disposed at the end of the frame */
+	private final Array<Screen> retired = new Array<>();
+
 	@Override
 	public void create() {
 		this.canvas = new GameCanvas();
-		this.loadingScreen = new LoadingScreen("assets.json", canvas);
+		this.loadingScreen = new LoadingScreen("assets.json", canvas, MENU_BUNDLES);
 		this.loadingScreen.setScreenListener(this);
 		setScreen(loadingScreen);
 	}
 
+	/**
+	 * Draws a frame of the current screen, counting it in the render statistics.
+	 */
+	@Override
+	public void render() {
+		RenderStats stats = canvas.getStats();
+		if (Gdx.input.isKeyJustPressed(STATS_KEY)) {
+			stats.setEnabled(!stats.isEnabled());
+		}
+		stats.beginFrame();
+		super.render();
+		stats.endFrame();
+		if (stats.isEnabled()) {
+			canvas.drawStats();
+		}
+		for (Screen screen : retired) {
+			screen.dispose();
+		}
+		retired.clear();
+	}
+
+	/**
+	 * Resizes the current screen, and picks the texture variants for the new size.
+	 *
+	 * Textures already loaded keep their size until their bundle is loaded again.
+	 */
+	@Override
+	public void resize(int width, int height) {
+		super.resize(width, height);
+		if (assets != null) {
+			assets.setDisplaySize(canvas.getWidth(), canvas.getHeight());
+		}
+	}
+
 	@Override
 	public void dispose() {
 		setScreen(null);
 		if (levelScreen != null) levelScreen.dispose();
 		if (loadingScreen != null) loadingScreen.dispose();
+		if (mainMenuScreen != null) mainMenuScreen.dispose();
+		if (levelSelectScreen != null) levelSelectScreen.dispose();
 		if (deathScreen != null) deathScreen.dispose();
 		if(escapeMenu!=null) escapeMenu.dispose();
 		if(settingsScreen!=null) settingsScreen.dispose();
+		if (controlsScreen != null) controlsScreen.dispose();
 		if(winningScreen !=null)winningScreen.dispose();
+		for (Screen screen : retired) screen.dispose();
+		retired.clear();
 		if (assets != null) {
 			assets.unloadAssets();
 			assets.dispose();
@@ -63,6 +126,9 @@ public class GameRoot extends Game implements ScreenListener {
 
 		if (screen == loadingScreen) {
 			assets = loadingScreen.getAssets();
+			// The loading screen loaded the menu bundles for us
+			bundles.clear();
+			bundles.addAll(MENU_BUNDLES);
 			fontTextureLoader = new FontTextureLoader();
 
 			state = new GameState(assets, fontTextureLoader);
@@ -71,36 +137,12 @@ public class GameRoot extends Game implements ScreenListener {
 			state.getSettings().addObserver(canvas);
 			canvas.onBrightnessChange(state.getSettings().getBrightness());
 
-			this.levelScreen = new LevelScreen(this.state.getCurrentLevel(), this.state.getActionBindings(), assets, state.getSettings());
-			levelScreen.setScreenListener(this);
-			levelScreen.setCanvas(canvas);
-			levelScreen.getLevel().setDifficulty(state.getSettings().getLevelDifficulty());
-			levelScreen.getAudio().onMasterVolumeChange(state.getSettings().getMasterVolume());
-			levelScreen.getAudio().onMusicVolumeChange(state.getSettings().getMusicVolume());
-			levelScreen.getAudio().onSfxVolumeChange(state.getSettings().getSfxVolume());
-
-			this.deathScreen = new DeathScreen(assets, canvas);
-			this.deathScreen.setScreenListener(this);
+			// The other screens are made when they are first shown (see useBundles)
 
-			this.levelSelectScreen = new LevelSelectScreen(assets, state, canvas, state.getSettings());
-			this.levelSelectScreen.setScreenListener(this);
-
-			this.mainMenuScreen = new MainMenuScreen(assets, canvas);
-			mainMenuScreen.setScreenListener(this);
+			// Read the level that START enters while the player is in the menu
+			state.prefetchLevel(state.getSettings().getNumLevelsAvailable() - 1);
 
-			this.escapeMenu = new EscapeMenu(assets, canvas);
-			this.escapeMenu.setScreenListener(this);
-
-			this.settingsScreen = new SettingsScreen(assets, canvas, state.getSettings(), fontTextureLoader);
-			this.settingsScreen.setScreenListener(this);
-
-			this.controlsScreen = new ControlsScreen(assets, canvas, state.getSettings(), fontTextureLoader);
-			this.controlsScreen.setScreenListener(this);
-			
-			this.winningScreen = new WinningScreen(assets, canvas);
-			this.winningScreen.setScreenListener(this);
-
-			setScreen(mainMenuScreen);
+			showMainMenu();
 		}
 
 		if (screen == mainMenuScreen) {
@@ -108,19 +150,13 @@ public class GameRoot extends Game implements ScreenListener {
 			if (exitCode == ExitCode.START) {
 				state.setCurrentLevel(state.getSettings().getNumLevelsAvailable() - 1);
 				state.resetCurrentLevel();
-				levelScreen.dispose();
-				levelScreen = new LevelScreen(state.getCurrentLevel(), state.getActionBindings(), assets, state.getSettings());
-				levelScreen.setScreenListener(this);
-				levelScreen.setCanvas(canvas);
-				setScreen(levelScreen);
+				startLevel();
 			} else if (exitCode == ExitCode.LEVEL_SELECT) {
 				screen.pause();
-				levelSelectScreen.reset();
-				setScreen(levelSelectScreen);
+				showLevelSelect();
 			}else if(exitCode == ExitCode.SETTINGS){
 				screen.pause();
-				settingsScreen.reset();
-				setScreen(settingsScreen);
+				showSettings();
 				settingsScreen.setIsFromMainMenu(true);
 			}
 		}
@@ -128,24 +164,18 @@ public class GameRoot extends Game implements ScreenListener {
 		if (screen == deathScreen) {
 			if (exitCode == ExitCode.RESET) {
 				this.state.resetCurrentLevel();
-				if (levelScreen != null) levelScreen.dispose();
-				levelScreen = new LevelScreen(this.state.getCurrentLevel(), this.state.getActionBindings(), assets, state.getSettings());
-				levelScreen.setScreenListener(this);
-				levelScreen.setCanvas(canvas);
-				setScreen(levelScreen);
+				startLevel();
 			}
 			if (exitCode == ExitCode.MAIN_MENU) {
 				screen.pause();
-				mainMenuScreen.reset();
-				setScreen(mainMenuScreen);
+				showMainMenu();
 			}
 		}
 
 		if (screen == levelSelectScreen) {
 			if (exitCode == ExitCode.MAIN_MENU) {
 				screen.pause();
-				mainMenuScreen.reset();
-				setScreen(mainMenuScreen);
+				showMainMenu();
 			}
 			if (exitCode == ExitCode.START) {
 				screen.pause();
@@ -153,11 +183,7 @@ public class GameRoot extends Game implements ScreenListener {
 
 				this.state.resetCurrentLevel();
 
-				levelScreen.dispose();
-				levelScreen = new LevelScreen(this.state.getCurrentLevel(), this.state.getActionBindings(), assets, state.getSettings());
-				levelScreen.setScreenListener(this);
-				levelScreen.setCanvas(canvas);
-				setScreen(levelScreen);
+				startLevel();
 			}
 		}
 
@@ -165,13 +191,11 @@ public class GameRoot extends Game implements ScreenListener {
 			if (exitCode == ExitCode.MAIN_MENU) { // should probably refactor exit codes with a diagram
 				levelScreen.pause();
 
-				mainMenuScreen.reset();
-				setScreen(mainMenuScreen);
+				showMainMenu();
 			}
 			if(exitCode == ExitCode.PAUSE){
 				levelScreen.pause();
-				escapeMenu.reset();
-				setScreen(escapeMenu);
+				showEscapeMenu();
 			}
 
 			if (exitCode == ExitCode.RESET) {
@@ -179,17 +203,12 @@ public class GameRoot extends Game implements ScreenListener {
 
 				this.state.resetCurrentLevel();
 
-				levelScreen.dispose();
-				levelScreen = new LevelScreen(this.state.getCurrentLevel(), this.state.getActionBindings(), assets, state.getSettings());
-				levelScreen.setScreenListener(this);
-				levelScreen.setCanvas(canvas);
-				setScreen(levelScreen);
+				startLevel();
 			}
 			if (exitCode == ExitCode.LOSE) {
 				levelScreen.pause();
 				levelScreen.getAudio().stopAllEffects();
-				deathScreen.reset();
-				setScreen(deathScreen);
+				showDeathScreen();
 			}
 
 			if (exitCode == ExitCode.WIN) {
@@ -198,34 +217,23 @@ public class GameRoot extends Game implements ScreenListener {
 				state.getSettings().save();
 				if(state.getCurrentLevel().getExit().getNextLevel().equals("win")){
 					//WINNING ALL LEVELS
-					levelScreen.dispose();
-					winningScreen.reset();
-					setScreen(winningScreen);
+					showWinningScreen();
 				}
 				else{
 				this.state.setCurrentLevel(state.getCurrentLevel().getExit().getNextLevel());
 				this.state.resetCurrentLevel();
-				levelScreen.dispose();
-				levelScreen = new LevelScreen(this.state.getCurrentLevel(), this.state.getActionBindings(), assets, state.getSettings());
-				levelScreen.setScreenListener(this);
-				levelScreen.setCanvas(canvas);
-				setScreen(levelScreen);
+				startLevel();
 				}
 			}
 		}
 		if(screen == escapeMenu){
 			if (exitCode == ExitCode.RESET) {
 				this.state.resetCurrentLevel();
-				if (levelScreen != null) levelScreen.dispose();
-				levelScreen = new LevelScreen(this.state.getCurrentLevel(), this.state.getActionBindings(), assets, state.getSettings());
-				levelScreen.setScreenListener(this);
-				levelScreen.setCanvas(canvas);
-				setScreen(levelScreen);
+				startLevel();
 			}
 			if (exitCode == ExitCode.MAIN_MENU) {
 				escapeMenu.pause();
-				mainMenuScreen.reset();
-				setScreen(mainMenuScreen);
+				showMainMenu();
 			}
 			if(exitCode == ExitCode.START && !state.getSettings().getSettingsChanged()){
 				escapeMenu.pause();
@@ -234,56 +242,210 @@ public class GameRoot extends Game implements ScreenListener {
 			}
 			if(exitCode == ExitCode.START && state.getSettings().getSettingsChanged()){
 				this.state.resetCurrentLevel();
-				if (levelScreen != null) levelScreen.dispose();
-				levelScreen = new LevelScreen(this.state.getCurrentLevel(), this.state.getActionBindings(), assets, state.getSettings());
-				levelScreen.setScreenListener(this);
-				levelScreen.setCanvas(canvas);
 				state.getSettings().setSettingsChanged(false);
-				setScreen(levelScreen);
+				startLevel();
 			}
 			if(exitCode == ExitCode.SETTINGS){
 				escapeMenu.pause();
-				settingsScreen.reset();
-				setScreen(settingsScreen);
+				showSettings();
 				settingsScreen.setIsFromMainMenu(false);
 			}
 		}
 		if(screen == settingsScreen){
 			if(exitCode == ExitCode.PAUSE){
 				screen.pause();
-				escapeMenu.reset();
-				setScreen(escapeMenu);
+				showEscapeMenu();
 			}
 			if (exitCode == ExitCode.MAIN_MENU) {
 				screen.pause();
-				mainMenuScreen.reset();
-				setScreen(mainMenuScreen);
+				showMainMenu();
 			}
 			if (exitCode == ExitCode.CONTROLS) {
 				screen.pause();
-				controlsScreen.reset();
-				setScreen(controlsScreen);
+				showControls();
 			}
 		}
 		if (screen == controlsScreen) {
 			if (exitCode == ExitCode.SETTINGS) {
 				screen.pause();
-				settingsScreen.reset();
-				setScreen(settingsScreen);
+				showSettings();
 			}
 		}
 		if (screen == winningScreen) {
 			if (exitCode == ExitCode.RESET) {
 				//NO.
 				screen.pause();
-				mainMenuScreen.reset();
-				setScreen(mainMenuScreen);
+				showMainMenu();
 			}
 			if (exitCode == ExitCode.MAIN_MENU) {
 				screen.pause();
-				mainMenuScreen.reset();
-				setScreen(mainMenuScreen);
+				showMainMenu();
 			}
 		}
 	}
+
+	/**
+	 * Enters the current level of the game state, building a new level screen for it.
+	 */
+	private void startLevel() {
+		useBundles(LEVEL_BUNDLES);
+		if (levelScreen != null) levelScreen.dispose();
+		levelScreen = new LevelScreen(state.getCurrentLevel(), state.getActionBindings(), assets, state.getSettings());
+		levelScreen.setScreenListener(this);
+		levelScreen.setCanvas(canvas);
+		levelScreen.getAudio().onMasterVolumeChange(state.getSettings().getMasterVolume());
+		levelScreen.getAudio().onMusicVolumeChange(state.getSettings().getMusicVolume());
+		levelScreen.getAudio().onSfxVolumeChange(state.getSettings().getSfxVolume());
+		setScreen(levelScreen);
+	}
+
+	private void showMainMenu() {
+		useBundles(MENU_BUNDLES);
+		if (mainMenuScreen == null) {
+			mainMenuScreen = new MainMenuScreen(assets, canvas);
+			mainMenuScreen.setScreenListener(this);
+		}
+		mainMenuScreen.reset();
+		setScreen(mainMenuScreen);
+	}
+
+	private void showLevelSelect() {
+		useBundles(MENU_BUNDLES);
+		if (levelSelectScreen == null) {
+			levelSelectScreen = new LevelSelectScreen(assets, state, canvas, state.getSettings());
+			levelSelectScreen.setScreenListener(this);
+		}
+		levelSelectScreen.reset();
+		setScreen(levelSelectScreen);
+	}
+
+	private void showWinningScreen() {
+		// Its button is the one from the death screen
+		useBundles(MENU_BUNDLES, PAUSE);
+		if (winningScreen == null) {
+			winningScreen = new WinningScreen(assets, canvas);
+			winningScreen.setScreenListener(this);
+		}
+		winningScreen.reset();
+		setScreen(winningScreen);
+	}
+
+	private void showEscapeMenu() {
+		useBundles(LEVEL_BUNDLES);
+		if (escapeMenu == null) {
+			escapeMenu = new EscapeMenu(assets, canvas);
+			escapeMenu.setScreenListener(this);
+		}
+		escapeMenu.reset();
+		setScreen(escapeMenu);
+	}
+
+	private void showDeathScreen() {
+		useBundles(LEVEL_BUNDLES);
+		if (deathScreen == null) {
+			deathScreen = new DeathScreen(assets, canvas);
+			deathScreen.setScreenListener(this);
+		}
+		deathScreen.reset();
+		setScreen(deathScreen);
+	}
+
+	private void showSettings() {
+		useBundles(context, SETTINGS);
+		if (settingsScreen == null) {
+			settingsScreen = new SettingsScreen(assets, canvas, state.getSettings(), fontTextureLoader);
+			settingsScreen.setScreenListener(this);
+		}
+		settingsScreen.reset();
+		setScreen(settingsScreen);
+	}
+
+	private void showControls() {
+		// Its back button is the one from the settings
+		useBundles(context, SETTINGS, CONTROLS);
+		if (controlsScreen == null) {
+			controlsScreen = new ControlsScreen(assets, canvas, state.getSettings(), fontTextureLoader);
+			controlsScreen.setScreenListener(this);
+		}
+		controlsScreen.reset();
+		setScreen(controlsScreen);
+	}
+
+	/**
+	 * Holds the asset bundles of the next screen, releasing the others.
+	 * <p>
+	 * The bundles are those of the context (the menus or a level) and any extra ones.
+	 * The new bundles are loaded before the old ones are released, so a bundle held
+	 * by both screens stays loaded. Leaving a level disposes it, and the screens
+	 * drawing from a released bundle are retired; they are made again from the
+	 * reloaded assets the next time they are shown.
+	 *
+	 * @param context the bundles of the menus or of a level
+	 * @param extra   the other bundles of the screen
+	 */
+	private void useBundles(String[] context, String... extra) {
+		this.context = context;
+		Array<String> previous = new Array<>(bundles);
+		bundles.clear();
+		bundles.addAll(context);
+		bundles.addAll(extra);
+		if (bundles.equals(previous)) {
+			return;
+		}
+
+		long uploads = assets.getLoadTime(DecodePool.Category.TEXTURE_UPLOAD);
+		for (String bundle : bundles) {
+			assets.loadBundle(bundle);
+		}
+		assets.finishLoading();
+		uploads = assets.getLoadTime(DecodePool.Category.TEXTURE_UPLOAD) - uploads;
+		if (!bundles.contains(GAMEPLAY, false)) {
+			// Stops the level music before it is unloaded
+			if (levelScreen != null) {
+				levelScreen.dispose();
+				levelScreen = null;
+			}
+			state.resetCurrentLevel();
+		}
+		for (String bundle : previous) {
+			assets.unloadBundle(bundle);
+		}
+
+		if (!bundles.contains(MENUS, false)) {
+			mainMenuScreen = retire(mainMenuScreen);
+			levelSelectScreen = retire(levelSelectScreen);
+		}
+		if (!bundles.contains(MENUS, false) || !bundles.contains(PAUSE, false)) {
+			winningScreen = retire(winningScreen);
+		}
+		if (!bundles.contains(PAUSE, false)) {
+			escapeMenu = retire(escapeMenu);
+			deathScreen = retire(deathScreen);
+		}
+		if (!bundles.contains(SETTINGS, false)) {
+			settingsScreen = retire(settingsScreen);
+		}
+		if (!bundles.contains(SETTINGS, false) || !bundles.contains(CONTROLS, false)) {
+			controlsScreen = retire(controlsScreen);
+		}
+		// The reports are only built when debug logging is on
+		if (Gdx.app.getLogLevel() >= Application.LOG_DEBUG) {
+			Gdx.app.debug("Assets", String.format("Texture upload %d ms, memory by bundle%n%s",
+					uploads / 1000000, assets.getBundleReport()));
+			Gdx.app.debug("Text", fontTextureLoader.getReport());
+		}
+	}
+
+	/**
+	 * Queues a screen to be disposed at the end of the frame (it may be the one
+	 * running now).
+	 *
+	 * @return null, to clear the field holding the screen
+	 */
+	private <T extends Screen> T retire(T screen) {
+		if (screen != null) {
+			retired.add(screen);
+		}
+		return null;
+	}
 }
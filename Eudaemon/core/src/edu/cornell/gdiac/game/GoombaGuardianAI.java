@@ -4,10 +4,10 @@ import com.badlogic.gdx.math.Vector2;
 import edu.cornell.gdiac.game.models.Enemy;
 import edu.cornell.gdiac.game.models.EnemyAction;
 import edu.cornell.gdiac.game.models.Level;
+import edu.cornell.gdiac.util.RandomController;
 
 import java.util.ArrayList;
 import java.util.EnumSet;
-import java.util.Random;
 
 public class GoombaGuardianAI extends AIController{
     private final Enemy enemy;
@@ -78,9 +78,7 @@ public class GoombaGuardianAI extends AIController{
     private void changeStateIfApplicable() {
         switch (state) {
             case SPAWN:
-                Random rand = new Random();
-                int r=rand.nextInt();
-                if (ticks>60 && r%10==1){ //have some random when they start
+                if (ticks>60 && RandomController.rollInt(0, 19)==1){ //have some random when they start (1 in 20, as nextInt()%10==1 was)
                     state=FSMState.GUARD;
                 }
                 break;
@@ -3,6 +3,7 @@ package edu.cornell.gdiac.game;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
 import edu.cornell.gdiac.assets.AssetDirectory;
 import edu.cornell.gdiac.game.models.*;
 import edu.cornell.gdiac.util.ScreenListener;
@@ -11,15 +12,29 @@ import java.util.EnumSet;
 
 public class LevelScreen implements Screen, SettingsObserver {
 
+    /** Length of one simulation tick, in seconds */
+    public static final float TIME_STEP = 1 / 60.0f;
+
+    /** The most ticks simulated in a single frame; after a longer hitch the backlog is dropped */
+    private static final int MAX_TICKS_PER_FRAME = 5;
+
     private boolean active;
 
+    /** Frame time that has not yet been simulated, in seconds */
+    private float accumulator;
+
     private final Level level;
 
     private ScreenListener listener;
     private GameCanvas canvas;
 
     private final InputController inputController;
+    /** The actions passed to the action controller for the current tick */
     private final EnumSet<Action> playerAction;
+    /** The actions read from the input devices this frame */
+    private final EnumSet<Action> polledAction;
+    /** Rising-edge actions that have been polled but not yet consumed by a tick */
+    private final EnumSet<Action> pendingEdges;
 
     private final Array<AIController> aiControllers;
     private final Array<EnumSet<EnemyAction>> enemyActions;
@@ -31,6 +46,11 @@ public class LevelScreen implements Screen, SettingsObserver {
 
     private Settings settings;
 
+    /** Time (in nanoseconds) spent in each part of the most recent tick */
+    private long lastAITime;
+    private long lastActionTime;
+    private long lastLevelTime;
+
 
     public Level getLevel() {
         return level;
@@ -48,6 +68,8 @@ public class LevelScreen implements Screen, SettingsObserver {
         this.active = false;
         this.inputController = new InputController(actionBindings);
         this.playerAction = EnumSet.noneOf(Action.class);
+        this.polledAction = EnumSet.noneOf(Action.class);
+        this.pendingEdges = EnumSet.noneOf(Action.class);
 
         //POPULATE ENEMIES
         Enemy[] enemies= level.getEnemies();
@@ -94,16 +116,111 @@ public class LevelScreen implements Screen, SettingsObserver {
     }
 
 
+    /**
+     * Advances the level by the given frame time.
+     * <p>
+     * The simulation always runs in fixed ticks of TIME_STEP seconds, so its cost
+     * and behaviour do not depend on the frame rate. Leftover time is carried over
+     * to the next frame and used to interpolate the drawn positions.
+     *
+     * @param delta the frame time in seconds
+     */
     public void update(float delta) {
-        inputController.setPlayerAction(playerAction);
+        // Input is read once per frame. Rising-edge actions are held until a tick
+        // consumes them, so a press is neither lost nor repeated when a frame runs
+        // zero or several ticks.
+        inputController.setPlayerAction(polledAction);
+        for (Action action : polledAction) {
+            if (action.risingEdge) pendingEdges.add(action);
+        }
+
+        accumulator += delta;
+        int ticks = 0;
+        while (accumulator >= TIME_STEP && ticks < MAX_TICKS_PER_FRAME) {
+            tick();
+            accumulator -= TIME_STEP;
+            ticks++;
+        }
+        if (ticks == MAX_TICKS_PER_FRAME && accumulator >= TIME_STEP) {
+            // Too far behind (e.g. a loading hitch); do not try to catch up
+            accumulator = 0;
+        }
+
+        audio.updateAudio(this.level.getPlayer().getForm(), delta);
+        level.setInterpolation(accumulator / TIME_STEP);
+    }
+
+    /**
+     * Runs a single fixed simulation tick.
+     */
+    private void tick() {
+        playerAction.clear();
+        for (Action action : polledAction) {
+            if (!action.risingEdge) playerAction.add(action);
+        }
+        playerAction.addAll(pendingEdges);
+        pendingEdges.clear();
+        runTick(playerAction);
+    }
+
+    /**
+     * Runs a single fixed simulation tick with the given player actions.
+     * <p>
+     * Unlike update, this does not read the input devices. It lets a headless
+     * runner replay a scripted or recorded stream of actions, one set per tick.
+     *
+     * @param actions the player actions for this tick (rising-edge actions included)
+     */
+    public void simulateTick(EnumSet<Action> actions) {
+        runTick(actions);
+    }
+
+    /**
+     * Advances the AI, the actions and the level by one tick, timing each of them.
+     *
+     * @param actions the player actions for this tick
+     */
+    private void runTick(EnumSet<Action> actions) {
+        long start = TimeUtils.nanoTime();
+        audio.nextTick();
         for (int i = 0; i < aiControllers.size; i++) {
             aiControllers.get(i).setEnemyAction(enemyActions.get(i));
         }
-        actionController.resolveActions(playerAction, enemyActions);
+        long aiDone = TimeUtils.nanoTime();
+        actionController.resolveActions(actions, enemyActions);
+        long actionsDone = TimeUtils.nanoTime();
+        level.update(TIME_STEP);
+        long levelDone = TimeUtils.nanoTime();
+
+        lastAITime = aiDone - start;
+        lastActionTime = actionsDone - aiDone;
+        lastLevelTime = levelDone - actionsDone;
+    }
 
-        audio.updateAudio(this.level.getPlayer().getForm());
+    /**
+     * @return the time (in nanoseconds) the AI controllers took in the most recent tick
+     */
+    public long getLastAITime() {
+        return lastAITime;
+    }
+
+    /**
+     * @return the time (in nanoseconds) resolving actions took in the most recent tick
+     */
+    public long getLastActionTime() {
+        return lastActionTime;
+    }
 
-        level.update(delta);
+    /**
+     * Returns the time (in nanoseconds) the level update took in the most recent tick.
+     * <p>
+     * This includes the physics step (see Level.getLastStepTime), and with it
+     * every contact callback of the CollisionController.
+     *
+     * @return the time (in nanoseconds) the level update took in the most recent tick
+     */
+    public long getLastLevelTime() {
+        return lastLevelTime;
     }
 
 
@@ -111,11 +228,11 @@ public class LevelScreen implements Screen, SettingsObserver {
     private void checkScreenTransitions() {
         if (this.level.getPlayer().getHearts() == 0 || !this.level.inBounds(level.getPlayer())) {
             listener.exitScreen(this, ExitCode.LOSE);
-        } else if (playerAction.contains(Action.RESET)) {
+        } else if (polledAction.contains(Action.RESET)) {
             listener.exitScreen(this, ExitCode.RESET);
         } else if (level.isCompleted()) {
             listener.exitScreen(this, ExitCode.WIN);
-        } else if (playerAction.contains(Action.PAUSE)) {
+        } else if (polledAction.contains(Action.PAUSE)) {
             //TODO: pause screen
             listener.exitScreen(this, ExitCode.PAUSE);
         }
@@ -163,16 +280,14 @@ public class LevelScreen implements Screen, SettingsObserver {
     public void show() {
         active = true;
 
-        audio.playAllSound();
-        audio.muteChiyo();
+        audio.playMusic();
         Gdx.input.setCursorCatched(true);
     }
 
     @Override
     public void hide() {
         active = false;
-        audio.muteChiyo();
-        audio.muteMomo();
+        audio.pauseMusic();
     }
 
     @Override
@@ -34,7 +34,9 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.TimeUtils;
 import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.assets.DecodePool;
 import edu.cornell.gdiac.util.Controllers;
 import edu.cornell.gdiac.util.ScreenListener;
 import edu.cornell.gdiac.util.XBoxController;
@@ -111,6 +113,8 @@ public class LoadingScreen implements Screen, InputProcessor, ControllerListener
 
 	/** Current progress (0 to 1) of the asset manager */
 	private float progress;
+	/** When the real assets started loading (for the load summary) */
+	private long loadStart;
 	/** The amount of time to devote to loading assets (as opposed to on screen hints, etc.) */
 	private int   budget;
 
@@ -166,9 +170,10 @@ public class LoadingScreen implements Screen, InputProcessor, ControllerListener
 	 *
 	 * @param file  	The asset directory to load in the background
 	 * @param canvas 	The game canvas to draw to
+	 * @param bundles	The bundles of the directory to load with it
 	 */
-	public LoadingScreen(String file, GameCanvas canvas) {
-		this(file, canvas, DEFAULT_BUDGET);
+	public LoadingScreen(String file, GameCanvas canvas, String... bundles) {
+		this(file, canvas, DEFAULT_BUDGET, bundles);
 	}
 
 	/**
@@ -182,8 +187,9 @@ public class LoadingScreen implements Screen, InputProcessor, ControllerListener
 	 * @param file  	The asset directory to load in the background
 	 * @param canvas 	The game canvas to draw to
 	 * @param millis The loading budget in milliseconds
+	 * @param bundles	The bundles of the directory to load with it
 	 */
-	public LoadingScreen(String file, GameCanvas canvas, int millis) {
+	public LoadingScreen(String file, GameCanvas canvas, int millis, String... bundles) {
 		this.canvas  = canvas;
 		budget = millis;
 
@@ -218,7 +224,10 @@ public class LoadingScreen implements Screen, InputProcessor, ControllerListener
 
 		// Start loading the real assets
 		assets = new AssetDirectory( file );
-		assets.loadAssets();
+		// The screen backgrounds are drawn over the whole canvas
+		assets.setDisplaySize( canvas.getWidth(), canvas.getHeight() );
+		loadStart = TimeUtils.millis();
+		assets.loadAssets(bundles);
 		active = true;
 	}
 	
@@ -242,8 +251,26 @@ public class LoadingScreen implements Screen, InputProcessor, ControllerListener
 	 * @param delta Number of seconds since last animation frame
 	 */
 	private void update(float delta) {
+		boolean loading = progress < 1.0f;
 		assets.update(budget);
 		this.progress = assets.getProgress();
+		if (loading && progress >= 1.0f) {
+			logLoadTimes();
+		}
+	}
+
+	/**
+	 * Logs how long the assets took to load, and where the time went.
+	 */
+	private void logLoadTimes() {
+		StringBuilder summary = new StringBuilder();
+		summary.append("Assets loaded in ").append(TimeUtils.timeSinceMillis(loadStart)).append(" ms");
+		for (DecodePool.Category category : DecodePool.Category.values()) {
+			summary.append(", ").append(category.name().toLowerCase().replace('_', ' ')).append(' ')
+					.append(assets.getLoadTime(category) / 1000000).append(" ms (")
+					.append(assets.getLoadCount(category)).append(')');
+		}
+		Gdx.app.log("LoadingScreen", summary.toString());
 	}
 
 	/**
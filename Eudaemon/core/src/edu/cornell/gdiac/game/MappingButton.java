@@ -1,22 +1,28 @@
 package edu.cornell.gdiac.game;
 
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 import java.util.Locale;
 
 public class MappingButton extends MenuButton {
 
     public MappingButton(FontTextureLoader fontTextureLoader, BitmapFont font, String binding) {
-        super(new TextureRegion(fontTextureLoader.createFontTexture(font, binding.toUpperCase(Locale.ROOT))));
+        super(fontTextureLoader.createFontRegion(font, binding.toUpperCase(Locale.ROOT)));
     }
 
     // button needs to be resized
     public void updateTexture(FontTextureLoader fontTextureLoader, BitmapFont font, String newBinding) {
+        // The old binding stays in the atlas, so switching back to it is free
+        dispose(fontTextureLoader);
+
+        texture = fontTextureLoader.createFontRegion(font, newBinding.toUpperCase(Locale.ROOT));
+    }
+
+    /** Releases the text of the binding */
+    public void dispose(FontTextureLoader fontTextureLoader) {
         if (texture != null) {
-            fontTextureLoader.disposeTexture(texture.getTexture());
+            fontTextureLoader.releaseFontRegion(texture);
+            texture = null;
         }
-
-        texture = new TextureRegion(fontTextureLoader.createFontTexture(font, newBinding.toUpperCase(Locale.ROOT)));
     }
 }
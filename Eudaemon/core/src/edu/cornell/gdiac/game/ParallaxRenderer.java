@@ -0,0 +1,245 @@
+package edu.cornell.gdiac.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Draws the parallax background layers of a level in a single shader pass.
+ * <p>
+ * Each layer is an image placed in the level like a sprite (by an origin in pixels
+ * and a scale), and moved by the camera position times a parallax factor. Rather than
+ * drawing a quad per layer, one quad covers the screen and the shader finds, for each
+ * pixel, where it falls in every layer. The layers are composited back to front in
+ * the shader, so the screen is only filled once.
+ * <p>
+ * The layers wrap around horizontally (by their texture coordinates), so the
+ * background never runs out however far the camera goes. Above and below a layer
+ * nothing is drawn, as before.
+ * <p>
+ * If the shader does not compile, the layers are drawn as sprites instead.
+ */
+public class ParallaxRenderer implements Disposable {
+    /** Passes the screen position (from 0 to 1) of the quad to the fragment shader */
+    private static final String VERTEX_SHADER =
+            "attribute vec2 a_position;\n" +
+            "varying vec2 v_position;\n" +
+            "void main() {\n" +
+            "    v_position = a_position*0.5 + 0.5;\n" +
+            "    gl_Position = vec4(a_position, 0.0, 1.0);\n" +
+            "}\n";
+
+    /** The layers, back to front */
+    private final TextureRegion[] layers;
+    /** How far each layer moves with the camera (1 moves with the level) */
+    private final float[] factors;
+    /** The origin of each layer, in pixels */
+    private final float[] originX;
+    private final float originY;
+    /** The scale of the layer images, in level coordinates per pixel */
+    private final float scale;
+
+    /** The world rectangle of each layer this frame (x, y, width, height) */
+    private final float[] rects;
+    /** The texture coordinates of each layer (u, v, u2, v2) */
+    private final float[] regions;
+    /** The camera bounds this frame (x, y, width, height) */
+    private final float[] view = new float[4];
+
+    /** The compositing shader (null until first drawn) */
+    private ShaderProgram shader;
+    /** A quad covering the screen (null until first drawn) */
+    private Mesh quad;
+    /** The uniform locations of the shader */
+    private int viewLocation;
+    private int tintLocation;
+    private int rectLocation;
+    private int regionLocation;
+    private int[] layerLocations;
+
+    /**
+     * Creates a renderer for the given background layers.
+     * <p>
+     * No GPU resources are allocated until the layers are first drawn.
+     *
+     * @param layers    the layers, back to front
+     * @param factors   how far each layer moves with the camera
+     * @param originX   the x-coordinate of the origin of each layer (in pixels)
+     * @param originY   the y-coordinate of the origin of every layer (in pixels)
+     * @param scale     the scale of the layer images (the level backgroundScale)
+     */
+    public ParallaxRenderer(TextureRegion[] layers, float[] factors, float[] originX, float originY, float scale) {
+        this.layers = layers;
+        this.factors = factors;
+        this.originX = originX;
+        this.originY = originY;
+        this.scale = scale;
+        this.rects = new float[4*layers.length];
+        this.regions = new float[4*layers.length];
+        for (int ii = 0; ii < layers.length; ii++) {
+            TextureRegion layer = layers[ii];
+            regions[4*ii  ] = layer.getU();
+            regions[4*ii+1] = layer.getV();
+            regions[4*ii+2] = layer.getU2();
+            regions[4*ii+3] = layer.getV2();
+        }
+    }
+
+    /**
+     * Draws the layers for the given parallax position.
+     * <p>
+     * This must be called OUTSIDE of a canvas begin/end pair (it uses its own pass),
+     * with the gameplay camera already positioned for this frame. A layer with factor
+     * f has its origin at (f*x, f*y).
+     *
+     * @param canvas    the drawing context
+     * @param x         the x-coordinate of the parallax position
+     * @param y         the y-coordinate of the parallax position
+     */
+    public void draw(GameCanvas canvas, float x, float y) {
+        if (shader == null) {
+            create();
+        }
+        if (!shader.isCompiled()) {
+            drawSprites(canvas, x, y);
+            return;
+        }
+
+        for (int ii = 0; ii < layers.length; ii++) {
+            rects[4*ii  ] = x*factors[ii] - originX[ii]*scale;
+            rects[4*ii+1] = y*factors[ii] - originY*scale;
+            rects[4*ii+2] = layers[ii].getRegionWidth()*scale;
+            rects[4*ii+3] = layers[ii].getRegionHeight()*scale;
+        }
+        OrthographicCamera camera = canvas.getCamera();
+        view[2] = camera.viewportWidth*camera.zoom;
+        view[3] = camera.viewportHeight*camera.zoom;
+        view[0] = camera.position.x - view[2]/2;
+        view[1] = camera.position.y - view[3]/2;
+
+        canvas.beginShader(shader);
+        shader.setUniform4fv(viewLocation, view, 0, 4);
+        shader.setUniformf(tintLocation, canvas.colorWithBrightness(Color.WHITE));
+        shader.setUniform4fv(rectLocation, rects, 0, rects.length);
+        shader.setUniform4fv(regionLocation, regions, 0, regions.length);
+        for (int ii = 0; ii < layers.length; ii++) {
+            layers[ii].getTexture().bind(ii);
+            shader.setUniformi(layerLocations[ii], ii);
+        }
+        // The sprite batch binds its textures to the active unit
+        Gdx.gl.glActiveTexture(GL20.GL_TEXTURE0);
+        quad.render(shader, GL20.GL_TRIANGLE_STRIP);
+        canvas.endShader();
+    }
+
+    /**
+     * Draws the layers as sprites, one quad per layer, without wrapping around.
+     *
+     * @param canvas    the drawing context
+     * @param x         the x-coordinate of the parallax position
+     * @param y         the y-coordinate of the parallax position
+     */
+    private void drawSprites(GameCanvas canvas, float x, float y) {
+        canvas.begin();
+        for (int ii = 0; ii < layers.length; ii++) {
+            canvas.draw(layers[ii], Color.WHITE, originX[ii], originY, x*factors[ii], y*factors[ii], 0, scale, scale);
+        }
+        canvas.end();
+    }
+
+    /**
+     * Compiles the shader and makes the screen quad.
+     * <p>
+     * The layers are set to nearest filtering here, once, rather than on every draw.
+     */
+    private void create() {
+        shader = new ShaderProgram(VERTEX_SHADER, fragmentShader(layers.length));
+        if (!shader.isCompiled()) {
+            Gdx.app.error("ParallaxRenderer", shader.getLog());
+        }
+        viewLocation = shader.fetchUniformLocation("u_view", false);
+        tintLocation = shader.fetchUniformLocation("u_tint", false);
+        rectLocation = shader.fetchUniformLocation("u_rect", false);
+        regionLocation = shader.fetchUniformLocation("u_region", false);
+        layerLocations = new int[layers.length];
+        for (int ii = 0; ii < layers.length; ii++) {
+            layerLocations[ii] = shader.fetchUniformLocation("u_layer" + ii, false);
+        }
+
+        for (TextureRegion layer : layers) {
+            layer.getTexture().setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        }
+        quad = new Mesh(true, 4, 0, new VertexAttribute(VertexAttributes.Usage.Position, 2, "a_position"));
+        quad.setVertices(new float[] {-1, -1, 1, -1, -1, 1, 1, 1});
+    }
+
+    /**
+     * Returns the source of the fragment shader compositing the given number of layers.
+     * <p>
+     * Every layer has its own sampler, as GLSL ES cannot index an array of samplers
+     * by a loop variable on every device.
+     *
+     * @param count the number of layers
+     *
+     * @return the source of the fragment shader
+     */
+    private static String fragmentShader(int count) {
+        StringBuilder source = new StringBuilder();
+        source.append("#ifdef GL_ES\n")
+              .append("#ifdef GL_FRAGMENT_PRECISION_HIGH\n")
+              .append("precision highp float;\n")
+              .append("#else\n")
+              .append("precision mediump float;\n")
+              .append("#endif\n")
+              .append("#endif\n")
+              .append("varying vec2 v_position;\n")
+              .append("uniform vec4 u_view;\n")
+              .append("uniform vec4 u_tint;\n")
+              .append("uniform vec4 u_rect[").append(count).append("];\n")
+              .append("uniform vec4 u_region[").append(count).append("];\n");
+        for (int ii = 0; ii < count; ii++) {
+            source.append("uniform sampler2D u_layer").append(ii).append(";\n");
+        }
+        // The color of a layer at a point in the level, premultiplied
+        source.append("vec4 layer(sampler2D image, vec4 rect, vec4 region, vec2 point) {\n")
+              .append("    vec2 p = (point - rect.xy)/rect.zw;\n")
+              .append("    if (p.y < 0.0 || p.y >= 1.0) return vec4(0.0);\n")
+              .append("    vec2 uv = vec2(mix(region.x, region.z, fract(p.x)), mix(region.w, region.y, p.y));\n")
+              .append("    vec4 color = texture2D(image, uv);\n")
+              .append("    return vec4(color.rgb*color.a, color.a);\n")
+              .append("}\n")
+              .append("void main() {\n")
+              .append("    vec2 point = u_view.xy + v_position*u_view.zw;\n")
+              .append("    vec4 color = vec4(0.0);\n")
+              .append("    vec4 front;\n");
+        for (int ii = 0; ii < count; ii++) {
+            source.append("    front = layer(u_layer").append(ii).append(", u_rect[").append(ii)
+                  .append("], u_region[").append(ii).append("], point);\n")
+                  .append("    color = front + color*(1.0 - front.a);\n");
+        }
+        source.append("    gl_FragColor = vec4(color.rgb*u_tint.rgb, color.a);\n")
+              .append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Releases the shader and the screen quad.
+     */
+    @Override
+    public void dispose() {
+        if (shader != null) {
+            shader.dispose();
+            shader = null;
+            quad.dispose();
+            quad = null;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * RenderStats.java
+ *
+ * This counts what a frame costs to draw. GameCanvas reports every pass and sprite to
+ * it, and the draw calls and texture binds are counted by intercepting GL calls while
+ * it is enabled. GameRoot marks the frames, and shows the numbers when asked.
+ * Where the graphics card has timer queries, the frames are also timed on the GPU.
+ */
+package edu.cornell.gdiac.game;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
+import com.badlogic.gdx.graphics.glutils.GLVersion;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.IntBuffer;
+
+/**
+ * Per-frame render statistics for a GameCanvas.
+ * <p>
+ * Nothing is counted until the statistics are enabled, as intercepting the GL calls
+ * has a cost. The getters return the numbers for the last complete frame.
+ * <p>
+ * Where the JVM can count the memory allocated by a thread, the statistics also
+ * count what the frame allocated on the thread that marks the frames.
+ * <p>
+ * Where the graphics card has timer queries (OpenGL 3.3, or the timer query extension,
+ * with a GL30 context), the statistics also time each frame on the GPU. A query is read
+ * a few frames after it was made, so that reading it does not wait for the GPU.
+ */
+public class RenderStats {
+    /** The kinds of drawing pass that are timed separately */
+    public enum Pass {
+        /** A sprite or sprite cache pass with the gameplay camera */
+        GAMEPLAY,
+        /** A sprite or sprite cache pass with the overlay camera (UI and menus) */
+        OVERLAY,
+        /** A shape pass (physics outlines and menu shapes) */
+        DEBUG
+    }
+
+    private static final Pass[] PASSES = Pass.values();
+
+    /** GL_TIME_ELAPSED, from ARB_timer_query and EXT_disjoint_timer_query */
+    private static final int GL_TIME_ELAPSED = 0x88BF;
+    /** The number of frames a timer query is read after (and so the queries in flight) */
+    private static final int TIMER_LATENCY = 3;
+
+    /** The batch whose flushes are counted */
+    private final PolygonSpriteBatch batch;
+    /** Counts the draw calls and texture binds of every GL call */
+    private final GLProfiler profiler;
+    /** Counts the memory allocated by a thread (null if the JVM cannot) */
+    private final com.sun.management.ThreadMXBean allocations;
+    private boolean enabled;
+    /** The timer queries, one per frame in flight (null if not timing the GPU) */
+    private IntBuffer timers;
+    /** Holds the state or the result of a timer query */
+    private final IntBuffer timerResult = BufferUtils.newIntBuffer(1);
+    /** The frames timed since the timer queries were made */
+    private int timedFrames;
+
+    //#region Current frame
+    private boolean inFrame;
+    private int batchCallsAtStart;
+    private int spriteCount;
+    private int blendCount;
+    private long allocatedAtStart;
+    private long passStart;
+    private final long[] passTime = new long[PASSES.length];
+    private final int[] passCount = new int[PASSES.length];
+    //#endregion
+
+    //#region Last frame
+    private int drawCalls;
+    private int textureBindings;
+    private int flushes;
+    private int sprites;
+    private int blendSwitches;
+    private long allocated;
+    private long gpuTime = -1;
+    private final long[] lastPassTime = new long[PASSES.length];
+    private final int[] lastPassCount = new int[PASSES.length];
+    //#endregion
+
+    /**
+     * Creates the statistics for a canvas.
+     *
+     * @param batch the sprite batch of the canvas
+     */
+    RenderStats(PolygonSpriteBatch batch) {
+        this.batch = batch;
+        profiler = new GLProfiler(Gdx.graphics);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            allocations = (com.sun.management.ThreadMXBean) threads;
+        } else {
+            allocations = null;
+        }
+    }
+
+    /**
+     * @return true if frames are being counted
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops counting frames.
+     * <p>
+     * This takes effect at the next frame. The numbers of the last frame are kept
+     * when counting stops.
+     *
+     * @param value whether to count frames
+     */
+    public void setEnabled(boolean value) {
+        if (value == enabled) {
+            return;
+        }
+        enabled = value;
+        if (enabled) {
+            profiler.enable();
+            if (supportsTimer()) {
+                timers = BufferUtils.newIntBuffer(TIMER_LATENCY);
+                Gdx.gl30.glGenQueries(TIMER_LATENCY, timers);
+                timedFrames = 0;
+            }
+        } else {
+            profiler.disable();
+            if (timers != null) {
+                if (inFrame) {
+                    Gdx.gl30.glEndQuery(GL_TIME_ELAPSED);
+                }
+                Gdx.gl30.glDeleteQueries(TIMER_LATENCY, timers);
+                timers = null;
+            }
+            inFrame = false;
+        }
+    }
+
+    /**
+     * Marks the start of a frame.
+     */
+    public void beginFrame() {
+        if (!enabled) {
+            return;
+        }
+        profiler.reset();
+        batchCallsAtStart = batch.totalRenderCalls;
+        spriteCount = 0;
+        blendCount = 0;
+        allocatedAtStart = allocatedBytes();
+        for (int ii = 0; ii < PASSES.length; ii++) {
+            passTime[ii] = 0;
+            passCount[ii] = 0;
+        }
+        if (timers != null) {
+            int timer = timers.get(timedFrames % TIMER_LATENCY);
+            if (timedFrames >= TIMER_LATENCY) {
+                // If the GPU is that far behind, the older time is kept
+                Gdx.gl30.glGetQueryObjectuiv(timer, GL30.GL_QUERY_RESULT_AVAILABLE, timerResult);
+                if (timerResult.get(0) != 0) {
+                    Gdx.gl30.glGetQueryObjectuiv(timer, GL30.GL_QUERY_RESULT, timerResult);
+                    gpuTime = timerResult.get(0) & 0xFFFFFFFFL;
+                }
+            }
+            Gdx.gl30.glBeginQuery(GL_TIME_ELAPSED, timer);
+        }
+        inFrame = true;
+    }
+
+    /**
+     * Marks the end of a frame, making its numbers available to the getters.
+     */
+    public void endFrame() {
+        if (!inFrame) {
+            return;
+        }
+        if (timers != null) {
+            Gdx.gl30.glEndQuery(GL_TIME_ELAPSED);
+            timedFrames++;
+        }
+        drawCalls = profiler.getDrawCalls();
+        textureBindings = profiler.getTextureBindings();
+        flushes = batch.totalRenderCalls - batchCallsAtStart;
+        sprites = spriteCount;
+        blendSwitches = blendCount;
+        allocated = allocations == null ? -1 : allocatedBytes() - allocatedAtStart;
+        System.arraycopy(passTime, 0, lastPassTime, 0, PASSES.length);
+        System.arraycopy(passCount, 0, lastPassCount, 0, PASSES.length);
+        inFrame = false;
+    }
+
+    /**
+     * Returns true if the graphics card can time the frames.
+     * <p>
+     * Timer queries are part of OpenGL 3.3 (or earlier with ARB_timer_query), and of
+     * OpenGL ES with EXT_disjoint_timer_query. Either way they need a GL30 context.
+     *
+     * @return true if the graphics card can time the frames
+     */
+    private static boolean supportsTimer() {
+        GLVersion version = Gdx.graphics.getGLVersion();
+        if (Gdx.gl30 == null || version == null) {
+            return false;
+        }
+        switch (version.getType()) {
+            case OpenGL:
+                return version.isVersionEqualToOrHigher(3, 3) || Gdx.graphics.supportsExtension("GL_ARB_timer_query");
+            case GLES:
+                return Gdx.graphics.supportsExtension("GL_EXT_disjoint_timer_query");
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return the bytes allocated so far by the current thread (0 if not counted)
+     */
+    private long allocatedBytes() {
+        return allocations == null ? 0 : allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    //#region Canvas callbacks
+    void beginPass() {
+        if (inFrame) passStart = TimeUtils.nanoTime();
+    }
+
+    void endPass(Pass pass) {
+        if (!inFrame) return;
+        passTime[pass.ordinal()] += TimeUtils.timeSinceNanos(passStart);
+        passCount[pass.ordinal()]++;
+    }
+
+    void countSprite() {
+        if (inFrame) spriteCount++;
+    }
+
+    void countBlendSwitch() {
+        if (inFrame) blendCount++;
+    }
+    //#endregion
+
+    //#region GETTERS
+    /** @return the GL draw calls of the last frame (batch flushes, sprite caches, shapes) */
+    public int getDrawCalls() { return drawCalls; }
+    /** @return the texture binds of the last frame */
+    public int getTextureBindings() { return textureBindings; }
+    /** @return the times the sprite batch was flushed in the last frame */
+    public int getFlushes() { return flushes; }
+    /** @return the sprites (and text runs) drawn through the canvas in the last frame */
+    public int getSprites() { return sprites; }
+    /** @return the changes of blend function in the last frame */
+    public int getBlendSwitches() { return blendSwitches; }
+    /** @return the bytes allocated by the render thread in the last frame (-1 if not counted) */
+    public long getAllocatedBytes() { return allocated; }
+    /** @return the GPU time (in nanoseconds) of a frame a few frames back (-1 if not timed) */
+    public long getGpuTime() { return gpuTime; }
+
+    /**
+     * @param pass the kind of pass
+     * @return the time (in nanoseconds) spent in passes of this kind in the last frame
+     */
+    public long getPassTime(Pass pass) { return lastPassTime[pass.ordinal()]; }
+
+    /**
+     * @param pass the kind of pass
+     * @return the number of passes of this kind in the last frame
+     */
+    public int getPassCount(Pass pass) { return lastPassCount[pass.ordinal()]; }
+    //#endregion
+}
@@ -126,6 +126,9 @@ public class SettingsScreen implements Screen, InputProcessor, ControllerListene
 
 	private MenuButton hoveredButton;
 
+	/** The renderer of the text of the controls button */
+	private FontTextureLoader fontTextureLoader;
+
 
 	//Texture to visually show the adjustment of settings (e.g volume, screen size)
 	private Texture filledBar;
@@ -153,6 +156,7 @@ public class SettingsScreen implements Screen, InputProcessor, ControllerListene
 		this.canvas  = canvas;
 		this.isFromMainMenu = false;
 		this.settings = settings;
+		this.fontTextureLoader = fontTextureLoader;
 
 		background = assets.getEntry( "settingsScreen:background", Texture.class );
 		background.setFilter( TextureFilter.Linear, TextureFilter.Linear );
@@ -163,7 +167,7 @@ public class SettingsScreen implements Screen, InputProcessor, ControllerListene
 		backButton = new MenuButton(new TextureRegion(assets.getEntry("settingsScreen:back", Texture.class))); // we are not adding the exitCode here, it is determined by `isFromMainMenu`
 		backButton.texture.getTexture().setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
 
-		controlsButton = new MenuButton(new TextureRegion(fontTextureLoader.createFontTexture(assets.getEntry("font:menu", BitmapFont.class), "CONTROLS")), ExitCode.CONTROLS);
+		controlsButton = new MenuButton(fontTextureLoader.createFontRegion(assets.getEntry("font:menu", BitmapFont.class), "CONTROLS"), ExitCode.CONTROLS);
 
 		volumeSlider = new MenuSlider(filledBar, unfilledBar, toggle) {
 			@Override
@@ -297,6 +301,7 @@ public class SettingsScreen implements Screen, InputProcessor, ControllerListene
 	 * Called when this screen should release all resources.
 	 */
 	public void dispose() {
+		fontTextureLoader.releaseFontRegion(controlsButton.texture);
 		canvas = null;
 		listener = null;
 	}
@@ -0,0 +1,215 @@
+package edu.cornell.gdiac.game;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import edu.cornell.gdiac.game.models.Tile;
+
+/**
+ * Draws a single tile layer of a level, culled against the gameplay camera.
+ * <p>
+ * The layer is split into square chunks of CHUNK_SIZE tiles. Tile layers never
+ * change once a level is built, so the quads of every chunk are baked into a
+ * SpriteCache the first time the layer is drawn. Each frame only the chunks
+ * overlapping the camera bounds are drawn, with a single cache call per chunk.
+ * <p>
+ * Brightness is baked into the vertex colors. When the canvas brightness changes
+ * the whole layer is rebaked rather than recoloring tiles every frame.
+ * <p>
+ * Like the tilemaps in Level, row 0 of the layer is the TOP of the map.
+ */
+public class TileLayerRenderer implements Disposable {
+    /** Width and height of a chunk, in tiles */
+    public static final int CHUNK_SIZE = 16;
+
+    /** Extra tiles drawn around the camera bounds (covers camera shake) */
+    private static final int CULL_MARGIN = 1;
+    /** SpriteCache cannot use indices past this many sprites */
+    private static final int MAX_INDEXED_SPRITES = 8191;
+
+    /** The tile ids of this layer; a value <= 0 is an empty cell */
+    private final int[][] layer;
+    /** The shared tileset, indexed by tile id */
+    private final Tile[] tiles;
+    /** In level coordinates, the width and height of a single tile */
+    private final float tileSize;
+
+    private final int widthInTiles;
+    private final int heightInTiles;
+    private final int chunksX;
+    private final int chunksY;
+
+    /** The number of non-empty tiles in each chunk, indexed [chunkY][chunkX] */
+    private final int[][] chunkTileCount;
+    /** The number of non-empty tiles in the whole layer */
+    private final int totalTiles;
+
+    /** The baked geometry for every chunk (null until first drawn or if the layer is empty) */
+    private SpriteCache cache;
+    /** The cache id of each chunk, indexed [chunkY][chunkX]; -1 for empty chunks */
+    private final int[][] chunkCacheIds;
+    /** The canvas brightness the cache was baked with */
+    private float bakedBrightness;
+
+    /** Tiles submitted to the canvas during the last draw */
+    private int submittedTiles;
+    /** Tiles skipped because they were off screen during the last draw */
+    private int culledTiles;
+
+    /**
+     * Creates a renderer for the given tile layer.
+     * <p>
+     * No GPU resources are allocated until the layer is first drawn.
+     *
+     * @param layer     the tile ids of the layer, row 0 at the top of the map
+     * @param tiles     the tileset, indexed by tile id
+     * @param tileSize  the size of a tile in level coordinates
+     */
+    public TileLayerRenderer(int[][] layer, Tile[] tiles, float tileSize) {
+        this.layer = layer;
+        this.tiles = tiles;
+        this.tileSize = tileSize;
+        this.heightInTiles = layer.length;
+        this.widthInTiles = heightInTiles > 0 ? layer[0].length : 0;
+        this.chunksX = (widthInTiles + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (heightInTiles + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        chunkTileCount = new int[chunksY][chunksX];
+        chunkCacheIds = new int[chunksY][chunksX];
+        int count = 0;
+        for (int y = 0; y < heightInTiles; y++) {
+            for (int x = 0; x < widthInTiles; x++) {
+                if (layer[y][x] <= 0) continue;
+                chunkTileCount[y / CHUNK_SIZE][x / CHUNK_SIZE]++;
+                count++;
+            }
+        }
+        totalTiles = count;
+    }
+
+    /**
+     * Bakes the quads of every chunk into the sprite cache.
+     * <p>
+     * This is only called on the first draw or after a brightness change.
+     *
+     * @param canvas the drawing context (for the brightness)
+     */
+    private void bake(GameCanvas canvas) {
+        if (cache == null) {
+            cache = new SpriteCache(totalTiles, totalTiles <= MAX_INDEXED_SPRITES);
+        } else {
+            cache.clear();
+        }
+        bakedBrightness = canvas.getBrightness();
+        cache.setColor(canvas.colorWithBrightness(Color.WHITE));
+
+        for (int cy = 0; cy < chunksY; cy++) {
+            for (int cx = 0; cx < chunksX; cx++) {
+                if (chunkTileCount[cy][cx] == 0) {
+                    chunkCacheIds[cy][cx] = -1;
+                    continue;
+                }
+                cache.beginCache();
+                int endY = Math.min(heightInTiles, cy * CHUNK_SIZE + CHUNK_SIZE);
+                int endX = Math.min(widthInTiles, cx * CHUNK_SIZE + CHUNK_SIZE);
+                for (int y = cy * CHUNK_SIZE; y < endY; y++) {
+                    float levelY = (heightInTiles - 1 - y) * tileSize;
+                    for (int x = cx * CHUNK_SIZE; x < endX; x++) {
+                        int tileId = layer[y][x];
+                        if (tileId <= 0) continue;
+                        TextureRegion texture = tiles[tileId].getTexture();
+                        if (texture == null) { //running into glitch
+                            continue;
+                        }
+                        texture.getTexture().setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+                        cache.add(texture, x * tileSize, levelY, tileSize, tileSize);
+                    }
+                }
+                chunkCacheIds[cy][cx] = cache.endCache();
+            }
+        }
+    }
+
+    /**
+     * Draws the visible chunks of this layer.
+     * <p>
+     * This must be called OUTSIDE of a canvas begin/end pair (it uses its own cache
+     * pass), with the gameplay camera already positioned for this frame.
+     *
+     * @param canvas the drawing context
+     */
+    public void draw(GameCanvas canvas) {
+        submittedTiles = 0;
+        if (totalTiles == 0) {
+            culledTiles = 0;
+            return;
+        }
+        if (cache == null || bakedBrightness != canvas.getBrightness()) {
+            bake(canvas);
+        }
+
+        OrthographicCamera camera = canvas.getCamera();
+        float halfWidth = camera.viewportWidth * camera.zoom / 2;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2;
+        float left = camera.position.x - halfWidth;
+        float right = camera.position.x + halfWidth;
+        float bottom = camera.position.y - halfHeight;
+        float top = camera.position.y + halfHeight;
+
+        // Convert the camera bounds to (inclusive) tile columns and rows
+        int minX = Math.max(0, (int) Math.floor(left / tileSize) - CULL_MARGIN);
+        int maxX = Math.min(widthInTiles - 1, (int) Math.floor(right / tileSize) + CULL_MARGIN);
+        int minY = Math.max(0, heightInTiles - 1 - (int) Math.floor(top / tileSize) - CULL_MARGIN);
+        int maxY = Math.min(heightInTiles - 1, heightInTiles - 1 - (int) Math.floor(bottom / tileSize) + CULL_MARGIN);
+
+        if (minX <= maxX && minY <= maxY) {
+            canvas.beginCache(cache);
+            for (int cy = minY / CHUNK_SIZE; cy <= maxY / CHUNK_SIZE; cy++) {
+                for (int cx = minX / CHUNK_SIZE; cx <= maxX / CHUNK_SIZE; cx++) {
+                    int cacheId = chunkCacheIds[cy][cx];
+                    if (cacheId < 0) continue;
+                    canvas.drawCache(cache, cacheId);
+                    submittedTiles += chunkTileCount[cy][cx];
+                }
+            }
+            canvas.endCache(cache);
+        }
+
+        culledTiles = totalTiles - submittedTiles;
+    }
+
+    /**
+     * @return the number of tiles submitted to the canvas during the last draw
+     */
+    public int getSubmittedTiles() {
+        return submittedTiles;
+    }
+
+    /**
+     * @return the number of tiles skipped as off screen during the last draw
+     */
+    public int getCulledTiles() {
+        return culledTiles;
+    }
+
+    /**
+     * @return the number of non-empty tiles in this layer
+     */
+    public int getTotalTiles() {
+        return totalTiles;
+    }
+
+    /**
+     * Releases the baked geometry of this layer.
+     */
+    @Override
+    public void dispose() {
+        if (cache != null) {
+            cache.dispose();
+            cache = null;
+        }
+    }
+}
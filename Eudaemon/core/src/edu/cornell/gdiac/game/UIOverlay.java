@@ -1,79 +1,283 @@
 package edu.cornell.gdiac.game;
 
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.g2d.freetype.FreeType;
+import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.JsonValue;
 import edu.cornell.gdiac.assets.AssetDirectory;
-import edu.cornell.gdiac.game.models.Action;
+import edu.cornell.gdiac.game.models.Billboard;
 import edu.cornell.gdiac.game.models.Level;
 
-public class UIOverlay {
+/**
+ * Draws the HUD (hearts and spirit bar) and the billboard dialog over a level.
+ * <p>
+ * The HUD is retained: its quads are baked into a SpriteCache, and are only rebuilt
+ * when something they show changes. The panel and every heart are one cache entry,
+ * of which only the hearts the player has are drawn, and the spirit bar is another,
+ * rebuilt when the spirit changes. Like the tile layers, the brightness is baked into
+ * the vertex colors, so the cache is also rebuilt when the brightness changes.
+ * <p>
+ * A dialog is laid out once, when it opens, and its characters are revealed by
+ * drawing more of the glyphs already laid out.
+ * <p>
+ * The overlay owns its GPU resources (the cache, the dialog font and the dialog
+ * background), which are made on the first draw and released by dispose.
+ */
+public class UIOverlay implements Disposable {
+    /** Quads in the cache: a panel and the hearts, the spirit bar, and the dialog background */
+    private static final int CACHE_SIZE = 16;
+    /** The color of the dialog background */
+    private static final Color DIALOG_COLOR = new Color(0, 0, 0, 0.75f);
+
     /** Texture for hearts*/
-    private final Texture heartRegion;
+    private final TextureRegion heartRegion;
 
     /** Texture for filled spirit bar*/
     private final Texture filledSpiritBar;
+    /** The visible part of the spirit bar */
+    private final TextureRegion croppedBar;
 
     /** Texture for outline of bar/hearts*/
-    private final Texture vetUI;
-    private final Texture hardUI;
-    private final Texture normalUI;
+    private final TextureRegion vetUI;
+    private final TextureRegion hardUI;
+    private final TextureRegion normalUI;
 
     private final Texture settingsButton;
 
-    private final float numHearts;
+    /** The most hearts the player can have */
+    private final int maxHearts;
 
     private final Level level;
 
+    //#region Retained geometry
+    /** The baked quads of the HUD (null until first drawn) */
+    private SpriteCache cache;
+    /** The cache entry of the panel and the hearts */
+    private int hudId;
+    /** The cache entry of the spirit bar (always the last, so it can be rebuilt) */
+    private int barId;
+    /** The cache entry of the dialog background */
+    private int dialogId;
+    /** What the cache was baked with */
+    private int bakedWidth;
+    private int bakedHeight;
+    private float bakedBrightness;
+    private float bakedDifficulty;
+    private float bakedSpirit;
+    //#endregion
+
+    //#region Dialog
+    /** The font of the dialog text (null until first needed) */
+    private BitmapFont font;
+    /** The dialog text, laid out */
+    private BitmapFontCache text;
+    /** The background of the dialog, a single white pixel (null until first needed) */
+    private Texture dialogBackground;
+    /** The billboard whose text is laid out */
+    private Billboard laidOut;
+    /** The number of glyphs laid out */
+    private int glyphs;
+    /** The characters, and the glyphs among them, shown so far */
+    private int revealedChars;
+    private int revealedGlyphs;
+    //#endregion
+
     public UIOverlay(JsonValue json, AssetDirectory assets, Level level){
-        this.heartRegion = assets.getEntry(json.getString("heart"), Texture.class);
-        heartRegion.setFilter( Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        Texture heart = assets.getEntry(json.getString("heart"), Texture.class);
+        heart.setFilter( Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        this.heartRegion = new TextureRegion(heart);
         this.filledSpiritBar = assets.getEntry(json.getString("filled"), Texture.class);
         filledSpiritBar.setFilter( Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest );
+        this.croppedBar = new TextureRegion(filledSpiritBar);
         this.settingsButton = assets.getEntry(json.getString("settings"), Texture.class);
         settingsButton.setFilter( Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest );
         this.level = level;
-        this.numHearts = level.getLevelDifficulty();
-        this.vetUI = assets.getEntry(json.getString("vetUI"), Texture.class);
-        vetUI.setFilter( Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest );
-        this.hardUI = assets.getEntry(json.getString("hardUI"), Texture.class);
-        hardUI.setFilter( Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest );
-        this.normalUI = assets.getEntry(json.getString("normalUI"), Texture.class);
-        normalUI.setFilter( Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest );
-
+        this.maxHearts = json.getInt("maxHearts");
+        this.vetUI = panel(assets, json.getString("vetUI"));
+        this.hardUI = panel(assets, json.getString("hardUI"));
+        this.normalUI = panel(assets, json.getString("normalUI"));
+    }
 
+    /**
+     * @return the region of a whole panel texture, with nearest filtering
+     */
+    private static TextureRegion panel(AssetDirectory assets, String key) {
+        Texture texture = assets.getEntry(key, Texture.class);
+        texture.setFilter( Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest );
+        return new TextureRegion(texture);
     }
 
-    public void draw(GameCanvas canvas, float playerSpirit, float playerHearts) {
-        float heart_xPos = 0.0422f*canvas.getWidth();
-        if(level.getLevelDifficulty() == 3){
-            canvas.draw(vetUI, Color.WHITE, 0.015625f*canvas.getWidth(), canvas.getHeight()*0.845f, canvas.getWidth()*0.15469f*1.5f, canvas.getHeight()*0.07578f*1.5f);
-            for(int i=0; i < playerHearts; i++){
-                canvas.draw(heartRegion, Color.WHITE, heart_xPos,canvas.getHeight()*0.918f, 0.016f*canvas.getWidth()*1.5f, 0.024f*canvas.getHeight()*1.5f);
-                heart_xPos += 0.0422f*canvas.getWidth();
-            }
+    /**
+     * Draws the HUD, and the dialog of a billboard if one is open.
+     * <p>
+     * This must be called OUTSIDE of a canvas begin/end pair (it uses its own cache
+     * pass), with the overlay camera set.
+     *
+     * @param canvas        the drawing context
+     * @param playerSpirit  the spirit of the player
+     * @param playerHearts  the hearts of the player
+     * @param dialog        the billboard whose dialog is open (null if none is)
+     */
+    public void draw(GameCanvas canvas, float playerSpirit, float playerHearts, Billboard dialog) {
+        if (cache == null || bakedWidth != canvas.getWidth() || bakedHeight != canvas.getHeight()
+                || bakedBrightness != canvas.getBrightness() || bakedDifficulty != level.getLevelDifficulty()) {
+            bake(canvas, playerSpirit);
+        } else if (bakedSpirit != playerSpirit) {
+            cache.beginCache(barId);
+            addBar(canvas, playerSpirit);
+            cache.endCache();
         }
-        else if(level.getLevelDifficulty() == 4){
-            canvas.draw(hardUI, Color.WHITE, 0.015625f*canvas.getWidth(), canvas.getHeight()*0.845f, canvas.getWidth()*0.15469f*1.5f, canvas.getHeight()*0.07578f*1.5f);
-            for(int i=0; i < playerHearts; i++){
-                canvas.draw(heartRegion, Color.WHITE, heart_xPos,canvas.getHeight()*0.918f, 0.016f*canvas.getWidth()*1.5f, 0.024f*canvas.getHeight()*1.5f);
-                heart_xPos += 0.0422f*canvas.getWidth();
-            }
+
+        int hearts = Math.min(maxHearts, (int)Math.ceil(playerHearts));
+        canvas.beginCache(cache);
+        canvas.drawCache(cache, hudId, 0, 1 + Math.max(0, hearts));
+        if (dialog != null) {
+            canvas.drawCache(cache, dialogId);
         }
-        else{
-            canvas.draw(normalUI, Color.WHITE, 0.015625f*canvas.getWidth(), canvas.getHeight()*0.845f, canvas.getWidth()*0.15469f*1.5f, canvas.getHeight()*0.07578f*1.5f);
-            for(int i=0; i < playerHearts; i++){
-                canvas.draw(heartRegion, Color.WHITE, heart_xPos,canvas.getHeight()*0.918f, 0.016f*canvas.getWidth()*1.5f, 0.024f*canvas.getHeight()*1.5f);
-                heart_xPos += 0.0422f*canvas.getWidth();
-            }
+        canvas.drawCache(cache, barId);
+        canvas.endCache(cache);
+
+        if (dialog != null) {
+            drawDialogText(canvas, dialog);
+        } else {
+            laidOut = null;
+        }
+    }
+
+    /**
+     * Bakes every quad of the HUD into the cache.
+     *
+     * @param canvas        the drawing context (for the size and brightness)
+     * @param playerSpirit  the spirit of the player
+     */
+    private void bake(GameCanvas canvas, float playerSpirit) {
+        if (cache == null) {
+            cache = new SpriteCache(CACHE_SIZE, true);
+            Pixmap pixel = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+            pixel.setColor(Color.WHITE);
+            pixel.fill();
+            dialogBackground = new Texture(pixel);
+            pixel.dispose();
+        } else {
+            cache.clear();
         }
+        float width = canvas.getWidth();
+        float height = canvas.getHeight();
+        bakedWidth = canvas.getWidth();
+        bakedHeight = canvas.getHeight();
+        bakedBrightness = canvas.getBrightness();
+        bakedDifficulty = level.getLevelDifficulty();
+
+        cache.setColor(canvas.colorWithBrightness(Color.WHITE));
+        cache.beginCache();
+        TextureRegion panel = bakedDifficulty == 3 ? vetUI : bakedDifficulty == 4 ? hardUI : normalUI;
+        cache.add(panel, 0.015625f*width, height*0.845f, width*0.15469f*1.5f, height*0.07578f*1.5f);
+        float heart_xPos = 0.0422f*width;
+        for (int i = 0; i < maxHearts; i++) {
+            cache.add(heartRegion, heart_xPos, height*0.918f, 0.016f*width*1.5f, 0.024f*height*1.5f);
+            heart_xPos += 0.0422f*width;
+        }
+        hudId = cache.endCache();
+
+        // The dialog background is not dimmed, as it is already black
+        float padding = width/30.0f;
+        cache.setColor(DIALOG_COLOR);
+        cache.beginCache();
+        cache.add(new TextureRegion(dialogBackground), padding, padding, width - padding*2, height/4.0f);
+        dialogId = cache.endCache();
+
+        cache.beginCache();
+        addBar(canvas, playerSpirit);
+        barId = cache.endCache();
+        // The dialog must be laid out again for the new size
+        laidOut = null;
+    }
+
+    /**
+     * Adds the spirit bar to the cache entry being built.
+     *
+     * @param canvas        the drawing context (for the size and brightness)
+     * @param playerSpirit  the spirit of the player
+     */
+    private void addBar(GameCanvas canvas, float playerSpirit) {
         float spiritPercentage = playerSpirit / 10F;
         int barWidth = (int)(filledSpiritBar.getWidth() * spiritPercentage);
         int barHeight = filledSpiritBar.getHeight();
-        TextureRegion croppedBar = new TextureRegion(filledSpiritBar, 0, 0, barWidth, barHeight);
-        canvas.draw(croppedBar, Color.WHITE, 0.015f* canvas.getWidth(), 0.840f*canvas.getHeight(), canvas.getWidth()*0.156f * spiritPercentage*1.5f, 0.1f*canvas.getHeight()*1.5f);
+        croppedBar.setRegion(0, 0, barWidth, barHeight);
+        cache.setColor(canvas.colorWithBrightness(Color.WHITE));
+        cache.add(croppedBar, 0.015f* canvas.getWidth(), 0.840f*canvas.getHeight(), canvas.getWidth()*0.156f * spiritPercentage*1.5f, 0.1f*canvas.getHeight()*1.5f);
+        bakedSpirit = playerSpirit;
+    }
+
+    /**
+     * Draws the characters of a dialog revealed so far.
+     * <p>
+     * The whole text is laid out when the dialog opens (or the canvas is resized).
+     * After that, each frame only counts the glyphs of the newly revealed characters.
+     *
+     * @param canvas    the drawing context
+     * @param dialog    the billboard whose dialog is open
+     */
+    private void drawDialogText(GameCanvas canvas, Billboard dialog) {
+        if (font == null) {
+            font = new BitmapFont();
+            font.getData().setScale(2.0f);
+            text = new BitmapFontCache(font);
+        }
+        String message = dialog.getText();
+        if (laidOut != dialog) {
+            float padding = canvas.getWidth()/30.0f;
+            text.setText(message, padding*1.5f, canvas.getHeight()/4.0f + padding/2);
+            glyphs = 0;
+            for (GlyphLayout.GlyphRun run : text.getLayouts().first().runs) {
+                glyphs += run.glyphs.size;
+            }
+            laidOut = dialog;
+            revealedChars = 0;
+            revealedGlyphs = 0;
+        }
+
+        int visible = dialog.getVisibleCharacters();
+        if (visible < revealedChars) {
+            revealedChars = 0;
+            revealedGlyphs = 0;
+        }
+        BitmapFont.BitmapFontData data = font.getData();
+        for (; revealedChars < visible; revealedChars++) {
+            // Newlines, and characters the font cannot draw, are not laid out as glyphs
+            char c = message.charAt(revealedChars);
+            if (c != '\n' && (data.getGlyph(c) != null || data.missingGlyph != null)) {
+                revealedGlyphs++;
+            }
+        }
+
+        canvas.begin();
+        canvas.drawText(text, 0, Math.min(revealedGlyphs, glyphs));
+        canvas.end();
+    }
+
+    /**
+     * Releases the cache, the dialog font and the dialog background.
+     */
+    @Override
+    public void dispose() {
+        if (cache != null) {
+            cache.dispose();
+            cache = null;
+            dialogBackground.dispose();
+            dialogBackground = null;
+        }
+        if (font != null) {
+            font.dispose();
+            font = null;
+            text = null;
+        }
+        laidOut = null;
     }
 }
@@ -0,0 +1,247 @@
+package edu.cornell.gdiac.game.models;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * The frames of every enemy and effect animation in a level, and the clock they play by.
+ * <p>
+ * Each animation is added once, when the first sprite that uses it is made, and is then
+ * known by an integer id. Its frames are stored one after the other in flat tables: the
+ * texture, the texture coordinates (u, v, u2, v2) and the size in pixels of every frame.
+ * A sprite only keeps the id of the animation it plays and the tick it started at, and
+ * the frame to draw is looked up from these when it is drawn. Nothing is advanced per
+ * sprite per tick, only the clock of the table.
+ * <p>
+ * The frames of an animation are stored per step, where a step is whatever the sprite
+ * counts in (every few ticks). So an animation made from a libGDX {@link Animation}, whose
+ * frames may last less or more than one step, has its key frames resolved when it is
+ * added rather than when it is drawn.
+ * <p>
+ * As every animated sprite refers to the same tables, they can be drawn together in one
+ * pass, where sprites sharing a texture go into the same batch.
+ */
+public class AnimationTable {
+    /** The texture of every frame */
+    private final Array<Texture> textures = new Array<>();
+    /** The texture coordinates of every frame, four at a time (u, v, u2, v2) */
+    private final FloatArray uvs = new FloatArray();
+    /** The size in pixels of every frame, two at a time (width, height) */
+    private final IntArray sizes = new IntArray();
+
+    /** The first frame of every animation */
+    private final IntArray starts = new IntArray();
+    /** The number of frames of every animation */
+    private final IntArray lengths = new IntArray();
+    /** Whether every animation starts over after its last frame (else it holds the last frame) */
+    private final BooleanArray loops = new BooleanArray();
+
+    /** The ids of the named animations */
+    private final ObjectIntMap<String> names = new ObjectIntMap<>();
+    /** The ids of the animations added from libGDX animations */
+    private final IdentityMap<Animation<TextureRegion>, Integer> animations = new IdentityMap<>();
+
+    /** The ticks since the level started */
+    private int ticks;
+
+    //#region Clock
+    /**
+     * Advances the clock by one tick.
+     */
+    public void tick() {
+        ticks++;
+    }
+
+    /**
+     * @return the ticks since the level started
+     */
+    public int getTicks() {
+        return ticks;
+    }
+    //#endregion
+
+    //#region Building
+    /**
+     * Adds an animation with one frame per step, unless one of this name was added already.
+     *
+     * @param name      a unique name for the animation
+     * @param frames    the frames, in order
+     * @param loop      whether the animation starts over after its last frame
+     *
+     * @return the id of the animation of this name
+     */
+    public int add(String name, TextureRegion[] frames, boolean loop) {
+        int id = names.get(name, -1);
+        if (id < 0) {
+            id = begin(loop);
+            for (TextureRegion frame : frames) {
+                addFrame(frame);
+            }
+            lengths.add(frames.length);
+            names.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Adds a libGDX animation, unless it was added already.
+     * <p>
+     * A step is one unit of the animation's state time, so the frame shown at step n is
+     * the key frame at time n, as the effects have always played them.
+     *
+     * @param animation the animation (its frame duration and play mode are used)
+     *
+     * @return the id of this animation
+     */
+    public int add(Animation<TextureRegion> animation) {
+        Integer known = animations.get(animation);
+        if (known == null) {
+            known = addSteps(animation);
+            animations.put(animation, known);
+        }
+        return known;
+    }
+
+    /**
+     * Adds a libGDX animation, unless one of this name was added already.
+     * <p>
+     * This is for animations that every sprite of a kind makes its own copy of, which
+     * would otherwise be added once per copy.
+     *
+     * @param name      a unique name for the animation
+     * @param animation the animation (its frame duration and play mode are used)
+     *
+     * @return the id of the animation of this name
+     */
+    public int add(String name, Animation<TextureRegion> animation) {
+        int id = names.get(name, -1);
+        if (id < 0) {
+            id = addSteps(animation);
+            names.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Adds the key frame of every step of a libGDX animation.
+     *
+     * @param animation the animation
+     *
+     * @return the id of the new animation
+     */
+    private int addSteps(Animation<TextureRegion> animation) {
+        boolean loop = animation.getPlayMode() == Animation.PlayMode.LOOP;
+        int steps = Math.max(1, (int)Math.ceil(animation.getKeyFrames().length*animation.getFrameDuration()));
+        int id = begin(loop);
+        for (int step = 0; step < steps; step++) {
+            addFrame(animation.getKeyFrame(step));
+        }
+        lengths.add(steps);
+        return id;
+    }
+
+    /**
+     * Starts a new animation at the end of the frame tables.
+     *
+     * @param loop  whether the animation starts over after its last frame
+     *
+     * @return the id of the new animation
+     */
+    private int begin(boolean loop) {
+        starts.add(textures.size);
+        loops.add(loop);
+        return starts.size - 1;
+    }
+
+    /**
+     * Appends a frame to the frame tables.
+     * <p>
+     * The texture of the frame is set to nearest filtering here, once per texture, so
+     * that drawing a frame does not have to.
+     *
+     * @param frame the frame
+     */
+    private void addFrame(TextureRegion frame) {
+        Texture texture = frame.getTexture();
+        if (!textures.contains(texture, true)) {
+            texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        }
+        textures.add(texture);
+        uvs.add(frame.getU(), frame.getV(), frame.getU2(), frame.getV2());
+        sizes.add(frame.getRegionWidth(), frame.getRegionHeight());
+    }
+    //#endregion
+
+    //#region Frame lookup
+    /**
+     * Returns the frame an animation shows at the given step.
+     *
+     * @param animation the id of the animation
+     * @param step      the steps since the animation started
+     *
+     * @return the index of the frame in the frame tables
+     */
+    public int getFrame(int animation, int step) {
+        int length = lengths.get(animation);
+        if (step < 0) {
+            step = 0;
+        } else if (step >= length) {
+            step = loops.get(animation) ? step % length : length - 1;
+        }
+        return starts.get(animation) + step;
+    }
+
+    /**
+     * @return the number of frames (steps) of an animation
+     */
+    public int getLength(int animation) {
+        return lengths.get(animation);
+    }
+
+    /**
+     * @return the texture of a frame
+     */
+    public Texture getTexture(int frame) {
+        return textures.get(frame);
+    }
+
+    /**
+     * Returns the texture coordinates of every frame.
+     * <p>
+     * The coordinates of a frame are at four times its index, in the order u, v, u2, v2.
+     *
+     * @return the texture coordinates of every frame
+     */
+    public float[] getUVs() {
+        return uvs.items;
+    }
+
+    /**
+     * @return the width of a frame, in pixels
+     */
+    public int getWidth(int frame) {
+        return sizes.get(2*frame);
+    }
+
+    /**
+     * @return the height of a frame, in pixels
+     */
+    public int getHeight(int frame) {
+        return sizes.get(2*frame + 1);
+    }
+
+    /**
+     * @return the number of frames in the tables
+     */
+    public int getFrameCount() {
+        return textures.size;
+    }
+    //#endregion
+}
@@ -1,12 +1,6 @@
 package edu.cornell.gdiac.game.models;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Pixmap;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.GlyphLayout;
-import com.badlogic.gdx.graphics.g2d.PolygonRegion;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
@@ -23,8 +17,6 @@ import edu.cornell.gdiac.game.obstacle.BoxObstacle;
 public class Billboard extends BoxObstacle {
     private float stringCompleteness;
     private float textSpeed;
-    private BitmapFont font;
-    private GlyphLayout glyphLayout;
     private final JsonValue billboardData;
     private final TextureRegion billboardTexture;
     private final float billboardImageWidth;
@@ -69,10 +61,11 @@ public class Billboard extends BoxObstacle {
         super(x, y,
                 assets.getEntry("sharedConstants", JsonValue.class).get("Spike").getFloat("hitboxWidth"),
                 assets.getEntry("sharedConstants", JsonValue.class).get("Spike").getFloat("hitboxHeight"));
+        setContactCategory(ContactCategory.BILLBOARD);
         this.displayTextureAsset = "";
         this.billboardData = assets.getEntry("sharedConstants", JsonValue.class).get("Billboard");
         String TextureAsset = "platform:textBillboard";
-        this.billboardTexture = new TextureRegion(assets.getEntry(TextureAsset, Texture.class));
+        this.billboardTexture = assets.getRegion(TextureAsset);
         this.text = json.get("properties").get(0).getString("value");
 
         this.setWidth(billboardData.getFloat("hitboxWidth"));
@@ -93,8 +86,6 @@ public class Billboard extends BoxObstacle {
 
         stringCompleteness = 0;
         textSpeed = 50;
-        font = new BitmapFont();
-        font.getData().setScale(2.0f);
         this.display = false;
     }
 
@@ -104,8 +95,8 @@ public class Billboard extends BoxObstacle {
      * @param canvas Drawing context
      */
     public void draw(GameCanvas canvas) {
-        float x = getX();
-        float y = getY();
+        float x = getDrawX();
+        float y = getDrawY();
 
         float ox = oxOffset + this.texture.getRegionWidth()/2;
         float oy = oyOffset + this.texture.getRegionHeight()/2;
@@ -117,30 +108,22 @@ public class Billboard extends BoxObstacle {
 
     }
 
-    public void displayDialog(GameCanvas canvas){
-        float padding = canvas.getWidth()/30.0f;
-        Pixmap pix = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
-        pix.setColor(0, 0, 0, 0.75f);
-        pix.fill();
-        Texture textureSolid = new Texture(pix);
-        PolygonRegion polyReg = new PolygonRegion(new TextureRegion(textureSolid),
-                new float[] {                                                      // Four vertices
-                        0, 0,                                                      // Vertex 0         3--2
-                        canvas.getWidth() - padding*2, 0,                          // Vertex 1         | /|
-                        canvas.getWidth() - padding*2, canvas.getHeight()/4.0f,    // Vertex 2         |/ |
-                        0, canvas.getHeight()/4.0f                                 // Vertex 3         0--1
-                }, new short[] {
-                0, 1, 2,         // Two triangles using vertex indices.
-                0, 2, 3          // Take care of the counter-clockwise direction.
-        });
-        canvas.draw(polyReg, padding, padding);
-        String myText = this.text;
-        int charCountThisFrame = (int)stringCompleteness;
-        if (charCountThisFrame > myText.length()) charCountThisFrame = myText.length();
-
-        glyphLayout = new GlyphLayout(font, myText.substring(0,charCountThisFrame));
-        font.draw(canvas.getSpriteBatch(), glyphLayout, padding*1.5f, canvas.getHeight()/4.0f + padding/2);
+    /**
+     * Returns the text of the dialog of this billboard
+     *
+     * @return the text of the dialog of this billboard
+     */
+    public String getText() { return text; }
 
+    /**
+     * Returns the number of characters of the text shown so far
+     *
+     * The text is revealed a character at a time while the dialog is displayed.
+     *
+     * @return the number of characters of the text shown so far
+     */
+    public int getVisibleCharacters() {
+        return Math.min((int)stringCompleteness, text.length());
     }
 
     public void aggregateStringCompleteness(float delta) {
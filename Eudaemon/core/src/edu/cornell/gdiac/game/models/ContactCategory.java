@@ -0,0 +1,34 @@
+package edu.cornell.gdiac.game.models;
+
+/**
+ * The contact categories of the objects in a level.
+ * <p>
+ * Every body is tagged with one of these when it is created (see
+ * Obstacle.setContactCategory; tile bodies are always TILE). The collision
+ * controller uses the categories of the two bodies in a contact to look up a
+ * single handler in a COUNT x COUNT table, instead of testing types and names
+ * inside the Box2D callbacks.
+ */
+public final class ContactCategory {
+    /** Anything without a more specific category */
+    public static final int NONE = 0;
+    /** The static collision geometry of the foreground tiles */
+    public static final int TILE = 1;
+    public static final int SPIKE = 2;
+    public static final int PLAYER = 3;
+    public static final int ENEMY = 4;
+    /** A projectile fired by an enemy */
+    public static final int BULLET = 5;
+    /** The player's attack */
+    public static final int SWORD = 6;
+    public static final int EXIT = 7;
+    public static final int BILLBOARD = 8;
+    public static final int TUTORIAL = 9;
+    /** A visual effect with a body */
+    public static final int EFFECT = 10;
+
+    /** The number of categories */
+    public static final int COUNT = 11;
+
+    private ContactCategory() {}
+}
@@ -14,12 +14,35 @@ public class EffectPool extends Pool<EffectObstacle> {
 
     private float x, y, width, height;
 
+    /** The animations of the level, which the effects draw their frames from */
+    private final AnimationTable animationTable;
+
+    /**
+     * Creates a pool of effects playing the animations of the given table
+     *
+     * @param animationTable the animations of the level
+     */
+    public EffectPool(AnimationTable animationTable) {
+        this.animationTable = animationTable;
+    }
+
     @Override
     protected EffectObstacle newObject() {
-        return new EffectObstacle();
+        EffectObstacle effect = new EffectObstacle();
+        effect.setContactCategory(ContactCategory.EFFECT);
+        return effect;
+    }
+
+    public EffectObstacle obtainEffect(float x, float y, float width, float height, float sx, float sy, float angle, float pOffsetX, float pOffsetY, Boolean trackPlayer, String name, CapsuleObstacle avatar, float lifespan, float drawScaleX, float drawScaleY, Animation<TextureRegion> animation, int tickSpeed, int currentFrame, boolean constantLoop) {
+        return obtainEffect(x, y, width, height, sx, sy, angle, pOffsetX, pOffsetY, trackPlayer, name, avatar, lifespan, drawScaleX, drawScaleY, animationTable.add(animation), tickSpeed, currentFrame, constantLoop);
     }
 
-    public EffectObstacle obtainEffect(float x, float y, float width, float height, float sx, float sy, float angle, float pOffsetX, float pOffsetY, Boolean trackPlayer, String name, CapsuleObstacle avatar, float lifespan, float drawScaleX, float drawScaleY, Animation animation, int tickSpeed, int currentFrame, boolean constantLoop) {
+    /**
+     * Obtains an effect playing an animation already in the animation table
+     *
+     * @see #obtainEffect(float, float, float, float, float, float, float, float, float, Boolean, String, CapsuleObstacle, float, float, float, Animation, int, int, boolean)
+     */
+    public EffectObstacle obtainEffect(float x, float y, float width, float height, float sx, float sy, float angle, float pOffsetX, float pOffsetY, Boolean trackPlayer, String name, CapsuleObstacle avatar, float lifespan, float drawScaleX, float drawScaleY, int animation, int tickSpeed, int currentFrame, boolean constantLoop) {
 
         EffectObstacle effect = obtain();
         /* set up effect */
@@ -41,7 +64,7 @@ public class EffectPool extends Pool<EffectObstacle> {
         effect.setSensor(true);
         effect.setAngle(angle);
         effect.setTickSpeed(tickSpeed);
-        effect.setAnimation(animation, currentFrame, constantLoop);
+        effect.setAnimation(animationTable, animation, currentFrame, constantLoop);
         effect.markRemoved(false);
 
 
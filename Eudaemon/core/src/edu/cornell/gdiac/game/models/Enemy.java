@@ -1,13 +1,11 @@
 package edu.cornell.gdiac.game.models;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.utils.JsonValue;
-import com.badlogic.gdx.utils.ObjectMap;
 import edu.cornell.gdiac.assets.AssetDirectory;
 import edu.cornell.gdiac.game.GameCanvas;
 import edu.cornell.gdiac.game.obstacle.CapsuleObstacle;
@@ -15,6 +13,18 @@ import edu.cornell.gdiac.game.obstacle.CapsuleObstacle;
 import java.util.ArrayList;
 
 public class Enemy extends CapsuleObstacle {
+    /** The animations of an enemy */
+    public static final int IDLE = 0;
+    public static final int MOVE = 1;
+
+    /** The sprite sheets a projectile enemy aims with (a Down sheet type uses the Up sheets) */
+    private static final int AIM_LEFT = 0;
+    private static final int AIM_RIGHT = 1;
+    private static final int AIM_UP = 2;
+    private static final int AIM_LEFT_UP = 3;
+    private static final int AIM_RIGHT_UP = 4;
+    private static final int AIMS = 5;
+
     private int detectDistance;
     private float spiritRemain;
     private float velocityX;
@@ -76,12 +86,14 @@ public class Enemy extends CapsuleObstacle {
      * The texture for the enemy's blood when it gets damaged
      */
     private final TextureRegion bloodEffectSpriteSheet;
-    private final Animation<TextureRegion> bloodEffectAnimation;
+    /** The id of the blood animation in the animation table */
+    private final int bloodEffectAnimation;
     /**
      * The texture for the enemy's blood when it finally dies
      */
     private final TextureRegion killedBloodEffectSpriteSheet;
-    private final Animation<TextureRegion> killedBloodEffectAnimation;
+    /** The id of the killing blood animation in the animation table */
+    private final int killedBloodEffectAnimation;
 
     //#endregion
 
@@ -120,16 +132,22 @@ public class Enemy extends CapsuleObstacle {
     private final TextureRegion moveSpriteSheet;
 
     /**
-     * A HashMap storing 2D TextureRegion arrays with a String identifier.
-     * Each key represents an animation name, and the associated value is a 2D TextureRegion array
-     * with rows representing different animation states and columns representing individual frames.
+     * The animations of the level, which this enemy draws its frames from
+     */
+    private final AnimationTable animationTable;
+    /**
+     * The id in the animation table of every animation and aim, at animation * AIMS + aim.
+     * Enemies other than projectile enemies have the same frames for every aim.
      */
-    private final ObjectMap<String, Animation> animations;
-    private final ObjectMap<String,TextureRegion> idlediction;
+    private final int[] animationIds;
     /**
-     * The current animation state of the enemy.
+     * The current animation state of the enemy (IDLE or MOVE).
      */
-    private String currentAnimation;
+    private int currentAnimation;
+    /**
+     * The tick of the animation table when the current animation started.
+     */
+    private int animationStart;
     /**
      * The ticks between frame switches
      */
@@ -138,10 +156,6 @@ public class Enemy extends CapsuleObstacle {
      * The maxFrame for the enemy
      */
     private int maxFrame;
-    /**
-     * The current frame of the video player.
-     */
-    private int currentFrame;
     private int durationofmoving=0;
 
     /**
@@ -150,27 +164,13 @@ public class Enemy extends CapsuleObstacle {
     private JsonValue bullet;
     private float projectileEnemyRotation;
     private String projectileEnemyDirection;
-    private String projectileSpriteSheetType;
-    //#endregion
-
-    //#region Getter and Setter
     /**
-     * Gets the current frame of the video player.
-     *
-     * @return the current frame
+     * The sprite sheet a projectile enemy aims with (one of the AIM constants)
      */
-    public int getCurrentFrame() {
-        return currentFrame;
-    }
+    private int aim;
+    //#endregion
 
-    /**
-     * Sets the current frame of the video player.
-     *
-     * @param currentFrame the new current frame
-     */
-    public void setCurrentFrame(int currentFrame) {
-        this.currentFrame = currentFrame;
-    }
+    //#region Getter and Setter
     /**
      * Gets the current number of ticks between frame switches
      *
@@ -187,7 +187,7 @@ public class Enemy extends CapsuleObstacle {
         this.durationofmoving=this.durationofmoving-1;
         if (this.durationofmoving<=0){
             this.durationofmoving=0;
-            setCurrentAnimation("idle");
+            setCurrentAnimation(IDLE);
         }
     }
 
@@ -217,22 +217,27 @@ public class Enemy extends CapsuleObstacle {
     /**
      * Gets the current animation of the character.
      *
-     * @return the current animation
+     * @return the current animation (IDLE or MOVE)
      */
-    public String getCurrentAnimation() {
+    public int getCurrentAnimation() {
         return currentAnimation;
     }
 
     /**
      * Sets the current animation of the character.
      *
-     * @param currentAnimation the new current animation
+     * The animation starts from its first frame, unless it is already playing.
+     *
+     * @param currentAnimation the new current animation (IDLE or MOVE)
      */
-    public void setCurrentAnimation(String currentAnimation) {
-        this.currentAnimation = currentAnimation;
+    public void setCurrentAnimation(int currentAnimation) {
+        if (this.currentAnimation != currentAnimation) {
+            this.currentAnimation = currentAnimation;
+            this.animationStart = animationTable.getTicks();
+        }
     }
-    public void startToMove(String currentAnimation,int duration){
-        this.currentAnimation = currentAnimation;
+    public void startToMove(int currentAnimation,int duration){
+        setCurrentAnimation(currentAnimation);
         this.durationofmoving=duration;
     }
 
@@ -275,14 +280,14 @@ public class Enemy extends CapsuleObstacle {
         return bloodEffectSpriteSheet;
     }
 
-    public Animation getBloodEffectAnimation() {
+    public int getBloodEffectAnimation() {
         return bloodEffectAnimation;
     }
 
     public TextureRegion getKilledBloodEffect(){
         return killedBloodEffectSpriteSheet;
     }
-    public Animation getKilledBloodEffectAnimation(){
+    public int getKilledBloodEffectAnimation(){
         return killedBloodEffectAnimation;
     }
 
@@ -363,11 +368,12 @@ public class Enemy extends CapsuleObstacle {
     }
 
     //#endregion
-    public Enemy(JsonValue json, AssetDirectory assets, float x, float y) {
+    public Enemy(JsonValue json, AssetDirectory assets, float x, float y, AnimationTable animationTable) {
 //        super(x,y,1f,1.4f);
         super(x, y,
                 assets.getEntry("sharedConstants", JsonValue.class).get(json.getString("name")).getFloat("hitboxWidth"),
                 assets.getEntry("sharedConstants", JsonValue.class).get(json.getString("name")).getFloat("hitboxHeight"));
+        setContactCategory(ContactCategory.ENEMY);
         this.type = json.getString("name");
         this.enemyData = assets.getEntry("sharedConstants", JsonValue.class).get(type);
         String TextureAsset = enemyData.getString("TextureAsset");
@@ -425,7 +431,7 @@ public class Enemy extends CapsuleObstacle {
             case "Projectile":
                 this.bullet = enemyData.get("bullet");
                 String bulletT = enemyData.getString("BulletTextureAsset");
-                this.bulletTexture = new TextureRegion(assets.getEntry(bulletT, Texture.class));
+                this.bulletTexture = assets.getRegion(bulletT);
                 this.detectDistance = enemyData.getInt("detectDistance");
 
                 // set the direction that this projectile enemy is facing
@@ -435,6 +441,7 @@ public class Enemy extends CapsuleObstacle {
                         projectileEnemyDirection = property.getString("value");
                     }
                 }
+                String projectileSpriteSheetType = null;
                 for (JsonValue property : projectileProperties) {
                     if (property.getString("name").equals("SpriteSheetType")) {
                         projectileSpriteSheetType = property.getString("value");
@@ -472,13 +479,16 @@ public class Enemy extends CapsuleObstacle {
                 switch (projectileSpriteSheetType) {
                     case "Left":
                         TextureAsset = "enemy:projectileEnemyLeftIdle";
+                        aim = AIM_LEFT;
                         break;
                     case "Right":
                         TextureAsset = "enemy:projectileEnemyRightIdle";
+                        aim = AIM_RIGHT;
                         break;
                     case "Up":
                     case "Down":
                         TextureAsset = "enemy:projectileEnemyUpIdle";
+                        aim = AIM_UP;
                         break;
                     default:
                         System.out.println("Error: invalid state");
@@ -498,34 +508,37 @@ public class Enemy extends CapsuleObstacle {
 
 
         //Texture
-        this.enemyTexture = new TextureRegion(assets.getEntry(TextureAsset, Texture.class));
+        this.enemyTexture = assets.getRegion(TextureAsset);
         this.texture = this.enemyTexture;
-        this.moveSpriteSheet = new TextureRegion(assets.getEntry(enemyData.getString("MoveAsset"), Texture.class));
-        animations = new ObjectMap<>();
-        idlediction= new ObjectMap<>();
-        addAnimations(moveSpriteSheet, maxFrame, 1, "move");
+        this.moveSpriteSheet = assets.getRegion(enemyData.getString("MoveAsset"));
+        this.animationTable = animationTable;
+        animationIds = new int[2*AIMS];
         if (this.type.equals("Projectile")) {
-            addAnimations(new TextureRegion(assets.getEntry(enemyData.getString("LeftAttackAsset"), Texture.class)), maxFrame, 1, "LeftAttack");
-            addAnimations(new TextureRegion(assets.getEntry(enemyData.getString("RightAttackAsset"), Texture.class)), maxFrame, 1, "RightAttack");
-            addAnimations(new TextureRegion(assets.getEntry(enemyData.getString("UpAttackAsset"), Texture.class)), maxFrame, 1, "UpAttack");
-            addAnimations(new TextureRegion(assets.getEntry(enemyData.getString("RightUpAttackAsset"), Texture.class)), maxFrame, 1, "RightUpAttack");
-            addAnimations(new TextureRegion(assets.getEntry(enemyData.getString("LeftUpAttackAsset"), Texture.class)), maxFrame, 1, "LeftUpAttack");
-            //create a dictionary to store the idle animation
-            idlediction.put("Left", new TextureRegion(assets.getEntry(enemyData.getString("LeftIdleAsset"),Texture.class)));
-            idlediction.put("Right", new TextureRegion(assets.getEntry(enemyData.getString("RightIdleAsset"),Texture.class)));
-            idlediction.put("Up", new TextureRegion(assets.getEntry(enemyData.getString("UpIdleAsset"),Texture.class)));
-            idlediction.put("RightUp", new TextureRegion(assets.getEntry(enemyData.getString("RightUpIdleAsset"),Texture.class)));
-            idlediction.put("LeftUp", new TextureRegion(assets.getEntry(enemyData.getString("LeftUpIdleAsset"),Texture.class)));
+            String[] aims = {"Left", "Right", "Up", "LeftUp", "RightUp"};
+            for (int i = 0; i < AIMS; i++) {
+                String idle = enemyData.getString(aims[i] + "IdleAsset");
+                String attack = enemyData.getString(aims[i] + "AttackAsset");
+                animationIds[IDLE*AIMS + i] = animationTable.add(idle, new TextureRegion[]{assets.getRegion(idle)}, false);
+                animationIds[MOVE*AIMS + i] = addAnimation(assets.getRegion(attack), type + ":" + attack);
+            }
+        } else {
+            int idle = animationTable.add(TextureAsset, new TextureRegion[]{enemyTexture}, false);
+            int move = addAnimation(moveSpriteSheet, type + ":move");
+            for (int i = 0; i < AIMS; i++) {
+                animationIds[IDLE*AIMS + i] = idle;
+                animationIds[MOVE*AIMS + i] = move;
+            }
         }
-        currentAnimation = "idle";
+        currentAnimation = IDLE;
+        animationStart = animationTable.getTicks();
 
-        this.bloodEffectSpriteSheet = new TextureRegion(assets.getEntry("bloodEffect", Texture.class));
+        this.bloodEffectSpriteSheet = assets.getRegion("bloodEffect");
         TextureRegion[][] bloodFrames = bloodEffectSpriteSheet.split(bloodEffectSpriteSheet.getRegionWidth() / 17, bloodEffectSpriteSheet.getRegionHeight());
-        bloodEffectAnimation = new Animation<>(0.5f, bloodFrames[0]);
+        bloodEffectAnimation = animationTable.add("bloodEffect", new Animation<>(0.5f, bloodFrames[0]));
 
-        this.killedBloodEffectSpriteSheet = new TextureRegion(assets.getEntry("killingBloodEffect", Texture.class));
+        this.killedBloodEffectSpriteSheet = assets.getRegion("killingBloodEffect");
         TextureRegion[][] killedEffectFrames = killedBloodEffectSpriteSheet.split(killedBloodEffectSpriteSheet.getRegionWidth()/17, killedBloodEffectSpriteSheet.getRegionHeight());
-        killedBloodEffectAnimation = new Animation<>(0.5f, killedEffectFrames[0]);
+        killedBloodEffectAnimation = animationTable.add("killingBloodEffect", new Animation<>(0.5f, killedEffectFrames[0]));
 
         this.maxSpeed = enemyData.getFloat("maxSpeed");
         this.force = enemyData.getFloat("force");
@@ -563,54 +576,54 @@ public class Enemy extends CapsuleObstacle {
         switch (projectileEnemyDirection) {
             case "Up"://up is actually head to ground
             if (angleDegrees<=300 && angleDegrees>=240){
-                projectileSpriteSheetType = "Up";
+                aim = AIM_UP;
             }else if(angleDegrees<=330 && angleDegrees>300){
-                projectileSpriteSheetType = "LeftUp";
+                aim = AIM_LEFT_UP;
             }else if(angleDegrees>=210 && angleDegrees<240){
-                projectileSpriteSheetType = "RightUp";
+                aim = AIM_RIGHT_UP;
             }else if (angleDegrees>180 && angleDegrees<210){
-                projectileSpriteSheetType = "Right";
+                aim = AIM_RIGHT;
             }else {
-                projectileSpriteSheetType = "Left";
+                aim = AIM_LEFT;
             }
             break;
             case "Down":
             if (angleDegrees>=60 && angleDegrees<=120){
-                projectileSpriteSheetType = "Up";
+                aim = AIM_UP;
             }else if(angleDegrees>=30 && angleDegrees<60){
-                projectileSpriteSheetType = "LeftUp";
+                aim = AIM_LEFT_UP;
             }else if(angleDegrees<=150 && angleDegrees>120){
-                projectileSpriteSheetType = "RightUp";
+                aim = AIM_RIGHT_UP;
             }else if (angleDegrees>150 && angleDegrees<270){
-                projectileSpriteSheetType = "Left";
+                aim = AIM_LEFT;
             }else {
-                projectileSpriteSheetType = "Right";
+                aim = AIM_RIGHT;
             }
             break;
             case "Right"://right is actually head to left
             if (angleDegrees<=120){
-                projectileSpriteSheetType = "Right";
+                aim = AIM_RIGHT;
             }else if (angleDegrees>=240){
-                projectileSpriteSheetType = "Left";
+                aim = AIM_LEFT;
             }else if (angleDegrees>120&&angleDegrees<150){
-                projectileSpriteSheetType = "RightUp";
+                aim = AIM_RIGHT_UP;
             }else if (angleDegrees>210&&angleDegrees<240){
-                projectileSpriteSheetType = "LeftUp";
+                aim = AIM_LEFT_UP;
             }else {
-                projectileSpriteSheetType = "Up";
+                aim = AIM_UP;
             }
             break;
             case "Left"://left is actually head to right
             if (angleDegrees>=60&&angleDegrees<=180){
-                projectileSpriteSheetType = "Left";
+                aim = AIM_LEFT;
             }else if (angleDegrees>180&&angleDegrees<=300){
-                projectileSpriteSheetType = "Right";
+                aim = AIM_RIGHT;
             }else if(angleDegrees>=30&&angleDegrees<60){
-                projectileSpriteSheetType = "LeftUp";
+                aim = AIM_LEFT_UP;
             }else if(angleDegrees>300&&angleDegrees<=330){
-                projectileSpriteSheetType = "RightUp";
+                aim = AIM_RIGHT_UP;
             }else {
-                projectileSpriteSheetType = "Up";
+                aim = AIM_UP;
             }
         }
     }
@@ -619,68 +632,22 @@ public class Enemy extends CapsuleObstacle {
      * @param canvas Drawing context
      */
     public void draw(GameCanvas canvas) {
-        if (currentAnimation.equals("idle")){
-            if (this.type.equals("Projectile")){
-                switch (projectileSpriteSheetType) {
-                    case "Down":
-                    case "Up"://up is actually head to ground
-                        this.texture = idlediction.get("Up");
-                        break;
-                    case "Left":
-                        this.texture = idlediction.get("Left");
-                        break;
-                    case "Right":
-                        this.texture = idlediction.get("Right");
-                        break;
-                    case "LeftUp":
-                        this.texture = idlediction.get("LeftUp");
-                        break;
-                    case "RightUp":
-                        this.texture = idlediction.get("RightUp");
-                        break;
-                }
-            }
-            else{
-                this.texture = enemyTexture;
-            }
-        }
-        else{//if it is not idle
-            if (this.type.equals("Projectile")){
-                switch(projectileSpriteSheetType){
-                    case "Left":
-                        this.texture = (TextureRegion) animations.get("LeftAttack").getKeyFrame(currentFrame);
-                        break;
-                    case "Right":
-                        this.texture = (TextureRegion) animations.get("RightAttack").getKeyFrame(currentFrame);
-                        break;
-                    case "LeftUp":
-                        this.texture = (TextureRegion) animations.get("LeftUpAttack").getKeyFrame(currentFrame);
-                        break;
-                    case "RightUp":
-                        this.texture = (TextureRegion) animations.get("RightUpAttack").getKeyFrame(currentFrame);
-                        break;
-                    case "Up":
-                    case "Down":
-                        this.texture = (TextureRegion) animations.get("UpAttack").getKeyFrame(currentFrame);
-                        break;
-                    default:
-                        //should not get here
-                        System.out.println("Error: invalid state");
-                }
-            }else{
-            this.texture = (TextureRegion) animations.get(currentAnimation).getKeyFrame(currentFrame);}
-        }
+        int step = (animationTable.getTicks() - animationStart) / tickFrameSwitch;
+        int frame = animationTable.getFrame(animationIds[currentAnimation*AIMS + aim], step);
+        int width = animationTable.getWidth(frame);
+        int height = animationTable.getHeight(frame);
 
-        float x = getX();
-        float y = getY();
+        float x = getDrawX();
+        float y = getDrawY();
 
-        float ox = this.texture.getRegionWidth() / 2 + oxOffset;
-        float oy = this.texture.getRegionHeight() / 2 + oyOffset;
+        float ox = width / 2 + oxOffset;
+        float oy = height / 2 + oyOffset;
 
-        float sx = scaleX * (isFacingRight ? 1 : -1) * enemyImageWidth / this.texture.getRegionWidth();
-        float sy = scaleY * enemyImageHeight / this.texture.getRegionHeight();
+        float sx = scaleX * (isFacingRight ? 1 : -1) * enemyImageWidth / width;
+        float sy = scaleY * enemyImageHeight / height;
 
-        canvas.draw(this.texture, Color.WHITE, ox, oy, x, y, projectileEnemyRotation, sx, sy);
+        canvas.draw(animationTable.getTexture(frame), animationTable.getUVs(), 4*frame, width, height,
+                Color.WHITE, ox, oy, x, y, projectileEnemyRotation, sx, sy);
     }
 
 
@@ -734,12 +701,18 @@ public class Enemy extends CapsuleObstacle {
         this.setY(startY);
     }
 
-    private void addAnimations(TextureRegion spriteSheet, int columns, int rows, String name) {
-        if(spriteSheet==null)return;
-        TextureRegion[][] frames = spriteSheet.split(spriteSheet.getRegionWidth() / columns, spriteSheet.getRegionHeight() / rows);
-        Animation<TextureRegion> animation = new Animation<>(1f, frames[0]); // Creates an animation with a frame duration of 0.1 seconds
-        animation.setPlayMode(Animation.PlayMode.NORMAL); // Sets the animation to play normally
-        animations.put(name, animation);
+    /**
+     * Adds a looping animation of maxFrame frames, side by side in a sprite sheet, to the
+     * animation table (unless an enemy of this type added it already).
+     *
+     * @param spriteSheet   the sprite sheet
+     * @param name          the name of the animation in the table
+     *
+     * @return the id of the animation
+     */
+    private int addAnimation(TextureRegion spriteSheet, String name) {
+        TextureRegion[][] frames = spriteSheet.split(spriteSheet.getRegionWidth() / maxFrame, spriteSheet.getRegionHeight());
+        return animationTable.add(name, frames[0], true);
     }
 
     /**
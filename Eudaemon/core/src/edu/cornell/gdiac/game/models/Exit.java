@@ -1,7 +1,6 @@
 package edu.cornell.gdiac.game.models;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.physics.box2d.BodyDef;
@@ -47,14 +46,15 @@ public class Exit extends BoxObstacle {
     private Player player;
     /** The flag to indicate if the player is in the zone for the animation to begin*/
     private boolean zoneFlag = false;
-    /** The elapsed time since the animation started */
+    /** The ticks elapsed since the animation started */
     private int elapsedTime = 0;
 
     public Exit(JsonValue json, AssetDirectory assets, float x, float y, float width, float height, Player player) {
         super(x, y, width, height);
+        setContactCategory(ContactCategory.EXIT);
         this.player = player;
         JsonValue props = json.get("properties");
-        TextureRegion spriteSheet = new TextureRegion(assets.getEntry("platform:exit", Texture.class));
+        TextureRegion spriteSheet = assets.getRegion("platform:exit");
         TextureRegion[][] frames = spriteSheet.split(spriteSheet.getRegionWidth() / 3, spriteSheet.getRegionHeight());
         animation = new Animation<>(1f, frames[0]);
         animation.setPlayMode(Animation.PlayMode.NORMAL);
@@ -85,6 +85,7 @@ public class Exit extends BoxObstacle {
 
     public Exit() {
         super(15, 15, 2, 2);
+        setContactCategory(ContactCategory.EXIT);
 
         this.nextLevel = "win";
         this.isReached = false;
@@ -93,11 +94,17 @@ public class Exit extends BoxObstacle {
         fixture.isSensor = true;
     }
 
-    public void draw(GameCanvas canvas) {
-
-        float x = getX();
-        float y = getY();
-
+    /**
+     * Advances the exit animation by one tick.
+     * <p>
+     * The animation counts simulation ticks, so it plays at the same speed whatever
+     * the display rate.
+     *
+     * @param dt	Number of seconds since last tick
+     */
+    @Override
+    public void update(float dt) {
+        super.update(dt);
         elapsedTime++;
         float dist = 5f;
         if (player.getBody() != null && player.getX() > getX() - dist && player.getX() < getX() + dist && player.getY() > getY() - dist && player.getY() < getY() + dist) {
@@ -125,6 +132,12 @@ public class Exit extends BoxObstacle {
                 this.texture = animation.getKeyFrame(0);
             }
         }
+    }
+
+    public void draw(GameCanvas canvas) {
+
+        float x = getDrawX();
+        float y = getDrawY();
 
         float ox = oxOffset + this.texture.getRegionWidth()/2;
         float oy = oyOffset + this.texture.getRegionHeight()/2;
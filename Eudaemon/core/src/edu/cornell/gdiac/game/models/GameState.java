@@ -2,58 +2,215 @@ package edu.cornell.gdiac.game.models;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Json;
+import com.badlogic.gdx.utils.JsonReader;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
 import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.assets.LevelReader;
 import edu.cornell.gdiac.game.FontTextureLoader;
 
-import java.util.Collection;
-import java.util.HashMap;
-
 public class GameState {
+    /** The directory of the level files, compiled or not */
+    private static final String LEVEL_DIRECTORY = "levels/";
+
     private final AssetDirectory assets;
     private Settings settings;
     //other global settings go here
     private final Tile[] tiles;
-    private final HashMap<String, Level> levels;
+    /** The names of the levels, in the order of constants.json */
+    private final Array<String> levelNames;
     private String currentLevelName;
+    /**
+     * The built current level, or null if it has not been entered yet.
+     * Only the current level is kept; the others are built when they are entered.
+     */
+    private Level currentLevel;
+    /** Reads level files ahead of time, off the GL thread */
+    private final AsyncExecutor levelLoader;
+    /** The level files read (or being read) ahead of time, by level name */
+    private final ObjectMap<String, AsyncResult<LevelData>> preparedLevels;
 
-    private FontTextureLoader fontTextureLoader;
+    /** The images of the tutorial areas, shared by every level */
+    private TutorialImages tutorialImages;
 
+    /**
+     * Returns the current level, building it first if needed.
+     * <p>
+     * If the level file was read ahead of time (see prefetchLevel), only the GL
+     * part of the build is left to do here. Once the level is built, a fresh copy
+     * of it (for a restart) and the level after it are read ahead.
+     *
+     * @return the current level
+     */
     public Level getCurrentLevel() {
-        return levels.get(currentLevelName);
+        if (currentLevel == null) {
+            currentLevel = new Level(takeLevelData(currentLevelName), tiles, assets, tutorialImages, settings);
+
+            Exit exit = currentLevel.getExit();
+            String nextLevelName = exit != null ? exit.getNextLevel() : null;
+            ObjectMap.Keys<String> names = preparedLevels.keys();
+            while (names.hasNext) {
+                String name = names.next();
+                if (!name.equals(currentLevelName) && !name.equals(nextLevelName)) names.remove();
+            }
+            prefetchLevel(currentLevelName);
+            if (nextLevelName != null) prefetchLevel(nextLevelName);
+        }
+        return currentLevel;
     }
 
-    public void resetCurrentLevel() {
-        JsonValue constants = assets.getEntry("constants", JsonValue.class);
-        JsonValue currentLevel = null;
-        for (JsonValue level : constants.get("levels")) {
-            if (level.getString("level").equals(currentLevelName)) {
-                currentLevel = level;
+    /**
+     * Starts reading a level file on a background thread, so that entering the
+     * level later only has to do the GL part of the build.
+     * <p>
+     * Names that are not levels (like "win") are ignored, as are levels that are
+     * already read ahead.
+     *
+     * @param name the name of the level
+     */
+    public void prefetchLevel(final String name) {
+        if (!levelNames.contains(name, false) || preparedLevels.containsKey(name)) return;
+        // Look the file up here, as the asset directory belongs to the GL thread.
+        // A compiled level does not need it, so its bundle is not loaded at all.
+        final JsonValue levelJson = hasCompiledLevel(name) ? null : getLevelJson(name);
+        preparedLevels.put(name, levelLoader.submit(new AsyncTask<LevelData>() {
+            @Override
+            public LevelData call() {
+                return readLevel(name, levelJson);
             }
+        }));
+    }
+
+    /**
+     * Starts reading a level file on a background thread (see prefetchLevel).
+     *
+     * @param i the position of the level in constants.json, clamped as in setCurrentLevel
+     */
+    public void prefetchLevel(int i) {
+        if (i < 0) i = 0;
+        if (i >= levelNames.size) i = levelNames.size - 1;
+        prefetchLevel(levelNames.get(i));
+    }
+
+    /**
+     * Returns the data of a level, waiting for it if it is being read ahead, and
+     * reading it now if it is not.
+     */
+    private LevelData takeLevelData(String name) {
+        AsyncResult<LevelData> prepared = preparedLevels.remove(name);
+        if (prepared != null) {
+            return prepared.get();
         }
-        this.levels.get(currentLevelName).dispose();
-        this.levels.put(currentLevelName, new Level(currentLevel.getString("level"), tiles, assets, fontTextureLoader, settings));
+        return readLevel(name, hasCompiledLevel(name) ? null : getLevelJson(name));
+    }
+
+    /**
+     * Returns true if a level has a compiled file (see LevelCompiler) at least as
+     * new as its Tiled file.
+     *
+     * @param name the name of the level
+     */
+    private static boolean hasCompiledLevel(String name) {
+        FileHandle compiled = Gdx.files.internal(LEVEL_DIRECTORY + name + "." + LevelReader.EXTENSION);
+        FileHandle source = Gdx.files.internal(LEVEL_DIRECTORY + name + ".json");
+        return compiled.exists() && compiled.lastModified() >= source.lastModified();
+    }
+
+    /**
+     * Returns the Tiled file of a level.
+     * <p>
+     * Each level file is in a bundle of its own (see assets.json), which is only
+     * loaded for the lookup. The parsed file stays usable once it is unloaded.
+     *
+     * @param name the name of the level
+     */
+    private JsonValue getLevelJson(String name) {
+        String bundle = assets.getBundle(name, JsonValue.class);
+        if (bundle == null) {
+            return assets.getEntry(name, JsonValue.class);
+        }
+        assets.loadBundle(bundle);
+        assets.finishLoadingBundle(bundle);
+        JsonValue levelJson = assets.getEntry(name, JsonValue.class);
+        assets.unloadBundle(bundle);
+        return levelJson;
+    }
+
+    /**
+     * Reads a level from its compiled file (see LevelCompiler), or from its Tiled
+     * file if there is no up-to-date compiled file.
+     * <p>
+     * The Tiled file is only looked up when there is no up-to-date compiled file.
+     * If the compiled file turns out to be unreadable, the Tiled file is parsed here
+     * instead, as this may be off the GL thread.
+     *
+     * @param name      the name of the level
+     * @param levelJson the Tiled file of the level, already parsed (null if the level is compiled)
+     */
+    private static LevelData readLevel(String name, JsonValue levelJson) {
+        FileHandle source = Gdx.files.internal(LEVEL_DIRECTORY + name + ".json");
+        if (levelJson == null) {
+            FileHandle compiled = Gdx.files.internal(LEVEL_DIRECTORY + name + "." + LevelReader.EXTENSION);
+            try {
+                return LevelReader.read(name, compiled);
+            } catch (GdxRuntimeException e) {
+                Gdx.app.error("GameState", "Using " + source.path() + " instead of " + compiled.path(), e);
+                levelJson = new JsonReader().parse(source);
+            }
+        }
+        return new LevelData(name, levelJson);
+    }
+
+    /**
+     * Discards the current level, so that it is built again from its file the
+     * next time it is needed.
+     */
+    public void resetCurrentLevel() {
+        disposeCurrentLevel();
     }
 
     public void setCurrentLevel(int i) {
-        JsonValue levels = assets.getEntry("constants", JsonValue.class).get("levels");
         if (i < 0) i = 0;
-        if (i >= levels.size()) i = levels.size() - 1;
-        currentLevelName = assets.getEntry("constants", JsonValue.class).get("levels").get(i).getString("level");
+        if (i >= levelNames.size) i = levelNames.size - 1;
+        setCurrentLevel(levelNames.get(i));
     }
 
     public void setCurrentLevel(String name) {
-        currentLevelName = name;
+        if (!levelNames.contains(name, false)) {
+            throw new IllegalArgumentException("Level does not exist: " + name);
+        }
+        if (!name.equals(currentLevelName)) {
+            disposeCurrentLevel();
+            currentLevelName = name;
+        }
     }
 
-    public Level getLevel(int i) {
-        String levelName = assets.getEntry("constants", JsonValue.class).get("levels").get(i).getString("level");
-        return levels.get(levelName);
+    /**
+     * @return the number of levels in the game
+     */
+    public int getLevelCount() {
+        return levelNames.size;
     }
 
-    public Collection<Level> getLevels() {
-        return levels.values();
+    /**
+     * @param i the position of the level in constants.json
+     * @return the name of that level
+     */
+    public String getLevelName(int i) {
+        return levelNames.get(i);
+    }
+
+    private void disposeCurrentLevel() {
+        if (currentLevel != null) {
+            currentLevel.dispose();
+            currentLevel = null;
+        }
     }
 
     public ActionBindings getActionBindings() {
@@ -64,9 +221,10 @@ public class GameState {
         //assets disposed by root
         //bindings don't need to be disposed
         // tiles don't need to be disposed
-        for (Level level : levels.values()) {
-            level.dispose();
-        }
+        levelLoader.dispose();
+        preparedLevels.clear();
+        disposeCurrentLevel();
+        tutorialImages.dispose();
         settings.dispose();
     }
 
@@ -75,13 +233,12 @@ public class GameState {
     }
 
     public void unlockNextLevel() {
-        if (Character.getNumericValue(currentLevelName.charAt(currentLevelName.length() - 1)) == settings.getNumLevelsAvailable() - 1 && settings.getNumLevelsAvailable() < levels.size() - 1)
+        if (Character.getNumericValue(currentLevelName.charAt(currentLevelName.length() - 1)) == settings.getNumLevelsAvailable() - 1 && settings.getNumLevelsAvailable() < levelNames.size - 1)
             settings.incrementNumLevelsAvailable();
     }
 
     public GameState(AssetDirectory assets, FontTextureLoader fontTextureLoader) {
         this.currentLevelName = assets.getEntry("constants", JsonValue.class).get("levels").get(0).getString("level");
-        this.fontTextureLoader = fontTextureLoader;
         this.assets = assets;
 
         JsonValue constants = assets.getEntry("constants",  JsonValue.class);
@@ -96,10 +253,11 @@ public class GameState {
         }
 
         settings.setActionBindings(new ActionBindings(assets.getEntry("inputMappings", JsonValue.class)));
+        tutorialImages = new TutorialImages(assets, fontTextureLoader, settings);
 
         String levelName = constants.get("levels").get(0).getString("level");
 //        System.out.println(levelName);
-        JsonValue levelJson = assets.getEntry(levelName,  JsonValue.class);
+        JsonValue levelJson = getLevelJson(levelName);
 //        int numTiles = levelJson.getInt("height") * levelJson.getInt("width") ; // bugging for height
         //System.out.println(levelJson.getInt("tilewidth"));
         int numTiles = 20 * levelJson.getInt("width") ;
@@ -108,10 +266,12 @@ public class GameState {
             tiles[i] = new Tile(assets);
         }
 
-        int numLevels = constants.get("levels").size();
-        this.levels = new HashMap<>();
-        for (int i = 0; i < numLevels; i++) {
-            levels.put(constants.get(("levels")).get(i).getString("level"), new Level(constants.get("levels").get(i).getString("level"), tiles, assets, fontTextureLoader, settings));
+        // Levels are only built when they are entered (see getCurrentLevel)
+        this.levelLoader = new AsyncExecutor(1, "LevelLoader");
+        this.preparedLevels = new ObjectMap<>();
+        this.levelNames = new Array<>();
+        for (JsonValue level : constants.get("levels")) {
+            levelNames.add(level.getString("level"));
         }
 
         //TODO: bindings etc.
@@ -0,0 +1,425 @@
+package edu.cornell.gdiac.game.models;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical path finding (HPA*) over the grid graph of a level.
+ * <p>
+ * The grid is split into square clusters of CLUSTER_SIZE tiles. Wherever two
+ * neighbouring clusters share an open stretch of border, an entrance is placed
+ * on each side of it, and the distances between the entrances of every cluster
+ * are precomputed. A query then only searches this small graph of entrances,
+ * plus the clusters of the start and the goal.
+ * <p>
+ * Only the first leg of the path is refined into tiles: the route through the
+ * start cluster and the step into the next cluster. An enemy that reaches the
+ * end of that leg simply asks again, which is cheap, and a long path is never
+ * refined past the point where it becomes stale.
+ * <p>
+ * Like the tilemaps in Level, tile coordinates have row 0 at the TOP of the map.
+ */
+public class HierarchicalPathFinder {
+    /** Width and height of a cluster, in tiles */
+    public static final int CLUSTER_SIZE = 10;
+    /** Open stretches of border at least this long get an entrance at each end */
+    private static final int WIDE_ENTRANCE = 6;
+    /** The cost of stepping across a border between clusters */
+    private static final float STEP_COST = 1f;
+
+    /** The graph being abstracted */
+    private final Level.MyGridGraph graph;
+    private final int width;
+    private final int height;
+    private final int clustersX;
+    private final int clustersY;
+    /** The graph version the abstraction was built against */
+    private int builtVersion;
+
+    //#region Abstract graph
+    /** The tile index of each entrance */
+    private final IntArray entranceTiles;
+    /** The entrance placed on each tile; -1 if none */
+    private final int[] entranceOfTile;
+    /** The entrances of each cluster */
+    private final IntArray[] clusterEntrances;
+    /** The entrances reachable from each entrance */
+    private final Array<IntArray> edgeTargets;
+    /** The cost of each edge in edgeTargets */
+    private final Array<FloatArray> edgeCosts;
+    //#endregion
+
+    //#region Search scratch
+    /** Distances from the searched tile within a single cluster, indexed by local tile */
+    private final float[] localCost;
+    /** The previous local tile on the shortest path from the searched tile; -1 if none */
+    private final int[] localParent;
+    private final NodeHeap localHeap;
+    /** The x and y of the first tile in the searched cluster */
+    private int localX0, localY0;
+
+    /** The distance from the start to each entrance of its cluster */
+    private float[] startCost;
+    /** The distance from each entrance of its cluster to the goal */
+    private float[] goalCost;
+    /** The best known cost of each abstract node (entrances, then start and goal) */
+    private float[] abstractCost;
+    private int[] abstractParent;
+    private boolean[] abstractClosed;
+    private NodeHeap abstractHeap;
+    //#endregion
+
+    /**
+     * Builds the abstraction of the given graph.
+     *
+     * @param graph the navigation graph of the level
+     */
+    public HierarchicalPathFinder(Level.MyGridGraph graph) {
+        this.graph = graph;
+        this.width = graph.getWidth();
+        this.height = graph.getHeight();
+        this.clustersX = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+        this.clustersY = (height + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+
+        entranceTiles = new IntArray();
+        entranceOfTile = new int[width * height];
+        clusterEntrances = new IntArray[clustersX * clustersY];
+        for (int i = 0; i < clusterEntrances.length; i++) {
+            clusterEntrances[i] = new IntArray();
+        }
+        edgeTargets = new Array<>();
+        edgeCosts = new Array<>();
+
+        localCost = new float[CLUSTER_SIZE * CLUSTER_SIZE];
+        localParent = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+        localHeap = new NodeHeap(CLUSTER_SIZE * CLUSTER_SIZE);
+
+        build();
+    }
+
+    /**
+     * @return true if the two nodes are in the same cluster
+     */
+    public boolean inSameCluster(Level.MyNode a, Level.MyNode b) {
+        return a.getX() / CLUSTER_SIZE == b.getX() / CLUSTER_SIZE
+                && a.getY() / CLUSTER_SIZE == b.getY() / CLUSTER_SIZE;
+    }
+
+    /**
+     * @return the number of entrances in the abstract graph
+     */
+    public int getEntranceCount() {
+        return entranceTiles.size;
+    }
+
+    /**
+     * Finds the first leg of a path between nodes in different clusters.
+     * <p>
+     * The path starts at the start node and ends just inside the next cluster on
+     * the way to the goal. Use a plain search when both nodes share a cluster.
+     *
+     * @param start the node to start from
+     * @param goal  the node to reach (in a different cluster)
+     * @param out   the path to fill (it is cleared first)
+     * @return true if the goal can be reached
+     */
+    public boolean findPath(Level.MyNode start, Level.MyNode goal, GraphPath<Level.MyNode> out) {
+        if (builtVersion != graph.getVersion()) {
+            build();
+        }
+        out.clear();
+        if (!goal.isPassable()) {
+            return false;
+        }
+
+        int startCluster = clusterOf(start.getX(), start.getY());
+        int goalCluster = clusterOf(goal.getX(), goal.getY());
+        int entranceCount = entranceTiles.size;
+        int startNode = entranceCount;
+        int goalNode = entranceCount + 1;
+
+        // Connect the goal to the entrances of its cluster. The connections are
+        // symmetric, so the distance from the goal is the distance to the goal.
+        searchCluster(goal.getX(), goal.getY());
+        IntArray entrances = clusterEntrances[goalCluster];
+        for (int i = 0; i < entrances.size; i++) {
+            int e = entrances.get(i);
+            goalCost[e] = localCost[localIndexOf(entranceTiles.get(e))];
+        }
+
+        // Connect the start last, so the local parents describe the first leg
+        searchCluster(start.getX(), start.getY());
+        entrances = clusterEntrances[startCluster];
+        for (int i = 0; i < entrances.size; i++) {
+            int e = entrances.get(i);
+            startCost[e] = localCost[localIndexOf(entranceTiles.get(e))];
+        }
+
+        // A* over the entrances
+        Arrays.fill(abstractCost, Float.POSITIVE_INFINITY);
+        Arrays.fill(abstractParent, -1);
+        Arrays.fill(abstractClosed, false);
+        abstractHeap.clear();
+        abstractCost[startNode] = 0;
+        abstractHeap.add(startNode, estimate(start.getX(), start.getY(), goal));
+        while (!abstractHeap.isEmpty()) {
+            int u = abstractHeap.pop();
+            if (u == goalNode) break;
+            abstractClosed[u] = true;
+
+            if (u == startNode) {
+                entrances = clusterEntrances[startCluster];
+                for (int i = 0; i < entrances.size; i++) {
+                    int e = entrances.get(i);
+                    relax(u, e, startCost[e], goal);
+                }
+                continue;
+            }
+
+            IntArray targets = edgeTargets.get(u);
+            FloatArray costs = edgeCosts.get(u);
+            for (int i = 0; i < targets.size; i++) {
+                relax(u, targets.get(i), costs.get(i), goal);
+            }
+            int tile = entranceTiles.get(u);
+            if (clusterOf(tile % width, tile / width) == goalCluster) {
+                relax(u, goalNode, goalCost[u], goal);
+            }
+        }
+        if (abstractCost[goalNode] == Float.POSITIVE_INFINITY) {
+            return false;
+        }
+
+        // Walk back to the first two entrances after the start. The first lies in
+        // the start cluster, and the second just across its border.
+        int next = goalNode;
+        int first = abstractParent[goalNode];
+        while (abstractParent[first] != startNode) {
+            next = first;
+            first = abstractParent[first];
+        }
+
+        // Refine the route through the start cluster from the local search
+        int firstTile = entranceTiles.get(first);
+        for (int local = localIndexOf(firstTile); local >= 0; local = localParent[local]) {
+            out.add(graph.getNode(localX0 + local % CLUSTER_SIZE, localY0 + local / CLUSTER_SIZE));
+        }
+        out.reverse();
+        if (next != goalNode) {
+            int nextTile = entranceTiles.get(next);
+            out.add(graph.getNode(nextTile % width, nextTile / width));
+        }
+        return true;
+    }
+
+    /**
+     * Updates the abstract node v if reaching it through u is cheaper.
+     */
+    private void relax(int u, int v, float cost, Level.MyNode goal) {
+        if (cost == Float.POSITIVE_INFINITY || abstractClosed[v]) return;
+        float total = abstractCost[u] + cost;
+        if (total < abstractCost[v]) {
+            abstractCost[v] = total;
+            abstractParent[v] = u;
+            int x, y;
+            if (v < entranceTiles.size) {
+                int tile = entranceTiles.get(v);
+                x = tile % width;
+                y = tile / width;
+            } else {
+                x = goal.getX();
+                y = goal.getY();
+            }
+            abstractHeap.add(v, total + estimate(x, y, goal));
+        }
+    }
+
+    /**
+     * @return the straight line distance in tiles from (x, y) to the goal
+     */
+    private static float estimate(int x, int y, Level.MyNode goal) {
+        float dx = Math.abs(x - goal.getX());
+        float dy = Math.abs(y - goal.getY());
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    //#region Building
+
+    /**
+     * (Re)builds the entrances and their precomputed distances.
+     */
+    private void build() {
+        builtVersion = graph.getVersion();
+        entranceTiles.clear();
+        Arrays.fill(entranceOfTile, -1);
+        for (IntArray entrances : clusterEntrances) {
+            entrances.clear();
+        }
+        edgeTargets.clear();
+        edgeCosts.clear();
+
+        for (int cy = 0; cy < clustersY; cy++) {
+            for (int cx = 0; cx < clustersX; cx++) {
+                int y0 = cy * CLUSTER_SIZE;
+                int y1 = Math.min(height, y0 + CLUSTER_SIZE);
+                int x0 = cx * CLUSTER_SIZE;
+                int x1 = Math.min(width, x0 + CLUSTER_SIZE);
+                if (cx + 1 < clustersX) {
+                    addEntrances(x1 - 1, y0, 0, 1, y1 - y0, 1, 0);
+                }
+                if (cy + 1 < clustersY) {
+                    addEntrances(x0, y1 - 1, 1, 0, x1 - x0, 0, 1);
+                }
+            }
+        }
+
+        // Precompute the distances between the entrances of every cluster
+        for (IntArray entrances : clusterEntrances) {
+            for (int i = 0; i < entrances.size; i++) {
+                int e = entrances.get(i);
+                int tile = entranceTiles.get(e);
+                searchCluster(tile % width, tile / width);
+                for (int j = 0; j < entrances.size; j++) {
+                    if (i == j) continue;
+                    int f = entrances.get(j);
+                    float cost = localCost[localIndexOf(entranceTiles.get(f))];
+                    if (cost != Float.POSITIVE_INFINITY) {
+                        addEdge(e, f, cost);
+                    }
+                }
+            }
+        }
+
+        int abstractCount = entranceTiles.size + 2;
+        startCost = new float[abstractCount];
+        goalCost = new float[abstractCount];
+        abstractCost = new float[abstractCount];
+        abstractParent = new int[abstractCount];
+        abstractClosed = new boolean[abstractCount];
+        abstractHeap = new NodeHeap(abstractCount);
+    }
+
+    /**
+     * Places the entrances along one border between two clusters.
+     * <p>
+     * The border is walked from (x, y) in steps of (stepX, stepY). The tile across
+     * the border from each tile is at offset (acrossX, acrossY).
+     */
+    private void addEntrances(int x, int y, int stepX, int stepY, int length, int acrossX, int acrossY) {
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean open = i < length
+                    && graph.getNode(x + i * stepX, y + i * stepY).isPassable()
+                    && graph.getNode(x + i * stepX + acrossX, y + i * stepY + acrossY).isPassable();
+            if (open && runStart < 0) {
+                runStart = i;
+            } else if (!open && runStart >= 0) {
+                int runLength = i - runStart;
+                if (runLength >= WIDE_ENTRANCE) {
+                    addTransition(x, y, stepX, stepY, runStart, acrossX, acrossY);
+                    addTransition(x, y, stepX, stepY, i - 1, acrossX, acrossY);
+                } else {
+                    addTransition(x, y, stepX, stepY, runStart + runLength / 2, acrossX, acrossY);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    /**
+     * Links the tile at offset i along a border with the tile across from it.
+     */
+    private void addTransition(int x, int y, int stepX, int stepY, int i, int acrossX, int acrossY) {
+        int ax = x + i * stepX;
+        int ay = y + i * stepY;
+        int a = entranceAt(ax, ay);
+        int b = entranceAt(ax + acrossX, ay + acrossY);
+        addEdge(a, b, STEP_COST);
+        addEdge(b, a, STEP_COST);
+    }
+
+    /**
+     * @return the entrance on the given tile, creating it if needed
+     */
+    private int entranceAt(int x, int y) {
+        int tile = y * width + x;
+        if (entranceOfTile[tile] < 0) {
+            int id = entranceTiles.size;
+            entranceTiles.add(tile);
+            entranceOfTile[tile] = id;
+            clusterEntrances[clusterOf(x, y)].add(id);
+            edgeTargets.add(new IntArray());
+            edgeCosts.add(new FloatArray());
+        }
+        return entranceOfTile[tile];
+    }
+
+    private void addEdge(int from, int to, float cost) {
+        edgeTargets.get(from).add(to);
+        edgeCosts.get(from).add(cost);
+    }
+
+    //#endregion
+
+    //#region Cluster search
+
+    private int clusterOf(int x, int y) {
+        return (y / CLUSTER_SIZE) * clustersX + x / CLUSTER_SIZE;
+    }
+
+    /**
+     * @return the local index of a tile in the last searched cluster
+     */
+    private int localIndexOf(int tile) {
+        return (tile / width - localY0) * CLUSTER_SIZE + (tile % width - localX0);
+    }
+
+    /**
+     * Runs Dijkstra from a tile without leaving its cluster.
+     * <p>
+     * Afterwards localCost and localParent describe the shortest paths from the
+     * tile to every other tile of the cluster.
+     *
+     * @param x the x coordinate of the tile
+     * @param y the y coordinate of the tile
+     */
+    private void searchCluster(int x, int y) {
+        localX0 = (x / CLUSTER_SIZE) * CLUSTER_SIZE;
+        localY0 = (y / CLUSTER_SIZE) * CLUSTER_SIZE;
+        int x1 = Math.min(width, localX0 + CLUSTER_SIZE);
+        int y1 = Math.min(height, localY0 + CLUSTER_SIZE);
+        Arrays.fill(localCost, Float.POSITIVE_INFINITY);
+        Arrays.fill(localParent, -1);
+        localHeap.clear();
+
+        int source = (y - localY0) * CLUSTER_SIZE + (x - localX0);
+        localCost[source] = 0;
+        localHeap.add(source, 0);
+        while (!localHeap.isEmpty()) {
+            int u = localHeap.pop();
+            Level.MyNode node = graph.getNode(localX0 + u % CLUSTER_SIZE, localY0 + u / CLUSTER_SIZE);
+            Array<Connection<Level.MyNode>> connections = graph.getConnections(node);
+            for (int i = 0; i < connections.size; i++) {
+                Connection<Level.MyNode> connection = connections.get(i);
+                Level.MyNode to = connection.getToNode();
+                if (to.getX() < localX0 || to.getX() >= x1 || to.getY() < localY0 || to.getY() >= y1) {
+                    continue;
+                }
+                int v = (to.getY() - localY0) * CLUSTER_SIZE + (to.getX() - localX0);
+                float cost = localCost[u] + connection.getCost();
+                if (cost < localCost[v]) {
+                    localCost[v] = cost;
+                    localParent[v] = u;
+                    localHeap.add(v, cost);
+                }
+            }
+        }
+    }
+
+    //#endregion
+}
@@ -6,16 +6,17 @@ import com.badlogic.gdx.ai.pfa.Connection;
 import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
 import com.badlogic.gdx.controllers.Controller;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.TimeUtils;
 import edu.cornell.gdiac.assets.AssetDirectory;
-import edu.cornell.gdiac.game.FontTextureLoader;
 import edu.cornell.gdiac.game.GameCanvas;
+import edu.cornell.gdiac.game.ParallaxRenderer;
+import edu.cornell.gdiac.game.TileLayerRenderer;
 import edu.cornell.gdiac.game.UIOverlay;
 import edu.cornell.gdiac.game.obstacle.EffectObstacle;
 import edu.cornell.gdiac.game.obstacle.Obstacle;
@@ -24,7 +25,6 @@ import edu.cornell.gdiac.util.PooledList;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Hashtable;
 import java.util.Iterator;
 
 public class Level {
@@ -32,6 +32,8 @@ public class Level {
     private int startX;
     private int startY;
     private MyGridGraph gridGraph;
+    /** The shared path queries over gridGraph for every flying enemy */
+    private PathService pathService;
     //#region FINAL FIELDS
     private final Player player;
     private ArrayList<Enemy> enemies ;
@@ -50,6 +52,9 @@ public class Level {
 
     private EffectPool effectPool;
 
+    /** The frames of the enemy and effect animations, and the clock they play by */
+    private final AnimationTable animationTable;
+
     // NOTE: the natural way of viewing a 2d array is flipped for the map. tilemap[0] is the top of the map. need fancy
     // conversions between the two spaces
     private final int[][] tilemap; // value represents the index of the tile in the tiles array
@@ -65,6 +70,14 @@ public class Level {
     private final int[][] tilemapBG2;
 
     private final Tile[] tiles;
+
+    /** Camera-culled renderers for the foreground, background 1 and background 2 tile layers */
+    private final TileLayerRenderer tileRendererFG;
+    private final TileLayerRenderer tileRendererBG1;
+    private final TileLayerRenderer tileRendererBG2;
+    /** Renderer for the parallax background layers */
+    private final ParallaxRenderer backgroundRenderer;
+
     private final BodyDef bodyDef;
     private final FixtureDef fixtureDef;
     //private final TextureRegion backgroundTexture;
@@ -112,6 +125,9 @@ public class Level {
     private final int widthInTiles;
     private final int heightInTiles;
 
+    /** The merged rectangles of solid foreground tiles, made into bodies by activatePhysics */
+    private final Array<TileCollider.Rect> solidRects;
+
 
 
     //#endregion
@@ -164,6 +180,11 @@ public class Level {
 
     private Vector3 origCameraPosition;
 
+    /** Time (in nanoseconds) activatePhysics spent building the static tile geometry */
+    private long physicsActivationTime;
+    /** Time (in nanoseconds) spent in the most recent world step */
+    private long lastStepTime;
+
 
     //#endregion
 
@@ -222,6 +243,10 @@ public class Level {
         return gridGraph;
     }
 
+    public PathService getPathService(){
+        return pathService;
+    }
+
     public boolean isCompleted() {
         return isCompleted;
     }
@@ -234,6 +259,10 @@ public class Level {
         return effectPool;
     }
 
+    public AnimationTable getAnimationTable() {
+        return animationTable;
+    }
+
 
     public void setEffectPool(EffectPool effectPool) {
         this.effectPool = effectPool;
@@ -288,7 +317,7 @@ public class Level {
     public void setCameraShakeOn(boolean value) { this.cameraShakeOn = value; }
     //#endregion
 
-    public class MyConnection<MyNode> implements Connection<MyNode> {
+    public static class MyConnection implements Connection<MyNode> {
         protected MyNode fromNode;
         protected MyNode toNode;
         protected float cost;
@@ -318,7 +347,7 @@ public class Level {
      * x and y stored in tile coordinates
      * same with tilemap
      */
-    public class MyNode{
+    public static class MyNode{
         private final int x;
         private final int y;
         private boolean passable;
@@ -355,9 +384,23 @@ public class Level {
             return y;
         }
     }
-    public class MyGridGraph implements IndexedGraph<MyNode> {
+
+    /**
+     * The navigation graph for flying enemies, one node per tile.
+     * <p>
+     * The outgoing connections of every node are computed once and reused by every
+     * search, so path queries do not allocate. They only need to be rebuilt when the
+     * passability of a tile changes (see setPassable).
+     */
+    public static class MyGridGraph implements IndexedGraph<MyNode> {
         private final int width, height;
         private MyNode[][] nodes;
+        /** The precomputed outgoing connections of each node, indexed by node index */
+        private final Array<Connection<MyNode>>[] connections;
+        /** Incremented whenever passability changes, so cached paths can be discarded */
+        private int version;
+
+        @SuppressWarnings("unchecked")
         public MyGridGraph(int width, int height,int[][]tilemap) {
             this.width = width;
             this.height = height;
@@ -370,6 +413,11 @@ public class Level {
                 }
             }
 
+            connections = (Array<Connection<MyNode>>[]) new Array[width * height];
+            for (int i = 0; i < connections.length; i++) {
+                connections[i] = new Array<>(false, 8);
+                rebuildConnections(nodes[i / width][i % width]);
+            }
         }
         public int getHeight(){
             return height;
@@ -394,28 +442,64 @@ public class Level {
             return nodes[y][x];
         }
 
+        /**
+         * @return a counter that changes every time the passability of a tile changes
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Changes whether a tile can be passed, updating the affected connections.
+         * <p>
+         * A node's connections depend on its eight neighbours (diagonals may not cut
+         * corners), so only the node and its neighbours are rebuilt.
+         *
+         * @param x the x coordinate in tile coordinates
+         * @param y the y coordinate in tile coordinates
+         * @param passable whether the tile can be passed
+         */
+        public void setPassable(int x, int y, boolean passable) {
+            if (nodes[y][x].isPassable() == passable) return;
+            nodes[y][x].setPassable(passable);
+            version++;
+            for (int ny = Math.max(0, y - 1); ny <= Math.min(height - 1, y + 1); ny++) {
+                for (int nx = Math.max(0, x - 1); nx <= Math.min(width - 1, x + 1); nx++) {
+                    rebuildConnections(nodes[ny][nx]);
+                }
+            }
+        }
+
         @Override
         public Array<Connection<MyNode>> getConnections(MyNode fromNode) {
+            return connections[getIndex(fromNode)];
+        }
+
+        /**
+         * Recomputes the outgoing connections of a single node.
+         */
+        private void rebuildConnections(MyNode fromNode) {
             int x= fromNode.getX();
             int y= fromNode.getY();
-            Array<Connection<MyNode>> connections=new Array<>();
+            Array<Connection<MyNode>> connections=this.connections[getIndex(fromNode)];
+            connections.clear();
             if (x>0) {
                 MyNode toNode=getNode(x-1,y);
                 if (toNode.isPassable()) {
-                    connections.add(new MyConnection<>(fromNode,toNode,1f));
+                    connections.add(new MyConnection(fromNode,toNode,1f));
                     // Add diagonal neighboring nodes
                     if (y > 0){
                         toNode=getNode(x-1,y-1);
                         MyNode sideNode=getNode(x,y-1);
                         if (toNode.isPassable()&& sideNode.isPassable()) {
-                            connections.add(new MyConnection<>(fromNode,toNode,1.4f));
+                            connections.add(new MyConnection(fromNode,toNode,1.4f));
                         }
                     }
                     if (y < height - 1){
                         toNode=getNode(x-1,y+1);
                         MyNode sideNode=getNode(x,y+1);
                         if (toNode.isPassable()&& sideNode.isPassable()) {
-                            connections.add(new MyConnection<>(fromNode,toNode,1.4f));
+                            connections.add(new MyConnection(fromNode,toNode,1.4f));
                         }
                     }
                 }
@@ -423,20 +507,20 @@ public class Level {
             if (x < width - 1){
                 MyNode toNode=getNode(x+1,y);
                 if (toNode.isPassable()) {
-                    connections.add(new MyConnection<>(fromNode,toNode,1f));
+                    connections.add(new MyConnection(fromNode,toNode,1f));
                     // Add diagonal neighboring nodes
                     if (y > 0){
                         toNode=getNode(x+1,y-1);
                         MyNode sideNode=getNode(x,y-1);
                         if (toNode.isPassable()&& sideNode.isPassable()) {
-                            connections.add(new MyConnection<>(fromNode,toNode,1.4f));
+                            connections.add(new MyConnection(fromNode,toNode,1.4f));
                         }
                     }
                     if (y < height - 1){
                         toNode=getNode(x+1,y+1);
                         MyNode sideNode=getNode(x,y+1);
                         if (toNode.isPassable()&& sideNode.isPassable()) {
-                            connections.add(new MyConnection<>(fromNode,toNode,1.4f));
+                            connections.add(new MyConnection(fromNode,toNode,1.4f));
                         }
                     }
                 }
@@ -444,20 +528,50 @@ public class Level {
             if (y > 0){
                 MyNode toNode=getNode(x,y-1);
                 if (toNode.isPassable()) {
-                    connections.add(new MyConnection<>(fromNode,toNode,1f));
+                    connections.add(new MyConnection(fromNode,toNode,1f));
                 }
             }
             if (y < height - 1){
                 MyNode toNode=getNode(x,y+1);
                 if (toNode.isPassable()) {
-                    connections.add(new MyConnection<>(fromNode,toNode,1f));
+                    connections.add(new MyConnection(fromNode,toNode,1f));
                 }
             }
-
-            return connections;
         }
     }
-    public Level(String levelName, Tile[] tiles, AssetDirectory assets, FontTextureLoader fontTextureLoader, Settings settings) {
+    /**
+     * Reads the tile ids of a Tiled tile layer, one row per array, top row first.
+     * <p>
+     * Tiled numbers tiles from 1, so the ids are shifted down by one and empty cells
+     * become -1. The cells are walked in order, as indexing a JsonValue array walks
+     * its children from the start every time.
+     *
+     * @param layer the tile layer (with width, height and data)
+     * @return the tile ids, indexed [y][x]
+     */
+    public static int[][] readTilemap(JsonValue layer) {
+        int width = layer.getInt("width");
+        int height = layer.getInt("height");
+        int[][] tilemap = new int[height][width];
+        JsonValue cell = layer.get("data").child;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                tilemap[y][x] = cell.asInt() - 1;
+                cell = cell.next;
+            }
+        }
+        return tilemap;
+    }
+
+    /**
+     * Finishes building a level whose file has already been read.
+     * <p>
+     * This creates the textures, objects and world of the level, so it must run on
+     * the GL thread. The bodies are created later, by activatePhysics.
+     *
+     * @param data the level read from its file (not shared with any other level)
+     */
+    public Level(LevelData data, Tile[] tiles, AssetDirectory assets, TutorialImages tutorialImages, Settings settings) {
         this.tiles = tiles;
         //this.billboard = new Billboard();
         this.normalDifficulty = true;
@@ -481,53 +595,23 @@ public class Level {
         controllers = Controllers.get().getControllers();
         if (controllers.size > 0) controller = controllers.first();
 
-        JsonValue levelJson = assets.getEntry(levelName,  JsonValue.class);
-
-        // go through properties
-        Hashtable<String, JsonValue> properties = new Hashtable<>();
-        for (JsonValue item : levelJson.get("properties")) {
-            properties.put(item.getString("name"), item);
-        }
-
-        this.gravity = properties.get("gravity").getFloat("value");
-        this.camZoneX = properties.get("camZoneX").getFloat("value");
-        this.camZoneY = properties.get("camZoneY").getFloat("value");
-        this.cameraWidth = properties.get("cameraWidth").getFloat("value");
-        this.cameraHeight = properties.get("cameraHeight").getFloat("value");
-        this.tileSize = properties.get("tileSize").getFloat("value");
-        this.scaleforBackground = properties.get("backgroundScale").getFloat("value");
-        this.backgroundOx = properties.get("backgroundOx").getFloat("value");
-        this.backgroundOy = properties.get("backgroundOy").getFloat("value");
+        this.gravity = data.getGravity();
+        this.camZoneX = data.getCamZoneX();
+        this.camZoneY = data.getCamZoneY();
+        this.cameraWidth = data.getCameraWidth();
+        this.cameraHeight = data.getCameraHeight();
+        this.tileSize = data.getTileSize();
+        this.scaleforBackground = data.getBackgroundScale();
+        this.backgroundOx = data.getBackgroundOx();
+        this.backgroundOy = data.getBackgroundOy();
 
+        widthInTiles = data.getWidthInTiles();
+        heightInTiles = data.getHeightInTiles();
 
-        // Access the JsonValues for each layer in the tilemap
-        JsonValue layerArray = levelJson.get("layers");
-
-        // Create a dictionary to contain the names of the layers and their JsonValues
-        Hashtable<String,JsonValue> layerData = new Hashtable<>();
-
-        // Iterate through the JsonValue layer array and perform operations as needed
-        for (JsonValue item : layerArray) {
-            // Add the name of the layer to the hashset as the key with a value of item
-            layerData.put(item.getString("name"), item);
-        }
-
-
-        // Create the tilemap (foreground tiles)
-        JsonValue tilesFG = layerData.get("TileLayerFG");
-        JsonValue tilesFGData = tilesFG.get("data");
-
-        // Get the width and height of the tilemap in tiles
-        widthInTiles = tilesFG.getInt("width");
-        heightInTiles = tilesFG.getInt("height");
-
-        this.tilemap = new int[heightInTiles][widthInTiles];
-        for (int y = 0; y < heightInTiles; y++) {
-            for (int x = 0; x < widthInTiles; x++) {
-                tilemap[y][x] = tilesFGData.getInt(y*widthInTiles + x) - 1;
-            }
-        }
-        gridGraph= new MyGridGraph(widthInTiles,heightInTiles,this.tilemap);
+        this.tilemap = data.getTilemapFG();
+        gridGraph = data.getGridGraph();
+        pathService = data.getPathService();
+        solidRects = data.getSolidRects();
 
         // Create the tileset
         texturePaths = new HashMap<>();
@@ -540,7 +624,7 @@ public class Level {
             //Avoiding adding enemies and objects
             if (!(name.substring(0,7).equals("Enemies"))){
 //                System.out.println(name);
-                TextureRegion tileTexture = new TextureRegion(assets.getEntry("tiles:" + name, Texture.class));
+                TextureRegion tileTexture = assets.getRegion("tiles:" + name);
                 texturePaths.put(t.getInt("id"),tileTexture);
             }
         }
@@ -552,58 +636,58 @@ public class Level {
             }
         }
 
-        this.background_L1 = new TextureRegion(assets.getEntry("background:L1", Texture.class));
+        this.background_L1 = assets.getRegion("background:L1");
         //get the size of the background
         //int background_L1Width = background_L1.getRegionWidth();
         //System.out.println("background_L1Width: " + background_L1Width);
         //int background_L1Height = background_L1.getRegionHeight();
         //System.out.println("background_L1Height: " + background_L1Height);
-        this.background_L2 = new TextureRegion(assets.getEntry("background:L2", Texture.class));
-        this.background_L3 = new TextureRegion(assets.getEntry("background:L3", Texture.class));
-        this.background_L4 = new TextureRegion(assets.getEntry("background:L4", Texture.class));
-        this.background_L5 = new TextureRegion(assets.getEntry("background:L5", Texture.class));
+        this.background_L2 = assets.getRegion("background:L2");
+        this.background_L3 = assets.getRegion("background:L3");
+        this.background_L4 = assets.getRegion("background:L4");
+        this.background_L5 = assets.getRegion("background:L5");
+        //the background moves with the player,the farther back the faster the speed
+        this.backgroundRenderer = new ParallaxRenderer(
+                new TextureRegion[] {background_L1, background_L2, background_L3, background_L4, background_L5},
+                new float[] {1, 0.8f, 0.7f, 0.4f, 0.1f},
+                new float[] {backgroundOx + 30, backgroundOx, backgroundOx, backgroundOx, backgroundOx},
+                backgroundOy, scaleforBackground);
 
         // Define the world
         this.world = new World(new Vector2(0, gravity), true);
 
         //#region Enemies and Objects
+        this.animationTable = new AnimationTable();
         this.enemies = new ArrayList<>();
         this.spikes = new ArrayList<>();
         this.billboards = new ArrayList<>();
         this.tutorialAreas = new ArrayList<>();
 
 
-        JsonValue objectLayer = layerData.get("ObjectLayer");
-        JsonValue objects = objectLayer.get("objects");
-
-        for (JsonValue object : objects) {
-            if (object.getString("type").equals("Enemy")) {
-                float x = (int) (object.getInt("x") / 32);
-                float y = heightInTiles -1-(int) (object.getInt("y") / 32);
-                enemies.add(new Enemy(object, assets,x,y));
-            }
-            else if (object.getString("name").equals("Spike")) {
-                float x = (int) (object.getInt("x") / 32);
-                float y = heightInTiles - (int) (object.getInt("y") / 32);
-                spikes.add(new Spike(object, assets,x,y));
-            }
-            else if (object.getString("name").equals("Billboard")) {
-                float x = (int) (object.getInt("x") / 32);
-                float y = heightInTiles - (int) (object.getInt("y") / 32);
-                billboards.add(new Billboard(object, assets,x,y));
-            }
-            else if (object.getString("name").equals("TutorialArea")) {
-                float x = (int) (object.getInt("x") / 32);
-                float y = heightInTiles - (int) (object.getInt("y") / 32);
-                tutorialAreas.add(new TutorialArea(object, assets,x,y, fontTextureLoader, settings));
-            }
-            else if (object.getString("name").equals("StartingPoint")) {
-                startX = (int) (object.getInt("x") / 32) + 1;
-                startY = heightInTiles - (int) (object.getInt("y") / 32);
+        for (LevelData.ObjectRecord object : data.getObjects()) {
+            switch (object.type) {
+                case ENEMY:
+                    enemies.add(new Enemy(object.json, assets, object.x, object.y, animationTable));
+                    break;
+                case SPIKE:
+                    spikes.add(new Spike(object.json, assets, object.x, object.y));
+                    break;
+                case BILLBOARD:
+                    billboards.add(new Billboard(object.json, assets, object.x, object.y));
+                    break;
+                case TUTORIAL_AREA:
+                    tutorialAreas.add(new TutorialArea(object.json, assets, object.x, object.y, tutorialImages));
+                    break;
+                case STARTING_POINT:
+                    startX = (int) object.x;
+                    startY = (int) object.y;
+                    break;
+                default:
+                    break;
             }
         }
 
-        effectPool = new EffectPool();
+        effectPool = new EffectPool(animationTable);
 
         //#endregion
 
@@ -613,26 +697,16 @@ public class Level {
         this.assets = assets;
 //        uiElements = new UIOverlay(playerData, assets);
 
-        for (JsonValue object : objects) {
-            if (object.getString("name").equals("Exit")) {
-                float x = (float) object.getInt("x") / 32;
-                float y = heightInTiles - (float) object.getInt("y") / 32;
+        for (LevelData.ObjectRecord object : data.getObjects()) {
+            if (object.type == LevelData.ObjectType.EXIT) {
                 float width = 1.15f;
                 float height = 1.7f;
-                exit = new Exit(object, assets, x, y, width, height, player);
+                exit = new Exit(object.json, assets, object.x, object.y, width, height, player);
             }
         }
 
         // Create the tilemap (background tiles 1)
-        JsonValue tilesBG1 = layerData.get("TileLayerBG");
-        JsonValue tilesBG1Data = tilesBG1.get("data");
-        this.tilemapBG1 = new int[heightInTiles][widthInTiles];
-
-        for (int y = 0; y < heightInTiles; y++) {
-            for (int x = 0; x < widthInTiles; x++) {
-                tilemapBG1[y][x] = tilesBG1Data.getInt(y*widthInTiles + x) - 1;
-            }
-        }
+        this.tilemapBG1 = data.getTilemapBG1();
 
         for (int[] row : tilemapBG1) {
             for (int tileId : row) {
@@ -642,15 +716,7 @@ public class Level {
         }
 
         // Create the tilemap (background tiles 1)
-        JsonValue tilesBG2 = layerData.get("TileLayerBG2");
-        JsonValue tilesBG2Data = tilesBG2.get("data");
-        this.tilemapBG2 = new int[heightInTiles][widthInTiles];
-
-        for (int y = 0; y < heightInTiles; y++) {
-            for (int x = 0; x < widthInTiles; x++) {
-                tilemapBG2[y][x] = tilesBG2Data.getInt(y*widthInTiles + x) - 1;
-            }
-        }
+        this.tilemapBG2 = data.getTilemapBG2();
 
         for (int[] row : tilemapBG2) {
             for (int tileId : row) {
@@ -659,6 +725,9 @@ public class Level {
             }
         }
 
+        this.tileRendererFG = new TileLayerRenderer(tilemap, tiles, tileSize);
+        this.tileRendererBG1 = new TileLayerRenderer(tilemapBG1, tiles, tileSize);
+        this.tileRendererBG2 = new TileLayerRenderer(tilemapBG2, tiles, tileSize);
 
         this.bodyDef = new BodyDef();
         this.bodyDef.type = BodyDef.BodyType.StaticBody;
@@ -756,6 +825,7 @@ public class Level {
         assert inBounds(obj) : "Object is not in bounds";
             objects.add(obj);
             obj.activatePhysics(world);
+            obj.storePreviousPosition();
     }
     /**
      * Returns true if the object is in bounds.
@@ -779,7 +849,13 @@ public class Level {
         while (!addQueue.isEmpty()) {
             addObject(addQueue.poll());
         }
+        for (Obstacle obj : objects) {
+            obj.storePreviousPosition();
+        }
+
+        long stepStart = TimeUtils.nanoTime();
         world.step(delta, 6, 2);
+        lastStepTime = TimeUtils.timeSinceNanos(stepStart);
 
         // Garbage collect the deleted objects.
         // Note how we use the linked list nodes to delete O(1) in place.
@@ -804,13 +880,26 @@ public class Level {
             billboard.aggregateStringCompleteness(delta);
         }
         //billboard.aggregateStringCompleteness(delta);
+        animationTable.tick();
 
 
     }
 
-    public void draw(GameCanvas canvas) {
+    /**
+     * Sets how far the next draw is between the previous and current physics step.
+     * <p>
+     * The level is simulated at a fixed timestep, so a frame usually falls between
+     * two steps. Obstacles blend their drawn position by this amount.
+     *
+     * @param alpha the interpolation factor, from 0 (previous step) to 1 (current step)
+     */
+    public void setInterpolation(float alpha) {
+        for (Obstacle obj : objects) {
+            obj.setDrawAlpha(alpha);
+        }
+    }
 
-        canvas.begin();
+    public void draw(GameCanvas canvas) {
 
         //handleGameplayCamera(canvas);
         canvas.getCameraController().handleGameplayCamera(canvas, this);
@@ -848,62 +937,18 @@ public class Level {
         float sty=levelToTileCoordinatesY(this.startY);
         float diffX=px-stx - offset.x;
         float diffY=py-sty - offset.y;
-        //the background moves with the player,the farther back the faster the speed
-        canvas.draw(background_L1, Color.WHITE, backgroundOx + 30, backgroundOy, diffX, diffY, 0, this.scaleforBackground, this.scaleforBackground);
-        canvas.draw(background_L2, Color.WHITE, backgroundOx, backgroundOy, diffX*0.8f, diffY*0.8f, 0,  this.scaleforBackground, this.scaleforBackground);
-        canvas.draw(background_L3, Color.WHITE, backgroundOx, backgroundOy, diffX*0.7f, diffY*0.7f, 0,  this.scaleforBackground, this.scaleforBackground);
-        canvas.draw(background_L4, Color.WHITE, backgroundOx, backgroundOy, diffX*0.4f, diffY*0.4f, 0,  this.scaleforBackground, this.scaleforBackground);
-        canvas.draw(background_L5, Color.WHITE, backgroundOx, backgroundOy, diffX*0.1f, diffY*0.1f, 0,  this.scaleforBackground, this.scaleforBackground);
+        //The background layers are composited in one shader pass, outside of the sprite batch
+        backgroundRenderer.draw(canvas, diffX, diffY);
 
 //        canvas.draw(background, Color.CLEAR, background.getRegionWidth()/2, background.getRegionHeight()/2, 0, 0, 1 / background.getRegionWidth(), 1/ background.getRegionHeight());
 
-        //Drawing background 2 tiles
-        for (int y = 0; y < tilemapBG2.length; y++) {
-            int[] row = tilemapBG2[y];
-            for (int x = 0; x < row.length; x++) {
-                int tileId = row[x];
-                if (tileId <= 0) continue;
-                Tile tile = tiles[tileId];
-                if (tile.getTexture() == null){ //running into glitch
-                    continue;
-                }
-                float sx = tileSize / tile.getTexture().getRegionWidth();
-                float sy = tileSize / tile.getTexture().getRegionHeight();
-                canvas.draw(tile.getTexture(), Color.WHITE, 0, 0, tileToLevelCoordinatesX(x), tileToLevelCoordinatesY(y), 0, sx, sy);
-            }
-        }
-
-        //Drawing background 1 tiles
-        for (int y = 0; y < tilemapBG1.length; y++) {
-            int[] row = tilemapBG1[y];
-            for (int x = 0; x < row.length; x++) {
-                int tileId = row[x];
-                if (tileId <= 0) continue;
-                Tile tile = tiles[tileId];
-                if (tile.getTexture() == null){ //running into glitch
-                    continue;
-                }
-                float sx = tileSize / tile.getTexture().getRegionWidth();
-                float sy = tileSize / tile.getTexture().getRegionHeight();
-                canvas.draw(tile.getTexture(), Color.WHITE, 0, 0, tileToLevelCoordinatesX(x), tileToLevelCoordinatesY(y), 0, sx, sy);
-            }
-        }
+        //Drawing background 2 tiles, then background 1 tiles, then foreground tiles
+        //These are baked sprite caches, so they are drawn outside of the sprite batch
+        tileRendererBG2.draw(canvas);
+        tileRendererBG1.draw(canvas);
+        tileRendererFG.draw(canvas);
 
-        //Drawing foreground tiles
-        for (int y = 0; y < tilemap.length; y++) {
-            int[] row = tilemap[y];
-            for (int x = 0; x < row.length; x++) {
-                int tileId = row[x];
-                if (tileId <= 0) continue;
-                Tile tile = tiles[tileId];
-                if (tile.getTexture() == null){ //running into glitch
-                    continue;
-                }
-                float sx = tileSize / tile.getTexture().getRegionWidth();
-                float sy = tileSize / tile.getTexture().getRegionHeight();
-                canvas.draw(tile.getTexture(), Color.WHITE, 0, 0, tileToLevelCoordinatesX(x), tileToLevelCoordinatesY(y), 0, sx, sy);
-            }
-        }
+        canvas.begin();
         for (Obstacle obj : objects) {
             if (obj.getClass().equals(Billboard.class) || obj.getClass().equals(Exit.class)
                     || obj.getClass().equals(TutorialArea.class)) {
@@ -916,7 +961,15 @@ public class Level {
             }
         }
         for (Obstacle obj : objects) {
-            if (!obj.getClass().equals(Billboard.class) && !obj.getClass().equals(Exit.class)) {
+            if (!obj.getClass().equals(Billboard.class) && !obj.getClass().equals(Exit.class)
+                    && !obj.getClass().equals(EffectObstacle.class)) {
+                obj.draw(canvas);
+            }
+        }
+        //Effects are queued between bullets and swords, so they are drawn together last,
+        //where those sharing a texture (frames of an animation table) go in one batch
+        for (Obstacle obj : objects) {
+            if (obj.getClass().equals(EffectObstacle.class)) {
                 obj.draw(canvas);
             }
         }
@@ -932,16 +985,14 @@ public class Level {
         }
 
         canvas.setOverlayCamera();
-        canvas.begin();
-        uiElements.draw(canvas, player.getSpirit(), player.getHearts());
-        boolean alreadyDisplay = false;
+        Billboard dialog = null;
         for (Billboard billboard : billboards) {
-            if (billboard.isDisplay() && !alreadyDisplay) {
-                billboard.displayDialog(canvas);
-                alreadyDisplay = true;
+            if (billboard.isDisplay()) {
+                dialog = billboard;
+                break;
             }
         }
-        canvas.end();
+        uiElements.draw(canvas, player.getSpirit(), player.getHearts(), dialog);
 
         canvas.getCameraController().setGameplayCamera(canvas,cam_x,cam_y, cameraWidth, cameraHeight);
 
@@ -963,31 +1014,52 @@ public class Level {
     }
 
     public void activatePhysics() {
-        for (int y = 0; y < tilemap.length; y++) {
-            int[] row = tilemap[y];
-            for (int x = 0; x < row.length; x++) {
-                int tileId = row[x];
-                if (tileId <= 0) continue;
-                Tile tile = tiles[tileId];
-                bodyDef.position.x = tileToLevelCoordinatesX(x);
-                bodyDef.position.y = tileToLevelCoordinatesY(y);
-                bodyDef.active = true;
-                Body body = world.createBody(bodyDef);
-                body.setUserData(tile);
-
-                ChainShape shape = new ChainShape();
-                shape.createLoop(new float[]{
-                        0,        0,
-                        tileSize, 0,
-                        tileSize, tileSize,
-                        0,        tileSize,
-                });
-
-                fixtureDef.shape = shape;
-                body.createFixture(fixtureDef);
+        long startTime = TimeUtils.nanoTime();
+
+        // One static body per region, holding the greedily merged rectangles of that region
+        Array<TileCollider.Rect> rects = solidRects;
+        int regionsX = (widthInTiles + TileCollider.REGION_SIZE - 1) / TileCollider.REGION_SIZE;
+        int regionsY = (heightInTiles + TileCollider.REGION_SIZE - 1) / TileCollider.REGION_SIZE;
+        Body[][] regionBodies = new Body[regionsY][regionsX];
+        int numBodies = 0;
+
+        bodyDef.position.set(0, 0);
+        bodyDef.active = true;
+        for (TileCollider.Rect rect : rects) {
+            int rx = rect.x / TileCollider.REGION_SIZE;
+            int ry = rect.y / TileCollider.REGION_SIZE;
+            Body body = regionBodies[ry][rx];
+            if (body == null) {
+                body = world.createBody(bodyDef);
+                body.setUserData(new TileCollider(rx * TileCollider.REGION_SIZE, ry * TileCollider.REGION_SIZE));
+                regionBodies[ry][rx] = body;
+                numBodies++;
             }
+            ((TileCollider) body.getUserData()).addRect(rect);
+
+            float left = tileToLevelCoordinatesX(rect.x);
+            float right = tileToLevelCoordinatesX(rect.x + rect.width);
+            float top = tileToLevelCoordinatesY(rect.y) + tileSize;
+            float bottom = tileToLevelCoordinatesY(rect.y + rect.height - 1);
+
+            ChainShape shape = new ChainShape();
+            shape.createLoop(new float[]{
+                    left,  bottom,
+                    right, bottom,
+                    right, top,
+                    left,  top,
+            });
+
+            fixtureDef.shape = shape;
+            Fixture fixture = body.createFixture(fixtureDef);
+            fixture.setUserData(rect);
+            shape.dispose();
         }
 
+        physicsActivationTime = TimeUtils.timeSinceNanos(startTime);
+        Gdx.app.debug("Level", "Tile collision: " + numBodies + " bodies, " + rects.size + " fixtures in "
+                + (physicsActivationTime / 1000000f) + " ms");
+
         //TODO: enemies activate too
         for (Spike spike : spikes) {
             addObject(spike);
@@ -1072,6 +1144,11 @@ public class Level {
             enemy.dispose();
         }
         gridGraph = null;
+        tileRendererFG.dispose();
+        tileRendererBG1.dispose();
+        tileRendererBG2.dispose();
+        backgroundRenderer.dispose();
+        uiElements.dispose();
         player.dispose();
         objects.clear();
         spikes.clear();
@@ -1085,6 +1162,34 @@ public class Level {
         world  = null;
     }
 
+    /**
+     * @return the number of tiles (over all layers) submitted to the canvas last frame
+     */
+    public int getTilesSubmitted() {
+        return tileRendererFG.getSubmittedTiles() + tileRendererBG1.getSubmittedTiles() + tileRendererBG2.getSubmittedTiles();
+    }
+
+    /**
+     * @return the number of tiles (over all layers) culled as off screen last frame
+     */
+    public int getTilesCulled() {
+        return tileRendererFG.getCulledTiles() + tileRendererBG1.getCulledTiles() + tileRendererBG2.getCulledTiles();
+    }
+
+    /**
+     * @return the time (in nanoseconds) spent building the static tile geometry
+     */
+    public long getPhysicsActivationTime() {
+        return physicsActivationTime;
+    }
+
+    /**
+     * @return the time (in nanoseconds) spent in the most recent world step
+     */
+    public long getLastStepTime() {
+        return lastStepTime;
+    }
+
     public float getCameraWidth() { return cameraWidth; }
     public float getCameraHeight() { return cameraHeight; }
     public float getCamZoneX() { return camZoneX; }
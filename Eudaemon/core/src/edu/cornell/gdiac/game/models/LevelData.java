@@ -0,0 +1,225 @@
+package edu.cornell.gdiac.game.models;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectFloatMap;
+
+/**
+ * Everything about a level that can be worked out from its Tiled file alone.
+ * <p>
+ * This is the first stage of building a Level. It reads the properties, the tile
+ * layers and the objects (from the Tiled file, or from the compiled file made by
+ * LevelCompiler), and precomputes the navigation graph and the merged
+ * tile collision rectangles. It creates no textures, bodies or GL objects, so it
+ * may be built on any thread (see GameState). The Level constructor then does the
+ * rest on the GL thread.
+ * <p>
+ * A LevelData is used by a single Level: the level keeps its arrays and graph.
+ */
+public class LevelData {
+    /** The kind of an object in the object layer */
+    public enum ObjectType {
+        ENEMY,
+        SPIKE,
+        BILLBOARD,
+        TUTORIAL_AREA,
+        STARTING_POINT,
+        EXIT
+    }
+
+    /** An object from the object layer, with its position already in tile units */
+    public static class ObjectRecord {
+        /** What this object is */
+        public final ObjectType type;
+        /** The x position, converted as the object type expects */
+        public final float x;
+        /** The y position, converted as the object type expects */
+        public final float y;
+        /** The object from the level file, for its other properties */
+        public final JsonValue json;
+
+        public ObjectRecord(ObjectType type, float x, float y, JsonValue json) {
+            this.type = type;
+            this.x = x;
+            this.y = y;
+            this.json = json;
+        }
+    }
+
+    /** The number of pixels per tile in the Tiled files */
+    private static final int TILE_PIXELS = 32;
+
+    private final String name;
+    /** The numeric properties of the level, by name */
+    private final ObjectFloatMap<String> properties;
+
+    //#region Properties
+    private final float gravity;
+    private final float camZoneX;
+    private final float camZoneY;
+    private final float cameraWidth;
+    private final float cameraHeight;
+    private final float tileSize;
+    private final float backgroundScale;
+    private final float backgroundOx;
+    private final float backgroundOy;
+    //#endregion
+
+    private final int widthInTiles;
+    private final int heightInTiles;
+    private final int[][] tilemapFG;
+    private final int[][] tilemapBG1;
+    private final int[][] tilemapBG2;
+
+    private final Level.MyGridGraph gridGraph;
+    private final PathService pathService;
+    private final Array<TileCollider.Rect> solidRects;
+    private final Array<ObjectRecord> objects;
+
+    /**
+     * Reads a level from its parsed Tiled file.
+     *
+     * @param name      the name of the level (e.g. "level3")
+     * @param levelJson the parsed level file
+     */
+    public LevelData(String name, JsonValue levelJson) {
+        this(name, readProperties(levelJson.get("properties")),
+                Level.readTilemap(layer(levelJson.get("layers"), "TileLayerFG")),
+                Level.readTilemap(layer(levelJson.get("layers"), "TileLayerBG")),
+                Level.readTilemap(layer(levelJson.get("layers"), "TileLayerBG2")),
+                readObjects(layer(levelJson.get("layers"), "ObjectLayer").get("objects"),
+                        layer(levelJson.get("layers"), "TileLayerFG").getInt("height")));
+    }
+
+    /**
+     * Creates a level from contents that were already read (see LevelReader).
+     *
+     * @param name          the name of the level (e.g. "level3")
+     * @param properties    the numeric properties of the level, by name
+     * @param tilemapFG     the foreground tile ids, indexed [y][x] (-1 if empty)
+     * @param tilemapBG1    the first background layer, the same size as the foreground
+     * @param tilemapBG2    the second background layer, the same size as the foreground
+     * @param objects       the objects of the object layer
+     */
+    public LevelData(String name, ObjectFloatMap<String> properties,
+                     int[][] tilemapFG, int[][] tilemapBG1, int[][] tilemapBG2, Array<ObjectRecord> objects) {
+        this.name = name;
+        this.properties = properties;
+        gravity = property(properties, "gravity");
+        camZoneX = property(properties, "camZoneX");
+        camZoneY = property(properties, "camZoneY");
+        cameraWidth = property(properties, "cameraWidth");
+        cameraHeight = property(properties, "cameraHeight");
+        tileSize = property(properties, "tileSize");
+        backgroundScale = property(properties, "backgroundScale");
+        backgroundOx = property(properties, "backgroundOx");
+        backgroundOy = property(properties, "backgroundOy");
+
+        heightInTiles = tilemapFG.length;
+        widthInTiles = tilemapFG[0].length;
+        this.tilemapFG = tilemapFG;
+        this.tilemapBG1 = tilemapBG1;
+        this.tilemapBG2 = tilemapBG2;
+
+        gridGraph = new Level.MyGridGraph(widthInTiles, heightInTiles, tilemapFG);
+        pathService = new PathService(gridGraph);
+        solidRects = TileCollider.mergeSolidCells(tilemapFG);
+
+        this.objects = objects;
+    }
+
+    /**
+     * Reads the properties of a level that have numeric values (Tiled stores some
+     * of them as strings).
+     */
+    private static ObjectFloatMap<String> readProperties(JsonValue properties) {
+        ObjectFloatMap<String> values = new ObjectFloatMap<>();
+        for (JsonValue item : properties) {
+            try {
+                values.put(item.getString("name"), item.getFloat("value"));
+            } catch (NumberFormatException e) {
+                // Not a number, so not a property the game reads
+            }
+        }
+        return values;
+    }
+
+    private static Array<ObjectRecord> readObjects(JsonValue objects, int heightInTiles) {
+        Array<ObjectRecord> records = new Array<>();
+        for (JsonValue object : objects) {
+            ObjectRecord record = readObject(object, heightInTiles);
+            if (record != null) records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * Converts an object of the object layer, as the Level constructor expects it.
+     *
+     * @return the object, or null if the level does not use it
+     */
+    private static ObjectRecord readObject(JsonValue object, int heightInTiles) {
+        int tileX = object.getInt("x") / TILE_PIXELS;
+        int tileY = object.getInt("y") / TILE_PIXELS;
+        if (object.getString("type").equals("Enemy")) {
+            return new ObjectRecord(ObjectType.ENEMY, tileX, heightInTiles - 1 - tileY, object);
+        }
+        switch (object.getString("name")) {
+            case "Spike":
+                return new ObjectRecord(ObjectType.SPIKE, tileX, heightInTiles - tileY, object);
+            case "Billboard":
+                return new ObjectRecord(ObjectType.BILLBOARD, tileX, heightInTiles - tileY, object);
+            case "TutorialArea":
+                return new ObjectRecord(ObjectType.TUTORIAL_AREA, tileX, heightInTiles - tileY, object);
+            case "StartingPoint":
+                return new ObjectRecord(ObjectType.STARTING_POINT, tileX + 1, heightInTiles - tileY, object);
+            case "Exit":
+                // The exit is placed at its exact position rather than snapped to a tile
+                return new ObjectRecord(ObjectType.EXIT,
+                        (float) object.getInt("x") / TILE_PIXELS,
+                        heightInTiles - (float) object.getInt("y") / TILE_PIXELS, object);
+            default:
+                return null;
+        }
+    }
+
+    private static float property(ObjectFloatMap<String> properties, String name) {
+        if (!properties.containsKey(name)) {
+            throw new GdxRuntimeException("Level has no numeric property named " + name);
+        }
+        return properties.get(name, 0);
+    }
+
+    private static JsonValue layer(JsonValue layers, String name) {
+        for (JsonValue item : layers) {
+            if (item.getString("name").equals(name)) return item;
+        }
+        throw new GdxRuntimeException("Level has no layer named " + name);
+    }
+
+    //#region GETTERS
+    public String getName() { return name; }
+    public ObjectFloatMap<String> getProperties() { return properties; }
+    public float getGravity() { return gravity; }
+    public float getCamZoneX() { return camZoneX; }
+    public float getCamZoneY() { return camZoneY; }
+    public float getCameraWidth() { return cameraWidth; }
+    public float getCameraHeight() { return cameraHeight; }
+    public float getTileSize() { return tileSize; }
+    public float getBackgroundScale() { return backgroundScale; }
+    public float getBackgroundOx() { return backgroundOx; }
+    public float getBackgroundOy() { return backgroundOy; }
+    public int getWidthInTiles() { return widthInTiles; }
+    public int getHeightInTiles() { return heightInTiles; }
+    public int[][] getTilemapFG() { return tilemapFG; }
+    public int[][] getTilemapBG1() { return tilemapBG1; }
+    public int[][] getTilemapBG2() { return tilemapBG2; }
+    public Level.MyGridGraph getGridGraph() { return gridGraph; }
+    public PathService getPathService() { return pathService; }
+    /** @return the merged rectangles of solid foreground tiles (see TileCollider) */
+    public Array<TileCollider.Rect> getSolidRects() { return solidRects; }
+    /** @return the objects of the object layer, in file order */
+    public Array<ObjectRecord> getObjects() { return objects; }
+    //#endregion
+}
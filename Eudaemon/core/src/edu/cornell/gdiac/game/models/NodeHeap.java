@@ -0,0 +1,104 @@
+package edu.cornell.gdiac.game.models;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of node indices, for the searches in PathService.
+ * <p>
+ * Nodes are the integers 0 to capacity-1, and each queued node has a float key.
+ * All storage is allocated up front so searches do not create garbage.
+ */
+class NodeHeap {
+    /** The queued nodes, in heap order */
+    private final int[] heap;
+    /** The position of each node in the heap; -1 if not queued */
+    private final int[] positions;
+    /** The key of each queued node */
+    private final float[] keys;
+    private int size;
+
+    NodeHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new float[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /** Removes every node from the heap */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int node) {
+        return positions[node] >= 0;
+    }
+
+    /**
+     * Queues a node, or lowers its key if it is already queued with a higher one.
+     *
+     * @param node  the node to queue
+     * @param key   the priority of the node (lowest first)
+     */
+    void add(int node, float key) {
+        int pos = positions[node];
+        if (pos < 0) {
+            pos = size++;
+            heap[pos] = node;
+        } else if (keys[node] <= key) {
+            return;
+        }
+        keys[node] = key;
+        siftUp(pos);
+    }
+
+    /**
+     * @return the node with the lowest key, removing it from the heap
+     */
+    int pop() {
+        int top = heap[0];
+        positions[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int pos) {
+        int node = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) / 2;
+            if (keys[heap[parent]] <= keys[node]) break;
+            heap[pos] = heap[parent];
+            positions[heap[pos]] = pos;
+            pos = parent;
+        }
+        heap[pos] = node;
+        positions[node] = pos;
+    }
+
+    private void siftDown(int pos) {
+        int node = heap[pos];
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) break;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            if (keys[heap[child]] >= keys[node]) break;
+            heap[pos] = heap[child];
+            positions[heap[pos]] = pos;
+            pos = child;
+        }
+        heap[pos] = node;
+        positions[node] = pos;
+    }
+}
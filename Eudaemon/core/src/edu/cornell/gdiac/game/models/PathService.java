@@ -0,0 +1,243 @@
+package edu.cornell.gdiac.game.models;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.util.Arrays;
+
+/**
+ * The path queries shared by every flying enemy of a level.
+ * <p>
+ * Chasing enemies all head for the same tile (the player's), so instead of one
+ * A* search per enemy the service keeps a flow field: a reverse Dijkstra search
+ * from the target tile that stores, for every tile, the next tile on a shortest
+ * path to the target. The field is only recomputed when the target tile (or the
+ * passability of the graph) changes, and every enemy reads its next step in O(1).
+ * <p>
+ * Searches to any other goal (wandering, guard routes) use A* within a cluster
+ * and HierarchicalPathFinder across clusters. Their results are kept in a small
+ * LRU cache keyed on the start and goal tiles, since guards repeat the same
+ * routes over and over. The cache is a primitive-keyed map over a fixed set of
+ * entries, so a query that hits it allocates nothing.
+ */
+public class PathService {
+    /** The number of A* results remembered */
+    private static final int CACHE_SIZE = 64;
+
+    /** The graph searched by this service */
+    private final Level.MyGridGraph graph;
+    private final int nodeCount;
+
+    /** The cost to reach the flow target from each node (infinite if unreachable) */
+    private final float[] flowCost;
+    /** The index of the next node toward the flow target from each node; -1 if none */
+    private final int[] flowNext;
+    /** The node index the flow field leads to; -1 if no field was built */
+    private int flowTarget = -1;
+    /** The graph version the flow field was built against */
+    private int flowVersion;
+
+    /** The Dijkstra frontier, ordered by flowCost */
+    private final NodeHeap frontier;
+
+    /** The cluster abstraction for searches that leave the start cluster */
+    private final HierarchicalPathFinder hierarchy;
+    /** The single path finder for every A* query of this level */
+    private final IndexedAStarPathFinder<Level.MyNode> pathFinder;
+    private final Heuristic<Level.MyNode> heuristic;
+    /** Scratch output for A* searches */
+    private final GraphPath<Level.MyNode> searchPath;
+    /** Recent A* results, keyed on start and goal */
+    private final LongMap<CachedPath> pathCache;
+    /** Every entry of the cache, the first cacheSize of them in use */
+    private final CachedPath[] cacheEntries;
+    private int cacheSize;
+    /** Counts the cache lookups, to find the least recently used entry */
+    private int cacheClock;
+    /** The graph version the cached paths were found on */
+    private int cacheVersion;
+
+    /**
+     * Creates a path service over the given graph.
+     *
+     * @param graph the navigation graph of the level
+     */
+    public PathService(Level.MyGridGraph graph) {
+        this.graph = graph;
+        this.nodeCount = graph.getNodeCount();
+        flowCost = new float[nodeCount];
+        flowNext = new int[nodeCount];
+        frontier = new NodeHeap(nodeCount);
+
+        hierarchy = new HierarchicalPathFinder(graph);
+        pathFinder = new IndexedAStarPathFinder<>(graph);
+        heuristic = new EuclideanDistance();
+        searchPath = new DefaultGraphPath<>();
+        pathCache = new LongMap<>(CACHE_SIZE);
+        cacheEntries = new CachedPath[CACHE_SIZE];
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            cacheEntries[i] = new CachedPath();
+        }
+        cacheVersion = graph.getVersion();
+    }
+
+    /**
+     * Returns the next node on a shortest path from a node to the target tile.
+     * <p>
+     * The flow field is rebuilt only if the target differs from the previous call.
+     *
+     * @param from      the node to step from
+     * @param targetX   the x coordinate of the target in tile coordinates
+     * @param targetY   the y coordinate of the target in tile coordinates
+     * @return the next node toward the target, or null if from is the target or cannot reach it
+     */
+    public Level.MyNode nextStepToward(Level.MyNode from, int targetX, int targetY) {
+        updateFlowField(targetX, targetY);
+        int next = flowNext[graph.getIndex(from)];
+        return next < 0 ? null : graph.getNode(next);
+    }
+
+    /**
+     * Finds a path between two nodes, reusing a cached result when possible.
+     * <p>
+     * The path includes the start node. Within a single cluster it is a full A*
+     * path to the goal. Otherwise it is only the first leg of a hierarchical path,
+     * ending in the next cluster toward the goal; query again from its end.
+     *
+     * @param start the node to start from
+     * @param goal  the node to reach
+     * @param out   the path to fill (it is cleared first)
+     * @return true if a path was found
+     */
+    public boolean findPath(Level.MyNode start, Level.MyNode goal, GraphPath<Level.MyNode> out) {
+        if (cacheVersion != graph.getVersion()) {
+            pathCache.clear();
+            cacheSize = 0;
+            cacheVersion = graph.getVersion();
+        }
+        out.clear();
+
+        long key = (long) graph.getIndex(start) * nodeCount + graph.getIndex(goal);
+        CachedPath cached = pathCache.get(key);
+        int[] nodes;
+        if (cached != null) {
+            cached.lastUse = ++cacheClock;
+            nodes = cached.nodes;
+        } else {
+            searchPath.clear();
+            boolean found;
+            if (hierarchy.inSameCluster(start, goal)) {
+                found = pathFinder.searchNodePath(start, goal, heuristic, searchPath);
+            } else {
+                found = hierarchy.findPath(start, goal, searchPath);
+            }
+            if (found) {
+                nodes = new int[searchPath.getCount()];
+                for (int i = 0; i < nodes.length; i++) {
+                    nodes[i] = graph.getIndex(searchPath.get(i));
+                }
+            } else {
+                nodes = new int[0];
+            }
+            cachePath(key, nodes);
+        }
+
+        for (int index : nodes) {
+            out.add(graph.getNode(index));
+        }
+        return nodes.length > 0;
+    }
+
+    /**
+     * Remembers the path between two nodes, replacing the least recently used
+     * path if the cache is full.
+     *
+     * @param key   the start and goal of the path (see findPath)
+     * @param nodes the path as node indices; empty if there is none
+     */
+    private void cachePath(long key, int[] nodes) {
+        CachedPath entry;
+        if (cacheSize < CACHE_SIZE) {
+            entry = cacheEntries[cacheSize++];
+        } else {
+            // Only on a miss, which has just run a whole search
+            entry = cacheEntries[0];
+            for (int i = 1; i < CACHE_SIZE; i++) {
+                if (cacheEntries[i].lastUse - entry.lastUse < 0) entry = cacheEntries[i];
+            }
+            pathCache.remove(entry.key);
+        }
+        entry.key = key;
+        entry.nodes = nodes;
+        entry.lastUse = ++cacheClock;
+        pathCache.put(key, entry);
+    }
+
+    /**
+     * Rebuilds the flow field toward the given tile if it is out of date.
+     *
+     * @param targetX   the x coordinate of the target in tile coordinates
+     * @param targetY   the y coordinate of the target in tile coordinates
+     */
+    private void updateFlowField(int targetX, int targetY) {
+        Level.MyNode targetNode = graph.getNode(targetX, targetY);
+        int target = graph.getIndex(targetNode);
+        if (target == flowTarget && flowVersion == graph.getVersion()) {
+            return;
+        }
+        flowTarget = target;
+        flowVersion = graph.getVersion();
+
+        Arrays.fill(flowCost, Float.POSITIVE_INFINITY);
+        Arrays.fill(flowNext, -1);
+        if (!targetNode.isPassable()) {
+            // Nothing can enter the target, so every node is unreachable
+            return;
+        }
+
+        // Connections are symmetric, so searching outward from the target
+        // finds the shortest path from every node to the target.
+        frontier.clear();
+        flowCost[target] = 0;
+        frontier.add(target, 0);
+        while (!frontier.isEmpty()) {
+            int u = frontier.pop();
+            Level.MyNode node = graph.getNode(u);
+            Array<Connection<Level.MyNode>> connections = graph.getConnections(node);
+            for (int i = 0; i < connections.size; i++) {
+                Connection<Level.MyNode> connection = connections.get(i);
+                int v = graph.getIndex(connection.getToNode());
+                float cost = flowCost[u] + connection.getCost();
+                if (cost < flowCost[v]) {
+                    flowCost[v] = cost;
+                    flowNext[v] = u;
+                    frontier.add(v, cost);
+                }
+            }
+        }
+    }
+
+    /** An A* result remembered by the cache */
+    private static class CachedPath {
+        /** The start and goal of the path (see findPath) */
+        long key;
+        /** The path as node indices; empty if there is none */
+        int[] nodes;
+        /** The cache clock when the path was last found or looked up */
+        int lastUse;
+    }
+
+    private static class EuclideanDistance implements Heuristic<Level.MyNode> {
+        @Override
+        public float estimate(Level.MyNode node, Level.MyNode endNode) {
+            float dx = Math.abs(node.getX() - endNode.getX());
+            float dy = Math.abs(node.getY() - endNode.getY());
+            return (float) Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+}
@@ -2,7 +2,6 @@ package edu.cornell.gdiac.game.models;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
@@ -14,7 +13,7 @@ import edu.cornell.gdiac.game.GameCanvas;
 import edu.cornell.gdiac.game.obstacle.CapsuleObstacle;
 import edu.cornell.gdiac.game.obstacle.SwordWheelObstacle;
 import edu.cornell.gdiac.game.obstacle.WheelObstacle;
-import java.util.Random;
+import edu.cornell.gdiac.util.RandomController;
 
 public class Player extends CapsuleObstacle {
 
@@ -291,7 +290,6 @@ public class Player extends CapsuleObstacle {
     private boolean dashedInAir;
     private boolean isGainingSpirit;
     private boolean isGainingHealth;
-    private Random random;
     private boolean shouldRespawn;
     private Vector2 respawnPosition;
 
@@ -1349,55 +1347,56 @@ public class Player extends CapsuleObstacle {
 
     public Player(AssetDirectory assets, int startXCoord, int startYCoord, float levelDifficulty) {
         super(startXCoord, startYCoord, assets.getEntry("sharedConstants", JsonValue.class).get("player").getFloat("hitboxWidth"), assets.getEntry("sharedConstants", JsonValue.class).get("player").getFloat("hitboxHeight"));
+        setContactCategory(ContactCategory.PLAYER);
 
         //now the player's shared data is separated into sharedConstants.json, we shall not query them
         //from constants.json, as that file only records changing data.
         this.playerData = assets.getEntry("sharedConstants", JsonValue.class).get("Player");
 
         //Textures & animations
-        this.momoTexture = new TextureRegion(assets.getEntry("momo:idle", Texture.class));
+        this.momoTexture = assets.getRegion("momo:idle");
         this.momoImageWidth = playerData.getFloat("momo:ImageWidth");
         this.momoImageHeight = playerData.getFloat("momo:ImageHeight");
-        this.chiyoTexture = new TextureRegion(assets.getEntry("chiyo:idle", Texture.class));
+        this.chiyoTexture = assets.getRegion("chiyo:idle");
         this.chiyoImageWidth = playerData.getFloat("chiyo:ImageWidth");
         this.chiyoImageHeight = playerData.getFloat("chiyo:ImageHeight");
-        this.momoDiagonalDashTexture = new TextureRegion(assets.getEntry("momo:diagonalDash", Texture.class));
-        this.chiyoSlideTexture = new TextureRegion(assets.getEntry("chiyo:slide", Texture.class));
-        this.momoSlideTexture = new TextureRegion(assets.getEntry("momo:slide", Texture.class));
-        this.momoDownDashTexture = new TextureRegion(assets.getEntry("momo:downDash", Texture.class));
-        this.momoUpDashTexture = new TextureRegion(assets.getEntry("momo:upDash", Texture.class));
+        this.momoDiagonalDashTexture = assets.getRegion("momo:diagonalDash");
+        this.chiyoSlideTexture = assets.getRegion("chiyo:slide");
+        this.momoSlideTexture = assets.getRegion("momo:slide");
+        this.momoDownDashTexture = assets.getRegion("momo:downDash");
+        this.momoUpDashTexture = assets.getRegion("momo:upDash");
 
-        TextureRegion hitWallEffectSpriteSheet = new TextureRegion(assets.getEntry("chiyo:hitWallEffect", Texture.class));
+        TextureRegion hitWallEffectSpriteSheet = assets.getRegion("chiyo:hitWallEffect");
         TextureRegion[][] framesHit = hitWallEffectSpriteSheet.split(hitWallEffectSpriteSheet.getRegionWidth() / 30, hitWallEffectSpriteSheet.getRegionHeight());
         hitWallEffect = new Animation<>(0.5f, framesHit[0]);
-        this.swordEffectSpriteSheet0 = new TextureRegion(assets.getEntry( "chiyo:swordAttack0", Texture.class));
-        this.swordEffectSpriteSheet45 = new TextureRegion(assets.getEntry( "chiyo:swordAttack45", Texture.class));
-        this.swordEffectSpriteSheet90 = new TextureRegion(assets.getEntry( "chiyo:swordAttack90", Texture.class));
-        this.swordEffectSpriteSheet135 = new TextureRegion(assets.getEntry( "chiyo:swordAttack135", Texture.class));
-        this.swordEffectSpriteSheet180 = new TextureRegion(assets.getEntry( "chiyo:swordAttack180", Texture.class));
-        this.swordEffectSpriteSheet225 = new TextureRegion(assets.getEntry( "chiyo:swordAttack225", Texture.class));
-        this.swordEffectSpriteSheet270 = new TextureRegion(assets.getEntry( "chiyo:swordAttack270", Texture.class));
-        this.swordEffectSpriteSheet315 = new TextureRegion(assets.getEntry( "chiyo:swordAttack315", Texture.class));
-        this.dashEffectSpriteSheet = new TextureRegion(assets.getEntry( "momo:dashEffect", Texture.class));
-        this.spiritDrainSpriteSheet = new TextureRegion(assets.getEntry("momo:spiritDrain", Texture.class));
+        this.swordEffectSpriteSheet0 = assets.getRegion("chiyo:swordAttack0");
+        this.swordEffectSpriteSheet45 = assets.getRegion("chiyo:swordAttack45");
+        this.swordEffectSpriteSheet90 = assets.getRegion("chiyo:swordAttack90");
+        this.swordEffectSpriteSheet135 = assets.getRegion("chiyo:swordAttack135");
+        this.swordEffectSpriteSheet180 = assets.getRegion("chiyo:swordAttack180");
+        this.swordEffectSpriteSheet225 = assets.getRegion("chiyo:swordAttack225");
+        this.swordEffectSpriteSheet270 = assets.getRegion("chiyo:swordAttack270");
+        this.swordEffectSpriteSheet315 = assets.getRegion("chiyo:swordAttack315");
+        this.dashEffectSpriteSheet = assets.getRegion("momo:dashEffect");
+        this.spiritDrainSpriteSheet = assets.getRegion("momo:spiritDrain");
         TextureRegion[][] frames = spiritDrainSpriteSheet.split(spiritDrainSpriteSheet.getRegionWidth() /14, spiritDrainSpriteSheet.getRegionHeight());
         this.spiritDrainAnimation = new Animation<>(0.5f, frames[0]);
 
-        this.momoDashSpriteSheet = new TextureRegion(assets.getEntry( "momo:dash", Texture.class));
-        this.momoRunSpriteSheet = new TextureRegion(assets.getEntry( "momo:run", Texture.class));
-        this.momoIdleSpriteSheet = new TextureRegion(assets.getEntry( "momo:idle", Texture.class));
-        this.chiyoIdleSpriteSheet = new TextureRegion(assets.getEntry( "chiyo:idle", Texture.class));
-        this.momoJumpSpriteSheet = new TextureRegion(assets.getEntry( "momo:jump", Texture.class));
-        this.chiyoRunSpriteSheet = new TextureRegion(assets.getEntry( "chiyo:run", Texture.class));
-        this.chiyoJumpSpriteSheet = new TextureRegion(assets.getEntry( "chiyo:jump", Texture.class));
-        this.chiyoAttackSpriteSheet = new TextureRegion(assets.getEntry( "chiyo:attack", Texture.class));
-        this.impactEffectSpriteSheet = new TextureRegion(assets.getEntry( "impactEffect", Texture.class));
-        this.bulletDestroySpriteSheet = new TextureRegion(assets.getEntry("bulletDestroy", Texture.class));
-        this.regainHealthSpriteSheet = new TextureRegion(assets.getEntry("platform:regainHealth", Texture.class));
+        this.momoDashSpriteSheet = assets.getRegion("momo:dash");
+        this.momoRunSpriteSheet = assets.getRegion("momo:run");
+        this.momoIdleSpriteSheet = assets.getRegion("momo:idle");
+        this.chiyoIdleSpriteSheet = assets.getRegion("chiyo:idle");
+        this.momoJumpSpriteSheet = assets.getRegion("momo:jump");
+        this.chiyoRunSpriteSheet = assets.getRegion("chiyo:run");
+        this.chiyoJumpSpriteSheet = assets.getRegion("chiyo:jump");
+        this.chiyoAttackSpriteSheet = assets.getRegion("chiyo:attack");
+        this.impactEffectSpriteSheet = assets.getRegion("impactEffect");
+        this.bulletDestroySpriteSheet = assets.getRegion("bulletDestroy");
+        this.regainHealthSpriteSheet = assets.getRegion("platform:regainHealth");
         TextureRegion[][] bulletDestroyFrames = bulletDestroySpriteSheet.split(bulletDestroySpriteSheet.getRegionWidth()/16, bulletDestroySpriteSheet.getRegionHeight());
         this.bulletDestroyAnimation = new Animation<>(0.5f, bulletDestroyFrames[0]);
         //Sound Effect
-        this.transformSpriteSheet = new TextureRegion(assets.getEntry("player:transform", Texture.class));
+        this.transformSpriteSheet = assets.getRegion("player:transform");
         TextureRegion[][] transformFrames = transformSpriteSheet.split(transformSpriteSheet.getRegionWidth()/7, transformSpriteSheet.getRegionHeight());
         this.transformAnimation = new Animation<>(0.5f, transformFrames[0]);
 
@@ -1488,14 +1487,12 @@ public class Player extends CapsuleObstacle {
         this.respawnPosition = new Vector2();
 
         this.enemiesInSpiritRange = new Array<>();
-
-        this.random = new Random();
     }
 
     public void draw(GameCanvas canvas) {
         //tile of player character
-        float x = getX();
-        float y = getForm() == 0 ? getY() - 0.25f : getY() - 0.45f;
+        float x = getDrawX();
+        float y = getForm() == 0 ? getDrawY() - 0.25f : getDrawY() - 0.45f;
 
         //position of player in tile
         float ox = this.texture.getRegionWidth()/2 + oxOffset;
@@ -1699,7 +1696,7 @@ public class Player extends CapsuleObstacle {
 
     public void gainHealth(Level thisLevel) {
         if (getHearts() < maxHearts && getHearts() < thisLevel.getLevelDifficulty()) {
-            int randomNumber = random.nextInt(5) + 1;
+            int randomNumber = RandomController.rollInt(1, 5);
             if (randomNumber == 3) {
                 setGainingHealth(true);
                 hearts++;
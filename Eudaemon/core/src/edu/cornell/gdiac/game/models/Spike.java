@@ -66,6 +66,7 @@ public class Spike extends BoxObstacle {
         super(x, y,
                 assets.getEntry("sharedConstants", JsonValue.class).get("Spike").getFloat("hitboxWidth"),
                 assets.getEntry("sharedConstants", JsonValue.class).get("Spike").getFloat("hitboxHeight"));
+        setContactCategory(ContactCategory.SPIKE);
         String TextureAsset = "platform:spike";
         this.spikeData = assets.getEntry("sharedConstants", JsonValue.class).get("Spike");
 
@@ -75,9 +76,9 @@ public class Spike extends BoxObstacle {
         this.attackPower = spikeData.getInt("attackPower");
 
         //Texture
-        this.spikeTexture = new TextureRegion(assets.getEntry(TextureAsset, Texture.class));
+        this.spikeTexture = assets.getRegion(TextureAsset);
         this.texture = this.spikeTexture;
-        this.bloodEffectSpriteSheet = new TextureRegion(assets.getEntry( "bloodEffect", Texture.class));
+        this.bloodEffectSpriteSheet = assets.getRegion("bloodEffect");
 
         //Position and Movement. These two values are stored in constants.json
         this.startX = x + 0.5f;
@@ -148,8 +149,8 @@ public class Spike extends BoxObstacle {
      * @param canvas Drawing context
      */
     public void draw(GameCanvas canvas) {
-        float x = getX();
-        float y = getY();
+        float x = getDrawX();
+        float y = getDrawY();
 
         float ox = this.texture.getRegionWidth()/2;
         float oy = this.texture.getRegionHeight() * this.getHeight()/2;
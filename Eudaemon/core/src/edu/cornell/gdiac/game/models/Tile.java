@@ -1,6 +1,5 @@
 package edu.cornell.gdiac.game.models;
 
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import edu.cornell.gdiac.assets.AssetDirectory;
 
@@ -15,7 +14,7 @@ public class Tile {
 
     public Tile (AssetDirectory assets) {
 
-        this.texture = new TextureRegion(assets.getEntry("shared:earth", Texture.class));
+        this.texture = assets.getRegion("shared:earth");
 //        this.texture.getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
     }
 
@@ -0,0 +1,130 @@
+package edu.cornell.gdiac.game.models;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The static collision geometry for one region of a level's foreground tilemap.
+ * <p>
+ * Instead of one Box2D body per solid tile, the solid cells of the tilemap are
+ * greedily merged into maximal rectangles, and every rectangle whose top-left cell
+ * lies in the same REGION_SIZE x REGION_SIZE block of tiles becomes a fixture of a
+ * single static body. A TileCollider is the user data of that body, and each
+ * fixture carries its Rect as user data so the tiles it covers stay queryable.
+ * <p>
+ * Like the tilemaps in Level, tile coordinates have row 0 at the TOP of the map.
+ */
+public class TileCollider {
+    /** Width and height of a collision region, in tiles */
+    public static final int REGION_SIZE = 32;
+
+    /**
+     * A rectangle of solid tiles, in tile coordinates.
+     */
+    public static class Rect {
+        /** The column of the leftmost tiles */
+        public final int x;
+        /** The row of the topmost tiles */
+        public final int y;
+        /** The number of columns covered */
+        public final int width;
+        /** The number of rows covered */
+        public final int height;
+
+        public Rect(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * @return true if the tile at (tx, ty) is covered by this rectangle
+         */
+        public boolean contains(int tx, int ty) {
+            return tx >= x && tx < x + width && ty >= y && ty < y + height;
+        }
+    }
+
+    /** The column of the first tile in this region */
+    private final int regionX;
+    /** The row of the first tile in this region */
+    private final int regionY;
+    /** The merged rectangles owned by this region */
+    private final Array<Rect> rects;
+
+    public TileCollider(int regionX, int regionY) {
+        this.regionX = regionX;
+        this.regionY = regionY;
+        this.rects = new Array<>();
+    }
+
+    public int getRegionX() { return regionX; }
+    public int getRegionY() { return regionY; }
+
+    public Array<Rect> getRects() { return rects; }
+
+    public void addRect(Rect rect) { rects.add(rect); }
+
+    /**
+     * Returns the rectangle of this region covering the given tile, or null.
+     *
+     * @param tx the column of the tile
+     * @param ty the row of the tile
+     * @return the rectangle of this region covering the given tile, or null
+     */
+    public Rect rectAt(int tx, int ty) {
+        for (Rect rect : rects) {
+            if (rect.contains(tx, ty)) return rect;
+        }
+        return null;
+    }
+
+    /**
+     * Greedily merges the solid cells (tile id > 0) of a tilemap into rectangles.
+     * <p>
+     * Cells are visited top to bottom, left to right. Every unclaimed solid cell
+     * starts a rectangle that first grows right as far as it can, and then grows
+     * down while the whole next row segment is solid and unclaimed.
+     *
+     * @param tilemap the tile ids, row 0 at the top of the map
+     * @return the merged rectangles, covering every solid cell exactly once
+     */
+    public static Array<Rect> mergeSolidCells(int[][] tilemap) {
+        Array<Rect> result = new Array<>();
+        int height = tilemap.length;
+        if (height == 0) return result;
+        int width = tilemap[0].length;
+        boolean[][] claimed = new boolean[height][width];
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (tilemap[y][x] <= 0 || claimed[y][x]) continue;
+
+                int w = 1;
+                while (x + w < width && tilemap[y][x + w] > 0 && !claimed[y][x + w]) {
+                    w++;
+                }
+
+                int h = 1;
+                boolean canGrow = true;
+                while (canGrow && y + h < height) {
+                    for (int i = x; i < x + w; i++) {
+                        if (tilemap[y + h][i] <= 0 || claimed[y + h][i]) {
+                            canGrow = false;
+                            break;
+                        }
+                    }
+                    if (canGrow) h++;
+                }
+
+                for (int j = y; j < y + h; j++) {
+                    for (int i = x; i < x + w; i++) {
+                        claimed[j][i] = true;
+                    }
+                }
+                result.add(new Rect(x, y, w, h));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,341 @@
+package edu.cornell.gdiac.game.models;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.game.FontTextureLoader;
+import edu.cornell.gdiac.game.SettingsObserver;
+
+/**
+ * The images shown by tutorial areas, shared by every level.
+ * <p>
+ * Most images are drawn from the key an action is bound to and a controller button, so
+ * there is one image per kind of tutorial, whatever the number of tutorial areas.
+ * An image is drawn the first time it is shown, not when a level is built, and is
+ * kept with the keys it was drawn for.
+ * <p>
+ * A change of bindings only marks the images of the actions that changed. A marked
+ * image is checked when it is next shown, and only drawn again if its keys really
+ * are different.
+ * <p>
+ * The MOVE image is an asset rather than a drawn image. Assets belong to their bundle,
+ * which is unloaded whenever the game goes back to the menus, so it is looked up every
+ * time it is shown rather than kept.
+ */
+public class TutorialImages implements SettingsObserver {
+
+    /** The kinds of tutorial, with what their images depend on */
+    public enum Kind {
+        MOVE(true),
+        JUMP(false, Action.BEGIN_JUMP),
+        DASH_JUMP(true, Action.BEGIN_JUMP, Action.DASH),
+        DASH_MULTIDIRECTIONAL(true, Action.DASH),
+        TRANSFORM(false, Action.TRANSFORM),
+        ATTACK_MULTIDIRECTIONAL(true, Action.ATTACK);
+
+        /** Whether the image shows the movement keys (WASD or the arrows) */
+        private final boolean usesArrowKeys;
+        /** The actions whose keys the image shows */
+        private final Action[] actions;
+
+        Kind(boolean usesArrowKeys, Action... actions) {
+            this.usesArrowKeys = usesArrowKeys;
+            this.actions = actions;
+        }
+
+        private boolean usesAction(Action action) {
+            for (Action a : actions) {
+                if (a == action) return true;
+            }
+            return false;
+        }
+    }
+
+    /** The image of a kind of tutorial */
+    private static class Entry {
+        /** The image (null until first shown) */
+        TextureRegion image;
+        /** The texture drawn for the image (null if it is an asset) */
+        Texture rendered;
+        /** The keys the image was drawn for, and then whether it used the arrow keys */
+        final int[] keys;
+        /** Whether the bindings of the image may have changed */
+        boolean dirty;
+
+        Entry(Kind kind) {
+            keys = new int[kind.actions.length + 1];
+        }
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private final AssetDirectory assets;
+    private final FontTextureLoader fontTextureLoader;
+    private final Settings settings;
+    private final Entry[] entries;
+    /** The images drawn so far, for the statistics */
+    private int renders;
+
+    /**
+     * Creates the (not yet drawn) tutorial images, and starts observing the settings.
+     *
+     * @param assets            the asset directory
+     * @param fontTextureLoader the renderer of the images
+     * @param settings          the settings holding the bindings
+     */
+    public TutorialImages(AssetDirectory assets, FontTextureLoader fontTextureLoader, Settings settings) {
+        this.assets = assets;
+        this.fontTextureLoader = fontTextureLoader;
+        this.settings = settings;
+        this.entries = new Entry[KINDS.length];
+        for (Kind kind : KINDS) {
+            entries[kind.ordinal()] = new Entry(kind);
+        }
+        settings.addObserver(this);
+    }
+
+    /**
+     * Returns the image of a kind of tutorial, drawing it first if needed.
+     * <p>
+     * This must be called on the GL thread.
+     *
+     * @param kind  the kind of tutorial
+     *
+     * @return the image of the kind of tutorial
+     */
+    public TextureRegion get(Kind kind) {
+        Entry entry = entries[kind.ordinal()];
+        if (kind == Kind.MOVE) {
+            return getMoveImage(entry);
+        }
+        if (entry.image != null && !entry.dirty) {
+            return entry.image;
+        }
+        entry.dirty = false;
+        if (!updateKeys(kind, entry) && entry.image != null) {
+            return entry.image;
+        }
+
+        if (entry.rendered != null) {
+            fontTextureLoader.disposeTexture(entry.rendered);
+            entry.rendered = null;
+        }
+        switch (kind) {
+            case JUMP:
+                entry.rendered = createSimpleTutorial(entry.keys[0], "platform:controllerButtonDown");
+                break;
+            case TRANSFORM:
+                entry.rendered = createSimpleTutorial(entry.keys[0], "platform:controllerButtonUp");
+                break;
+            case DASH_MULTIDIRECTIONAL:
+            case ATTACK_MULTIDIRECTIONAL:
+                entry.rendered = createMultidirectionalTutorial(entry.keys[0]);
+                break;
+            case DASH_JUMP:
+                entry.rendered = createDashJumpTutorial(entry.keys[0], entry.keys[1]);
+                break;
+        }
+        renders++;
+        entry.image = new TextureRegion(entry.rendered);
+        return entry.image;
+    }
+
+    /**
+     * Returns the MOVE image, looking up its asset again.
+     * <p>
+     * The region is kept, and only pointed at the texture if the texture changed (after
+     * a change of movement keys, or after its bundle was loaded again).
+     */
+    private TextureRegion getMoveImage(Entry entry) {
+        String name = settings.getUseArrowKeys() ? "platform:combo_keyboardLeftRight_joystickLeftRight" : "platform:combo_keyboardA+D_joystickLeftRight";
+        Texture texture = assets.getEntry(name, Texture.class);
+        if (entry.image == null) {
+            entry.image = new TextureRegion(texture);
+        } else if (entry.image.getTexture() != texture) {
+            entry.image.setRegion(texture);
+        }
+        return entry.image;
+    }
+
+    /**
+     * Stores the current keys of a kind of tutorial in its entry.
+     *
+     * @return true if they are not the keys the image was drawn for
+     */
+    private boolean updateKeys(Kind kind, Entry entry) {
+        boolean changed = false;
+        for (int ii = 0; ii < kind.actions.length; ii++) {
+            int keycode = settings.getActionBindings().getKeyMap().get(kind.actions[ii]);
+            changed |= entry.keys[ii] != keycode;
+            entry.keys[ii] = keycode;
+        }
+        int arrows = kind.usesArrowKeys && settings.getUseArrowKeys() ? 1 : 0;
+        changed |= entry.keys[kind.actions.length] != arrows;
+        entry.keys[kind.actions.length] = arrows;
+        return changed;
+    }
+
+    @Override
+    public void onUseArrowKeys(boolean useArrowKeys) {
+        for (Kind kind : KINDS) {
+            if (kind.usesArrowKeys) entries[kind.ordinal()].dirty = true;
+        }
+    }
+
+    @Override
+    public void onCustomBinding(Action action, String binding) {
+        for (Kind kind : KINDS) {
+            if (kind.usesAction(action)) entries[kind.ordinal()].dirty = true;
+        }
+    }
+
+    /**
+     * @return the number of images drawn so far
+     */
+    public int getRenderCount() {
+        return renders;
+    }
+
+    /**
+     * Stops observing the settings and disposes the drawn images.
+     */
+    public void dispose() {
+        settings.removeObserver(this);
+        for (Entry entry : entries) {
+            if (entry.rendered != null) {
+                fontTextureLoader.disposeTexture(entry.rendered);
+                entry.rendered = null;
+            }
+            entry.image = null;
+        }
+    }
+
+    //#region Drawing
+    /**
+     * @return the picture of the key with the given keycode (blank if it has none)
+     */
+    private Texture getKeyTexture(int keycode) {
+        Texture keyboardTexture;
+        if (keycode == Input.Keys.SPACE) {
+            keyboardTexture = assets.getEntry("platform:keyboardSpace", Texture.class);
+        } else if (keycode == Input.Keys.LEFT) {
+            keyboardTexture = assets.getEntry("platform:keyboardArrowLeft", Texture.class);
+        } else if (keycode == Input.Keys.RIGHT) {
+            keyboardTexture = assets.getEntry("platform:keyboardArrowRight", Texture.class);
+        } else if (keycode == Input.Keys.UP) {
+            keyboardTexture = assets.getEntry("platform:keyboardArrowUp", Texture.class);
+        } else if (keycode == Input.Keys.DOWN) {
+            keyboardTexture = assets.getEntry("platform:keyboardArrowDown", Texture.class);
+        } else {
+            keyboardTexture = assets.getEntry("platform:keyboardBlank", Texture.class);
+        }
+        keyboardTexture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        return keyboardTexture;
+    }
+
+    private Texture createSimpleTutorial(int keycode, String controllerEntry) {
+        Texture controllerTexture = assets.getEntry(controllerEntry, Texture.class);
+        Texture keyboardTexture = getKeyTexture(keycode);
+
+        controllerTexture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+
+        BitmapFont font = assets.getEntry("font:keycap", BitmapFont.class);
+        float controllerScale = 3.0f;
+        float width = Math.max(controllerScale * controllerTexture.getWidth(), keyboardTexture.getWidth());
+        float height = controllerScale * controllerTexture.getHeight() + keyboardTexture.getHeight() + 20;
+
+        return fontTextureLoader.createTexture(spriteBatch -> {
+            spriteBatch.draw(controllerTexture, width / 2.0f - controllerScale * controllerTexture.getWidth()/2.0f, 0, controllerScale * controllerTexture.getWidth(), controllerScale * controllerTexture.getHeight());
+            spriteBatch.draw(keyboardTexture, width / 2.0f - keyboardTexture.getWidth()/2.0f, height - keyboardTexture.getHeight(), keyboardTexture.getWidth(), keyboardTexture.getHeight());
+            String text = Input.Keys.toString(keycode);
+            if (text.length() == 1) {
+                GlyphLayout layout = new GlyphLayout(font, text);
+                font.setColor(Color.CYAN);
+                font.draw(spriteBatch, layout, width / 2.0f - layout.width / 2.0f, height - keyboardTexture.getHeight() / 2.0f + layout.height / 2.0f);
+            }
+        }, width, height);
+    }
+
+    private Texture createMultidirectionalTutorial(int keycode) {
+        Texture controllerTexture = assets.getEntry("platform:controllerMultidirectional", Texture.class);
+        Texture keyboardTexture = getKeyTexture(keycode);
+
+        String directionalEntry = (settings.getUseArrowKeys()) ? "platform:keyboardArrows" : "platform:keyboardWASD";
+        Texture directionalTexture = assets.getEntry(directionalEntry, Texture.class);
+        Texture plusSign = assets.getEntry("platform:plusSign", Texture.class);
+
+        controllerTexture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        directionalTexture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        plusSign.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+
+        BitmapFont font = assets.getEntry("font:keycap", BitmapFont.class);
+        float plusScale = 3.0f;
+        float controllerScale = 3.0f;
+        float width = Math.max(controllerScale * controllerTexture.getWidth(), keyboardTexture.getWidth() + plusScale * plusSign.getWidth() + directionalTexture.getWidth() / (float) directionalTexture.getHeight() * keyboardTexture.getHeight());
+        float height = controllerScale * controllerTexture.getHeight() + keyboardTexture.getHeight() + 20;
+
+        return fontTextureLoader.createTexture(spriteBatch -> {
+            spriteBatch.draw(controllerTexture, width / 2.0f - controllerScale * controllerTexture.getWidth()/2.0f, 0, controllerScale * controllerTexture.getWidth(), controllerScale * controllerTexture.getHeight());
+            spriteBatch.draw(keyboardTexture, width - keyboardTexture.getWidth(), height - keyboardTexture.getHeight(), keyboardTexture.getWidth(), keyboardTexture.getHeight());
+            spriteBatch.draw(directionalTexture, 0, height - keyboardTexture.getHeight(), directionalTexture.getWidth() / (float) directionalTexture.getHeight() * keyboardTexture.getHeight(), keyboardTexture.getHeight());
+            spriteBatch.draw(plusSign, width - keyboardTexture.getWidth() - plusScale * plusSign.getWidth(), height - keyboardTexture.getHeight()/2.0f - plusScale * plusSign.getHeight()/2.0f, plusScale * plusSign.getWidth(), plusScale * plusSign.getHeight());
+            String text = Input.Keys.toString(keycode);
+            if (text.length() == 1) {
+                GlyphLayout layout = new GlyphLayout(font, text);
+                font.setColor(Color.CYAN);
+                font.draw(spriteBatch, layout, width - keyboardTexture.getWidth()/2.0f - layout.width / 2.0f, height - keyboardTexture.getHeight() / 2.0f + layout.height / 2.0f);
+            }
+        }, width, height);
+    }
+
+    private Texture createDashJumpTutorial(int jumpKeycode, int dashKeycode) {
+        Texture controllerTexture = assets.getEntry("platform:controllerMultidirectional", Texture.class);
+        Texture controllerJumpTexture = assets.getEntry("platform:controllerButtonDown", Texture.class);
+        Texture jumpTexture = getKeyTexture(jumpKeycode);
+        Texture dashTexture = getKeyTexture(dashKeycode);
+
+        String directionalEntry = (settings.getUseArrowKeys()) ? "platform:keyboardArrows" : "platform:keyboardWASD";
+        Texture directionalTexture = assets.getEntry(directionalEntry, Texture.class);
+        Texture plusSign = assets.getEntry("platform:plusSign", Texture.class);
+
+        controllerTexture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        directionalTexture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        plusSign.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+
+        BitmapFont font = assets.getEntry("font:keycap", BitmapFont.class);
+        float plusScale = 3.0f;
+        float controllerScale = 3.0f;
+        float width = Math.max(controllerScale * controllerTexture.getWidth() + plusScale * plusSign.getWidth() + controllerScale * controllerJumpTexture.getWidth(), jumpTexture.getWidth() + dashTexture.getWidth() + 2 * plusScale * plusSign.getWidth() + directionalTexture.getWidth() / (float) directionalTexture.getHeight() * jumpTexture.getHeight());
+        float height = controllerScale * controllerTexture.getHeight() + jumpTexture.getHeight() + 20;
+
+        float lowerWidth = controllerScale * controllerTexture.getWidth() + plusScale * plusSign.getWidth() + controllerScale * controllerJumpTexture.getWidth();
+
+        return fontTextureLoader.createTexture(spriteBatch -> {
+            spriteBatch.draw(controllerTexture, width / 2.0f + lowerWidth/2.0f - controllerScale * controllerTexture.getWidth(), 0, controllerScale * controllerTexture.getWidth(), controllerScale * controllerTexture.getHeight());
+            spriteBatch.draw(plusSign, width / 2.0f - lowerWidth/2.0f + controllerScale * controllerJumpTexture.getWidth(), 0, plusScale * plusSign.getWidth(), plusScale * plusSign.getHeight());
+            spriteBatch.draw(controllerJumpTexture, width / 2.0f - lowerWidth / 2.0f, 0, controllerScale * controllerJumpTexture.getWidth(), controllerScale * controllerJumpTexture.getHeight());
+            spriteBatch.draw(dashTexture, width - dashTexture.getWidth(), height - dashTexture.getHeight(), dashTexture.getWidth(), dashTexture.getHeight());
+            spriteBatch.draw(jumpTexture, 0, height - jumpTexture.getHeight(), jumpTexture.getWidth(), jumpTexture.getHeight());
+            spriteBatch.draw(plusSign, width - dashTexture.getWidth() - plusScale * plusSign.getWidth(), height - dashTexture.getHeight()/2.0f - plusScale * plusSign.getHeight()/2.0f, plusScale * plusSign.getWidth(), plusScale * plusSign.getHeight());
+            spriteBatch.draw(plusSign, jumpTexture.getWidth(), height - jumpTexture.getHeight()/2.0f - plusScale * plusSign.getHeight()/2.0f, plusScale * plusSign.getWidth(), plusScale * plusSign.getHeight());
+            spriteBatch.draw(directionalTexture, jumpTexture.getWidth() + plusScale * plusSign.getWidth(), height - jumpTexture.getHeight(), directionalTexture.getWidth() / (float) directionalTexture.getHeight() * jumpTexture.getHeight(), jumpTexture.getHeight());
+            String text = Input.Keys.toString(dashKeycode);
+            if (text.length() == 1) {
+                GlyphLayout layout = new GlyphLayout(font, text);
+                font.setColor(Color.CYAN);
+                font.draw(spriteBatch, layout, width - dashTexture.getWidth()/2.0f - layout.width / 2.0f, height - dashTexture.getHeight() / 2.0f + layout.height / 2.0f);
+            }
+            text = Input.Keys.toString(jumpKeycode);
+            if (text.length() == 1) {
+                GlyphLayout layout = new GlyphLayout(font, text);
+                font.setColor(Color.CYAN);
+                font.draw(spriteBatch, layout, jumpTexture.getWidth()/2.0f - layout.width / 2.0f, height - jumpTexture.getHeight() / 2.0f + layout.height / 2.0f);
+            }
+        }, width, height);
+    }
+    //#endregion
+}
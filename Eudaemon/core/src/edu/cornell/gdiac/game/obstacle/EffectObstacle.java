@@ -1,13 +1,11 @@
 package edu.cornell.gdiac.game.obstacle;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.World;
-import com.badlogic.gdx.utils.Timer;
 import edu.cornell.gdiac.game.GameCanvas;
+import edu.cornell.gdiac.game.models.AnimationTable;
 import edu.cornell.gdiac.game.models.Player;
 
 public class EffectObstacle extends BoxObstacle{
@@ -16,21 +14,25 @@ public class EffectObstacle extends BoxObstacle{
      */
     private CapsuleObstacle avatar;
     /**
-     * Accumulates the ticks elapsed since the animation started.
+     * Number of ticks between changes in animation frames
      */
-    int currentTicks;
+    private int tickSpeed;
     /**
-     * Current frame of sword animation.
+     * The animations of the level, which this effect draws its frames from
      */
-    private int tickSpeed;
+    private AnimationTable animationTable;
+    /**
+     * The id of the animation in the animation table
+     */
+    private int animation;
     /**
-     * Number of frames between changes in animation frames
+     * The tick of the animation table when the animation started
      */
-    private float currentFrame;
+    private int startTick;
     /**
-     * The animation object that represents a sequence of TextureRegions.
+     * The step of the animation it started at
      */
-    Animation<TextureRegion> animation;
+    private int startStep;
     /**
      * X scale of the sprite
      */
@@ -55,6 +57,10 @@ public class EffectObstacle extends BoxObstacle{
      * the lifespan of the effect
      */
     private float lifespan;
+    /**
+     * The seconds left before the effect is removed, counted from when it is activated
+     */
+    private float lifespanRemaining;
 
     //<editor-fold desc="GETTERS AND SETTERS">
     /**
@@ -86,16 +92,21 @@ public class EffectObstacle extends BoxObstacle{
         this.lifespan = lifespan;
     }
 
-    public void setAnimation(Animation<TextureRegion> animation, int thisFrame, boolean constantLooping) {
+    /**
+     * Sets the animation this effect plays, from now on.
+     *
+     * @param animationTable    the animations of the level
+     * @param animation         the id of the animation in the table
+     * @param thisFrame         the step to start at, if constantLooping
+     * @param constantLooping   whether to start at thisFrame rather than at the start
+     */
+    public void setAnimation(AnimationTable animationTable, int animation, int thisFrame, boolean constantLooping) {
+        this.animationTable = animationTable;
         this.animation = animation;
-        if(constantLooping){
-            currentFrame = thisFrame;
-        }
-        else{
-            currentFrame = 0;
-        }
-        currentTicks = 0;
-        setTexture(animation.getKeyFrame(currentFrame));
+        startStep = constantLooping ? thisFrame : 0;
+        startTick = animationTable.getTicks();
+        int frame = animationTable.getFrame(animation, startStep);
+        origin.set(animationTable.getWidth(frame)/2.0f, animationTable.getHeight(frame)/2.0f);
     }
 
     public void setTickSpeed(int tickSpeed) {
@@ -149,13 +160,8 @@ public class EffectObstacle extends BoxObstacle{
     public boolean activatePhysics(World world) {
         if (!super.activatePhysics(world)) return false;
 
-        Timer.schedule(new Timer.Task() {
-            @Override
-            public void run() {
-                // Destroy this object
-                destroy();
-            }
-        }, lifespan);
+        // Destroy this object after lifespan seconds (counted down in update)
+        lifespanRemaining = lifespan;
 
         return true;
     }
@@ -173,26 +179,25 @@ public class EffectObstacle extends BoxObstacle{
      * @param dt	Number of seconds since last animation frame
      */
     public void update(float dt) {
+        lifespanRemaining -= dt;
+        if (lifespanRemaining <= 0) {
+            destroy();
+        }
         if (trackPlayer) {
             this.setLinearVelocity(avatar.getLinearVelocity());
         }
         super.update(dt);
-
-        //Animation
-        currentTicks++;
-        if (currentTicks % tickSpeed == 0){
-            currentFrame++;
-//            System.out.println("current frame: " + currentFrame);
-            TextureRegion current = animation.getKeyFrame(currentFrame); // Gets the current frame of the animation
-            setTexture(current);
-        }
     }
 
     @Override
     public void draw(GameCanvas canvas) {
 //        float sx = 2*getRadius()/this.texture.getRegionWidth(); // size in world coordinates / texture coordinates
 //        float sy = 2*getRadius()/this.texture.getRegionHeight();
-        canvas.draw(texture, Color.WHITE, origin.x, origin.y, getX() + pOffsetX, getY() + pOffsetY, getAngle(), sX, sY);
+        int step = startStep + (animationTable.getTicks() - startTick) / tickSpeed;
+        int frame = animationTable.getFrame(animation, step);
+        canvas.draw(animationTable.getTexture(frame), animationTable.getUVs(), 4*frame,
+                animationTable.getWidth(frame), animationTable.getHeight(frame), Color.WHITE,
+                origin.x, origin.y, getDrawX() + pOffsetX, getDrawY() + pOffsetY, getAngle(), sX, sY);
     }
 
     @Override
@@ -67,6 +67,16 @@ public abstract class Obstacle {
     /** A cache value for when the user wants to access the drawing scale */
     protected Vector2 scaleCache = new Vector2();
 
+    /// Render interpolation
+    /** The position of this object before the most recent physics step */
+    protected Vector2 previousPosition = new Vector2();
+    /** How far (0 to 1) the rendered frame is between the previous and current step */
+    protected float drawAlpha = 1.0f;
+
+    /// Contact dispatch
+    /** The application-defined category used to route contacts with this object */
+    private int contactCategory;
+
 
     /// BodyDef Methods
     /**
@@ -165,6 +175,73 @@ public abstract class Obstacle {
         bodyinfo.position.y = value;
     }
 
+    /**
+     * Returns the category used to route contacts with this object
+     *
+     * The category is an application-defined integer (0 by default). Contact
+     * listeners can use it to pick a handler without testing the object's type.
+     *
+     * @return the category used to route contacts with this object
+     */
+    public int getContactCategory() {
+        return contactCategory;
+    }
+
+    /**
+     * Sets the category used to route contacts with this object
+     *
+     * This should be set when the object is created, before it enters the world.
+     *
+     * @param value  the category used to route contacts with this object
+     */
+    public void setContactCategory(int value) {
+        contactCategory = value;
+    }
+
+    /**
+     * Records the current position as the start of the next physics step.
+     *
+     * The simulation runs at a fixed timestep that may not match the frame rate.
+     * Calling this just before each step lets draw() blend between the last two
+     * physics positions instead of snapping from step to step.
+     */
+    public void storePreviousPosition() {
+        previousPosition.set(getX(), getY());
+    }
+
+    /**
+     * Sets how far the rendered frame is between the previous and current step
+     *
+     * @param alpha  the interpolation factor, from 0 (previous) to 1 (current)
+     */
+    public void setDrawAlpha(float alpha) {
+        drawAlpha = alpha;
+    }
+
+    /**
+     * Returns the x-coordinate to draw this object at
+     *
+     * This is the physics x-coordinate interpolated between the previous and
+     * current fixed physics step.
+     *
+     * @return the x-coordinate to draw this object at
+     */
+    public float getDrawX() {
+        return previousPosition.x + (getX() - previousPosition.x) * drawAlpha;
+    }
+
+    /**
+     * Returns the y-coordinate to draw this object at
+     *
+     * This is the physics y-coordinate interpolated between the previous and
+     * current fixed physics step.
+     *
+     * @return the y-coordinate to draw this object at
+     */
+    public float getDrawY() {
+        return previousPosition.y + (getY() - previousPosition.y) * drawAlpha;
+    }
+
     /**
      * Returns the angle of rotation for this body (about the center).
      *
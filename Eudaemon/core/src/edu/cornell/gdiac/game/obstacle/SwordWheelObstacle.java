@@ -6,7 +6,6 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.utils.ObjectSet;
-import com.badlogic.gdx.utils.Timer;
 import edu.cornell.gdiac.game.GameCanvas;
 import edu.cornell.gdiac.game.models.Enemy;
 import edu.cornell.gdiac.game.models.Player;
@@ -33,6 +32,11 @@ public class SwordWheelObstacle extends WheelObstacle {
      */
     private float angle;
 
+    /**
+     * The seconds left before this sword attack is removed
+     */
+    private float lifespanRemaining;
+
     /**
      * Accumulates the ticks elapsed since the animation started.
      */
@@ -95,14 +99,8 @@ public class SwordWheelObstacle extends WheelObstacle {
         TextureRegion current = animation.getKeyFrame(currentFrame); // Gets the current frame of the animation
         setTexture(current);
 
-        // Schedule a task to destroy this object after lifespan seconds
-        Timer.schedule(new Timer.Task() {
-            @Override
-            public void run() {
-                // Destroy this object
-                destroy();
-            }
-        }, lifespan);
+        // Destroy this object after lifespan seconds (counted down in update)
+        lifespanRemaining = lifespan;
     }
 
     private void destroy() {
@@ -119,6 +117,10 @@ public class SwordWheelObstacle extends WheelObstacle {
      */
     public void update(float dt) {
         super.update(dt);
+        lifespanRemaining -= dt;
+        if (lifespanRemaining <= 0) {
+            destroy();
+        }
         if (player.getBody() != null){
             this.setLinearVelocity(player.getBodyVelocity());
         }
@@ -137,28 +139,28 @@ public class SwordWheelObstacle extends WheelObstacle {
         float sx = 2*getRadius()/this.texture.getRegionWidth(); // size in world coordinates / texture coordinates
         float sy = 2*getRadius()/this.texture.getRegionHeight();
         if (angle == 0){
-            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getX(), getY(), 0, sx, sy);
+            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getDrawX(), getDrawY(), 0, sx, sy);
         }
         else if (angle == 45){
-            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getX(), getY(), 1, sx, sy);
+            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getDrawX(), getDrawY(), 1, sx, sy);
         }
         else if (angle == 90){
-            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getX(), getY(), getAngle(), sx, sy);
+            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getDrawX(), getDrawY(), getAngle(), sx, sy);
         }
         else if (angle == 135){
-            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getX(), getY(), 2.35f, sx, sy);
+            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getDrawX(), getDrawY(), 2.35f, sx, sy);
         }
         else if (angle == 180){
-            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getX(), getY(), getAngle(), -sx, sy);
+            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getDrawX(), getDrawY(), getAngle(), -sx, sy);
         }
         else if (angle == 225){
-            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getX(), getY(), 3.9f, sx, sy);
+            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getDrawX(), getDrawY(), 3.9f, sx, sy);
         }
         else if (angle == 270){
-            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getX(), getY(), getAngle(), sx, -sy);
+            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getDrawX(), getDrawY(), getAngle(), sx, -sy);
         }
         else if (angle == 315){
-            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getX(), getY(), 5.5f, sx, sy);
+            canvas.draw(texture, Color.WHITE, origin.x, origin.y, getDrawX(), getDrawY(), 5.5f, sx, sy);
         }
 
     }
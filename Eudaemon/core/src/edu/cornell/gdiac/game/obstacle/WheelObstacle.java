@@ -120,7 +120,7 @@ public class WheelObstacle extends SimpleObstacle {
     public void draw(GameCanvas canvas) {
         float sx = 2 * this.getRadius() / texture.getRegionWidth();
         float sy = 2 * this.getRadius() / texture.getRegionHeight();
-        canvas.draw(texture, Color.WHITE, origin.x, origin.y, getX(), getY(), 0, sx, sy);
+        canvas.draw(texture, Color.WHITE, origin.x, origin.y, getDrawX(), getDrawY(), 0, sx, sy);
     }
 
 }
\ No newline at end of file
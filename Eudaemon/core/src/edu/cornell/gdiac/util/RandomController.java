@@ -24,6 +24,15 @@ public class RandomController {
 	/** Pseudo-random number generator */
 	private static final Random generator = new Random(0); // Make it deterministic
 
+	/**
+	 * Resets the generator, so that the same sequence of numbers repeats.
+	 *
+	 * @param seed The new seed of the generator
+	 */
+	public static void setSeed(long seed) {
+		generator.setSeed(seed);
+	}
+
 	/**
 	 * Returns a random int between min and max (inclusive).
 	 *
@@ -3,6 +3,7 @@ package edu.cornell.gdiac;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import edu.cornell.gdiac.game.GameRoot;
 
 // Please note that on macOS your application needs to be started with the -XstartOnFirstThread JVM argument
@@ -15,7 +16,14 @@ public class DesktopLauncher {
 		//config.setWindowedMode(576, 576);
 		config.setResizable(true);
 //		config.setFullscreenMode(Lwjgl3ApplicationConfiguration.getDisplayMode());
-		config.setForegroundFPS(60);
+		// The simulation runs at a fixed timestep, so we can render at the display rate
+		config.setForegroundFPS(Lwjgl3ApplicationConfiguration.getDisplayMode().refreshRate);
+		config.useVsync(true);
+		// A GL3 context, so that the render stats (F3) can time the frames on the GPU.
+		// On macOS this is a core profile, which needs the shaders to be GLSL 1.50.
+		config.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL30, 3, 2);
+		ShaderProgram.prependVertexCode = "#version 150\n#define varying out\n#define attribute in\n";
+		ShaderProgram.prependFragmentCode = "#version 150\n#define varying in\n#define texture2D texture\n#define gl_FragColor fragColor\nout vec4 fragColor;\n";
 		config.setTitle("Eudaemon");
 		new Lwjgl3Application(new GameRoot(), config);
 	}
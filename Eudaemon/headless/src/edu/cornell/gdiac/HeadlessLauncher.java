@@ -0,0 +1,28 @@
+package edu.cornell.gdiac;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.backends.headless.HeadlessFileHandle;
+import edu.cornell.gdiac.headless.InputScript;
+import edu.cornell.gdiac.headless.SimulationRunner;
+
+/**
+ * Simulates a level without a window and prints how long it took.
+ * <p>
+ * Arguments: [level name] [ticks] [input script]. The defaults are level0,
+ * 3600 ticks (one minute of game time) and InputScript.defaultScript(). Run it
+ * from the assets directory (./gradlew headless:run does this).
+ */
+public class HeadlessLauncher {
+	public static void main (String[] arg) {
+		String level = arg.length > 0 ? arg[0] : "level0";
+		int ticks = arg.length > 1 ? Integer.parseInt(arg[1]) : 3600;
+		InputScript script = arg.length > 2
+				? InputScript.load(new HeadlessFileHandle(arg[2], Files.FileType.Absolute))
+				: InputScript.defaultScript();
+
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		new HeadlessApplication(new SimulationRunner(level, ticks, script), config);
+	}
+}
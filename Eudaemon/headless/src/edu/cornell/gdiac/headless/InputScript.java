@@ -0,0 +1,117 @@
+package edu.cornell.gdiac.headless;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import edu.cornell.gdiac.game.models.Action;
+
+import java.util.EnumSet;
+
+/**
+ * A scripted (or recorded) stream of player actions, one set per tick.
+ * <p>
+ * A script is a text file with one segment per line:
+ * <pre>
+ *     # ticks  actions...
+ *     60
+ *     30       MOVE_RIGHT
+ *     20       MOVE_RIGHT BEGIN_JUMP HOLD_JUMP
+ * </pre>
+ * Each segment holds its actions for the given number of ticks. Rising-edge
+ * actions (like BEGIN_JUMP or DASH) only fire on the first tick of the segment,
+ * just as they would for a key held down that long. Blank lines and lines that
+ * start with # are ignored. The script loops when it runs out.
+ */
+public class InputScript {
+    /** The number of ticks of each segment */
+    private final Array<Integer> lengths;
+    /** The actions held during each segment */
+    private final Array<EnumSet<Action>> actions;
+
+    /** The segment being replayed */
+    private int segment;
+    /** Ticks already replayed from the current segment */
+    private int tickInSegment;
+
+    private InputScript() {
+        lengths = new Array<>();
+        actions = new Array<>();
+    }
+
+    /**
+     * Parses a script from a file.
+     *
+     * @param file the script to read
+     * @return the parsed script
+     */
+    public static InputScript load(FileHandle file) {
+        InputScript script = new InputScript();
+        String[] lines = file.readString().split("\\r?\\n");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] words = line.split("\\s+");
+            EnumSet<Action> held = EnumSet.noneOf(Action.class);
+            try {
+                for (int j = 1; j < words.length; j++) {
+                    held.add(Action.valueOf(words[j]));
+                }
+                script.add(Integer.parseInt(words[0]), held);
+            } catch (IllegalArgumentException e) {
+                throw new GdxRuntimeException(file.name() + ":" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        if (script.lengths.size == 0) {
+            throw new GdxRuntimeException(file.name() + " has no segments");
+        }
+        return script;
+    }
+
+    /**
+     * Returns the script used when none is given.
+     * <p>
+     * It stands still for a second, then runs right, jumping, dashing and
+     * attacking at regular intervals.
+     *
+     * @return the default script
+     */
+    public static InputScript defaultScript() {
+        InputScript script = new InputScript();
+        script.add(60, EnumSet.noneOf(Action.class));
+        script.add(45, EnumSet.of(Action.MOVE_RIGHT));
+        script.add(25, EnumSet.of(Action.MOVE_RIGHT, Action.BEGIN_JUMP, Action.HOLD_JUMP));
+        script.add(30, EnumSet.of(Action.MOVE_RIGHT));
+        script.add(10, EnumSet.of(Action.MOVE_RIGHT, Action.DASH, Action.HOLD_DASH));
+        script.add(20, EnumSet.of(Action.ATTACK));
+        script.add(45, EnumSet.of(Action.MOVE_LEFT));
+        script.add(25, EnumSet.of(Action.MOVE_LEFT, Action.BEGIN_JUMP, Action.HOLD_JUMP));
+        return script;
+    }
+
+    private void add(int ticks, EnumSet<Action> held) {
+        if (ticks <= 0) {
+            throw new IllegalArgumentException("segment length must be positive: " + ticks);
+        }
+        lengths.add(ticks);
+        actions.add(held);
+    }
+
+    /**
+     * Writes the actions of the next tick into the given set.
+     *
+     * @param out the set to fill (it is cleared first)
+     */
+    public void next(EnumSet<Action> out) {
+        out.clear();
+        for (Action action : actions.get(segment)) {
+            if (!action.risingEdge || tickInSegment == 0) {
+                out.add(action);
+            }
+        }
+        tickInSegment++;
+        if (tickInSegment == lengths.get(segment)) {
+            tickInSegment = 0;
+            segment = (segment + 1) % lengths.size;
+        }
+    }
+}
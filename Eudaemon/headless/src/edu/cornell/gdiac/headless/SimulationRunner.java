@@ -0,0 +1,181 @@
+package edu.cornell.gdiac.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.TimeUtils;
+import edu.cornell.gdiac.assets.AssetDirectory;
+import edu.cornell.gdiac.game.FontTextureLoader;
+import edu.cornell.gdiac.game.LevelScreen;
+import edu.cornell.gdiac.game.models.Action;
+import edu.cornell.gdiac.game.models.GameState;
+import edu.cornell.gdiac.game.models.Level;
+import edu.cornell.gdiac.util.RandomController;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumSet;
+
+/**
+ * Runs a level for a fixed number of ticks without a window, and reports its cost.
+ * <p>
+ * The level is driven exactly as in the game (AI controllers, action controller,
+ * collision controller and physics), except that the player actions come from an
+ * InputScript instead of the input devices, and nothing is drawn. The headless
+ * backend plays no sound, and GL calls go to a StubGL20. Random numbers come
+ * from RandomController with a fixed seed, so a run is repeatable.
+ */
+public class SimulationRunner extends ApplicationAdapter {
+    /** The seed used for every run */
+    private static final long SEED = 0;
+
+    private final String levelName;
+    private final int ticks;
+    private final InputScript script;
+
+    private AssetDirectory assets;
+    private FontTextureLoader fontTextureLoader;
+    private GameState state;
+    private LevelScreen screen;
+
+    /**
+     * Creates a runner for the given level.
+     *
+     * @param levelName the level to load (e.g. "level3")
+     * @param ticks     the number of fixed ticks to simulate
+     * @param script    the player actions to replay
+     */
+    public SimulationRunner(String levelName, int ticks, InputScript script) {
+        this.levelName = levelName;
+        this.ticks = ticks;
+        this.script = script;
+    }
+
+    @Override
+    public void create() {
+        GL20 gl = StubGL20.create();
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+        RandomController.setSeed(SEED);
+
+        long loadStart = TimeUtils.nanoTime();
+        assets = new AssetDirectory("assets.json");
+        // Only the gameplay bundle; the menus are never shown
+        assets.loadAssets("gameplay-core");
+        assets.finishLoading();
+        fontTextureLoader = new FontTextureLoader();
+        state = new GameState(assets, fontTextureLoader);
+        if (!hasLevel(levelName)) {
+            throw new GdxRuntimeException("No level named " + levelName + " in constants.json");
+        }
+        state.setCurrentLevel(levelName);
+        state.resetCurrentLevel();
+        Level level = state.getCurrentLevel();
+        screen = new LevelScreen(level, state.getActionBindings(), assets, state.getSettings());
+        long loadTime = TimeUtils.timeSinceNanos(loadStart);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocations = null;
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            allocations = (com.sun.management.ThreadMXBean) threads;
+        }
+        long thread = Thread.currentThread().getId();
+
+        long aiTime = 0, actionTime = 0, stepTime = 0, levelTime = 0, maxTick = 0;
+        long allocated = 0, allocatingTicks = 0;
+        long collections = gcCount();
+        String stopReason = null;
+
+        EnumSet<Action> actions = EnumSet.noneOf(Action.class);
+        int tick = 0;
+        long start = TimeUtils.nanoTime();
+        for (; tick < ticks; tick++) {
+            script.next(actions);
+
+            long before = allocations != null ? allocations.getThreadAllocatedBytes(thread) : 0;
+            long tickStart = TimeUtils.nanoTime();
+            screen.simulateTick(actions);
+            maxTick = Math.max(maxTick, TimeUtils.timeSinceNanos(tickStart));
+            if (allocations != null) {
+                long bytes = allocations.getThreadAllocatedBytes(thread) - before;
+                allocated += bytes;
+                if (bytes > 0) allocatingTicks++;
+            }
+
+            aiTime += screen.getLastAITime();
+            actionTime += screen.getLastActionTime();
+            stepTime += level.getLastStepTime();
+            levelTime += screen.getLastLevelTime();
+
+            if (level.isCompleted()) {
+                stopReason = "level completed";
+            } else if (level.getPlayer().getHearts() == 0) {
+                stopReason = "player died";
+            } else if (!level.inBounds(level.getPlayer())) {
+                stopReason = "player left the level";
+            }
+            if (stopReason != null) {
+                tick++;
+                break;
+            }
+        }
+        long total = TimeUtils.timeSinceNanos(start);
+        collections = gcCount() - collections;
+
+        System.out.println("level            " + levelName);
+        System.out.printf ("load             %.1f ms%n", loadTime / 1e6);
+        System.out.println("ticks            " + tick + (stopReason != null ? " (stopped: " + stopReason + ")" : ""));
+        System.out.printf ("ticks/sec        %.0f%n", tick / (total / 1e9));
+        System.out.printf ("max tick         %.3f ms%n", maxTick / 1e6);
+        System.out.println("mean per tick:");
+        System.out.printf ("  ai             %.3f ms%n", aiTime / 1e6 / tick);
+        System.out.printf ("  actions        %.3f ms%n", actionTime / 1e6 / tick);
+        System.out.printf ("  physics step   %.3f ms (includes contact callbacks)%n", stepTime / 1e6 / tick);
+        System.out.printf ("  level (other)  %.3f ms%n", (levelTime - stepTime) / 1e6 / tick);
+        if (allocations != null) {
+            System.out.printf ("allocated        %d bytes (%.0f per tick, %d of %d ticks allocate)%n",
+                    allocated, (double) allocated / tick, allocatingTicks, tick);
+        } else {
+            System.out.println("allocated        unavailable on this JVM");
+        }
+        System.out.println("gc collections   " + collections);
+
+        Gdx.app.exit();
+    }
+
+    /**
+     * @return true if constants.json lists a level with this name
+     */
+    private boolean hasLevel(String name) {
+        for (JsonValue level : assets.getEntry("constants", JsonValue.class).get("levels")) {
+            if (level.getString("level").equals(name)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of garbage collections so far, across all collectors
+     */
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    @Override
+    public void dispose() {
+        if (screen != null) screen.dispose();
+        if (state != null) state.dispose();
+        if (fontTextureLoader != null) fontTextureLoader.dispose();
+        if (assets != null) {
+            assets.unloadAssets();
+            assets.dispose();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package edu.cornell.gdiac.headless;
+
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * A GL20 that accepts every call and draws nothing.
+ * <p>
+ * The headless backend provides no GL context, but loading a level still creates
+ * textures, shaders and frame buffers. This stub hands out fresh object handles,
+ * reports shaders and frame buffers as complete, and otherwise returns zero,
+ * false or null, so that the game can load without a window.
+ */
+public class StubGL20 implements InvocationHandler {
+    /** The next handle returned by a glGen or glCreate call */
+    private int nextHandle = 1;
+
+    /**
+     * @return a new GL20 that ignores every call
+     */
+    public static GL20 create() {
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(),
+                new Class<?>[] { GL20.class }, new StubGL20());
+    }
+
+    private StubGL20() {}
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        Class<?> type = method.getReturnType();
+
+        if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+            // Report compile and link success, and no active attributes or uniforms
+            int pname = (Integer) args[1];
+            boolean success = pname == GL20.GL_COMPILE_STATUS || pname == GL20.GL_LINK_STATUS;
+            ((IntBuffer) args[2]).put(0, success ? 1 : 0);
+            return null;
+        }
+        if (name.equals("glCheckFramebufferStatus")) {
+            return GL20.GL_FRAMEBUFFER_COMPLETE;
+        }
+        if (type == int.class && (name.startsWith("glGen") || name.startsWith("glCreate"))) {
+            return nextHandle++;
+        }
+        if (name.startsWith("glGen") && args != null && args.length > 0 && args[args.length - 1] instanceof IntBuffer) {
+            IntBuffer handles = (IntBuffer) args[args.length - 1];
+            for (int i = handles.position(); i < handles.limit(); i++) {
+                handles.put(i, nextHandle++);
+            }
+            return null;
+        }
+
+        if (type == String.class) return "";
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        return null;
+    }
+}